@@ -0,0 +1,113 @@
+package com.reliaquest.api.benchmark;
+
+import com.reliaquest.api.ApiApplication;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+
+/**
+ * Closed-loop load against the api's read endpoints, with the api running in-process against a mock server that is
+ * already running.
+ *
+ * <p>Usage: {@code ./gradlew api:benchmark -Pbenchmark=ApiLoadBenchmark [-PbenchmarkArgs="seconds clients serverUrl"]}
+ * (defaults: 60 seconds, 16 clients, http://localhost:8112/api/v1/employee), or {@code ./gradlew api:jfrLoadTest} to
+ * run it under a JFR recording. Start the server with {@code mock.rate-limit.enabled=false} to measure the api rather
+ * than the upstream rate limit.
+ */
+public class ApiLoadBenchmark {
+
+    private static final List<String> PATHS =
+            List.of("", "/search/an", "/highestSalary", "/topTenHighestEarningEmployeeNames");
+
+    public static void main(String[] args) throws Exception {
+        final int seconds = args.length > 0 ? Integer.parseInt(args[0]) : 60;
+        final int clients = args.length > 1 ? Integer.parseInt(args[1]) : 16;
+        final String serverUrl = args.length > 2 ? args[2] : "http://localhost:8112/api/v1/employee";
+        try (var context = new SpringApplicationBuilder(ApiApplication.class)
+                .properties(
+                        "server.port=0", "logging.level.com.reliaquest=INFO", "service.employee.baseurl=" + serverUrl)
+                .run()) {
+            final var baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port")
+                    + "/api/v1/employee";
+            final var client = HttpClient.newBuilder()
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .build();
+
+            final Map<Integer, AtomicLong> statuses = new ConcurrentHashMap<>();
+            final var latencies = new long[clients][];
+            final var counts = new int[clients];
+            final var lastServerTiming = new AtomicReference<String>();
+            final long deadline =
+                    System.nanoTime() + Duration.ofSeconds(seconds).toNanos();
+            final var done = new CountDownLatch(clients);
+            for (int c = 0; c < clients; c++) {
+                final int id = c;
+                latencies[id] = new long[1 << 16];
+                new Thread(() -> {
+                            while (System.nanoTime() < deadline) {
+                                final var path =
+                                        PATHS.get(ThreadLocalRandom.current().nextInt(PATHS.size()));
+                                final long start = System.nanoTime();
+                                int status;
+                                try {
+                                    final var response = client.send(
+                                            HttpRequest.newBuilder(URI.create(baseUrl + path))
+                                                    .build(),
+                                            HttpResponse.BodyHandlers.discarding());
+                                    status = response.statusCode();
+                                    response.headers()
+                                            .firstValue("Server-Timing")
+                                            .ifPresent(lastServerTiming::set);
+                                } catch (Exception e) {
+                                    status = 0;
+                                }
+                                if (counts[id] == latencies[id].length) {
+                                    latencies[id] = Arrays.copyOf(latencies[id], counts[id] * 2);
+                                }
+                                latencies[id][counts[id]++] = System.nanoTime() - start;
+                                statuses.computeIfAbsent(status, s -> new AtomicLong())
+                                        .incrementAndGet();
+                            }
+                            done.countDown();
+                        })
+                        .start();
+            }
+            done.await();
+
+            final var all = new ArrayList<Long>();
+            for (int c = 0; c < clients; c++) {
+                for (int i = 0; i < counts[c]; i++) {
+                    all.add(latencies[c][i]);
+                }
+            }
+            all.sort(null);
+            System.out.printf("requests %d, %.0f/sec%n", all.size(), all.size() / (double) seconds);
+            System.out.printf(
+                    "latency ms p50 %.1f, p95 %.1f, p99 %.1f, max %.1f%n",
+                    percentile(all, 0.50), percentile(all, 0.95), percentile(all, 0.99), percentile(all, 1.0));
+            System.out.println("statuses " + new TreeMap<>(statuses));
+            System.out.println("last Server-Timing: " + lastServerTiming.get());
+        }
+    }
+
+    private static double percentile(List<Long> sorted, double quantile) {
+        if (sorted.isEmpty()) {
+            return 0;
+        }
+        final int index = (int) Math.min(sorted.size() - 1, Math.ceil(quantile * sorted.size()) - 1);
+        return sorted.get(Math.max(0, index)) / 1e6;
+    }
+}
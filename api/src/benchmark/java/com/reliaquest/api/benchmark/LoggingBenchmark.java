@@ -0,0 +1,111 @@
+package com.reliaquest.api.benchmark;
+
+import com.reliaquest.api.ApiApplication;
+import com.sun.net.httpserver.HttpServer;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+
+/**
+ * Requests per second through the api with logging configured as it used to be (DEBUG, every request logged), with
+ * the default sampled access log, and with logging off.
+ *
+ * <p>The upstream is an in-process stub that always answers immediately, so the numbers reflect the api's own
+ * per-request cost. Usage: {@code ./gradlew api:benchmark -Pbenchmark=LoggingBenchmark [-PbenchmarkArgs="seconds
+ * clients"]} (defaults: 20 seconds, 16 clients).
+ */
+public class LoggingBenchmark {
+
+    private static final String EMPLOYEE = "{\"id\":\"4a3a170b-22cd-4ac2-aad1-9bb5b34a1507\",\"employee_name\":\"Tiger"
+            + " Nixon\",\"employee_salary\":320800,\"employee_age\":61,\"employee_title\":\"Vice Chair\","
+            + "\"employee_email\":\"tnixon@company.com\"}";
+
+    public static void main(String[] args) throws Exception {
+        final int seconds = args.length > 0 ? Integer.parseInt(args[0]) : 20;
+        final int clients = args.length > 1 ? Integer.parseInt(args[1]) : 16;
+
+        final Map<String, List<String>> modes = new LinkedHashMap<>();
+        modes.put(
+                "debug, every request",
+                List.of("logging.level.com.reliaquest=DEBUG", "service.employee.access_log.sample_rate=1.0"));
+        modes.put("info, sampled 1%", List.of("logging.level.com.reliaquest=INFO"));
+        modes.put("off", List.of("logging.level.com.reliaquest=WARN", "service.employee.access_log.enabled=false"));
+
+        final var upstream = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        final byte[] body = ("{\"data\":" + EMPLOYEE + ",\"status\":\"Successfully processed request.\"}")
+                .getBytes(StandardCharsets.UTF_8);
+        upstream.createContext("/api/v1/employee", exchange -> {
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        upstream.setExecutor(Executors.newFixedThreadPool(clients));
+        upstream.start();
+
+        final var results = new LinkedHashMap<String, Double>();
+        try {
+            for (var mode : modes.entrySet()) {
+                final var properties = new ArrayList<>(List.of(
+                        "server.port=0",
+                        "service.employee.admission.enabled=false",
+                        "service.employee.baseurl=http://localhost:"
+                                + upstream.getAddress().getPort() + "/api/v1/employee"));
+                properties.addAll(mode.getValue());
+                try (var context = new SpringApplicationBuilder(ApiApplication.class)
+                        .properties(properties.toArray(String[]::new))
+                        .run()) {
+                    final var url =
+                            "http://localhost:" + context.getEnvironment().getProperty("local.server.port")
+                                    + "/api/v1/employee/4a3a170b-22cd-4ac2-aad1-9bb5b34a1507";
+                    run(url, clients, Math.max(1, seconds / 4));
+                    results.put(mode.getKey(), run(url, clients, seconds) / (double) seconds);
+                }
+            }
+        } finally {
+            upstream.stop(0);
+        }
+
+        System.out.printf("%n%-24s %12s%n", "logging", "requests/sec");
+        results.forEach((mode, rps) -> System.out.printf("%-24s %12.0f%n", mode, rps));
+    }
+
+    private static long run(String url, int clients, int seconds) throws InterruptedException {
+        final var client = HttpClient.newHttpClient();
+        final var request = HttpRequest.newBuilder(URI.create(url)).build();
+        final var completed = new AtomicLong();
+        final long deadline = System.nanoTime() + Duration.ofSeconds(seconds).toNanos();
+        final var done = new CountDownLatch(clients);
+        for (int c = 0; c < clients; c++) {
+            new Thread(() -> {
+                        while (System.nanoTime() < deadline) {
+                            try {
+                                if (client.send(request, HttpResponse.BodyHandlers.discarding())
+                                                .statusCode()
+                                        == 200) {
+                                    completed.incrementAndGet();
+                                }
+                            } catch (Exception e) {
+                                throw new IllegalStateException(e);
+                            }
+                        }
+                        done.countDown();
+                    })
+                    .start();
+        }
+        done.await();
+        return completed.get();
+    }
+}
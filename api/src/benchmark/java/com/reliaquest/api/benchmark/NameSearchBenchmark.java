@@ -0,0 +1,162 @@
+package com.reliaquest.api.benchmark;
+
+import com.reliaquest.api.model.MockEmployee;
+import com.reliaquest.api.service.NameIndex;
+import com.reliaquest.api.service.RosterReplica;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Function;
+
+/**
+ * Latency of ranked name search ({@link NameIndex}) by mode over a large roster, against the substring scan the
+ * search endpoint does by default.
+ *
+ * <p>Names are one of 1000 first names and one of 20000 last names, built from random syllables so that many tokens
+ * are close to each other, as real surnames are. Fuzzy queries are names from the roster with one or two random
+ * edits. Usage: {@code ./gradlew api:benchmark -Pbenchmark=NameSearchBenchmark [-PbenchmarkArgs="names queries"]}
+ * (defaults: 1000000 names, 2000 queries per mode). A fixed heap, e.g. {@code -PbenchmarkJvmArgs="-Xms8g -Xmx8g"},
+ * keeps full collections from resizing the heap out of the measurements.
+ */
+public class NameSearchBenchmark {
+
+    private static final String[] SYLLABLES = {
+        "an", "bel", "car", "da", "el", "fer", "gan", "har", "is", "jo", "kel", "lin", "mar", "nor", "o", "per", "qui",
+        "ro", "san", "ta", "ul", "ven", "wil", "xa", "yor", "zel", "ston", "ley", "son", "ton", "ber", "ri", "mi", "na"
+    };
+    private static final int LIMIT = 10;
+
+    public static void main(String[] args) {
+        final int names = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        final int queries = args.length > 1 ? Integer.parseInt(args[1]) : 2000;
+        final var random = new Random(42);
+        final var firstNames = words(random, 1000, 2);
+        final var lastNames = words(random, 20_000, 3);
+        final var roster = new ArrayList<MockEmployee>(names);
+        for (int i = 0; i < names; i++) {
+            final var name = firstNames.get(random.nextInt(firstNames.size())) + " "
+                    + lastNames.get(random.nextInt(lastNames.size()));
+            roster.add(new MockEmployee("id-" + i, name, 50_000 + i % 400_000, 18 + i % 50, "Engineer", null));
+        }
+
+        final var nameIndex = new NameIndex(2, 100);
+        final var replica = new RosterReplica(nameIndex);
+        replica.load("benchmark", 1, roster);
+        final long heapBefore = usedHeap();
+        final long buildStart = System.nanoTime();
+        nameIndex.search("warmup", NameIndex.Mode.TOKEN, LIMIT, replica::snapshot);
+        System.out.printf(
+                "Indexed %d names in %d ms, about %d MB retained%n",
+                names, (System.nanoTime() - buildStart) / 1_000_000, (usedHeap() - heapBefore) / (1024 * 1024));
+
+        final Map<String, Function<MockEmployee, String>> workloads = new LinkedHashMap<>();
+        workloads.put("token", employee -> lastName(employee));
+        workloads.put("prefix", employee -> lastName(employee).substring(0, 3));
+        workloads.put("fuzzy-1", employee -> edit(random, lastName(employee), 1));
+        workloads.put("fuzzy-2", employee -> edit(random, lastName(employee), 2));
+        workloads.put(
+                "fuzzy-name", employee -> employee.getName().split(" ")[0] + " " + edit(random, lastName(employee), 1));
+
+        System.out.printf("%n%-12s %10s %10s %10s %10s%n", "mode", "p50 us", "p99 us", "max us", "avg hits");
+        for (var workload : workloads.entrySet()) {
+            final var mode = workload.getKey().startsWith("fuzzy")
+                    ? NameIndex.Mode.FUZZY
+                    : NameIndex.Mode.valueOf(workload.getKey().toUpperCase());
+            final var samples = new ArrayList<String>(queries);
+            for (int i = 0; i < queries; i++) {
+                samples.add(workload.getValue().apply(roster.get(random.nextInt(names))));
+            }
+            // Warm up on the same queries so the measured round runs compiled code.
+            for (int round = 0; round < 3; round++) {
+                samples.forEach(query -> nameIndex.search(query, mode, LIMIT, replica::snapshot));
+            }
+            final long[] latencies = new long[queries];
+            long hits = 0;
+            for (int i = 0; i < queries; i++) {
+                final long start = System.nanoTime();
+                hits += nameIndex
+                        .search(samples.get(i), mode, LIMIT, replica::snapshot)
+                        .size();
+                latencies[i] = System.nanoTime() - start;
+            }
+            print(workload.getKey(), latencies, hits / (double) queries);
+        }
+
+        // The default search: a case-insensitive substring scan of every name, unranked.
+        final int scans = Math.max(5, Math.min(50, 50_000_000 / names));
+        final long[] latencies = new long[scans];
+        long hits = 0;
+        for (int i = -3; i < scans; i++) {
+            final var query = lastName(roster.get(random.nextInt(names))).toLowerCase();
+            final long start = System.nanoTime();
+            final long found = roster.stream()
+                    .filter(employee -> employee.getName().toLowerCase().contains(query))
+                    .count();
+            if (i >= 0) {
+                latencies[i] = System.nanoTime() - start;
+                hits += found;
+            }
+        }
+        print("substring", latencies, hits / (double) scans);
+    }
+
+    private static List<String> words(Random random, int count, int syllables) {
+        final var words = new LinkedHashMap<String, Boolean>();
+        while (words.size() < count) {
+            final var word = new StringBuilder();
+            for (int i = 0; i < syllables; i++) {
+                word.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+            }
+            word.setCharAt(0, Character.toUpperCase(word.charAt(0)));
+            words.put(word.toString(), true);
+        }
+        return new ArrayList<>(words.keySet());
+    }
+
+    private static String lastName(MockEmployee employee) {
+        return employee.getName().substring(employee.getName().indexOf(' ') + 1);
+    }
+
+    /**
+     * {@code word} with {@code edits} random substitutions, insertions or deletions.
+     */
+    private static String edit(Random random, String word, int edits) {
+        final var edited = new StringBuilder(word.toLowerCase());
+        for (int i = 0; i < edits; i++) {
+            final int at = random.nextInt(edited.length());
+            final char letter = (char) ('a' + random.nextInt(26));
+            switch (random.nextInt(3)) {
+                case 0 -> edited.setCharAt(at, letter);
+                case 1 -> edited.insert(at, letter);
+                default -> {
+                    if (edited.length() > 1) {
+                        edited.deleteCharAt(at);
+                    }
+                }
+            }
+        }
+        return edited.toString();
+    }
+
+    private static void print(String name, long[] latencies, double averageHits) {
+        Arrays.sort(latencies);
+        System.out.printf(
+                "%-12s %10.1f %10.1f %10.1f %10.1f%n",
+                name,
+                latencies[latencies.length / 2] / 1e3,
+                latencies[(int) Math.min(latencies.length - 1, (long) (0.99 * latencies.length))] / 1e3,
+                latencies[latencies.length - 1] / 1e3,
+                averageHits);
+    }
+
+    private static long usedHeap() {
+        final var runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
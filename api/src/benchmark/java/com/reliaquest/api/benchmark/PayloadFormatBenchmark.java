@@ -0,0 +1,118 @@
+package com.reliaquest.api.benchmark;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.reliaquest.api.model.MockEmployee;
+import com.reliaquest.api.model.Response;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Encode time, decode time and bytes on the wire of a {@code Response<List<MockEmployee>>} roster as JSON, as JSON
+ * gzipped the way the servers compress responses, and as Smile.
+ *
+ * <p>The api's MockEmployee carries the same property names as the server's, so the encoded bytes are what the server
+ * sends; decoding is what EmployeeService does with them. Usage: {@code ./gradlew api:benchmark
+ * -Pbenchmark=PayloadFormatBenchmark [-PbenchmarkArgs="1000 100000"]} (roster sizes, default 1000 and 100000).
+ */
+public class PayloadFormatBenchmark {
+
+    private static final TypeReference<Response<List<MockEmployee>>> ROSTER = new TypeReference<>() {};
+    private static final String[] FIRST_NAMES = {"Tiger", "Garrett", "Ashton", "Cedric", "Airi", "Brielle", "Herrod"};
+    private static final String[] LAST_NAMES = {"Nixon", "Winters", "Cox", "Kelly", "Satou", "Williamson", "Chandler"};
+    private static final String[] TITLES = {"Vice Chair", "Accountant", "Technical Author", "Software Engineer"};
+
+    public static void main(String[] args) throws Exception {
+        final var sizes = args.length > 0 ? List.of(args) : List.of("1000", "100000");
+        final List<Format> formats = List.of(
+                new Format("json", Jackson2ObjectMapperBuilder.json().build(), false),
+                new Format("json+gzip", Jackson2ObjectMapperBuilder.json().build(), true),
+                new Format("smile", Jackson2ObjectMapperBuilder.smile().build(), false));
+
+        System.out.printf(
+                "%10s %-10s %12s %8s %12s %12s%n", "employees", "format", "bytes", "ratio", "encode ms", "decode ms");
+        for (var size : sizes) {
+            final int employees = Integer.parseInt(size);
+            final var roster = Response.handledWith(roster(employees));
+            // Enough rounds for a stable average without the large roster taking minutes.
+            final int rounds = Math.max(5, 2_000_000 / employees);
+            long jsonBytes = 0;
+            for (var format : formats) {
+                final byte[] encoded = format.encode(roster);
+                if (jsonBytes == 0) {
+                    jsonBytes = encoded.length;
+                }
+                if (format.decode(encoded).data().size() != employees) {
+                    throw new IllegalStateException(format.name() + " did not round-trip the roster");
+                }
+                for (int i = 0; i < rounds; i++) {
+                    format.decode(format.encode(roster));
+                }
+                long start = System.nanoTime();
+                for (int i = 0; i < rounds; i++) {
+                    format.encode(roster);
+                }
+                final double encodeMs = (System.nanoTime() - start) / 1e6 / rounds;
+                start = System.nanoTime();
+                for (int i = 0; i < rounds; i++) {
+                    format.decode(encoded);
+                }
+                final double decodeMs = (System.nanoTime() - start) / 1e6 / rounds;
+                System.out.printf(
+                        "%10d %-10s %12d %7.2fx %12.3f %12.3f%n",
+                        employees,
+                        format.name(),
+                        encoded.length,
+                        jsonBytes / (double) encoded.length,
+                        encodeMs,
+                        decodeMs);
+            }
+        }
+    }
+
+    private static List<MockEmployee> roster(int size) {
+        final var random = new Random(42);
+        final var roster = new ArrayList<MockEmployee>(size);
+        for (int i = 0; i < size; i++) {
+            final var first = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+            final var last = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+            roster.add(new MockEmployee(
+                    new UUID(random.nextLong(), random.nextLong()).toString(),
+                    first + " " + last,
+                    30_000 + random.nextInt(470_000),
+                    16 + random.nextInt(54),
+                    TITLES[random.nextInt(TITLES.length)],
+                    (first.charAt(0) + last + i).toLowerCase() + "@company.com"));
+        }
+        return roster;
+    }
+
+    private record Format(String name, ObjectMapper objectMapper, boolean gzip) {
+
+        byte[] encode(Object value) throws IOException {
+            final var bytes = new ByteArrayOutputStream(64 * 1024);
+            try (OutputStream out = gzip ? new GZIPOutputStream(bytes, 8 * 1024) : bytes) {
+                objectMapper.writeValue(out, value);
+            }
+            return bytes.toByteArray();
+        }
+
+        Response<List<MockEmployee>> decode(byte[] encoded) throws IOException {
+            try (InputStream in = gzip
+                    ? new GZIPInputStream(new ByteArrayInputStream(encoded), 8 * 1024)
+                    : new ByteArrayInputStream(encoded)) {
+                return objectMapper.readValue(in, ROSTER);
+            }
+        }
+    }
+}
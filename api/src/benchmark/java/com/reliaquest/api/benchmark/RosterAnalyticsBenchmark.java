@@ -0,0 +1,93 @@
+package com.reliaquest.api.benchmark;
+
+import com.reliaquest.api.model.MockEmployee;
+import com.reliaquest.api.service.RosterAnalytics;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.function.Supplier;
+
+/**
+ * Scaling of {@link RosterAnalytics} across cores: per-title top earners and salary band counts over a large roster at
+ * parallelism 1, 2, 4 and so on up to the number of available processors, with the speedup over one worker.
+ *
+ * <p>Employees have one of 200 titles and a salary between 30000 and 500000. Usage:
+ * {@code ./gradlew api:benchmark -Pbenchmark=RosterAnalyticsBenchmark [-PbenchmarkArgs="employees rounds"]}
+ * (defaults: 1000000 employees, 30 rounds per parallelism).
+ */
+public class RosterAnalyticsBenchmark {
+
+    private static final int TITLES = 200;
+    private static final int LIMIT = 10;
+    private static final int BAND_WIDTH = 10_000;
+
+    public static void main(String[] args) {
+        final int employees = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        final int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 30;
+        final var random = new Random(42);
+        final var roster = new ArrayList<MockEmployee>(employees);
+        for (int i = 0; i < employees; i++) {
+            roster.add(new MockEmployee(
+                    "id-" + i,
+                    "Employee " + i,
+                    30_000 + random.nextInt(470_000),
+                    18 + i % 50,
+                    "Title " + random.nextInt(TITLES),
+                    null));
+        }
+        final int cores = Runtime.getRuntime().availableProcessors();
+        final var parallelisms = new ArrayList<Integer>();
+        for (int parallelism = 1; parallelism < cores; parallelism *= 2) {
+            parallelisms.add(parallelism);
+        }
+        parallelisms.add(cores);
+        System.out.printf("%d employees, %d available processors%n", employees, cores);
+
+        System.out.printf(
+                "%n%-12s %12s %12s %10s %12s %12s %10s%n",
+                "parallelism", "top p50 ms", "top min ms", "speedup", "bands p50 ms", "bands min ms", "speedup");
+        double topBaseline = 0;
+        double bandsBaseline = 0;
+        for (int parallelism : parallelisms) {
+            final var analytics = new RosterAnalytics(parallelism, 16384, 100, 1000);
+            try {
+                final long[] top = measure(rounds, () -> analytics.topEarnersByTitle(roster, LIMIT));
+                final long[] bands = measure(rounds, () -> analytics.salaryBands(roster, BAND_WIDTH));
+                final double topMedian = top[rounds / 2] / 1e6;
+                final double bandsMedian = bands[rounds / 2] / 1e6;
+                if (parallelism == 1) {
+                    topBaseline = topMedian;
+                    bandsBaseline = bandsMedian;
+                }
+                System.out.printf(
+                        "%-12d %12.2f %12.2f %9.2fx %12.2f %12.2f %9.2fx%n",
+                        parallelism,
+                        topMedian,
+                        top[0] / 1e6,
+                        topBaseline / topMedian,
+                        bandsMedian,
+                        bands[0] / 1e6,
+                        bandsBaseline / bandsMedian);
+            } finally {
+                analytics.close();
+            }
+        }
+    }
+
+    /**
+     * Sorted latencies of {@code rounds} calls, after as many unmeasured calls to warm up.
+     */
+    private static long[] measure(int rounds, Supplier<?> call) {
+        for (int i = 0; i < rounds; i++) {
+            call.get();
+        }
+        final long[] latencies = new long[rounds];
+        for (int i = 0; i < rounds; i++) {
+            final long start = System.nanoTime();
+            call.get();
+            latencies[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(latencies);
+        return latencies;
+    }
+}
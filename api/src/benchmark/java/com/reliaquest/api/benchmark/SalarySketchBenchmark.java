@@ -0,0 +1,100 @@
+package com.reliaquest.api.benchmark;
+
+import com.reliaquest.api.model.MockEmployee;
+import com.reliaquest.api.service.QuantileSketch;
+import com.reliaquest.api.service.RosterAnalytics;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+
+/**
+ * Cost of salary percentiles from a {@link QuantileSketch} against sorting the roster: building the sketch of a large
+ * roster, adding and removing one salary as creates and deletes do, and reading p50, p90 and p99, with the worst
+ * relative error seen. Usage: {@code ./gradlew api:benchmark -Pbenchmark=SalarySketchBenchmark
+ * [-PbenchmarkArgs="employees"]} (default: 1000000 employees).
+ */
+public class SalarySketchBenchmark {
+
+    private static final double ACCURACY = 0.01;
+    private static final double[] PERCENTILES = {0.5, 0.9, 0.99};
+
+    public static void main(String[] args) {
+        final int employees = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        final var random = new Random(42);
+        final var roster = new ArrayList<MockEmployee>(employees);
+        for (int i = 0; i < employees; i++) {
+            final int salary = (int) Math.round(80_000 * Math.exp(0.6 * random.nextGaussian()));
+            roster.add(new MockEmployee("id-" + i, "Employee " + i, salary, 30, "Engineer", null));
+        }
+        final var analytics = new RosterAnalytics(0, 16384, 100, 1000);
+        try {
+            QuantileSketch sketch = null;
+            long build = Long.MAX_VALUE;
+            for (int round = 0; round < 10; round++) {
+                final long start = System.nanoTime();
+                sketch = analytics.salarySketch(roster, ACCURACY);
+                build = Math.min(build, System.nanoTime() - start);
+            }
+            System.out.printf(
+                    "Sketched %d salaries in %.1f ms on %d workers, %d buckets%n",
+                    employees, build / 1e6, analytics.parallelism(), sketch.buckets());
+
+            final int updates = 10_000_000;
+            final int[] salaries = new int[4096];
+            for (int i = 0; i < salaries.length; i++) {
+                salaries[i] = roster.get(random.nextInt(employees)).getSalary();
+            }
+            long updateTime = Long.MAX_VALUE;
+            for (int round = 0; round < 5; round++) {
+                final long start = System.nanoTime();
+                for (int i = 0; i < updates; i++) {
+                    final int salary = salaries[i & (salaries.length - 1)];
+                    sketch.add(salary);
+                    sketch.remove(salary);
+                }
+                updateTime = Math.min(updateTime, System.nanoTime() - start);
+            }
+            System.out.printf("Add and remove: %.1f ns per update%n", updateTime / (2.0 * updates));
+
+            final int reads = 100_000;
+            double sink = 0;
+            long readTime = Long.MAX_VALUE;
+            for (int round = 0; round < 5; round++) {
+                final long start = System.nanoTime();
+                for (int i = 0; i < reads; i++) {
+                    for (double q : PERCENTILES) {
+                        sink += sketch.quantile(q).getAsDouble();
+                    }
+                }
+                readTime = Math.min(readTime, System.nanoTime() - start);
+            }
+            System.out.printf(
+                    "p50, p90 and p99: %.2f us per read (mean estimate %.0f)%n",
+                    readTime / 1e3 / reads, sink / (5.0 * reads * PERCENTILES.length));
+
+            long sortTime = Long.MAX_VALUE;
+            int[] exact = null;
+            for (int round = 0; round < 5; round++) {
+                final long start = System.nanoTime();
+                final var sorted = new ArrayList<>(roster);
+                sorted.sort(Comparator.comparing(MockEmployee::getSalary));
+                exact = Arrays.stream(PERCENTILES)
+                        .mapToInt(q -> sorted.get((int) Math.floor(q * (employees - 1)))
+                                .getSalary())
+                        .toArray();
+                sortTime = Math.min(sortTime, System.nanoTime() - start);
+            }
+            System.out.printf("Sorting the roster instead: %.1f ms per read%n", sortTime / 1e6);
+
+            double worstError = 0;
+            for (int p = 0; p < PERCENTILES.length; p++) {
+                final double estimate = sketch.quantile(PERCENTILES[p]).getAsDouble();
+                worstError = Math.max(worstError, Math.abs(estimate - exact[p]) / exact[p]);
+            }
+            System.out.printf("Worst relative error %.4f (bound %.4f)%n", worstError, ACCURACY);
+        } finally {
+            analytics.close();
+        }
+    }
+}
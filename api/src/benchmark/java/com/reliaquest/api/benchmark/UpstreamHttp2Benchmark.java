@@ -0,0 +1,213 @@
+package com.reliaquest.api.benchmark;
+
+import com.reliaquest.api.ApiApplication;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.catalina.connector.Connector;
+import org.apache.catalina.startup.Tomcat;
+import org.apache.coyote.AbstractProtocol;
+import org.apache.coyote.http2.Http2Protocol;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+
+/**
+ * Upstream connections, latency and throughput of the api at high concurrency with HTTP/1.1 upstream calls and with
+ * calls multiplexed over h2c ({@code service.employee.upstream_http2}).
+ *
+ * <p>The upstream is an in-process Tomcat that accepts HTTP/1.1 and h2c and answers every call after a fixed delay, so
+ * calls overlap the way they do against a real server. It counts the distinct client ports it sees, which is the
+ * number of connections the api opened, and samples how many are open at once. Clients reach the api over HTTP/1.1 in
+ * both modes. Usage: {@code ./gradlew api:benchmark -Pbenchmark=UpstreamHttp2Benchmark [-PbenchmarkArgs="seconds
+ * clients upstreamDelayMs"]} (defaults: 20 seconds, 200 clients, 5 ms).
+ */
+public class UpstreamHttp2Benchmark {
+
+    private static final String EMPLOYEE_ID = "4a3a170b-22cd-4ac2-aad1-9bb5b34a1507";
+    private static final byte[] EMPLOYEE = ("{\"data\":{\"id\":\"" + EMPLOYEE_ID
+                    + "\",\"employee_name\":\"Tiger Nixon\","
+                    + "\"employee_salary\":320800,\"employee_age\":61,\"employee_title\":\"Vice Chair\","
+                    + "\"employee_email\":\"tnixon@company.com\"},\"status\":\"Successfully processed request.\"}")
+            .getBytes(StandardCharsets.UTF_8);
+
+    public static void main(String[] args) throws Exception {
+        final int seconds = args.length > 0 ? Integer.parseInt(args[0]) : 20;
+        final int clients = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+        final long upstreamDelayMs = args.length > 2 ? Long.parseLong(args[2]) : 5;
+
+        final var upstream = new StubUpstream(upstreamDelayMs, clients);
+        final var results = new ArrayList<String>();
+        try {
+            for (boolean http2 : new boolean[] {false, true}) {
+                try (var context = new SpringApplicationBuilder(ApiApplication.class)
+                        .properties(
+                                "server.port=0",
+                                "logging.level.com.reliaquest=WARN",
+                                "service.employee.admission.enabled=false",
+                                "service.employee.access_log.enabled=false",
+                                "service.employee.upstream_http2=" + http2,
+                                "service.employee.baseurl=http://localhost:" + upstream.port() + "/api/v1/employee")
+                        .run()) {
+                    final var url =
+                            "http://localhost:" + context.getEnvironment().getProperty("local.server.port")
+                                    + "/api/v1/employee/" + EMPLOYEE_ID;
+                    run(url, clients, Math.max(1, seconds / 4));
+                    upstream.reset();
+                    final long[] latencies = run(url, clients, seconds);
+                    results.add(String.format(
+                            "%-10s %12.0f %10.2f %10.2f %12d %12d",
+                            http2 ? "h2c" : "http/1.1",
+                            latencies.length / (double) seconds,
+                            percentile(latencies, 0.50) / 1e6,
+                            percentile(latencies, 0.99) / 1e6,
+                            upstream.connectionsSeen(),
+                            upstream.peakOpenConnections()));
+                }
+            }
+        } finally {
+            upstream.stop();
+        }
+
+        System.out.printf(
+                "%n%-10s %12s %10s %10s %12s %12s%n",
+                "upstream", "requests/s", "p50 ms", "p99 ms", "connections", "peak open");
+        results.forEach(System.out::println);
+    }
+
+    /**
+     * Latencies in nanoseconds of the successful requests made by {@code clients} threads over {@code seconds}.
+     */
+    private static long[] run(String url, int clients, int seconds) throws Exception {
+        final var httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        final var request = HttpRequest.newBuilder(URI.create(url)).GET().build();
+        final long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        final var failures = new AtomicLong();
+        final var executor = Executors.newFixedThreadPool(clients);
+        try {
+            final var futures = new ArrayList<Future<long[]>>();
+            for (int i = 0; i < clients; i++) {
+                futures.add(executor.submit(() -> {
+                    long[] latencies = new long[1024];
+                    int count = 0;
+                    while (System.nanoTime() < end) {
+                        final long start = System.nanoTime();
+                        try {
+                            final var response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() != 200) {
+                                failures.incrementAndGet();
+                                continue;
+                            }
+                        } catch (IOException e) {
+                            failures.incrementAndGet();
+                            continue;
+                        }
+                        if (count == latencies.length) {
+                            latencies = Arrays.copyOf(latencies, count * 2);
+                        }
+                        latencies[count++] = System.nanoTime() - start;
+                    }
+                    return Arrays.copyOf(latencies, count);
+                }));
+            }
+            final var all = new ArrayList<long[]>();
+            for (var future : futures) {
+                all.add(future.get());
+            }
+            if (failures.get() > 0) {
+                System.err.println(failures.get() + " requests failed");
+            }
+            return all.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static long percentile(long[] sorted, double quantile) {
+        return sorted.length == 0 ? 0 : sorted[(int) Math.min(sorted.length - 1, (long) (quantile * sorted.length))];
+    }
+
+    private static final class StubUpstream {
+
+        private final Tomcat tomcat = new Tomcat();
+        private final Connector connector = new Connector();
+        private final Set<Integer> clientPorts = ConcurrentHashMap.newKeySet();
+        private final AtomicLong peakOpen = new AtomicLong();
+        private final ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor();
+
+        StubUpstream(long delayMs, int maxStreams) throws Exception {
+            final var http2 = new Http2Protocol();
+            http2.setMaxConcurrentStreams(maxStreams);
+            http2.setMaxConcurrentStreamExecution(maxStreams);
+            connector.setPort(0);
+            connector.addUpgradeProtocol(http2);
+            tomcat.setBaseDir(Files.createTempDirectory("upstream-stub").toString());
+            tomcat.setConnector(connector);
+            final var context = tomcat.addContext("", null);
+            Tomcat.addServlet(context, "employee", new HttpServlet() {
+                @Override
+                protected void service(HttpServletRequest request, HttpServletResponse response) throws IOException {
+                    clientPorts.add(request.getRemotePort());
+                    try {
+                        Thread.sleep(delayMs);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    response.setContentType("application/json");
+                    response.setContentLength(EMPLOYEE.length);
+                    response.getOutputStream().write(EMPLOYEE);
+                }
+            });
+            context.addServletMappingDecoded("/*", "employee");
+            tomcat.start();
+            final var protocol = (AbstractProtocol<?>) connector.getProtocolHandler();
+            sampler.scheduleAtFixedRate(
+                    () -> peakOpen.accumulateAndGet(protocol.getConnectionCount(), Math::max),
+                    10,
+                    10,
+                    TimeUnit.MILLISECONDS);
+        }
+
+        int port() {
+            return connector.getLocalPort();
+        }
+
+        void reset() {
+            clientPorts.clear();
+            peakOpen.set(0);
+        }
+
+        /** Connections the api opened, assuming a client port is not reused within one run. */
+        int connectionsSeen() {
+            return clientPorts.size();
+        }
+
+        long peakOpenConnections() {
+            return peakOpen.get();
+        }
+
+        void stop() throws Exception {
+            sampler.shutdownNow();
+            tomcat.stop();
+            tomcat.destroy();
+        }
+    }
+}
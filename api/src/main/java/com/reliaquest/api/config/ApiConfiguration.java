@@ -1,23 +1,139 @@
 package com.reliaquest.api.config;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 import com.reliaquest.api.model.DeleteEmployee;
 import com.reliaquest.api.model.Employee;
 import com.reliaquest.api.model.MockEmployee;
+import com.reliaquest.api.service.FileUpstreamCoordination;
+import com.reliaquest.api.service.LocalUpstreamCoordination;
+import com.reliaquest.api.service.UpstreamCoordination;
+import com.reliaquest.api.web.AccessLog;
+import com.reliaquest.api.web.AdmissionControlInterceptor;
+import com.reliaquest.api.web.DeadlineInterceptor;
+import com.reliaquest.api.web.DeadlineRequestFactory;
+import com.reliaquest.api.web.Http2DeadlineRequestFactory;
 import com.reliaquest.api.web.LoggingInterceptor;
+import com.reliaquest.api.web.PreferredMediaTypeInterceptor;
+import com.reliaquest.api.web.ServerTimingInterceptor;
+import com.reliaquest.api.web.ServerTimingJsonHttpMessageConverter;
+import com.reliaquest.api.web.TrafficCapture;
+import com.reliaquest.api.web.TrafficCaptureInterceptor;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.coyote.UpgradeProtocol;
+import org.apache.coyote.http2.Http2Protocol;
 import org.modelmapper.ModelMapper;
 import org.modelmapper.TypeMap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.filter.OncePerRequestFilter;
 import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.util.ContentCachingRequestWrapper;
 
+@Slf4j
 @Configuration
+@RequiredArgsConstructor
+@EnableConfigurationProperties(DeadlineProperties.class)
 public class ApiConfiguration implements WebMvcConfigurer {
 
+    private static final MediaType SMILE = new MediaType("application", "x-jackson-smile");
+
+    private final DeadlineInterceptor deadlineInterceptor;
+
+    private final AdmissionControlInterceptor admissionControlInterceptor;
+
+    private final AccessLog accessLog;
+
+    private final TrafficCapture trafficCapture;
+
+    @Value("${service.employee.admission.enabled: true}")
+    private boolean admissionControlEnabled;
+
+    @Value("${service.employee.server_timing.enabled: true}")
+    private boolean serverTimingEnabled;
+
+    @Value("${service.employee.server_timing.serialization: false}")
+    private boolean serializationTimingEnabled;
+
+    @Value("${service.employee.upstream_format: smile}")
+    private String upstreamFormat;
+
+    @Value("${service.employee.upstream_http2: false}")
+    private boolean upstreamHttp2;
+
+    /*
+     * RestTemplate reads Smile as well as JSON whenever jackson-dataformat-smile is on the classpath; with
+     * upstream_format "smile" the upstream is asked for it first. Request bodies stay JSON.
+     * With upstream_http2 concurrent upstream calls share a few h2c connections instead of one connection each.
+     */
     @Bean
     public RestTemplate restTemplate() {
-        return new RestTemplate();
+        final var restTemplate =
+                new RestTemplate(upstreamHttp2 ? new Http2DeadlineRequestFactory() : new DeadlineRequestFactory());
+        if ("smile".equalsIgnoreCase(upstreamFormat)) {
+            restTemplate.getInterceptors().add(new PreferredMediaTypeInterceptor(SMILE));
+        }
+        return restTemplate;
+    }
+
+    /*
+     * Smile responses for clients that accept application/x-jackson-smile, with the same Jackson settings as JSON.
+     * Their Server-Timing header is set by ServerTimingAdvice and has no serialisation phase.
+     */
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(
+                builder.factory(new SmileFactory()).build());
+    }
+
+    /*
+     * With coordination mode "file", the default, api instances on this host calling the same upstream share its rate
+     * budget and the synced roster through files under coordination.directory; with "local" this instance keeps them
+     * to itself, as it also does when those files cannot be opened. Static because the interceptors this configuration
+     * is built with depend on it.
+     */
+    @Bean
+    public static UpstreamCoordination upstreamCoordination(
+            ObjectMapper objectMapper,
+            @Value("${service.employee.coordination.mode: file}") String mode,
+            @Value("${service.employee.coordination.directory: ${java.io.tmpdir}/employee-api-${user.name}}")
+                    String directory,
+            @Value("${service.employee.baseurl: http://localhost:8112/api/v1/employee}") String serverUrl,
+            @Value("${service.employee.max_backoff_time: 120}") int maxBackoffTimeInSec) {
+        if ("file".equalsIgnoreCase(mode)) {
+            final var shared = FileUpstreamCoordination.directoryFor(Path.of(directory), serverUrl);
+            try {
+                return new FileUpstreamCoordination(shared, objectMapper, Duration.ofSeconds(maxBackoffTimeInSec));
+            } catch (IOException | UncheckedIOException e) {
+                log.warn(
+                        "Unable to share upstream state through {}, keeping it to this instance: {}",
+                        shared,
+                        e.toString());
+            }
+        }
+        return new LocalUpstreamCoordination();
     }
 
     @Bean
@@ -40,8 +156,70 @@ public class ApiConfiguration implements WebMvcConfigurer {
         return modelMapper;
     }
 
+    /*
+     * Raises Tomcat's per-connection HTTP/2 stream limits (20 executing, 100 open) so an h2c client is not held to
+     * fewer concurrent requests than the same client on HTTP/1.1. Static so the web server does not wait on the
+     * interceptors this configuration is built with.
+     */
+    @Bean
+    public static WebServerFactoryCustomizer<TomcatServletWebServerFactory> http2StreamLimits(
+            @Value("${service.employee.http2.max_concurrent_streams: 200}") int maxConcurrentStreams) {
+        return factory -> factory.addConnectorCustomizers(connector -> {
+            for (UpgradeProtocol protocol : connector.findUpgradeProtocols()) {
+                if (protocol instanceof Http2Protocol http2) {
+                    http2.setMaxConcurrentStreams(maxConcurrentStreams);
+                    http2.setMaxConcurrentStreamExecution(maxConcurrentStreams);
+                }
+            }
+        });
+    }
+
+    /*
+     * Captured request bodies are read after the controller has consumed them, so they are cached as they are read.
+     */
+    @Bean
+    public FilterRegistrationBean<OncePerRequestFilter> trafficCaptureBodyFilter() {
+        final var registration = new FilterRegistrationBean<OncePerRequestFilter>(new OncePerRequestFilter() {
+            @Override
+            protected void doFilterInternal(
+                    HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+                    throws ServletException, IOException {
+                filterChain.doFilter(
+                        new ContentCachingRequestWrapper(request, TrafficCaptureInterceptor.MAX_BODY_BYTES), response);
+            }
+        });
+        registration.addUrlPatterns("/api/v1/employee/*");
+        registration.setEnabled(trafficCapture.isEnabled());
+        return registration;
+    }
+
     @Override
     public void addInterceptors(InterceptorRegistry registry) {
-        registry.addInterceptor(new LoggingInterceptor());
+        registry.addInterceptor(new LoggingInterceptor(accessLog));
+        if (trafficCapture.isEnabled()) {
+            registry.addInterceptor(new TrafficCaptureInterceptor(trafficCapture))
+                    .addPathPatterns("/api/v1/employee/**");
+        }
+        if (serverTimingEnabled) {
+            registry.addInterceptor(new ServerTimingInterceptor()).addPathPatterns("/api/v1/employee/**");
+        }
+        // Binds the request deadline that admission control and EmployeeService work against, so it goes first.
+        registry.addInterceptor(deadlineInterceptor).addPathPatterns("/api/v1/employee/**");
+        if (admissionControlEnabled) {
+            registry.addInterceptor(admissionControlInterceptor).addPathPatterns("/api/v1/employee/**");
+        }
+    }
+
+    /*
+     * Timing JSON serialisation means buffering each whole body before it is sent, so it is only done on request.
+     */
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        if (!serverTimingEnabled || !serializationTimingEnabled) {
+            return;
+        }
+        converters.replaceAll(converter -> converter instanceof MappingJackson2HttpMessageConverter jackson
+                ? new ServerTimingJsonHttpMessageConverter(jackson.getObjectMapper())
+                : converter);
     }
 }
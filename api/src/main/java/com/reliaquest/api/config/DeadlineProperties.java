@@ -0,0 +1,23 @@
+package com.reliaquest.api.config;
+
+import java.time.Duration;
+import java.util.Map;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * How long the api may spend on a request: a timeout per {@code EmployeeControllerImpl} method name (e.g.
+ * {@code createEmployee}), falling back to {@code default_timeout}. A client's {@code X-Request-Timeout} can only
+ * shorten it.
+ */
+@ConfigurationProperties(prefix = "service.employee.deadline")
+public record DeadlineProperties(@DefaultValue("30s") Duration defaultTimeout, Map<String, Duration> endpoints) {
+
+    public DeadlineProperties {
+        endpoints = endpoints == null ? Map.of() : Map.copyOf(endpoints);
+    }
+
+    public Duration timeoutFor(String endpoint) {
+        return endpoints.getOrDefault(endpoint, defaultTimeout);
+    }
+}
@@ -1,13 +1,18 @@
 package com.reliaquest.api.controller;
 
+import com.reliaquest.api.exception.DeadlineExceededException;
 import com.reliaquest.api.exception.EmployeeNotFoundException;
+import com.reliaquest.api.exception.InvalidRequestException;
 import com.reliaquest.api.exception.RateLimitExceededException;
+import com.reliaquest.api.exception.ServiceOverloadedException;
 import com.reliaquest.api.model.Response;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 
 @Slf4j
 @ControllerAdvice
@@ -25,9 +30,30 @@ public class EmployeeControllerAdvice {
         return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body(Response.error(ex.getMessage()));
     }
 
+    @ExceptionHandler(ServiceOverloadedException.class)
+    protected ResponseEntity<?> handleServiceOverloaded(ServiceOverloadedException ex) {
+        log.warn("Rejected web request: {}", ex.getMessage());
+        long retryAfterSeconds = Math.max(1, (ex.getRetryAfter().toMillis() + 999) / 1000);
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds))
+                .body(Response.error(ex.getMessage()));
+    }
+
+    @ExceptionHandler(DeadlineExceededException.class)
+    protected ResponseEntity<?> handleDeadlineExceeded(DeadlineExceededException ex) {
+        log.warn("Error handling web request: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT).body(Response.error(ex.getMessage()));
+    }
+
     @ExceptionHandler(EmployeeNotFoundException.class)
     protected ResponseEntity<?> handleEmployeeNotFound(EmployeeNotFoundException ex) {
         log.error("Error handling web request.", ex);
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Response.error(ex.getMessage()));
     }
+
+    @ExceptionHandler({InvalidRequestException.class, MethodArgumentTypeMismatchException.class})
+    protected ResponseEntity<?> handleInvalidRequest(RuntimeException ex) {
+        log.warn("Rejected web request: {}", ex.getMessage());
+        return ResponseEntity.badRequest().body(Response.error(ex.getMessage()));
+    }
 }
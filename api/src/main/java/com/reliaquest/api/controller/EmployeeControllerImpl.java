@@ -2,8 +2,11 @@ package com.reliaquest.api.controller;
 
 import com.reliaquest.api.model.CreateEmployee;
 import com.reliaquest.api.model.Employee;
+import com.reliaquest.api.model.SalaryBand;
+import com.reliaquest.api.model.SalaryStatistics;
 import com.reliaquest.api.service.EmployeeService;
 import java.util.List;
+import java.util.Map;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
@@ -29,6 +32,17 @@ public class EmployeeControllerImpl implements IEmployeeController<Employee, Cre
         return ResponseEntity.ok(employeeService.getEmployeesByNameSearch(searchString));
     }
 
+    /*
+     * Ranked search (token, prefix or fuzzy), opted into with the mode parameter; without it the search above answers.
+     */
+    @GetMapping(value = "/search/{searchString}", params = "mode")
+    public ResponseEntity<List<Employee>> searchEmployeesByName(
+            @PathVariable String searchString,
+            @RequestParam String mode,
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(employeeService.getEmployeesByNameSearch(searchString, mode, limit));
+    }
+
     @Override
     @GetMapping("/{id}")
     public ResponseEntity<Employee> getEmployeeById(@PathVariable String id) {
@@ -47,6 +61,22 @@ public class EmployeeControllerImpl implements IEmployeeController<Employee, Cre
         return ResponseEntity.ok(employeeService.getTopTenHighestEarningEmployeeNames());
     }
 
+    @GetMapping("/topEarnersByTitle")
+    public ResponseEntity<Map<String, List<Employee>>> getTopEarnersByTitle(
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(employeeService.getTopEarnersByTitle(limit));
+    }
+
+    @GetMapping("/salaryBands")
+    public ResponseEntity<List<SalaryBand>> getSalaryBands(@RequestParam(defaultValue = "10000") int width) {
+        return ResponseEntity.ok(employeeService.getSalaryBands(width));
+    }
+
+    @GetMapping("/salaryStatistics")
+    public ResponseEntity<SalaryStatistics> getSalaryStatistics() {
+        return ResponseEntity.ok(employeeService.getSalaryStatistics());
+    }
+
     @Override
     @PostMapping(produces = "application/json", consumes = "application/json")
     public ResponseEntity<Employee> createEmployee(@RequestBody CreateEmployee employeeInput) {
@@ -0,0 +1,12 @@
+package com.reliaquest.api.exception;
+
+public class DeadlineExceededException extends RuntimeException {
+
+    public DeadlineExceededException(String message) {
+        super(message);
+    }
+
+    public DeadlineExceededException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -1,6 +1,10 @@
 package com.reliaquest.api.exception;
 
 public class EmployeeNotFoundException extends RuntimeException {
+    public EmployeeNotFoundException(String message) {
+        super(message);
+    }
+
     public EmployeeNotFoundException(String message, Throwable cause) {
         super(message, cause);
     }
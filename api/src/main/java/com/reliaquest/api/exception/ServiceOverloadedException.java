@@ -0,0 +1,15 @@
+package com.reliaquest.api.exception;
+
+import java.time.Duration;
+import lombok.Getter;
+
+@Getter
+public class ServiceOverloadedException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public ServiceOverloadedException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+}
@@ -0,0 +1,13 @@
+package com.reliaquest.api.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class BatchDeleteEmployee {
+    @JsonProperty("ids")
+    private List<String> ids;
+}
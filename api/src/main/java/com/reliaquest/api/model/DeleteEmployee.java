@@ -3,9 +3,11 @@ package com.reliaquest.api.model;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 @Data
 @AllArgsConstructor
+@NoArgsConstructor
 public class DeleteEmployee {
     @JsonProperty("name")
     private String name;
@@ -0,0 +1,26 @@
+package com.reliaquest.api.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class RosterChange {
+
+    public enum Type {
+        INSERT,
+        DELETE
+    }
+
+    @JsonProperty("version")
+    private long version;
+
+    @JsonProperty("type")
+    private Type type;
+
+    @JsonProperty("employee")
+    private MockEmployee employee;
+}
@@ -0,0 +1,25 @@
+package com.reliaquest.api.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class RosterChangeSet {
+
+    @JsonProperty("epoch")
+    private String epoch;
+
+    @JsonProperty("version")
+    private long version;
+
+    @JsonProperty("truncated")
+    private boolean truncated;
+
+    @JsonProperty("changes")
+    private List<RosterChange> changes;
+}
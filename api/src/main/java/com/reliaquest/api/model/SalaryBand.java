@@ -0,0 +1,23 @@
+package com.reliaquest.api.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Employees earning at least {@code minSalary} and less than {@code maxSalary}.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class SalaryBand {
+    @JsonProperty("min_salary")
+    private Integer minSalary;
+
+    @JsonProperty("max_salary")
+    private Integer maxSalary;
+
+    @JsonProperty("count")
+    private Long count;
+}
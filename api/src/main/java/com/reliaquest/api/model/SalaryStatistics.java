@@ -0,0 +1,30 @@
+package com.reliaquest.api.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Salary percentiles of the employees with a salary, each within {@code relativeError} of the exact percentile (and
+ * rounded to a whole salary); null when no employee has one.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class SalaryStatistics {
+    @JsonProperty("count")
+    private Long count;
+
+    @JsonProperty("p50")
+    private Integer p50;
+
+    @JsonProperty("p90")
+    private Integer p90;
+
+    @JsonProperty("p99")
+    private Integer p99;
+
+    @JsonProperty("relative_error")
+    private Double relativeError;
+}
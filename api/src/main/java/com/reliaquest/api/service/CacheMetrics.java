@@ -0,0 +1,40 @@
+package com.reliaquest.api.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Publishes {@link EmployeeService}'s cache statistics: {@code api.cache.lookups} counts lookups by cache and result
+ * (hit or miss), {@code api.cache.hit_ratio} is each cache's share of hits since startup, and
+ * {@code api.cache.evictions} counts entries evicted to stay within a size limit.
+ */
+@Component
+@RequiredArgsConstructor
+public class CacheMetrics implements MeterBinder {
+
+    private final EmployeeService employeeService;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        employeeService.cacheStatistics().forEach((cache, statistics) -> {
+            FunctionCounter.builder("api.cache.lookups", statistics, CacheStatistics::hits)
+                    .tag("cache", cache)
+                    .tag("result", "hit")
+                    .register(registry);
+            FunctionCounter.builder("api.cache.lookups", statistics, CacheStatistics::misses)
+                    .tag("cache", cache)
+                    .tag("result", "miss")
+                    .register(registry);
+            Gauge.builder("api.cache.hit_ratio", statistics, CacheStatistics::hitRatio)
+                    .tag("cache", cache)
+                    .register(registry);
+            FunctionCounter.builder("api.cache.evictions", statistics, CacheStatistics::evictions)
+                    .tag("cache", cache)
+                    .register(registry);
+        });
+    }
+}
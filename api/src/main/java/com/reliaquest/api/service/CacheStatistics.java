@@ -0,0 +1,42 @@
+package com.reliaquest.api.service;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Hit, miss and eviction counts of one of the api's result caches, published as metrics by {@link CacheMetrics}.
+ */
+public final class CacheStatistics {
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public void record(boolean hit) {
+        (hit ? hits : misses).increment();
+    }
+
+    public void recordEviction() {
+        evictions.increment();
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    public long evictions() {
+        return evictions.sum();
+    }
+
+    /**
+     * Share of lookups answered from the cache; zero before the first lookup.
+     */
+    public double hitRatio() {
+        final long hits = hits();
+        final long lookups = hits + misses();
+        return lookups == 0 ? 0 : hits / (double) lookups;
+    }
+}
@@ -0,0 +1,84 @@
+package com.reliaquest.api.service;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The point in time by which the current request must be answered, together with a cancellation signal.
+ *
+ * <p>The deadline of the request being handled is bound to the handling thread by the web layer and read by
+ * {@link EmployeeService} through {@link #current()}; code running outside a request sees {@link #NONE}, which never
+ * expires. {@link #sleep(Duration)} wakes up early when the deadline is cancelled, so backoff waits do not outlive the
+ * request.
+ */
+public final class Deadline {
+
+    public static final Deadline NONE = new Deadline(Long.MAX_VALUE);
+
+    private static final ThreadLocal<Deadline> CURRENT = new ThreadLocal<>();
+
+    private final long expiresAtNanos;
+    private final CountDownLatch cancelled = new CountDownLatch(1);
+
+    private Deadline(long expiresAtNanos) {
+        this.expiresAtNanos = expiresAtNanos;
+    }
+
+    public static Deadline after(Duration timeout) {
+        return new Deadline(System.nanoTime() + timeout.toNanos());
+    }
+
+    public static Deadline current() {
+        final var deadline = CURRENT.get();
+        return deadline == null ? NONE : deadline;
+    }
+
+    public static void bind(Deadline deadline) {
+        CURRENT.set(deadline);
+    }
+
+    public static void unbind() {
+        CURRENT.remove();
+    }
+
+    public boolean isBounded() {
+        return this != NONE;
+    }
+
+    /**
+     * Time left before the deadline; zero once it has passed or the deadline was cancelled.
+     */
+    public Duration remaining() {
+        if (!isBounded()) {
+            return Duration.ofNanos(Long.MAX_VALUE);
+        }
+        if (isCancelled()) {
+            return Duration.ZERO;
+        }
+        return Duration.ofNanos(Math.max(0, expiresAtNanos - System.nanoTime()));
+    }
+
+    public boolean isExpired() {
+        return isCancelled() || (isBounded() && System.nanoTime() >= expiresAtNanos);
+    }
+
+    public void cancel() {
+        if (isBounded()) {
+            cancelled.countDown();
+        }
+    }
+
+    public boolean isCancelled() {
+        return cancelled.getCount() == 0;
+    }
+
+    /**
+     * Sleeps for {@code duration}, returning early if the deadline is cancelled.
+     *
+     * @return {@code false} if the sleep was cut short by cancellation
+     */
+    public boolean sleep(Duration duration) throws InterruptedException {
+        return !cancelled.await(duration.toNanos(), TimeUnit.NANOSECONDS);
+    }
+}
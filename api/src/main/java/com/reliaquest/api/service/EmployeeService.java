@@ -1,8 +1,11 @@
 package com.reliaquest.api.service;
 
+import com.reliaquest.api.exception.DeadlineExceededException;
 import com.reliaquest.api.exception.EmployeeNotFoundException;
 import com.reliaquest.api.exception.RateLimitExceededException;
 import com.reliaquest.api.model.*;
+import java.io.UncheckedIOException;
+import java.time.Duration;
 import java.util.*;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
@@ -17,6 +20,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.util.UriComponentsBuilder;
 
@@ -24,6 +28,9 @@ import org.springframework.web.util.UriComponentsBuilder;
 @Service
 public class EmployeeService {
 
+    private static final String ROSTER_EPOCH_HEADER = "X-Roster-Epoch";
+    private static final String ROSTER_VERSION_HEADER = "X-Roster-Version";
+
     private final RestTemplate restTemplate;
 
     @Value("${service.employee.max_backoff_time: 120}")
@@ -35,40 +42,122 @@ public class EmployeeService {
     @Value("${service.employee.baseurl: http://localhost:8112/api/v1/employee}")
     private String serverUrl;
 
+    @Value("${service.employee.sync.enabled: true}")
+    private boolean syncEnabled;
+
+    @Value("${service.employee.coordination.roster_max_age: 2}")
+    private int sharedRosterMaxAgeInSec;
+
     private final ModelMapper modelMapper;
 
+    private final UpstreamBackoff upstreamBackoff;
+
+    private final UpstreamCoordination upstreamCoordination;
+
+    private final SearchCache searchCache;
+
+    private final NameIndex nameIndex;
+
+    private final RosterAnalytics rosterAnalytics;
+
+    private final SalaryQuantiles salaryQuantiles;
+
+    private final RosterReplica rosterReplica;
+
+    private final WriteBatching writeBatching;
+
+    private final WriteBatcher<CreateEmployee, MockEmployee> createBatcher;
+
+    private final WriteBatcher<String, MockEmployee> deleteBatcher;
+
+    private final CacheStatistics highestSalaryStatistics = new CacheStatistics();
+
+    private final CacheStatistics topTenStatistics = new CacheStatistics();
+
     @Autowired
-    public EmployeeService(RestTemplate restTemplate, ModelMapper modelMapper) {
+    public EmployeeService(
+            RestTemplate restTemplate,
+            ModelMapper modelMapper,
+            UpstreamBackoff upstreamBackoff,
+            UpstreamCoordination upstreamCoordination,
+            SearchCache searchCache,
+            NameIndex nameIndex,
+            RosterAnalytics rosterAnalytics,
+            SalaryQuantiles salaryQuantiles,
+            WriteBatching writeBatching) {
         this.restTemplate = restTemplate;
         this.modelMapper = modelMapper;
+        this.upstreamBackoff = upstreamBackoff;
+        this.upstreamCoordination = upstreamCoordination;
+        this.searchCache = searchCache;
+        this.nameIndex = nameIndex;
+        this.rosterAnalytics = rosterAnalytics;
+        this.salaryQuantiles = salaryQuantiles;
+        this.rosterReplica = new RosterReplica(searchCache, nameIndex, salaryQuantiles);
+        this.writeBatching = writeBatching;
+        this.createBatcher = writeBatching.batcher("create", false, this::createAll);
+        this.deleteBatcher = writeBatching.batcher("delete", true, this::deleteAll);
     }
 
     public List<Employee> getAllEmployees() {
-        ;
         List<Employee> employees;
-        ParameterizedTypeReference<Response<List<MockEmployee>>> typeRef =
-                new ParameterizedTypeReference<Response<List<MockEmployee>>>() {};
-        List<MockEmployee> mockEmployees = executeWithRetry(
-                        () -> restTemplate.exchange(serverUrl, HttpMethod.GET, null, typeRef))
-                .data();
+        List<MockEmployee> mockEmployees;
+        if (syncEnabled) {
+            mockEmployees = syncRoster();
+        } else {
+            mockEmployees = fetchRoster();
+        }
+        long mappingStart = System.nanoTime();
         employees = mockEmployees.stream()
                 .map(mockEmployee -> modelMapper.map(mockEmployee, Employee.class))
                 .collect(Collectors.toList());
+        RequestTiming.current().record(RequestTiming.Phase.MAPPING, mappingStart);
         return employees;
     }
 
     public List<Employee> getEmployeesByNameSearch(String searchString) {
-        log.debug("getting employees by search term:" + searchString);
-        List<Employee> employees = getAllEmployees();
-        employees = employees.stream()
-                .filter(e -> e.getName().toLowerCase().contains(searchString.toLowerCase()))
+        log.debug("getting employees by search term: {}", searchString);
+        String query = SearchCache.normalise(searchString);
+        List<Employee> employees;
+        if (syncEnabled) {
+            employees = searchRoster(query);
+        } else {
+            employees = getAllEmployees();
+            long filterStart = System.nanoTime();
+            employees = employees.stream()
+                    .filter(e -> e.getName().toLowerCase().contains(query))
+                    .collect(Collectors.toList());
+            RequestTiming.current().record(RequestTiming.Phase.FILTER, filterStart);
+        }
+        log.debug("found employees count: {}", employees.size());
+        return employees;
+    }
+
+    /**
+     * Ranked name search through {@link NameIndex}: the best {@code limit} employees matching every token of
+     * {@code searchString} in the given mode. With roster sync on, the index follows the replica; otherwise the fetched
+     * roster is indexed for this search only.
+     */
+    public List<Employee> getEmployeesByNameSearch(String searchString, String mode, int limit) {
+        log.debug("ranked search for {} in {} mode, limit {}", searchString, mode, limit);
+        NameIndex.Mode searchMode = NameIndex.Mode.parse(mode);
+        Optional<List<MockEmployee>> unindexedRoster = syncEnabled ? refreshReplica() : Optional.of(fetchRoster());
+        long filterStart = System.nanoTime();
+        List<MockEmployee> matches = unindexedRoster.isPresent()
+                ? nameIndex.search(searchString, searchMode, limit, unindexedRoster.get())
+                : nameIndex.search(searchString, searchMode, limit, rosterReplica::snapshot);
+        RequestTiming.current().record(RequestTiming.Phase.FILTER, filterStart);
+        long mappingStart = System.nanoTime();
+        List<Employee> employees = matches.stream()
+                .map(mockEmployee -> modelMapper.map(mockEmployee, Employee.class))
                 .collect(Collectors.toList());
-        log.debug("found employees count:" + employees.size());
+        RequestTiming.current().record(RequestTiming.Phase.MAPPING, mappingStart);
+        log.debug("found employees count: {}", employees.size());
         return employees;
     }
 
     public Employee getEmployeeById(String id) {
-        log.debug("getting employee by id:" + id);
+        log.debug("getting employee by id: {}", id);
         Employee emp = null;
         String baseUrl = new StringBuilder(serverUrl).append("/{id}").toString();
         String url = UriComponentsBuilder.fromUriString(baseUrl)
@@ -81,12 +170,14 @@ public class EmployeeService {
             MockEmployee mockEmployee = executeWithRetry(
                             () -> restTemplate.exchange(url, HttpMethod.GET, null, typeRef))
                     .data();
+            long mappingStart = System.nanoTime();
             emp = modelMapper.map(mockEmployee, Employee.class);
-            log.debug(String.format("Employee found for id: %s", emp.getId()));
+            RequestTiming.current().record(RequestTiming.Phase.MAPPING, mappingStart);
+            log.debug("Employee found for id: {}", emp.getId());
             return emp;
 
         } catch (HttpStatusCodeException e) {
-            log.error(String.format("Error while invoking getEmployeeById:  %s", e));
+            log.error("Error while invoking getEmployeeById: {}", e.toString());
             if (e.getStatusCode().isSameCodeAs(HttpStatus.NOT_FOUND)) {
                 throw new EmployeeNotFoundException(String.format("Employee with id: %s not found", id), e);
             }
@@ -97,45 +188,143 @@ public class EmployeeService {
 
     public Optional<Integer> getHighestSalaryOfEmployees() {
         log.trace("inside getHighestSalaryOfEmployees");
+        if (syncEnabled) {
+            Optional<Integer> salary =
+                    topEarners(highestSalaryStatistics).stream().findFirst().map(MockEmployee::getSalary);
+            log.debug("highest salary found?: {}", salary.isPresent());
+            return salary;
+        }
         List<Employee> employeeResults = getAllEmployees();
+        long filterStart = System.nanoTime();
         employeeResults.sort(Comparator.comparing(Employee::getSalary).reversed());
         Optional<Integer> salary =
                 employeeResults.stream().map(e -> e.getSalary()).findFirst();
-        log.debug(String.format("highest salary found?: %s", salary.isPresent()));
+        RequestTiming.current().record(RequestTiming.Phase.FILTER, filterStart);
+        log.debug("highest salary found?: {}", salary.isPresent());
         return salary;
     }
 
     public List<String> getTopTenHighestEarningEmployeeNames() {
         log.trace("inside getTopTenHighestEarningEmployeeNames");
+        if (syncEnabled) {
+            List<String> names = topEarners(topTenStatistics).stream()
+                    .map(MockEmployee::getName)
+                    .collect(Collectors.toList());
+            log.debug("Size of employeelist: {}", names.size());
+            return names;
+        }
         List<Employee> employeeResults = getAllEmployees();
+        long filterStart = System.nanoTime();
         List<String> empl = employeeResults.stream()
                 .sorted((e1, e2) -> Integer.compare(e2.getSalary(), e1.getSalary()))
                 .limit(10)
                 .map(e -> e.getName())
                 .collect(Collectors.toList());
-        log.debug(String.format("Size of employeelist: %s", empl.size()));
+        RequestTiming.current().record(RequestTiming.Phase.FILTER, filterStart);
+        log.debug("Size of employeelist: {}", empl.size());
         return empl;
     }
 
+    /**
+     * The {@code limit} highest earners of each title, computed by {@link RosterAnalytics} from the replica or a fresh
+     * roster. Parameters are checked before the roster is fetched so that a bad request costs no upstream call.
+     */
+    public Map<String, List<Employee>> getTopEarnersByTitle(int limit) {
+        log.debug("getting top {} earners by title", limit);
+        rosterAnalytics.checkLimit(limit);
+        List<MockEmployee> roster = syncEnabled ? syncRoster() : fetchRoster();
+        long filterStart = System.nanoTime();
+        Map<String, List<MockEmployee>> topEarners = rosterAnalytics.topEarnersByTitle(roster, limit);
+        RequestTiming.current().record(RequestTiming.Phase.FILTER, filterStart);
+        long mappingStart = System.nanoTime();
+        Map<String, List<Employee>> employees = new TreeMap<>();
+        topEarners.forEach((title, mockEmployees) -> employees.put(
+                title,
+                mockEmployees.stream()
+                        .map(mockEmployee -> modelMapper.map(mockEmployee, Employee.class))
+                        .collect(Collectors.toList())));
+        RequestTiming.current().record(RequestTiming.Phase.MAPPING, mappingStart);
+        return employees;
+    }
+
+    public List<SalaryBand> getSalaryBands(int width) {
+        log.debug("getting salary bands {} wide", width);
+        rosterAnalytics.checkWidth(width);
+        List<MockEmployee> roster = syncEnabled ? syncRoster() : fetchRoster();
+        long filterStart = System.nanoTime();
+        List<SalaryBand> bands = rosterAnalytics.salaryBands(roster, width);
+        RequestTiming.current().record(RequestTiming.Phase.FILTER, filterStart);
+        return bands;
+    }
+
+    /**
+     * p50, p90 and p99 salaries from {@link SalaryQuantiles}, whose sketch follows the replica and this api's own
+     * creates and deletes. Without roster sync, or against an unversioned upstream, the fetched roster is sketched.
+     */
+    public SalaryStatistics getSalaryStatistics() {
+        log.trace("inside getSalaryStatistics");
+        Optional<List<MockEmployee>> unversionedRoster = syncEnabled ? refreshReplica() : Optional.of(fetchRoster());
+        long filterStart = System.nanoTime();
+        SalaryStatistics statistics = unversionedRoster.isPresent()
+                ? salaryQuantiles.percentiles(unversionedRoster.get())
+                : salaryQuantiles.percentiles(rosterReplica::snapshot);
+        RequestTiming.current().record(RequestTiming.Phase.FILTER, filterStart);
+        return statistics;
+    }
+
+    /**
+     * Creates an employee. With write batching on, the create is sent upstream in one batch with those of concurrent
+     * requests.
+     */
     public Employee createEmployee(CreateEmployee input) {
         Employee emp = null;
         ParameterizedTypeReference<Response<MockEmployee>> typeRef =
                 new ParameterizedTypeReference<Response<MockEmployee>>() {};
         try {
-            MockEmployee mockEmployee = executeWithRetry(
-                            () -> restTemplate.exchange(serverUrl, HttpMethod.POST, new HttpEntity<>(input), typeRef))
-                    .data();
+            MockEmployee mockEmployee;
+            if (writeBatching.isEnabled()) {
+                mockEmployee = createBatcher.write(input);
+            } else {
+                mockEmployee = executeWithRetry(() ->
+                                restTemplate.exchange(serverUrl, HttpMethod.POST, new HttpEntity<>(input), typeRef))
+                        .data();
+                if (syncEnabled) {
+                    salaryQuantiles.created(mockEmployee.getId(), mockEmployee.getSalary());
+                    upstreamCoordination.invalidateRoster();
+                }
+            }
+            long mappingStart = System.nanoTime();
             emp = modelMapper.map(mockEmployee, Employee.class);
-            log.info(String.format("Employee created with id: %s", emp.getId()));
+            RequestTiming.current().record(RequestTiming.Phase.MAPPING, mappingStart);
+            log.info("Employee created with id: {}", emp.getId());
             return emp;
 
         } catch (HttpStatusCodeException e) {
-            log.error(String.format("Error while invoking createEmployee:  %s", e));
+            log.error("Error while invoking createEmployee: {}", e.toString());
             throw new RuntimeException(String.format("Error while invoking createEmployee:  %s", e.getMessage()), e);
         }
     }
 
+    /**
+     * Deletes an employee by id. With write batching on, the delete is sent upstream by id in one batch with those of
+     * concurrent requests, which saves looking the employee up first; concurrent deletes of one employee share one
+     * delete. Ids that are not UUIDs, which the upstream cannot hold, take the lookup path and fail there.
+     */
     public String deleteEmployeeById(String id) {
+        String uuid = writeBatching.isEnabled() ? canonicalUuid(id) : null;
+        if (uuid != null) {
+            MockEmployee deleted;
+            try {
+                deleted = deleteBatcher.write(uuid);
+            } catch (HttpStatusCodeException e) {
+                throw new RuntimeException(String.format("Failed to delete employee with id: %s", id), e);
+            }
+            if (deleted == null) {
+                throw new EmployeeNotFoundException(String.format("Employee with id: %s not found", id));
+            }
+            log.info("Employee with id: {} deleted", id);
+            return deleted.getName();
+        }
         Employee employeeById = getEmployeeById(id);
 
         DeleteEmployee deleteEmployeeInput = modelMapper.map(employeeById, DeleteEmployee.class);
@@ -151,49 +340,346 @@ public class EmployeeService {
         } catch (HttpStatusCodeException e) {
             throw new RuntimeException(String.format("Failed to delete employee with id: %s", id), e);
         }
-        log.info(String.format("Employee with id: %s deleted", id));
+        if (syncEnabled) {
+            salaryQuantiles.deleted(id, employeeById.getSalary());
+            upstreamCoordination.invalidateRoster();
+        }
+        log.info("Employee with id: {} deleted", id);
         return employeeById.getName();
     }
 
+    /**
+     * Sends a batch of creates upstream in one request; the upstream returns the created employees in input order.
+     */
+    private List<MockEmployee> createAll(List<CreateEmployee> inputs) {
+        String url = new StringBuilder(serverUrl).append("/batch").toString();
+        ParameterizedTypeReference<Response<List<MockEmployee>>> typeRef =
+                new ParameterizedTypeReference<Response<List<MockEmployee>>>() {};
+        List<MockEmployee> created = executeWithRetry(() -> restTemplate.exchange(
+                        url, HttpMethod.POST, new HttpEntity<>(new BatchCreateEmployee(inputs)), typeRef))
+                .data();
+        if (syncEnabled) {
+            created.forEach(mockEmployee -> salaryQuantiles.created(mockEmployee.getId(), mockEmployee.getSalary()));
+            upstreamCoordination.invalidateRoster();
+        }
+        log.debug("Created {} employees in one batch", created.size());
+        return created;
+    }
+
+    /**
+     * Sends a batch of deletes by id upstream in one request.
+     *
+     * @return the deleted employee for each id, or null where no employee had the id
+     */
+    private List<MockEmployee> deleteAll(List<String> ids) {
+        String url = new StringBuilder(serverUrl).append("/batch").toString();
+        ParameterizedTypeReference<Response<List<MockEmployee>>> typeRef =
+                new ParameterizedTypeReference<Response<List<MockEmployee>>>() {};
+        List<MockEmployee> deleted = executeWithRetry(() -> restTemplate.exchange(
+                        url, HttpMethod.DELETE, new HttpEntity<>(new BatchDeleteEmployee(ids)), typeRef))
+                .data();
+        Map<String, MockEmployee> deletedById = new HashMap<>();
+        deleted.forEach(mockEmployee -> deletedById.put(mockEmployee.getId(), mockEmployee));
+        if (syncEnabled && !deleted.isEmpty()) {
+            deleted.forEach(mockEmployee -> salaryQuantiles.deleted(mockEmployee.getId(), mockEmployee.getSalary()));
+            upstreamCoordination.invalidateRoster();
+        }
+        log.debug("Deleted {} of {} employees in one batch", deleted.size(), ids.size());
+        return ids.stream().map(deletedById::get).toList();
+    }
+
+    /**
+     * The id in the form the upstream returns it, so that deletes of one employee are recognised as such and matched
+     * with what the upstream deleted; null if the id is not a UUID.
+     */
+    private static String canonicalUuid(String id) {
+        try {
+            return UUID.fromString(id).toString();
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Syncs the roster replica outside any request, then builds what the first request after a reload would otherwise
+     * build: the top earners ranking, the name index and the salary sketch. Called by {@link RosterRefresher}.
+     */
+    public void refreshRoster() {
+        if (refreshReplica().isPresent()) {
+            log.debug("Upstream roster is not versioned, nothing to keep warm");
+            return;
+        }
+        rosterReplica.topEarners();
+        nameIndex.warm(rosterReplica::snapshot);
+        salaryQuantiles.warm(rosterReplica::snapshot);
+    }
+
+    /**
+     * Time since the roster replica was last synced with the upstream, by a request or a background refresh; empty
+     * before the first sync.
+     */
+    public Optional<Duration> rosterLag() {
+        return Optional.ofNullable(rosterReplica.lag());
+    }
+
+    /**
+     * Hit, miss and eviction counts of the results cached against the roster replica, by cache name.
+     */
+    public Map<String, CacheStatistics> cacheStatistics() {
+        return Map.of(
+                "highest_salary", highestSalaryStatistics,
+                "top_ten", topTenStatistics,
+                "search", searchCache.statistics(),
+                "name_index", nameIndex.statistics(),
+                "salary_sketch", salaryQuantiles.statistics());
+    }
+
+    /**
+     * The highest earners after syncing the roster, from the replica's ranking, which is kept current across roster
+     * changes and recomputed at most once per change. An unversioned upstream has no replica, so they are ranked from
+     * the fetched roster.
+     */
+    private List<MockEmployee> topEarners(CacheStatistics statistics) {
+        Optional<List<MockEmployee>> unversionedRoster = refreshReplica();
+        long filterStart = System.nanoTime();
+        List<MockEmployee> topEarners;
+        if (unversionedRoster.isPresent()) {
+            statistics.record(false);
+            topEarners = TopEarners.of(unversionedRoster.get(), RosterReplica.TOP_EARNERS);
+        } else {
+            TopEarners.Lookup lookup = rosterReplica.topEarners();
+            statistics.record(lookup.cached());
+            topEarners = lookup.employees();
+        }
+        RequestTiming.current().record(RequestTiming.Phase.FILTER, filterStart);
+        return topEarners;
+    }
+
+    /**
+     * Name search after syncing the roster. Results are cached per normalised query in {@link SearchCache}, which
+     * keeps them across roster changes that do not affect them; a miss filters the replica and maps only the matches.
+     */
+    private List<Employee> searchRoster(String query) {
+        Optional<List<MockEmployee>> unversionedRoster = refreshReplica();
+        if (unversionedRoster.isPresent()) {
+            return search(unversionedRoster.get(), query);
+        }
+        List<Employee> cached = searchCache.get(query);
+        if (cached != null) {
+            return cached;
+        }
+        RosterReplica.Snapshot snapshot = rosterReplica.snapshot();
+        List<Employee> employees = search(snapshot.employees(), query);
+        searchCache.put(query, snapshot.epoch(), snapshot.version(), employees);
+        return employees;
+    }
+
+    private List<Employee> search(List<MockEmployee> mockEmployees, String query) {
+        long filterStart = System.nanoTime();
+        List<MockEmployee> matches = mockEmployees.stream()
+                .filter(e -> e.getName().toLowerCase().contains(query))
+                .collect(Collectors.toList());
+        RequestTiming.current().record(RequestTiming.Phase.FILTER, filterStart);
+        long mappingStart = System.nanoTime();
+        List<Employee> employees = matches.stream()
+                .map(mockEmployee -> modelMapper.map(mockEmployee, Employee.class))
+                .collect(Collectors.toList());
+        RequestTiming.current().record(RequestTiming.Phase.MAPPING, mappingStart);
+        return employees;
+    }
+
+    private List<MockEmployee> fetchRoster() {
+        ParameterizedTypeReference<Response<List<MockEmployee>>> typeRef =
+                new ParameterizedTypeReference<Response<List<MockEmployee>>>() {};
+        return executeWithRetry(() -> restTemplate.exchange(serverUrl, HttpMethod.GET, null, typeRef))
+                .data();
+    }
+
+    private List<MockEmployee> syncRoster() {
+        return refreshReplica().orElseGet(rosterReplica::employees);
+    }
+
+    /**
+     * Brings the local roster replica up to date. Only the changes since the replica's version are fetched; the full
+     * roster is reloaded the first time, after the server restarts, or when the server no longer retains the history
+     * the replica needs. A roster another instance synced within {@code coordination.roster_max_age} stands in for a
+     * sync with the upstream, and a roster synced here is shared with the other instances.
+     *
+     * @return the fetched roster if the upstream does not version it, in which case there is no replica; otherwise
+     *     empty
+     */
+    private Optional<List<MockEmployee>> refreshReplica() {
+        if (loadSharedRoster()) {
+            return Optional.empty();
+        }
+        if (rosterReplica.isLoaded()) {
+            String url = UriComponentsBuilder.fromUriString(serverUrl)
+                    .path("/changes")
+                    .queryParam("since", rosterReplica.version())
+                    .toUriString();
+            ParameterizedTypeReference<Response<RosterChangeSet>> typeRef =
+                    new ParameterizedTypeReference<Response<RosterChangeSet>>() {};
+            RosterChangeSet changeSet = executeWithRetry(
+                            () -> restTemplate.exchange(url, HttpMethod.GET, null, typeRef))
+                    .data();
+            if (rosterReplica.apply(changeSet)) {
+                log.debug(
+                        "Applied {} roster changes, now at version {}",
+                        changeSet.getChanges().size(),
+                        changeSet.getVersion());
+                shareRoster();
+                return Optional.empty();
+            }
+            log.info("Roster changes since version {} unavailable, reloading roster", rosterReplica.version());
+        }
+
+        ParameterizedTypeReference<Response<List<MockEmployee>>> typeRef =
+                new ParameterizedTypeReference<Response<List<MockEmployee>>>() {};
+        ResponseEntity<Response<List<MockEmployee>>> response =
+                exchangeWithRetry(() -> restTemplate.exchange(serverUrl, HttpMethod.GET, null, typeRef));
+        List<MockEmployee> mockEmployees = response.getBody().data();
+        String epoch = response.getHeaders().getFirst(ROSTER_EPOCH_HEADER);
+        String version = response.getHeaders().getFirst(ROSTER_VERSION_HEADER);
+        if (epoch == null || version == null) {
+            log.debug("Upstream roster is not versioned, skipping replica");
+            return Optional.of(mockEmployees);
+        }
+        rosterReplica.load(epoch, Long.parseLong(version), mockEmployees);
+        log.debug("Reloaded roster replica at version {}", version);
+        shareRoster();
+        return Optional.empty();
+    }
+
+    /**
+     * Catches the replica up with a roster another instance synced recently, reading it only if the replica is
+     * behind it.
+     *
+     * @return {@code false} if there is no such roster, or it could not be read, and the upstream has to be asked
+     */
+    private boolean loadSharedRoster() {
+        Optional<UpstreamCoordination.SharedRoster> shared =
+                upstreamCoordination.sharedRoster(Duration.ofSeconds(sharedRosterMaxAgeInSec));
+        if (shared.isEmpty()) {
+            return false;
+        }
+        if (rosterReplica.confirm(shared.get().epoch(), shared.get().version())) {
+            return true;
+        }
+        try {
+            RosterReplica.Snapshot snapshot = shared.get().snapshot().get();
+            rosterReplica.load(snapshot.epoch(), snapshot.version(), snapshot.employees());
+            log.debug("Loaded shared roster at version {}", snapshot.version());
+            return true;
+        } catch (UncheckedIOException e) {
+            log.warn("Shared roster unavailable, syncing with the upstream: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    private void shareRoster() {
+        try {
+            upstreamCoordination.shareRoster(rosterReplica.epoch(), rosterReplica.version(), rosterReplica::snapshot);
+        } catch (UncheckedIOException e) {
+            log.warn("Failed to share roster: {}", e.getMessage());
+        }
+    }
+
     public <T> T executeWithRetry(Supplier<ResponseEntity<T>> requestSupplier) {
+        return exchangeWithRetry(requestSupplier).getBody();
+    }
+
+    /**
+     * Retries on 429 with exponential backoff. Attempts and backoff sleeps stop at the current request's
+     * {@link Deadline}: no attempt starts after it, and a backoff that would end past it fails the call at once.
+     */
+    public <T> ResponseEntity<T> exchangeWithRetry(Supplier<ResponseEntity<T>> requestSupplier) {
         log.debug("Inside executeWithRetry");
+        Deadline deadline = Deadline.current();
+        RequestTiming timing = RequestTiming.current();
         int attempt = 1;
         int backOffTimeInSec = INITIAL_BACKOFF_TIME;
         boolean isSuccess = false;
-        T responseBody = null;
+        ResponseEntity<T> successfulResponse = null;
 
         while (backOffTimeInSec < MAX_BACKOFF_TIME_IN_SEC) {
+            if (deadline.isExpired()) {
+                throw deadlineExceeded(attempt - 1, null);
+            }
+            // Another request, or another instance sharing the upstream budget, may be backing off already.
             try {
-                log.info(String.format("Proceeding with attempt: %d", attempt));
+                if (!upstreamBackoff.waitOutBackoff(deadline)) {
+                    throw deadlineExceeded(attempt - 1, null);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            UpstreamAttemptEvent attemptEvent = new UpstreamAttemptEvent();
+            attemptEvent.attempt = attempt;
+            attemptEvent.begin();
+            long upstreamStart = System.nanoTime();
+            try {
+                log.debug("Proceeding with attempt: {}", attempt);
                 ResponseEntity<T> response = requestSupplier.get();
+                attemptEvent.status = response.getStatusCode().value();
                 if (response.getStatusCode().is2xxSuccessful()) {
+                    upstreamBackoff.succeeded();
                     isSuccess = true;
-                    responseBody = response.getBody();
+                    successfulResponse = response;
                     break;
                 }
             } catch (HttpStatusCodeException e) {
+                attemptEvent.status = e.getStatusCode().value();
                 if (!e.getStatusCode().isSameCodeAs(HttpStatus.TOO_MANY_REQUESTS)) {
-                    log.error(String.format("Error while executing attempt: %s , %s", attempt, e.getMessage()));
+                    log.error("Error while executing attempt: {}, {}", attempt, e.getMessage());
                     throw e;
                 }
+            } catch (ResourceAccessException e) {
+                if (deadline.isExpired()) {
+                    throw deadlineExceeded(attempt, e);
+                }
+                throw e;
+            } finally {
+                timing.record(RequestTiming.Phase.UPSTREAM, upstreamStart);
+                attemptEvent.commit();
             }
 
             attempt++;
             try {
                 backOffTimeInSec *= 2;
-                log.debug(String.format("Waiting for %s seconds before attempting retry", backOffTimeInSec));
-                Thread.sleep(backOffTimeInSec * 1000);
+                Duration backOff = Duration.ofSeconds(backOffTimeInSec);
+                upstreamBackoff.throttled(backOff);
+                if (backOff.compareTo(deadline.remaining()) >= 0) {
+                    throw deadlineExceeded(attempt - 1, null);
+                }
+                log.debug("Waiting for {} seconds before attempting retry", backOffTimeInSec);
+                RetryWaitEvent waitEvent = new RetryWaitEvent();
+                waitEvent.attempt = attempt - 1;
+                waitEvent.plannedBackoff = backOff.toMillis();
+                waitEvent.begin();
+                long backOffStart = System.nanoTime();
+                try {
+                    waitEvent.cancelled = !deadline.sleep(backOff);
+                } finally {
+                    timing.record(RequestTiming.Phase.BACKOFF, backOffStart);
+                    waitEvent.commit();
+                }
             } catch (InterruptedException e) {
                 Thread.currentThread().interrupt();
             }
         }
 
         if (!isSuccess) {
-            log.error(String.format("%d attempts are exhausted. Please try after some time", attempt));
-            throw new RateLimitExceededException(
-                    String.format("%d attempts are exhausted. Please try after some time", attempt));
+            String message = String.format("%d attempts are exhausted. Please try after some time", attempt);
+            log.error(message);
+            throw new RateLimitExceededException(message);
         }
         log.debug("Exiting executeWithRetry");
-        return responseBody;
+        return successfulResponse;
+    }
+
+    private DeadlineExceededException deadlineExceeded(int attempts, Throwable cause) {
+        String message = String.format("Request deadline exceeded after %d attempts", attempts);
+        log.warn(message);
+        return new DeadlineExceededException(message, cause);
     }
 }
@@ -0,0 +1,319 @@
+package com.reliaquest.api.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Shares the upstream state and the roster between api instances on one host through files in one directory.
+ *
+ * <p>The state is a few hundred bytes at fixed offsets in the memory-mapped file {@code upstream-state}. Every read or
+ * update holds an exclusive lock on that file, which the operating system enforces between JVMs, and, since a JVM
+ * holds file locks on behalf of all its threads, a lock per file within this JVM. The shared roster is JSON in
+ * {@code roster.json}, written to a temporary file outside the lock and renamed over the old one, so readers see
+ * either roster whole. Its epoch, version and sync time are kept with the state, so an instance can tell whether the
+ * roster is worth reading without reading it. Instances sharing a directory must call the same upstream, which
+ * {@link #directoryFor(Path, String)} arranges by giving each upstream URL a directory of its own.
+ *
+ * <p>Only a success ends a throttled episode, so one left behind by instances that have since stopped would hold back
+ * the next to start for good. Opening the file therefore drops a backoff last written by a process that is no longer
+ * running, or one that ended longer ago than {@code maxBackoff}, the longest an instance backs off.
+ */
+@Slf4j
+public class FileUpstreamCoordination implements UpstreamCoordination, AutoCloseable {
+
+    private static final int MAGIC = 0x52515553;
+    private static final int SIZE = 512;
+    private static final int MAX_EPOCH_BYTES = 256;
+
+    private static final int MAGIC_OFFSET = 0;
+    private static final int RETRY_AT_OFFSET = 8;
+    private static final int LAST_CALL_OFFSET = 16;
+    private static final int THROTTLED_SINCE_OFFSET = 24;
+    private static final int SUCCESSES_OFFSET = 32;
+    private static final int AVERAGE_PERMITS_OFFSET = 40;
+    private static final int AVERAGE_EPISODE_OFFSET = 48;
+    private static final int ROSTER_VERSION_OFFSET = 56;
+    private static final int ROSTER_SYNCED_AT_OFFSET = 64;
+    private static final int ROSTER_EPOCH_LENGTH_OFFSET = 72;
+    private static final int ROSTER_EPOCH_OFFSET = 76;
+    private static final int WRITER_PID_OFFSET = ROSTER_EPOCH_OFFSET + MAX_EPOCH_BYTES + 4;
+
+    private static final long PID = ProcessHandle.current().pid();
+
+    private static final Map<Path, Lock> LOCKS = new ConcurrentHashMap<>();
+
+    private final ObjectMapper objectMapper;
+    private final Path directory;
+    private final Path stateFile;
+    private final Path rosterFile;
+    private final MappedByteBuffer buffer;
+    private final Lock lock;
+    private FileChannel channel;
+    private boolean closed;
+
+    public FileUpstreamCoordination(Path directory, ObjectMapper objectMapper, Duration maxBackoff) throws IOException {
+        Files.createDirectories(directory);
+        this.objectMapper = objectMapper;
+        this.directory = directory;
+        this.stateFile = directory.resolve("upstream-state").toAbsolutePath().normalize();
+        this.rosterFile = directory.resolve("roster.json");
+        this.channel = open();
+        this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, SIZE);
+        this.lock = LOCKS.computeIfAbsent(stateFile, file -> new ReentrantLock());
+        locked(() -> {
+            expireStaleBackoff(maxBackoff);
+            return null;
+        });
+        log.info("Sharing upstream state and roster through {}", directory.toAbsolutePath());
+    }
+
+    /**
+     * The directory under {@code base} for instances calling {@code upstreamUrl}, named by a hash of the URL so that
+     * deployments calling different upstreams on one host never share a rate budget or a roster.
+     */
+    public static Path directoryFor(Path base, String upstreamUrl) {
+        try {
+            final var digest =
+                    MessageDigest.getInstance("SHA-256").digest(upstreamUrl.getBytes(StandardCharsets.UTF_8));
+            return base.resolve("upstream-" + HexFormat.of().formatHex(digest, 0, 8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    @Override
+    public <T> T read(Function<UpstreamState, T> read) {
+        return locked(() -> read.apply(readState()));
+    }
+
+    @Override
+    public void update(Consumer<UpstreamState> update) {
+        locked(() -> {
+            final var state = readState();
+            update.accept(state);
+            writeState(state);
+            return null;
+        });
+    }
+
+    @Override
+    public Optional<SharedRoster> sharedRoster(Duration maxAge) {
+        final long now = System.currentTimeMillis();
+        return locked(() -> {
+            final long syncedAt = buffer.getLong(ROSTER_SYNCED_AT_OFFSET);
+            if (syncedAt == 0 || now - syncedAt > maxAge.toMillis()) {
+                return Optional.empty();
+            }
+            return Optional.of(
+                    new SharedRoster(rosterEpoch(), buffer.getLong(ROSTER_VERSION_OFFSET), this::readRoster));
+        });
+    }
+
+    @Override
+    public void shareRoster(String epoch, long version, Supplier<RosterReplica.Snapshot> snapshot) {
+        if (epoch.getBytes(StandardCharsets.UTF_8).length > MAX_EPOCH_BYTES) {
+            log.debug("Roster epoch {} is too long to share", epoch);
+            return;
+        }
+        if (locked(() -> recordSync(epoch, version))) {
+            return;
+        }
+        // Serialised outside the lock, which every upstream call takes to record its outcome.
+        final var roster = snapshot.get();
+        final Path written = writeRoster(roster);
+        locked(() -> {
+            try {
+                if (recordSync(roster.epoch(), roster.version())) {
+                    Files.deleteIfExists(written);
+                    return null;
+                }
+                Files.move(written, rosterFile, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to share roster in " + rosterFile, e);
+            }
+            final byte[] epochBytes = roster.epoch().getBytes(StandardCharsets.UTF_8);
+            buffer.putLong(ROSTER_VERSION_OFFSET, roster.version());
+            buffer.putInt(ROSTER_EPOCH_LENGTH_OFFSET, epochBytes.length);
+            buffer.put(ROSTER_EPOCH_OFFSET, epochBytes);
+            buffer.putLong(ROSTER_SYNCED_AT_OFFSET, System.currentTimeMillis());
+            return null;
+        });
+        log.debug(
+                "Shared roster version {} of {} employees",
+                roster.version(),
+                roster.employees().size());
+    }
+
+    @Override
+    public void invalidateRoster() {
+        locked(() -> {
+            buffer.putLong(ROSTER_SYNCED_AT_OFFSET, 0);
+            return null;
+        });
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            closed = true;
+            channel.close();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void expireStaleBackoff(Duration maxBackoff) {
+        final var state = readState();
+        final long lastBackoff = Math.max(state.getRetryAtMillis(), state.getThrottledSinceMillis());
+        if (lastBackoff == 0) {
+            return;
+        }
+        final long writer = buffer.getLong(WRITER_PID_OFFSET);
+        final boolean writerGone = writer != 0
+                && writer != PID
+                && !ProcessHandle.of(writer).map(ProcessHandle::isAlive).orElse(false);
+        final boolean expired = System.currentTimeMillis() - lastBackoff > maxBackoff.toMillis();
+        if (writerGone || expired) {
+            log.info(
+                    "Dropping a backoff left in {} by {}",
+                    stateFile,
+                    writerGone ? "process " + writer + ", which is gone" : "an episode that ended long ago");
+            state.setRetryAtMillis(0);
+            state.setThrottledSinceMillis(0);
+            writeState(state);
+        }
+    }
+
+    /**
+     * Records a sync that found the upstream at {@code epoch} and {@code version} if the shared roster is already at
+     * that version or later.
+     *
+     * @return {@code false} if the shared roster is older or from another epoch and has to be replaced
+     */
+    private boolean recordSync(String epoch, long version) {
+        final long sharedVersion = buffer.getLong(ROSTER_VERSION_OFFSET);
+        if (!Objects.equals(rosterEpoch(), epoch) || sharedVersion < version) {
+            return false;
+        }
+        if (sharedVersion == version) {
+            buffer.putLong(ROSTER_SYNCED_AT_OFFSET, System.currentTimeMillis());
+        }
+        return true;
+    }
+
+    private String rosterEpoch() {
+        final int length = buffer.getInt(ROSTER_EPOCH_LENGTH_OFFSET);
+        if (length == 0) {
+            return null;
+        }
+        final byte[] epoch = new byte[length];
+        buffer.get(ROSTER_EPOCH_OFFSET, epoch);
+        return new String(epoch, StandardCharsets.UTF_8);
+    }
+
+    private Path writeRoster(RosterReplica.Snapshot roster) {
+        try {
+            final Path written = Files.createTempFile(directory, "roster", ".tmp");
+            objectMapper.writeValue(written.toFile(), roster);
+            return written;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write roster to " + directory, e);
+        }
+    }
+
+    private RosterReplica.Snapshot readRoster() {
+        try {
+            return objectMapper.readValue(rosterFile.toFile(), RosterReplica.Snapshot.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read shared roster " + rosterFile, e);
+        }
+    }
+
+    private UpstreamState readState() {
+        final var state = new UpstreamState();
+        state.setRetryAtMillis(buffer.getLong(RETRY_AT_OFFSET));
+        state.setLastCallMillis(buffer.getLong(LAST_CALL_OFFSET));
+        state.setThrottledSinceMillis(buffer.getLong(THROTTLED_SINCE_OFFSET));
+        state.setSuccessesSinceThrottled(buffer.getInt(SUCCESSES_OFFSET));
+        state.setAveragePermits(buffer.getDouble(AVERAGE_PERMITS_OFFSET));
+        state.setAverageEpisodeMillis(buffer.getDouble(AVERAGE_EPISODE_OFFSET));
+        return state;
+    }
+
+    private void writeState(UpstreamState state) {
+        buffer.putLong(RETRY_AT_OFFSET, state.getRetryAtMillis());
+        buffer.putLong(LAST_CALL_OFFSET, state.getLastCallMillis());
+        buffer.putLong(THROTTLED_SINCE_OFFSET, state.getThrottledSinceMillis());
+        buffer.putInt(SUCCESSES_OFFSET, state.getSuccessesSinceThrottled());
+        buffer.putDouble(AVERAGE_PERMITS_OFFSET, state.getAveragePermits());
+        buffer.putDouble(AVERAGE_EPISODE_OFFSET, state.getAverageEpisodeMillis());
+        buffer.putLong(WRITER_PID_OFFSET, PID);
+    }
+
+    /**
+     * Runs {@code action} holding this JVM's lock and the file lock, first laying out a state file no instance has
+     * written yet.
+     */
+    private <T> T locked(Supplier<T> action) {
+        lock.lock();
+        try (FileLock ignored = lockFile()) {
+            if (buffer.getInt(MAGIC_OFFSET) != MAGIC) {
+                buffer.put(0, new byte[SIZE]);
+                writeState(new UpstreamState());
+                buffer.putInt(MAGIC_OFFSET, MAGIC);
+            }
+            return action.get();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to lock " + stateFile, e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /*
+     * An interrupt closes a FileChannel, even one it interrupts before a blocking call, so the interrupt status is set
+     * aside while locking and a channel an interrupt has closed is reopened. The mapping outlives the channel.
+     */
+    private FileLock lockFile() throws IOException {
+        if (!channel.isOpen() && !closed) {
+            channel = open();
+        }
+        final boolean interrupted = Thread.interrupted();
+        try {
+            return channel.lock();
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private FileChannel open() throws IOException {
+        return FileChannel.open(
+                stateFile, StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.CREATE);
+    }
+}
@@ -0,0 +1,36 @@
+package com.reliaquest.api.service;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Keeps the upstream state to this instance; there is no other instance to share a roster with.
+ */
+public class LocalUpstreamCoordination implements UpstreamCoordination {
+
+    private final UpstreamState state = new UpstreamState();
+
+    @Override
+    public synchronized <T> T read(Function<UpstreamState, T> read) {
+        return read.apply(state);
+    }
+
+    @Override
+    public synchronized void update(Consumer<UpstreamState> update) {
+        update.accept(state);
+    }
+
+    @Override
+    public Optional<SharedRoster> sharedRoster(Duration maxAge) {
+        return Optional.empty();
+    }
+
+    @Override
+    public void shareRoster(String epoch, long version, Supplier<RosterReplica.Snapshot> snapshot) {}
+
+    @Override
+    public void invalidateRoster() {}
+}
@@ -0,0 +1,543 @@
+package com.reliaquest.api.service;
+
+import com.reliaquest.api.exception.InvalidRequestException;
+import com.reliaquest.api.model.MockEmployee;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Ranked name search: an inverted index from the tokens of employee names, held in a {@link NameTrie}, to the
+ * employees whose names contain them.
+ *
+ * <p>A query is split into tokens the same way as names, and an employee matches when every query token matches one
+ * of the tokens of their name: exactly ({@link Mode#TOKEN}), as a prefix ({@link Mode#PREFIX}), or within a few edits
+ * ({@link Mode#FUZZY}). Each query token scores its best match, an exact token over a prefix, a prefix covering more
+ * of the token over a shorter one, and one edit over two; an employee's score is the average over the query tokens.
+ * The best {@code limit} employees are returned, highest score first and then by name. Matching starts from the query
+ * token with the fewest candidate employees and visits its tokens best first, each token's employees in name order,
+ * stopping as soon as nothing left to visit can outrank what has been found.
+ *
+ * <p>The index follows the roster replica as its {@link RosterReplica.Listener}, inserting and deleting employees as
+ * changes are applied. It is built from a replica snapshot on the first search after a full reload, after a change it
+ * could not follow, or once deleted employees outnumber the live ones. Searches share a read lock; updates and builds
+ * take the write lock.
+ */
+@Slf4j
+@Component
+public class NameIndex implements RosterReplica.Listener {
+
+    private static final Comparator<MockEmployee> BY_NAME = Comparator.comparing(
+                    MockEmployee::getName, Comparator.nullsFirst(Comparator.<String>naturalOrder()))
+            .thenComparing(MockEmployee::getId);
+    private static final Comparator<Hit> BEST_FIRST =
+            Comparator.comparingDouble(Hit::score).reversed().thenComparing(Hit::employee, BY_NAME);
+    private static final Comparator<Hit> WORST_FIRST = BEST_FIRST.reversed();
+
+    private static final float EXACT_SCORE = 1.0f;
+    /** Deleted employees tolerated before the index is rebuilt, however small the roster. */
+    private static final int MIN_DELETED_BEFORE_REBUILD = 1024;
+
+    private final int maxEdits;
+    private final int maxLimit;
+    private final CacheStatistics statistics = new CacheStatistics();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Index index;
+    private String epoch;
+    private long version;
+
+    public NameIndex(
+            @Value("${service.employee.name_index.max_edits: 2}") int maxEdits,
+            @Value("${service.employee.name_index.max_limit: 100}") int maxLimit) {
+        this.maxEdits = maxEdits;
+        this.maxLimit = maxLimit;
+    }
+
+    public enum Mode {
+        TOKEN,
+        PREFIX,
+        FUZZY;
+
+        public static Mode parse(String value) {
+            for (var mode : values()) {
+                if (mode.name().equalsIgnoreCase(value.trim())) {
+                    return mode;
+                }
+            }
+            throw new InvalidRequestException("Unknown search mode '" + value + "', expected token, prefix or fuzzy");
+        }
+    }
+
+    /**
+     * The distinct lower-cased runs of letters and digits in {@code text}, in order.
+     */
+    public static List<String> tokenise(String text) {
+        final var tokens = new ArrayList<String>(4);
+        if (text == null) {
+            return tokens;
+        }
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            if (i < text.length() && Character.isLetterOrDigit(text.charAt(i))) {
+                if (start < 0) {
+                    start = i;
+                }
+            } else if (start >= 0) {
+                final var token = text.substring(start, i).toLowerCase();
+                if (!tokens.contains(token)) {
+                    tokens.add(token);
+                }
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * Hits count searches answered from the current index, misses those that had to build it first.
+     */
+    public CacheStatistics statistics() {
+        return statistics;
+    }
+
+    /**
+     * The best {@code limit} matches for {@code query} in the replica, building the index from {@code snapshot} if it
+     * is not current. The snapshot is taken without holding the index lock, since the replica calls into the index
+     * under its own lock.
+     */
+    public List<MockEmployee> search(String query, Mode mode, int limit, Supplier<RosterReplica.Snapshot> snapshot) {
+        final var tokens = validate(query, limit);
+        if (tokens.isEmpty()) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            if (index != null) {
+                statistics.record(true);
+                return index.search(tokens, mode, limit, maxEdits);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        statistics.record(false);
+        final var current = snapshot.get();
+        final var built = build(current);
+        final var employees = built.search(tokens, mode, limit, maxEdits);
+        install(built, current);
+        return employees;
+    }
+
+    /**
+     * Builds the index from {@code snapshot} if it is not current, so that the next search does not have to.
+     */
+    public void warm(Supplier<RosterReplica.Snapshot> snapshot) {
+        lock.readLock().lock();
+        try {
+            if (index != null) {
+                return;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        final var current = snapshot.get();
+        install(build(current), current);
+    }
+
+    /**
+     * The best {@code limit} matches for {@code query} in {@code roster}, indexed for this search only.
+     */
+    public List<MockEmployee> search(String query, Mode mode, int limit, List<MockEmployee> roster) {
+        final var tokens = validate(query, limit);
+        return tokens.isEmpty() ? List.of() : Index.of(roster).search(tokens, mode, limit, maxEdits);
+    }
+
+    @Override
+    public void reloaded(String epoch, long version) {
+        lock.writeLock().lock();
+        try {
+            index = null;
+            this.epoch = epoch;
+            this.version = version;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void changed(
+            String epoch, long previousVersion, long version, List<MockEmployee> inserted, List<MockEmployee> deleted) {
+        lock.writeLock().lock();
+        try {
+            if (!Objects.equals(this.epoch, epoch) || this.version != previousVersion) {
+                index = null;
+            } else if (index != null) {
+                deleted.forEach(index::delete);
+                inserted.forEach(index::insert);
+                if (index.deleted > Math.max(MIN_DELETED_BEFORE_REBUILD, index.ordinals.size())) {
+                    index = null;
+                }
+            }
+            this.epoch = epoch;
+            this.version = version;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private Index build(RosterReplica.Snapshot snapshot) {
+        final long buildStart = System.nanoTime();
+        final var built = Index.of(snapshot.employees());
+        log.debug(
+                "Built name index of {} employees and {} tokens in {} ms",
+                snapshot.employees().size(),
+                built.trie.size(),
+                (System.nanoTime() - buildStart) / 1_000_000);
+        return built;
+    }
+
+    private void install(Index built, RosterReplica.Snapshot snapshot) {
+        lock.writeLock().lock();
+        try {
+            // A change applied since the snapshot was taken has moved the replica past it.
+            if (index == null && Objects.equals(epoch, snapshot.epoch()) && version == snapshot.version()) {
+                index = built;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private List<String> validate(String query, int limit) {
+        if (limit < 1 || limit > maxLimit) {
+            throw new InvalidRequestException("Search limit must be between 1 and " + maxLimit + ", was " + limit);
+        }
+        return tokenise(query);
+    }
+
+    /**
+     * Edits allowed for a query token: none up to two characters, where any short token would be a match, one up to
+     * five and {@code maxEdits} beyond.
+     */
+    static int allowedEdits(int length, int maxEdits) {
+        if (length <= 2) {
+            return 0;
+        }
+        return Math.min(length <= 5 ? 1 : 2, maxEdits);
+    }
+
+    private static float prefixScore(String prefix, String token) {
+        return 0.5f + 0.4f * prefix.length() / token.length();
+    }
+
+    private static float fuzzyScore(int distance) {
+        return 0.45f - 0.15f * distance;
+    }
+
+    private record Hit(MockEmployee employee, float score) {}
+
+    /**
+     * The tokens of the dictionary a query token matches, with the score of each match, and an open-addressing table
+     * from token id to position, since every employee scanned looks up each of its tokens.
+     */
+    private record Candidates(int[] tokenIds, float[] scores, int[] slots) {
+
+        static Candidates of(int[] tokenIds, float[] scores) {
+            final int[] slots = new int[Integer.highestOneBit(Math.max(1, tokenIds.length) * 2) * 2];
+            Arrays.fill(slots, -1);
+            for (int i = 0; i < tokenIds.length; i++) {
+                int slot = tokenIds[i] & (slots.length - 1);
+                while (slots[slot] >= 0) {
+                    slot = (slot + 1) & (slots.length - 1);
+                }
+                slots[slot] = i;
+            }
+            return new Candidates(tokenIds, scores, slots);
+        }
+
+        float score(int tokenId) {
+            int slot = tokenId & (slots.length - 1);
+            while (slots[slot] >= 0) {
+                if (tokenIds[slots[slot]] == tokenId) {
+                    return scores[slots[slot]];
+                }
+                slot = (slot + 1) & (slots.length - 1);
+            }
+            return 0;
+        }
+
+        /**
+         * The id of the best-scoring of {@code tokens} (the first on a tie), or -1 if none matches.
+         */
+        int best(int[] tokens) {
+            int best = -1;
+            float bestScore = 0;
+            for (int token : tokens) {
+                final float score = score(token);
+                if (score > bestScore) {
+                    best = token;
+                    bestScore = score;
+                }
+            }
+            return best;
+        }
+
+        /** Indexes into {@link #tokenIds}, highest score first. */
+        int[] byScore() {
+            // Scores are positive, so their bits sort as they do; the index rides in the low half.
+            final long[] keys = new long[tokenIds.length];
+            for (int i = 0; i < keys.length; i++) {
+                keys[i] = (long) Float.floatToIntBits(scores[i]) << 32 | i;
+            }
+            Arrays.sort(keys);
+            final int[] order = new int[keys.length];
+            for (int i = 0; i < order.length; i++) {
+                order[i] = (int) keys[keys.length - 1 - i];
+            }
+            return order;
+        }
+    }
+
+    /**
+     * Collects the matches of a query token, a token id and a score packed into each long, so that sorting orders them
+     * by id and then by score without boxing; a token matched more than once keeps its best score.
+     */
+    private static final class CandidatesBuilder {
+
+        private long[] matches = new long[16];
+        private int size;
+
+        void add(int tokenId, float score) {
+            if (size == matches.length) {
+                matches = Arrays.copyOf(matches, size * 2);
+            }
+            matches[size++] = (long) tokenId << 32 | (Float.floatToIntBits(score) & 0xFFFFFFFFL);
+        }
+
+        Candidates build() {
+            Arrays.sort(matches, 0, size);
+            final int[] tokenIds = new int[size];
+            final float[] scores = new float[size];
+            int distinct = 0;
+            for (int i = 0; i < size; i++) {
+                final int tokenId = (int) (matches[i] >>> 32);
+                // A token matched more than once keeps its last, best, score.
+                if (distinct > 0 && tokenIds[distinct - 1] == tokenId) {
+                    distinct--;
+                }
+                tokenIds[distinct] = tokenId;
+                scores[distinct++] = Float.intBitsToFloat((int) matches[i]);
+            }
+            return Candidates.of(Arrays.copyOf(tokenIds, distinct), Arrays.copyOf(scores, distinct));
+        }
+    }
+
+    /** Growable list of the ordinals of the employees with one token, in name order. */
+    private static final class Postings {
+
+        private int[] ordinals = new int[2];
+        private int size;
+
+        void insert(int ordinal, List<MockEmployee> employees) {
+            final var employee = employees.get(ordinal);
+            int at = size;
+            // A full build inserts in name order, so only changes applied later search for their place.
+            if (size > 0 && BY_NAME.compare(employee, employees.get(ordinals[size - 1])) < 0) {
+                int low = 0;
+                int high = size - 1;
+                while (low < high) {
+                    final int middle = (low + high) >>> 1;
+                    if (BY_NAME.compare(employee, employees.get(ordinals[middle])) < 0) {
+                        high = middle;
+                    } else {
+                        low = middle + 1;
+                    }
+                }
+                at = low;
+            }
+            if (size == ordinals.length) {
+                ordinals = Arrays.copyOf(ordinals, size * 2);
+            }
+            System.arraycopy(ordinals, at, ordinals, at + 1, size - at);
+            ordinals[at] = ordinal;
+            size++;
+        }
+
+        void remove(int ordinal) {
+            for (int i = 0; i < size; i++) {
+                if (ordinals[i] == ordinal) {
+                    System.arraycopy(ordinals, i + 1, ordinals, i, size - i - 1);
+                    size--;
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Employees numbered in insertion order, the token ids of each name, and the postings of each token. A deleted
+     * employee is removed from the postings and its slot cleared; slots are not reused. Not thread-safe.
+     */
+    private static final class Index {
+
+        private final NameTrie trie = new NameTrie();
+        private final List<MockEmployee> employees = new ArrayList<>();
+        private final List<int[]> tokensByOrdinal = new ArrayList<>();
+        private final List<Postings> postings = new ArrayList<>();
+        private final Map<String, Integer> ordinals = new HashMap<>();
+        private int deleted;
+
+        static Index of(List<MockEmployee> roster) {
+            final var index = new Index();
+            roster.stream().sorted(BY_NAME).forEach(index::insert);
+            return index;
+        }
+
+        void insert(MockEmployee employee) {
+            delete(employee);
+            final int ordinal = employees.size();
+            final var tokens = tokenise(employee.getName());
+            final int[] tokenIds = new int[tokens.size()];
+            employees.add(employee);
+            tokensByOrdinal.add(tokenIds);
+            ordinals.put(employee.getId(), ordinal);
+            for (int i = 0; i < tokenIds.length; i++) {
+                tokenIds[i] = trie.add(tokens.get(i));
+                if (tokenIds[i] == postings.size()) {
+                    postings.add(new Postings());
+                }
+                postings.get(tokenIds[i]).insert(ordinal, employees);
+            }
+        }
+
+        void delete(MockEmployee employee) {
+            final Integer ordinal = ordinals.remove(employee.getId());
+            if (ordinal != null) {
+                for (int tokenId : tokensByOrdinal.get(ordinal)) {
+                    postings.get(tokenId).remove(ordinal);
+                }
+                employees.set(ordinal, null);
+                tokensByOrdinal.set(ordinal, null);
+                deleted++;
+            }
+        }
+
+        List<MockEmployee> search(List<String> tokens, Mode mode, int limit, int maxEdits) {
+            final var candidates = new Candidates[tokens.size()];
+            int driver = 0;
+            long fewest = Long.MAX_VALUE;
+            for (int q = 0; q < candidates.length; q++) {
+                candidates[q] = candidates(tokens.get(q), mode, maxEdits);
+                long count = 0;
+                for (int tokenId : candidates[q].tokenIds()) {
+                    count += postings.get(tokenId).size;
+                }
+                if (count == 0) {
+                    return List.of();
+                }
+                if (count < fewest) {
+                    driver = q;
+                    fewest = count;
+                }
+            }
+
+            final var ranked = new PriorityQueue<Hit>(limit + 1, WORST_FIRST);
+            final var driverCandidates = candidates[driver];
+            for (int c : driverCandidates.byScore()) {
+                final int tokenId = driverCandidates.tokenIds()[c];
+                final float tokenScore = driverCandidates.scores()[c];
+                // The most an employee reached through this token can score: every other query token exact.
+                float bound = tokenScore;
+                for (int q = 1; q < candidates.length; q++) {
+                    bound += EXACT_SCORE;
+                }
+                bound /= candidates.length;
+                if (ranked.size() == limit && ranked.peek().score() > bound) {
+                    break;
+                }
+                final var posting = postings.get(tokenId);
+                for (int p = 0; p < posting.size; p++) {
+                    final int ordinal = posting.ordinals[p];
+                    final var employee = employees.get(ordinal);
+                    if (ranked.size() == limit && outranked(ranked.peek(), bound, employee)) {
+                        // The rest of this token's employees come later by name, so at best they tie and lose.
+                        break;
+                    }
+                    final int[] employeeTokens = tokensByOrdinal.get(ordinal);
+                    // Each employee is scored once, from the postings of the name token that matches best.
+                    if (driverCandidates.best(employeeTokens) != tokenId) {
+                        continue;
+                    }
+                    final float score = score(candidates, driver, tokenScore, employeeTokens);
+                    if (score == 0) {
+                        continue;
+                    }
+                    if (ranked.size() < limit) {
+                        ranked.add(new Hit(employee, score));
+                    } else if (!outranked(ranked.peek(), score, employee)) {
+                        ranked.poll();
+                        ranked.add(new Hit(employee, score));
+                    }
+                }
+            }
+            return ranked.stream().sorted(BEST_FIRST).map(Hit::employee).toList();
+        }
+
+        /**
+         * Whether {@code worst}, the lowest ranked hit so far, ranks above {@code employee} scoring {@code score}.
+         */
+        private static boolean outranked(Hit worst, float score, MockEmployee employee) {
+            return worst.score() > score || (worst.score() == score && BY_NAME.compare(worst.employee(), employee) < 0);
+        }
+
+        private Candidates candidates(String token, Mode mode, int maxEdits) {
+            final var candidates = new CandidatesBuilder();
+            final int exact = trie.find(token);
+            if (exact >= 0) {
+                candidates.add(exact, EXACT_SCORE);
+            }
+            if (mode != Mode.TOKEN) {
+                trie.forEachWithPrefix(
+                        token, tokenId -> candidates.add(tokenId, prefixScore(token, trie.token(tokenId))));
+            }
+            final int edits = allowedEdits(token.length(), maxEdits);
+            if (mode == Mode.FUZZY && edits > 0) {
+                trie.forEachWithin(token, edits, (tokenId, distance) -> candidates.add(tokenId, fuzzyScore(distance)));
+            }
+            return candidates.build();
+        }
+
+        /**
+         * The average over the query tokens of the best match among {@code employeeTokens}, or 0 if any query token
+         * matches none of them. Adds up in the same order as the bound in {@link #search}, so that an employee whose
+         * other tokens all match exactly scores exactly the bound.
+         */
+        private static float score(Candidates[] candidates, int driver, float driverScore, int[] employeeTokens) {
+            float total = driverScore;
+            for (int q = 0; q < candidates.length; q++) {
+                if (q == driver) {
+                    continue;
+                }
+                float best = 0;
+                for (int token : employeeTokens) {
+                    best = Math.max(best, candidates[q].score(token));
+                }
+                if (best == 0) {
+                    return 0;
+                }
+                total += best;
+            }
+            return total / candidates.length;
+        }
+    }
+}
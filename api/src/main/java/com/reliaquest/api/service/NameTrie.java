@@ -0,0 +1,167 @@
+package com.reliaquest.api.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntConsumer;
+
+/**
+ * Dictionary of name tokens as a prefix trie, each distinct token numbered in the order it was added.
+ *
+ * <p>Besides exact and prefix lookups, {@link #forEachWithin} finds every token within a Levenshtein distance of a word
+ * by walking the trie with one row of the edit-distance table per character: a row is the state of a Levenshtein
+ * automaton for the word, shared by every token below that node, and a branch is abandoned as soon as no cell of its
+ * row is within the distance. Only the few branches near the word are visited, however large the dictionary. Not
+ * thread-safe; {@link NameIndex} guards it with its own lock.
+ */
+public final class NameTrie {
+
+    private final Node root = new Node();
+    private final List<String> tokens = new ArrayList<>();
+
+    /**
+     * Receives a token found by {@link #forEachWithin} and its distance from the word.
+     */
+    @FunctionalInterface
+    public interface Match {
+        void accept(int tokenId, int distance);
+    }
+
+    /**
+     * @return the id of {@code token}, added if it is new
+     */
+    public int add(String token) {
+        Node node = root;
+        for (int i = 0; i < token.length(); i++) {
+            node = node.childOrAdd(token.charAt(i));
+        }
+        if (node.tokenId < 0) {
+            node.tokenId = tokens.size();
+            tokens.add(token);
+        }
+        return node.tokenId;
+    }
+
+    /**
+     * @return the id of {@code token}, or -1 if it was never added
+     */
+    public int find(String token) {
+        final var node = descend(token);
+        return node == null ? -1 : node.tokenId;
+    }
+
+    public String token(int tokenId) {
+        return tokens.get(tokenId);
+    }
+
+    public int size() {
+        return tokens.size();
+    }
+
+    /**
+     * Calls {@code action} with the id of every token starting with {@code prefix}, {@code prefix} itself included.
+     */
+    public void forEachWithPrefix(String prefix, IntConsumer action) {
+        final var node = descend(prefix);
+        if (node != null) {
+            collect(node, action);
+        }
+    }
+
+    /**
+     * Calls {@code match} for every token at most {@code maxDistance} insertions, deletions or substitutions away from
+     * {@code word}.
+     */
+    public void forEachWithin(String word, int maxDistance, Match match) {
+        final int columns = word.length() + 1;
+        // No token deeper than this can be within the distance, so one row per depth is enough.
+        final int[][] rows = new int[columns + maxDistance + 1][columns];
+        for (int i = 0; i < columns; i++) {
+            rows[0][i] = i;
+        }
+        if (root.tokenId >= 0 && word.length() <= maxDistance) {
+            match.accept(root.tokenId, word.length());
+        }
+        for (int c = 0; c < root.size; c++) {
+            walk(root.children[c], root.labels[c], word, rows, 1, maxDistance, match);
+        }
+    }
+
+    private static void walk(Node node, char label, String word, int[][] rows, int depth, int max, Match match) {
+        final int[] previous = rows[depth - 1];
+        final int[] current = rows[depth];
+        current[0] = depth;
+        int smallest = depth;
+        for (int i = 1; i < current.length; i++) {
+            final int substitution = previous[i - 1] + (word.charAt(i - 1) == label ? 0 : 1);
+            current[i] = Math.min(substitution, Math.min(previous[i], current[i - 1]) + 1);
+            smallest = Math.min(smallest, current[i]);
+        }
+        final int distance = current[current.length - 1];
+        if (node.tokenId >= 0 && distance <= max) {
+            match.accept(node.tokenId, distance);
+        }
+        if (smallest > max) {
+            return;
+        }
+        for (int c = 0; c < node.size; c++) {
+            walk(node.children[c], node.labels[c], word, rows, depth + 1, max, match);
+        }
+    }
+
+    private Node descend(String prefix) {
+        Node node = root;
+        for (int i = 0; i < prefix.length() && node != null; i++) {
+            node = node.child(prefix.charAt(i));
+        }
+        return node;
+    }
+
+    private static void collect(Node node, IntConsumer action) {
+        if (node.tokenId >= 0) {
+            action.accept(node.tokenId);
+        }
+        for (int c = 0; c < node.size; c++) {
+            collect(node.children[c], action);
+        }
+    }
+
+    /*
+     * Children are kept in small parallel arrays rather than maps: most nodes have one or two, and lookups scan them.
+     */
+    private static final class Node {
+
+        private static final char[] NO_LABELS = new char[0];
+        private static final Node[] NO_CHILDREN = new Node[0];
+
+        private char[] labels = NO_LABELS;
+        private Node[] children = NO_CHILDREN;
+        private int size;
+        private int tokenId = -1;
+
+        Node child(char label) {
+            for (int c = 0; c < size; c++) {
+                if (labels[c] == label) {
+                    return children[c];
+                }
+            }
+            return null;
+        }
+
+        Node childOrAdd(char label) {
+            final var existing = child(label);
+            if (existing != null) {
+                return existing;
+            }
+            if (size == labels.length) {
+                final int capacity = Math.max(2, size * 2);
+                labels = Arrays.copyOf(labels, capacity);
+                children = Arrays.copyOf(children, capacity);
+            }
+            final var node = new Node();
+            labels[size] = label;
+            children[size++] = node;
+            return node;
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.reliaquest.api.service;
+
+import java.util.Arrays;
+import java.util.OptionalDouble;
+
+/**
+ * Quantiles of a multiset of non-negative integers within a relative error, in space logarithmic in the largest value.
+ *
+ * <p>Values are counted in buckets whose bounds grow geometrically by {@code gamma = (1 + a) / (1 - a)} for a relative
+ * accuracy {@code a}, as in DDSketch: bucket {@code i} holds the values in {@code (gamma^(i-1), gamma^i]} and reports
+ * them all as {@code 2 gamma^i / (gamma + 1)}, which is within {@code a} of each of them relative to its size. So the
+ * estimate of any quantile is within {@code a} of the exact value of that rank, however many values were added and in
+ * whatever order. Zero and negative values share one bucket reported as 0.
+ *
+ * <p>Unlike rank-error sketches such as t-digest or KLL, counting makes the sketch exact under removal and merging: a
+ * value is removed by decrementing its bucket, and two sketches of the same accuracy merge by adding their buckets.
+ * Adding or removing a value is one logarithm and does not allocate once the buckets up to it exist; at 1% accuracy
+ * every {@code int} fits in about 1100 buckets. Not thread-safe; {@link SalaryQuantiles} guards it with its own lock.
+ */
+public final class QuantileSketch {
+
+    private final double relativeAccuracy;
+    private final double gamma;
+    private final double logGamma;
+    private final int maxBuckets;
+    private long[] counts = new long[0];
+    private long zeroCount;
+    private long count;
+
+    public QuantileSketch(double relativeAccuracy) {
+        if (!(relativeAccuracy > 0 && relativeAccuracy < 1)) {
+            throw new IllegalArgumentException("Relative accuracy must be between 0 and 1, was " + relativeAccuracy);
+        }
+        this.relativeAccuracy = relativeAccuracy;
+        this.gamma = (1 + relativeAccuracy) / (1 - relativeAccuracy);
+        this.logGamma = Math.log(gamma);
+        this.maxBuckets = bucket(Integer.MAX_VALUE) + 1;
+    }
+
+    public double relativeAccuracy() {
+        return relativeAccuracy;
+    }
+
+    public long count() {
+        return count;
+    }
+
+    /**
+     * Buckets allocated so far, which bounds the sketch's size.
+     */
+    public int buckets() {
+        return counts.length;
+    }
+
+    public void add(int value) {
+        if (value <= 0) {
+            zeroCount++;
+        } else {
+            final int bucket = bucket(value);
+            if (bucket >= counts.length) {
+                counts = Arrays.copyOf(counts, Math.min(maxBuckets, Math.max(bucket + 1, counts.length * 2)));
+            }
+            counts[bucket]++;
+        }
+        count++;
+    }
+
+    /**
+     * @return {@code false}, leaving the sketch unchanged, if no value in {@code value}'s bucket was added
+     */
+    public boolean remove(int value) {
+        if (value <= 0) {
+            if (zeroCount == 0) {
+                return false;
+            }
+            zeroCount--;
+        } else {
+            final int bucket = bucket(value);
+            if (bucket >= counts.length || counts[bucket] == 0) {
+                return false;
+            }
+            counts[bucket]--;
+        }
+        count--;
+        return true;
+    }
+
+    /**
+     * Adds every value counted by {@code other}, which must have the same relative accuracy.
+     */
+    public void merge(QuantileSketch other) {
+        if (Double.compare(relativeAccuracy, other.relativeAccuracy) != 0) {
+            throw new IllegalArgumentException("Cannot merge sketches of relative accuracy " + relativeAccuracy
+                    + " and " + other.relativeAccuracy);
+        }
+        if (other.counts.length > counts.length) {
+            counts = Arrays.copyOf(counts, other.counts.length);
+        }
+        for (int bucket = 0; bucket < other.counts.length; bucket++) {
+            counts[bucket] += other.counts[bucket];
+        }
+        zeroCount += other.zeroCount;
+        count += other.count;
+    }
+
+    /**
+     * The estimate of the value of rank {@code floor(q * (count - 1))} in ascending order, within the relative
+     * accuracy of it; empty if nothing is counted.
+     */
+    public OptionalDouble quantile(double q) {
+        if (!(q >= 0 && q <= 1)) {
+            throw new IllegalArgumentException("Quantile must be between 0 and 1, was " + q);
+        }
+        if (count == 0) {
+            return OptionalDouble.empty();
+        }
+        final long rank = (long) Math.floor(q * (count - 1));
+        long seen = zeroCount;
+        if (rank < seen) {
+            return OptionalDouble.of(0);
+        }
+        for (int bucket = 0; bucket < counts.length; bucket++) {
+            seen += counts[bucket];
+            if (rank < seen) {
+                return OptionalDouble.of(2 * Math.pow(gamma, bucket) / (gamma + 1));
+            }
+        }
+        throw new IllegalStateException("Bucket counts add up to less than " + count);
+    }
+
+    private int bucket(int value) {
+        return (int) Math.ceil(Math.log(value) / logGamma);
+    }
+}
@@ -0,0 +1,98 @@
+package com.reliaquest.api.service;
+
+import java.util.Locale;
+
+/**
+ * Time spent in each phase of the request being handled, reported to clients in a {@code Server-Timing} header.
+ *
+ * <p>Like {@link Deadline}, the timing of the current request is bound to the handling thread by the web layer;
+ * outside a request {@link #current()} returns a timing that discards everything.
+ */
+public final class RequestTiming {
+
+    public enum Phase {
+        UPSTREAM("upstream", "Upstream I/O"),
+        BACKOFF("backoff", "Retry backoff"),
+        MAPPING("mapping", "Model mapping"),
+        FILTER("filter", "Filtering and sorting"),
+        SERIALIZATION("ser", "Response serialisation");
+
+        private final String metric;
+        private final String description;
+
+        Phase(String metric, String description) {
+            this.metric = metric;
+            this.description = description;
+        }
+    }
+
+    // Before DISCARD, whose arrays are sized by it.
+    private static final Phase[] PHASES = Phase.values();
+    private static final RequestTiming DISCARD = new RequestTiming(0);
+    private static final ThreadLocal<RequestTiming> CURRENT = new ThreadLocal<>();
+
+    private final long startNanos;
+    private final long[] nanos = new long[PHASES.length];
+    private final int[] counts = new int[PHASES.length];
+
+    private RequestTiming(long startNanos) {
+        this.startNanos = startNanos;
+    }
+
+    public static RequestTiming start() {
+        return new RequestTiming(System.nanoTime());
+    }
+
+    public static RequestTiming current() {
+        final var timing = CURRENT.get();
+        return timing == null ? DISCARD : timing;
+    }
+
+    public static void bind(RequestTiming timing) {
+        CURRENT.set(timing);
+    }
+
+    public static void unbind() {
+        CURRENT.remove();
+    }
+
+    public boolean isRecording() {
+        return this != DISCARD;
+    }
+
+    /**
+     * Adds the time since {@code startNanos} (a {@link System#nanoTime()} reading) to {@code phase}.
+     */
+    public void record(Phase phase, long startNanos) {
+        if (!isRecording()) {
+            return;
+        }
+        nanos[phase.ordinal()] += System.nanoTime() - startNanos;
+        counts[phase.ordinal()]++;
+    }
+
+    /**
+     * The {@code Server-Timing} value: every phase that occurred, then the total time since the request started.
+     */
+    public String toHeaderValue() {
+        final var header = new StringBuilder(160);
+        for (var phase : PHASES) {
+            final int i = phase.ordinal();
+            if (counts[i] == 0) {
+                continue;
+            }
+            header.append(phase.metric).append(";desc=\"").append(phase.description);
+            if (counts[i] > 1) {
+                header.append(" x").append(counts[i]);
+            }
+            header.append("\";dur=").append(millis(nanos[i])).append(", ");
+        }
+        return header.append("total;dur=")
+                .append(millis(System.nanoTime() - startNanos))
+                .toString();
+    }
+
+    private static String millis(long nanos) {
+        return String.format(Locale.ROOT, "%.1f", nanos / 1e6);
+    }
+}
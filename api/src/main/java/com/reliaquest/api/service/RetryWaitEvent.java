@@ -0,0 +1,30 @@
+package com.reliaquest.api.service;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * JFR event for one backoff sleep between throttled attempts in {@link EmployeeService#exchangeWithRetry}.
+ */
+@Name("com.reliaquest.api.RetryWait")
+@Label("Retry Wait")
+@Category({"Employee API", "Upstream"})
+@Description("Backoff sleep after the upstream answered 429")
+public class RetryWaitEvent extends Event {
+
+    @Label("Attempt")
+    @Description("Attempt that was throttled")
+    int attempt;
+
+    @Label("Planned Backoff")
+    @Timespan(Timespan.MILLISECONDS)
+    long plannedBackoff;
+
+    @Label("Cancelled")
+    @Description("Whether the wait was cut short because the request's deadline was cancelled")
+    boolean cancelled;
+}
@@ -0,0 +1,277 @@
+package com.reliaquest.api.service;
+
+import com.reliaquest.api.exception.InvalidRequestException;
+import com.reliaquest.api.model.MockEmployee;
+import com.reliaquest.api.model.SalaryBand;
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Group-by aggregates over a roster: the top earners of each title, the number of employees in each salary band and
+ * a sketch of salary quantiles.
+ *
+ * <p>Both are computed by splitting the roster into partitions on a dedicated fork-join pool. Each partition
+ * aggregates its slice on its own, keeping at most {@code limit} employees per title in a heap whose root is the
+ * lowest ranked, and partial results are merged pairwise as the tasks join. Rosters no larger than one partition are
+ * aggregated on the calling thread. Employees with equal salaries rank in roster order, as in {@link TopEarners}.
+ */
+@Component
+public class RosterAnalytics {
+
+    private static final Comparator<Ranked> WORST_FIRST =
+            Comparator.comparingInt(Ranked::salary).thenComparing(Ranked::position, Comparator.reverseOrder());
+
+    private final ForkJoinPool pool;
+    private final int partitionSize;
+    private final int maxLimit;
+    private final int maxBands;
+
+    public RosterAnalytics(
+            @Value("${service.employee.analytics.parallelism: 0}") int parallelism,
+            @Value("${service.employee.analytics.partition_size: 16384}") int partitionSize,
+            @Value("${service.employee.analytics.max_limit: 100}") int maxLimit,
+            @Value("${service.employee.analytics.max_bands: 1000}") int maxBands) {
+        this.pool = new ForkJoinPool(
+                parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors(),
+                pool -> {
+                    final var thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+                    thread.setName("roster-analytics-" + thread.getPoolIndex());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                null,
+                false);
+        this.partitionSize = Math.max(1, partitionSize);
+        this.maxLimit = maxLimit;
+        this.maxBands = Math.max(2, maxBands);
+    }
+
+    public int parallelism() {
+        return pool.getParallelism();
+    }
+
+    /**
+     * The {@code limit} highest earners of each title, highest first, by title. Employees without a title are grouped
+     * under the empty title.
+     */
+    public Map<String, List<MockEmployee>> topEarnersByTitle(List<MockEmployee> roster, int limit) {
+        checkLimit(limit);
+        final var heaps = aggregate(roster, new TopEarnersByTitle(limit));
+        final var byTitle = new TreeMap<String, List<MockEmployee>>();
+        heaps.forEach((title, heap) -> {
+            final var ranked = new ArrayList<>(heap);
+            ranked.sort(WORST_FIRST.reversed());
+            byTitle.put(title, ranked.stream().map(Ranked::employee).toList());
+        });
+        return byTitle;
+    }
+
+    /**
+     * Employee counts in salary bands {@code width} wide starting at 0, from the lowest band with an employee to the
+     * highest, empty bands in between included. Employees without a salary are not counted.
+     *
+     * @throws InvalidRequestException if that would be more than {@code max_bands} bands
+     */
+    public List<SalaryBand> salaryBands(List<MockEmployee> roster, int width) {
+        checkWidth(width);
+        // Only occupied bands are counted, so an outlying salary costs one entry, not every band up to it.
+        final Map<Integer, Long> counts = aggregate(roster, new SalaryBands(width));
+        if (counts.isEmpty()) {
+            return List.of();
+        }
+        final int lowest = counts.keySet().stream().min(Integer::compare).orElseThrow();
+        final int highest = counts.keySet().stream().max(Integer::compare).orElseThrow();
+        if ((long) highest - lowest + 1 > maxBands) {
+            final long span = ((long) highest + 1) * width - (long) lowest * width;
+            throw new InvalidRequestException(String.format(
+                    "Band width %d gives %d bands, more than %d; use a width of at least %d",
+                    width, (long) highest - lowest + 1, maxBands, (span + maxBands - 2) / (maxBands - 1)));
+        }
+        final var bands = new ArrayList<SalaryBand>(highest - lowest + 1);
+        for (int band = lowest; band <= highest; band++) {
+            final long min = (long) band * width;
+            bands.add(new SalaryBand(
+                    (int) min, (int) Math.min(Integer.MAX_VALUE, min + width), counts.getOrDefault(band, 0L)));
+        }
+        return bands;
+    }
+
+    /**
+     * A {@link QuantileSketch} of the salaries in {@code roster}, one per partition merged into one. Employees without
+     * a salary are not counted.
+     */
+    public QuantileSketch salarySketch(List<MockEmployee> roster, double relativeAccuracy) {
+        return aggregate(roster, new SalarySketch(relativeAccuracy));
+    }
+
+    /**
+     * Rejects a per-title limit outside 1 to {@code max_limit}; callers check before fetching the roster.
+     */
+    public void checkLimit(int limit) {
+        if (limit < 1 || limit > maxLimit) {
+            throw new InvalidRequestException("Limit must be between 1 and " + maxLimit + ", was " + limit);
+        }
+    }
+
+    public void checkWidth(int width) {
+        if (width < 1) {
+            throw new InvalidRequestException("Band width must be positive, was " + width);
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        pool.shutdownNow();
+    }
+
+    private <R> R aggregate(List<MockEmployee> roster, Aggregation<R> aggregation) {
+        if (roster.size() <= partitionSize) {
+            return aggregation.partition(roster, 0, roster.size());
+        }
+        return pool.invoke(new Partition<>(roster, 0, roster.size(), partitionSize, aggregation));
+    }
+
+    /**
+     * How a partition of the roster is aggregated and how the results of two adjacent partitions are combined; the
+     * left result covers the earlier positions.
+     */
+    private interface Aggregation<R> {
+
+        R partition(List<MockEmployee> roster, int from, int to);
+
+        R merge(R left, R right);
+    }
+
+    private static final class Partition<R> extends RecursiveTask<R> {
+
+        private final List<MockEmployee> roster;
+        private final int from;
+        private final int to;
+        private final int partitionSize;
+        private final Aggregation<R> aggregation;
+
+        Partition(List<MockEmployee> roster, int from, int to, int partitionSize, Aggregation<R> aggregation) {
+            this.roster = roster;
+            this.from = from;
+            this.to = to;
+            this.partitionSize = partitionSize;
+            this.aggregation = aggregation;
+        }
+
+        @Override
+        protected R compute() {
+            if (to - from <= partitionSize) {
+                return aggregation.partition(roster, from, to);
+            }
+            final int middle = (from + to) >>> 1;
+            final var left = new Partition<>(roster, from, middle, partitionSize, aggregation);
+            left.fork();
+            final R right = new Partition<>(roster, middle, to, partitionSize, aggregation).compute();
+            return aggregation.merge(left.join(), right);
+        }
+    }
+
+    /** An employee with the roster position that orders equal salaries. */
+    private record Ranked(MockEmployee employee, int salary, int position) {}
+
+    private record TopEarnersByTitle(int limit) implements Aggregation<Map<String, PriorityQueue<Ranked>>> {
+
+        @Override
+        public Map<String, PriorityQueue<Ranked>> partition(List<MockEmployee> roster, int from, int to) {
+            final var heaps = new HashMap<String, PriorityQueue<Ranked>>();
+            for (int position = from; position < to; position++) {
+                final var employee = roster.get(position);
+                if (employee.getSalary() == null) {
+                    continue;
+                }
+                final var title = Objects.toString(employee.getTitle(), "");
+                final var heap = heaps.computeIfAbsent(title, key -> new PriorityQueue<>(limit + 1, WORST_FIRST));
+                // Later positions lose ties, so an employee must earn strictly more than the lowest ranked to enter.
+                if (heap.size() < limit || employee.getSalary() > heap.peek().salary()) {
+                    heap.add(new Ranked(employee, employee.getSalary(), position));
+                    if (heap.size() > limit) {
+                        heap.poll();
+                    }
+                }
+            }
+            return heaps;
+        }
+
+        @Override
+        public Map<String, PriorityQueue<Ranked>> merge(
+                Map<String, PriorityQueue<Ranked>> left, Map<String, PriorityQueue<Ranked>> right) {
+            right.forEach((title, rightHeap) -> {
+                final var heap = left.get(title);
+                if (heap == null) {
+                    left.put(title, rightHeap);
+                    return;
+                }
+                for (var ranked : rightHeap) {
+                    if (heap.size() < limit || ranked.salary() > heap.peek().salary()) {
+                        heap.add(ranked);
+                        if (heap.size() > limit) {
+                            heap.poll();
+                        }
+                    }
+                }
+            });
+            return left;
+        }
+    }
+
+    private record SalarySketch(double relativeAccuracy) implements Aggregation<QuantileSketch> {
+
+        @Override
+        public QuantileSketch partition(List<MockEmployee> roster, int from, int to) {
+            final var sketch = new QuantileSketch(relativeAccuracy);
+            for (int position = from; position < to; position++) {
+                final var salary = roster.get(position).getSalary();
+                if (salary != null) {
+                    sketch.add(salary);
+                }
+            }
+            return sketch;
+        }
+
+        @Override
+        public QuantileSketch merge(QuantileSketch left, QuantileSketch right) {
+            left.merge(right);
+            return left;
+        }
+    }
+
+    private record SalaryBands(int width) implements Aggregation<Map<Integer, Long>> {
+
+        @Override
+        public Map<Integer, Long> partition(List<MockEmployee> roster, int from, int to) {
+            final var counts = new HashMap<Integer, Long>();
+            for (int position = from; position < to; position++) {
+                final var salary = roster.get(position).getSalary();
+                if (salary == null || salary < 0) {
+                    continue;
+                }
+                counts.merge(salary / width, 1L, Long::sum);
+            }
+            return counts;
+        }
+
+        @Override
+        public Map<Integer, Long> merge(Map<Integer, Long> left, Map<Integer, Long> right) {
+            final var merged = left.size() >= right.size() ? left : right;
+            final var other = merged == left ? right : left;
+            other.forEach((band, count) -> merged.merge(band, count, Long::sum));
+            return merged;
+        }
+    }
+}
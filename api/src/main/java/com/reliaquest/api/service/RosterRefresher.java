@@ -0,0 +1,150 @@
+package com.reliaquest.api.service;
+
+import com.reliaquest.api.exception.DeadlineExceededException;
+import com.reliaquest.api.exception.RateLimitExceededException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the roster replica and the caches built from it warm in the background, spending only upstream budget that
+ * requests are not using.
+ *
+ * <p>Requests sync the replica themselves, so a refresh is only due once the replica has gone {@code max_lag_time}
+ * without a sync. Even then it waits, counting a skip, until the current backoff has run out, until no upstream call
+ * has been made for {@code idle_time} (which also keeps it clear of the retries that crowd in as a throttled episode
+ * ends), and while no more than {@code reserved_permits} of the current burst are left by {@link UpstreamBackoff}'s
+ * estimate, so that user-facing writes are not the ones to hit 429. A throttled episode only ends with a success, so
+ * once its backoff has run out the refresh goes ahead as the probe that ends it, even with no requests about. A
+ * refresh runs against a {@link Deadline} of {@code timeout}, which fails it at the first 429 instead of backing off.
+ * The replica is pre-warmed once the application is ready.
+ */
+@Slf4j
+@Component
+public class RosterRefresher {
+
+    private final EmployeeService employeeService;
+    private final UpstreamBackoff upstreamBackoff;
+    private final boolean enabled;
+    private final boolean prewarm;
+    private final Duration maxLag;
+    private final Duration idleTime;
+    private final int reservedPermits;
+    private final Duration checkInterval;
+    private final Duration timeout;
+    private final ScheduledExecutorService scheduler;
+
+    private final Counter refreshed;
+    private final Counter failed;
+    private final Counter skippedThrottled;
+    private final Counter skippedBusy;
+    private final Counter skippedReserved;
+
+    public RosterRefresher(
+            EmployeeService employeeService,
+            UpstreamBackoff upstreamBackoff,
+            MeterRegistry meterRegistry,
+            @Value("${service.employee.sync.enabled: true}") boolean syncEnabled,
+            @Value("${service.employee.refresh.enabled: true}") boolean enabled,
+            @Value("${service.employee.refresh.prewarm: true}") boolean prewarm,
+            @Value("${service.employee.refresh.max_lag_time: 30}") int maxLagTimeInSec,
+            @Value("${service.employee.refresh.idle_time: 2}") int idleTimeInSec,
+            @Value("${service.employee.refresh.reserved_permits: 2}") int reservedPermits,
+            @Value("${service.employee.refresh.check_interval: 1}") int checkIntervalInSec,
+            @Value("${service.employee.refresh.timeout: 5}") int timeoutInSec) {
+        this.employeeService = employeeService;
+        this.upstreamBackoff = upstreamBackoff;
+        this.enabled = enabled && syncEnabled;
+        this.prewarm = prewarm;
+        this.maxLag = Duration.ofSeconds(maxLagTimeInSec);
+        this.idleTime = Duration.ofSeconds(idleTimeInSec);
+        this.reservedPermits = reservedPermits;
+        this.checkInterval = Duration.ofSeconds(Math.max(1, checkIntervalInSec));
+        this.timeout = Duration.ofSeconds(timeoutInSec);
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final var thread = new Thread(runnable, "roster-refresher");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.refreshed = meterRegistry.counter("api.roster.refresh", "result", "refreshed");
+        this.failed = meterRegistry.counter("api.roster.refresh", "result", "failed");
+        this.skippedThrottled = meterRegistry.counter("api.roster.refresh.skipped", "reason", "throttled");
+        this.skippedBusy = meterRegistry.counter("api.roster.refresh.skipped", "reason", "busy");
+        this.skippedReserved = meterRegistry.counter("api.roster.refresh.skipped", "reason", "reserved");
+        Gauge.builder("api.roster.refresh.lag", employeeService, service -> service.rosterLag()
+                        .map(lag -> (double) lag.toMillis())
+                        .orElse(Double.NaN))
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        if (prewarm) {
+            scheduler.execute(this::refresh);
+        }
+        scheduler.scheduleWithFixedDelay(
+                this::refreshIfDue, checkInterval.toMillis(), checkInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void close() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * Refreshes if the replica is due for it and the upstream budget allows, counting a skip otherwise.
+     */
+    void refreshIfDue() {
+        final var lag = employeeService.rosterLag();
+        if (lag.isPresent() && lag.get().compareTo(maxLag) < 0) {
+            return;
+        }
+        if (!upstreamBackoff.remainingBackoff().isZero()) {
+            skippedThrottled.increment();
+            return;
+        }
+        final var sinceLastCall = upstreamBackoff.sinceLastCall();
+        if (sinceLastCall != null && sinceLastCall.compareTo(idleTime) < 0) {
+            skippedBusy.increment();
+            return;
+        }
+        if (!upstreamBackoff.isThrottled() && upstreamBackoff.remainingPermits() <= reservedPermits) {
+            skippedReserved.increment();
+            return;
+        }
+        refresh();
+    }
+
+    private void refresh() {
+        final long start = System.nanoTime();
+        Deadline.bind(Deadline.after(timeout));
+        try {
+            employeeService.refreshRoster();
+            refreshed.increment();
+            log.debug("Refreshed roster in the background in {} ms", (System.nanoTime() - start) / 1_000_000);
+        } catch (DeadlineExceededException | RateLimitExceededException e) {
+            skippedThrottled.increment();
+            log.debug("Background roster refresh throttled: {}", e.getMessage());
+        } catch (RuntimeException e) {
+            failed.increment();
+            log.warn("Background roster refresh failed: {}", e.toString());
+        } finally {
+            Deadline.unbind();
+        }
+    }
+}
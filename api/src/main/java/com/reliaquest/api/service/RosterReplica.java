@@ -0,0 +1,188 @@
+package com.reliaquest.api.service;
+
+import com.reliaquest.api.model.MockEmployee;
+import com.reliaquest.api.model.RosterChange;
+import com.reliaquest.api.model.RosterChangeSet;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Local copy of the upstream roster at a known version, kept current by applying the server's change feed.
+ *
+ * <p>Applying changes is idempotent: changes at or below the current version are skipped, so overlapping syncs from
+ * concurrent requests are harmless.
+ *
+ * <p>The replica also keeps the roster's {@link TopEarners}, updated with each applied change under the same lock, so
+ * the cached ranking always belongs to the replica's current version. Caches and indexes kept outside the replica
+ * follow it through {@link Listener}s.
+ */
+public class RosterReplica {
+
+    public static final int TOP_EARNERS = 10;
+
+    private final Map<String, MockEmployee> employees = new LinkedHashMap<>();
+    private final TopEarners topEarners = new TopEarners(TOP_EARNERS);
+    private final List<Listener> listeners;
+    private String epoch;
+    private long version;
+    private long syncedAtNanos;
+
+    public RosterReplica(Listener... listeners) {
+        this.listeners = List.of(listeners);
+    }
+
+    public synchronized boolean isLoaded() {
+        return epoch != null;
+    }
+
+    public synchronized long version() {
+        return version;
+    }
+
+    public synchronized String epoch() {
+        return epoch;
+    }
+
+    /**
+     * Replaces the replica with a full roster, unless it already holds a newer version of the same epoch.
+     */
+    public synchronized void load(String epoch, long version, List<MockEmployee> roster) {
+        syncedAtNanos = System.nanoTime();
+        if (Objects.equals(this.epoch, epoch) && version <= this.version) {
+            return;
+        }
+        employees.clear();
+        roster.forEach(employee -> employees.put(employee.getId(), employee));
+        topEarners.invalidate();
+        this.epoch = epoch;
+        this.version = version;
+        listeners.forEach(listener -> listener.reloaded(epoch, version));
+    }
+
+    /**
+     * Counts a sync made elsewhere, which found the upstream at {@code version} of {@code epoch}, as a sync of this
+     * replica if it already holds that version.
+     *
+     * @return {@code false} if the replica is behind that version, or at another epoch, and has to be loaded
+     */
+    public synchronized boolean confirm(String epoch, long version) {
+        if (!Objects.equals(this.epoch, epoch) || version > this.version) {
+            return false;
+        }
+        syncedAtNanos = System.nanoTime();
+        return true;
+    }
+
+    /**
+     * @return {@code false} when the change set cannot be applied and the roster must be reloaded
+     */
+    public synchronized boolean apply(RosterChangeSet changeSet) {
+        if (changeSet.isTruncated() || !Objects.equals(epoch, changeSet.getEpoch())) {
+            return false;
+        }
+        syncedAtNanos = System.nanoTime();
+        // Each touched id and its employee before this change set, or null if it was absent.
+        final var before = new LinkedHashMap<String, MockEmployee>();
+        for (var change : changeSet.getChanges()) {
+            if (change.getVersion() <= version) {
+                continue;
+            }
+            final var id = change.getEmployee().getId();
+            if (!before.containsKey(id)) {
+                before.put(id, employees.get(id));
+            }
+            if (change.getType() == RosterChange.Type.INSERT) {
+                final var replaced = employees.put(id, change.getEmployee());
+                if (replaced == null) {
+                    topEarners.inserted(change.getEmployee());
+                } else {
+                    // A replaced employee keeps its place in the roster order, which the ranking cannot tell.
+                    topEarners.invalidate();
+                }
+            } else {
+                final var removed = employees.remove(id);
+                if (removed != null) {
+                    topEarners.deleted(removed);
+                }
+            }
+        }
+        if (changeSet.getVersion() > version) {
+            final long previousVersion = version;
+            version = changeSet.getVersion();
+            final var inserted = new ArrayList<MockEmployee>();
+            final var deleted = new ArrayList<MockEmployee>();
+            before.forEach((id, previous) -> {
+                final var current = employees.get(id);
+                if (previous != current) {
+                    if (previous != null) {
+                        deleted.add(previous);
+                    }
+                    if (current != null) {
+                        inserted.add(current);
+                    }
+                }
+            });
+            listeners.forEach(listener -> listener.changed(epoch, previousVersion, version, inserted, deleted));
+        }
+        return true;
+    }
+
+    /**
+     * Time since the replica was last loaded or brought up to date with the upstream; {@code null} if it never was.
+     */
+    public synchronized Duration lag() {
+        return syncedAtNanos == 0 ? null : Duration.ofNanos(System.nanoTime() - syncedAtNanos);
+    }
+
+    public synchronized List<MockEmployee> employees() {
+        return new ArrayList<>(employees.values());
+    }
+
+    /**
+     * The roster together with the epoch and version it belongs to, read at one point in time.
+     */
+    public synchronized Snapshot snapshot() {
+        return new Snapshot(epoch, version, employees());
+    }
+
+    /**
+     * The {@value #TOP_EARNERS} highest earners, highest first, ranked at most once per roster change.
+     */
+    public synchronized TopEarners.Lookup topEarners() {
+        final boolean cached = topEarners.isCurrent();
+        if (!cached) {
+            topEarners.recompute(employees.values());
+        }
+        return new TopEarners.Lookup(topEarners.get(), cached);
+    }
+
+    public record Snapshot(String epoch, long version, List<MockEmployee> employees) {}
+
+    /**
+     * Told about every change to the replica, under the replica's lock, so that it can keep derived state at the
+     * replica's version. Must not call back into the replica.
+     */
+    public interface Listener {
+
+        /**
+         * The replica was replaced with a full roster.
+         */
+        void reloaded(String epoch, long version);
+
+        /**
+         * The replica moved from {@code previousVersion} to {@code version}. {@code deleted} holds the employees that
+         * were removed or replaced, as they were before the change, and {@code inserted} those that were added or
+         * replaced, as they are now; an employee added and removed again within the change is in neither.
+         */
+        void changed(
+                String epoch,
+                long previousVersion,
+                long version,
+                List<MockEmployee> inserted,
+                List<MockEmployee> deleted);
+    }
+}
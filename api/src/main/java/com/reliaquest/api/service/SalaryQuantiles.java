@@ -0,0 +1,189 @@
+package com.reliaquest.api.service;
+
+import com.reliaquest.api.model.MockEmployee;
+import com.reliaquest.api.model.SalaryStatistics;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Salary percentiles of the roster replica from a {@link QuantileSketch}, so that no request sorts the roster.
+ *
+ * <p>The sketch is built from a replica snapshot on the first request after a full reload, one partition at a time
+ * by {@link RosterAnalytics} and merged, and then follows the replica as its {@link RosterReplica.Listener}. Creates
+ * and deletes made through this api are counted as soon as they succeed, before the change feed delivers them; their
+ * ids are remembered until it does, so that each is counted once. A create or delete that the feed delivers first is
+ * recognised among the last {@value #RECENT_CHANGES} ids it inserted or deleted.
+ */
+@Slf4j
+@Component
+public class SalaryQuantiles implements RosterReplica.Listener {
+
+    static final int RECENT_CHANGES = 4096;
+
+    private final RosterAnalytics rosterAnalytics;
+    private final double relativeAccuracy;
+    private final CacheStatistics statistics = new CacheStatistics();
+    private QuantileSketch sketch;
+    private String epoch;
+    private long version;
+    // Ids counted on success of a local create or delete, until the change feed delivers them.
+    private final Set<String> pendingCreates = new HashSet<>();
+    private final Set<String> pendingDeletes = new HashSet<>();
+    private final Set<String> recentlyInserted = recentIds();
+    private final Set<String> recentlyDeleted = recentIds();
+
+    public SalaryQuantiles(
+            RosterAnalytics rosterAnalytics,
+            @Value("${service.employee.salary_sketch.relative_accuracy: 0.01}") double relativeAccuracy) {
+        this.rosterAnalytics = rosterAnalytics;
+        this.relativeAccuracy = relativeAccuracy;
+    }
+
+    /**
+     * Hits count requests answered from the maintained sketch, misses those that had to build it first.
+     */
+    public CacheStatistics statistics() {
+        return statistics;
+    }
+
+    /**
+     * Salary percentiles of the replica, building the sketch from {@code snapshot} if it is not current. The snapshot
+     * is taken without holding this object's lock, since the replica calls into it under its own lock.
+     */
+    public SalaryStatistics percentiles(Supplier<RosterReplica.Snapshot> snapshot) {
+        synchronized (this) {
+            if (sketch != null) {
+                statistics.record(true);
+                return percentiles(sketch);
+            }
+        }
+        statistics.record(false);
+        final var current = snapshot.get();
+        final var built = build(current);
+        final var percentiles = percentiles(built);
+        install(built, current);
+        return percentiles;
+    }
+
+    /**
+     * Builds the sketch from {@code snapshot} if it is not current, so that the next request does not have to.
+     */
+    public void warm(Supplier<RosterReplica.Snapshot> snapshot) {
+        synchronized (this) {
+            if (sketch != null) {
+                return;
+            }
+        }
+        final var current = snapshot.get();
+        install(build(current), current);
+    }
+
+    /**
+     * Salary percentiles of {@code roster}, sketched for this request only.
+     */
+    public SalaryStatistics percentiles(List<MockEmployee> roster) {
+        return percentiles(rosterAnalytics.salarySketch(roster, relativeAccuracy));
+    }
+
+    /**
+     * Counts an employee created through this api.
+     */
+    public synchronized void created(String id, Integer salary) {
+        if (sketch != null && salary != null && !recentlyInserted.contains(id) && pendingCreates.add(id)) {
+            sketch.add(salary);
+        }
+    }
+
+    /**
+     * Stops counting an employee deleted through this api.
+     */
+    public synchronized void deleted(String id, Integer salary) {
+        if (sketch != null && salary != null && !recentlyDeleted.contains(id) && pendingDeletes.add(id)) {
+            sketch.remove(salary);
+        }
+    }
+
+    @Override
+    public synchronized void reloaded(String epoch, long version) {
+        invalidate();
+        this.epoch = epoch;
+        this.version = version;
+    }
+
+    @Override
+    public synchronized void changed(
+            String epoch, long previousVersion, long version, List<MockEmployee> inserted, List<MockEmployee> deleted) {
+        if (!Objects.equals(this.epoch, epoch) || this.version != previousVersion) {
+            invalidate();
+        }
+        for (var employee : deleted) {
+            recentlyDeleted.add(employee.getId());
+            if (!pendingDeletes.remove(employee.getId()) && sketch != null && employee.getSalary() != null) {
+                sketch.remove(employee.getSalary());
+            }
+        }
+        for (var employee : inserted) {
+            recentlyInserted.add(employee.getId());
+            if (!pendingCreates.remove(employee.getId()) && sketch != null && employee.getSalary() != null) {
+                sketch.add(employee.getSalary());
+            }
+        }
+        this.epoch = epoch;
+        this.version = version;
+    }
+
+    private QuantileSketch build(RosterReplica.Snapshot snapshot) {
+        final long buildStart = System.nanoTime();
+        final var built = rosterAnalytics.salarySketch(snapshot.employees(), relativeAccuracy);
+        log.debug(
+                "Built salary sketch of {} employees in {} ms",
+                built.count(),
+                (System.nanoTime() - buildStart) / 1_000_000);
+        return built;
+    }
+
+    private synchronized void install(QuantileSketch built, RosterReplica.Snapshot snapshot) {
+        // A change applied since the snapshot was taken has moved the replica past it.
+        if (sketch == null && Objects.equals(epoch, snapshot.epoch()) && version == snapshot.version()) {
+            sketch = built;
+        }
+    }
+
+    private void invalidate() {
+        sketch = null;
+        pendingCreates.clear();
+        pendingDeletes.clear();
+    }
+
+    private SalaryStatistics percentiles(QuantileSketch sketch) {
+        return new SalaryStatistics(
+                sketch.count(),
+                percentile(sketch, 0.5),
+                percentile(sketch, 0.9),
+                percentile(sketch, 0.99),
+                sketch.relativeAccuracy());
+    }
+
+    private static Integer percentile(QuantileSketch sketch, double q) {
+        final var estimate = sketch.quantile(q);
+        return estimate.isPresent() ? (int) Math.round(estimate.getAsDouble()) : null;
+    }
+
+    private static Set<String> recentIds() {
+        return Collections.newSetFromMap(new LinkedHashMap<>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                return size() > RECENT_CHANGES;
+            }
+        });
+    }
+}
@@ -0,0 +1,161 @@
+package com.reliaquest.api.service;
+
+import com.reliaquest.api.model.Employee;
+import com.reliaquest.api.model.MockEmployee;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Name search results by normalised query, valid for the roster replica's current version and evicted least recently
+ * used first once the cache holds more entries or more (estimated) bytes than configured.
+ *
+ * <p>The cache follows the replica as its {@link RosterReplica.Listener}. A full reload empties it. An applied change
+ * drops only the entries whose query matches the name of an inserted, deleted or replaced employee, since no other
+ * result can have changed; the rest carry over to the new version. A result computed from a snapshot the replica has
+ * since moved past is not stored.
+ */
+@Slf4j
+@Component
+public class SearchCache implements RosterReplica.Listener {
+
+    /*
+     * Rough retained sizes on a 64-bit JVM with compressed pointers: a map entry with its key and value holder, and
+     * an Employee with its boxed numbers, excluding its strings.
+     */
+    private static final long ENTRY_OVERHEAD_BYTES = 120;
+    private static final long EMPLOYEE_OVERHEAD_BYTES = 72;
+
+    private final boolean enabled;
+    private final int maxEntries;
+    private final long maxBytes;
+    private final CacheStatistics statistics = new CacheStatistics();
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private String epoch;
+    private long version;
+    private long bytes;
+
+    public SearchCache(
+            @Value("${service.employee.search_cache.enabled: true}") boolean enabled,
+            @Value("${service.employee.search_cache.max_entries: 1000}") int maxEntries,
+            @Value("${service.employee.search_cache.max_size_mb: 16}") long maxSizeMb) {
+        this.enabled = enabled;
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxSizeMb * 1024 * 1024;
+    }
+
+    /**
+     * The form a search string is matched and cached in: trimmed and lower-cased.
+     */
+    public static String normalise(String searchString) {
+        return searchString.trim().toLowerCase();
+    }
+
+    public CacheStatistics statistics() {
+        return statistics;
+    }
+
+    /**
+     * The cached result for {@code query} at the replica's current version, or null.
+     */
+    public synchronized List<Employee> get(String query) {
+        if (!enabled) {
+            return null;
+        }
+        final var entry = entries.get(query);
+        statistics.record(entry != null);
+        return entry == null ? null : entry.employees();
+    }
+
+    /**
+     * Stores the result for {@code query} computed from the replica at {@code epoch} and {@code version}.
+     */
+    public synchronized void put(String query, String epoch, long version, List<Employee> employees) {
+        if (!enabled || !Objects.equals(this.epoch, epoch) || this.version != version) {
+            return;
+        }
+        final var entry = new Entry(List.copyOf(employees), estimateBytes(query, employees));
+        if (entry.bytes() > maxBytes) {
+            return;
+        }
+        final var previous = entries.put(query, entry);
+        bytes += entry.bytes() - (previous == null ? 0 : previous.bytes());
+        final Iterator<Entry> eldest = entries.values().iterator();
+        while (entries.size() > maxEntries || bytes > maxBytes) {
+            bytes -= eldest.next().bytes();
+            eldest.remove();
+            statistics.recordEviction();
+        }
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long estimatedBytes() {
+        return bytes;
+    }
+
+    @Override
+    public synchronized void reloaded(String epoch, long version) {
+        entries.clear();
+        bytes = 0;
+        this.epoch = epoch;
+        this.version = version;
+    }
+
+    @Override
+    public synchronized void changed(
+            String epoch, long previousVersion, long version, List<MockEmployee> inserted, List<MockEmployee> deleted) {
+        if (!Objects.equals(this.epoch, epoch) || this.version != previousVersion) {
+            // Missed a change; nothing cached can be trusted.
+            reloaded(epoch, version);
+            return;
+        }
+        this.version = version;
+        if (entries.isEmpty() || (inserted.isEmpty() && deleted.isEmpty())) {
+            return;
+        }
+        final var names = Stream.concat(inserted.stream(), deleted.stream())
+                .map(employee -> employee.getName().toLowerCase())
+                .toList();
+        final Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+        int dropped = 0;
+        while (iterator.hasNext()) {
+            final var entry = iterator.next();
+            if (names.stream().anyMatch(name -> name.contains(entry.getKey()))) {
+                bytes -= entry.getValue().bytes();
+                iterator.remove();
+                dropped++;
+            }
+        }
+        log.debug("Roster version {} invalidated {} of {} cached searches", version, dropped, entries.size() + dropped);
+    }
+
+    private static long estimateBytes(String query, List<Employee> employees) {
+        long estimate = ENTRY_OVERHEAD_BYTES + stringBytes(query) + 16L + 4L * employees.size();
+        for (var employee : employees) {
+            estimate += EMPLOYEE_OVERHEAD_BYTES
+                    + stringBytes(employee.getId())
+                    + stringBytes(employee.getName())
+                    + stringBytes(employee.getTitle())
+                    + stringBytes(employee.getEmail());
+        }
+        return estimate;
+    }
+
+    /*
+     * String header and array header plus one byte per character, as compact Latin-1 strings are stored.
+     */
+    private static long stringBytes(String value) {
+        return value == null ? 0 : 40 + value.length();
+    }
+
+    private record Entry(List<Employee> employees, long bytes) {}
+}
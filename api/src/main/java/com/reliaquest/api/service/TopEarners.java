@@ -0,0 +1,100 @@
+package com.reliaquest.api.service;
+
+import com.reliaquest.api.model.MockEmployee;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * The highest earners of a roster, highest first, kept current as employees are inserted and deleted instead of being
+ * recomputed from the whole roster. Employees with equal salaries keep their roster order, as with a stable sort.
+ *
+ * <p>Up to twice as many employees as are asked for are ranked, so deleting a top earner usually leaves enough
+ * ranked employees to answer from. Inserting an employee below the last ranked salary and deleting an employee who is
+ * not ranked change nothing. The ranking is recomputed only after deletes have used up the spare depth, or after
+ * {@link #invalidate()}. Not thread-safe; {@link RosterReplica} guards it with its own lock.
+ */
+public final class TopEarners {
+
+    private static final Comparator<MockEmployee> BY_SALARY_DESCENDING =
+            Comparator.comparing(MockEmployee::getSalary).reversed();
+
+    private final int limit;
+    private final int capacity;
+    private List<MockEmployee> ranked;
+    /** Whether {@link #ranked} holds the whole roster, so nothing outside it can move up. */
+    private boolean complete;
+
+    public TopEarners(int limit) {
+        this.limit = limit;
+        this.capacity = limit * 2;
+    }
+
+    /**
+     * The top {@code limit} employees of {@code roster}, computed directly.
+     */
+    public static List<MockEmployee> of(List<MockEmployee> roster, int limit) {
+        return roster.stream().sorted(BY_SALARY_DESCENDING).limit(limit).toList();
+    }
+
+    public boolean isCurrent() {
+        return ranked != null;
+    }
+
+    /**
+     * Ranks {@code roster}, which must be in roster order.
+     */
+    public void recompute(Iterable<MockEmployee> roster) {
+        final var sorted = new ArrayList<MockEmployee>();
+        roster.forEach(sorted::add);
+        sorted.sort(BY_SALARY_DESCENDING);
+        complete = sorted.size() <= capacity;
+        ranked = new ArrayList<>(sorted.subList(0, Math.min(capacity, sorted.size())));
+    }
+
+    public void invalidate() {
+        ranked = null;
+    }
+
+    /**
+     * {@code employee} was added at the end of the roster order.
+     */
+    public void inserted(MockEmployee employee) {
+        if (ranked == null) {
+            return;
+        }
+        if (!complete && ranked.get(ranked.size() - 1).getSalary() >= employee.getSalary()) {
+            return;
+        }
+        int position = ranked.size();
+        while (position > 0 && ranked.get(position - 1).getSalary() < employee.getSalary()) {
+            position--;
+        }
+        ranked.add(position, employee);
+        if (ranked.size() > capacity) {
+            ranked.remove(ranked.size() - 1);
+            complete = false;
+        }
+    }
+
+    public void deleted(MockEmployee employee) {
+        if (ranked == null || !ranked.removeIf(candidate -> candidate.getId().equals(employee.getId()))) {
+            return;
+        }
+        if (!complete && ranked.size() < limit) {
+            invalidate();
+        }
+    }
+
+    /**
+     * The top {@code limit} employees, highest first; only valid while {@link #isCurrent()}.
+     */
+    public List<MockEmployee> get() {
+        return List.copyOf(ranked.subList(0, Math.min(limit, ranked.size())));
+    }
+
+    /**
+     * The top earners at the replica's current version, and whether they were answered without recomputing.
+     */
+    public record Lookup(List<MockEmployee> employees, boolean cached) {}
+}
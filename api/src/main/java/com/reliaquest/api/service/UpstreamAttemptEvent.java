@@ -0,0 +1,24 @@
+package com.reliaquest.api.service;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR event for one call to the Mock Employee API made by {@link EmployeeService#exchangeWithRetry}.
+ */
+@Name("com.reliaquest.api.UpstreamAttempt")
+@Label("Upstream Attempt")
+@Category({"Employee API", "Upstream"})
+@Description("One call to the Mock Employee API, including calls that were throttled")
+public class UpstreamAttemptEvent extends Event {
+
+    @Label("Attempt")
+    int attempt;
+
+    @Label("Status")
+    @Description("HTTP status of the response, or 0 when the call failed without one")
+    int status;
+}
@@ -0,0 +1,158 @@
+package com.reliaquest.api.service;
+
+import java.time.Duration;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * What the api has learned about the upstream rate limiter, shared by every request.
+ *
+ * <p>The upstream admits a burst of requests and then rejects everything with 429 for a while. {@link EmployeeService}
+ * reports each backoff and each success here; from those this class keeps the time at which the current backoff ends,
+ * and moving averages of how many requests a burst admits and how long a throttled episode lasts. That is enough to
+ * estimate how long a newly arriving request would wait behind the ones already in flight, and how much of the
+ * current burst is left for background work such as {@link RosterRefresher}.
+ *
+ * <p>The state is kept by an {@link UpstreamCoordination}, which may share it with other api instances calling the
+ * same upstream. They then draw on one budget: a backoff one instance starts holds back the calls of all of them, and
+ * a success anywhere ends it.
+ */
+@Component
+public class UpstreamBackoff {
+
+    private static final double SMOOTHING = 0.3;
+
+    // How often a request waiting out a backoff looks for a success that ended it early.
+    private static final Duration WAIT_STEP = Duration.ofMillis(250);
+
+    private final UpstreamCoordination coordination;
+
+    public UpstreamBackoff() {
+        this(new LocalUpstreamCoordination());
+    }
+
+    @Autowired
+    public UpstreamBackoff(UpstreamCoordination coordination) {
+        this.coordination = coordination;
+    }
+
+    /**
+     * A request was throttled and will retry after {@code backoff}.
+     */
+    public void throttled(Duration backoff) {
+        final long now = System.currentTimeMillis();
+        coordination.update(state -> {
+            if (state.getThrottledSinceMillis() == 0) {
+                state.setThrottledSinceMillis(now);
+                if (state.getSuccessesSinceThrottled() > 0) {
+                    state.setAveragePermits(state.getAveragePermits()
+                            + SMOOTHING * (state.getSuccessesSinceThrottled() - state.getAveragePermits()));
+                }
+                state.setSuccessesSinceThrottled(0);
+            }
+            state.setRetryAtMillis(Math.max(state.getRetryAtMillis(), now + backoff.toMillis()));
+            state.setLastCallMillis(now);
+        });
+    }
+
+    /**
+     * A request got through to the upstream.
+     */
+    public void succeeded() {
+        final long now = System.currentTimeMillis();
+        coordination.update(state -> {
+            if (state.getThrottledSinceMillis() != 0) {
+                state.setAverageEpisodeMillis(state.getAverageEpisodeMillis()
+                        + SMOOTHING * ((now - state.getThrottledSinceMillis()) - state.getAverageEpisodeMillis()));
+                state.setThrottledSinceMillis(0);
+                state.setRetryAtMillis(0);
+            }
+            state.setSuccessesSinceThrottled(state.getSuccessesSinceThrottled() + 1);
+            state.setLastCallMillis(now);
+        });
+    }
+
+    public boolean isThrottled() {
+        return coordination.read(state -> state.getThrottledSinceMillis() != 0);
+    }
+
+    /**
+     * Time since the last upstream call was reported, throttled or not; {@code null} before the first.
+     */
+    public Duration sinceLastCall() {
+        final long lastCall = coordination.read(UpstreamState::getLastCallMillis);
+        return lastCall == 0 ? null : Duration.ofMillis(Math.max(0, System.currentTimeMillis() - lastCall));
+    }
+
+    /**
+     * Requests the current burst is expected to admit before the upstream throttles again: none while it is
+     * throttling, and the average burst less the successes since the last throttle otherwise. An upstream that has
+     * admitted twice its average burst without throttling is taken not to be limiting, and has permits to spare.
+     */
+    public int remainingPermits() {
+        return coordination.read(state -> {
+            if (state.getThrottledSinceMillis() != 0) {
+                return 0;
+            }
+            if (state.getSuccessesSinceThrottled() >= 2 * state.getAveragePermits()) {
+                return Integer.MAX_VALUE;
+            }
+            return (int) Math.max(0, Math.round(state.getAveragePermits()) - state.getSuccessesSinceThrottled());
+        });
+    }
+
+    /**
+     * Time until the current backoff ends; zero when the upstream is not throttling.
+     */
+    public Duration remainingBackoff() {
+        final long now = System.currentTimeMillis();
+        return Duration.ofMillis(coordination.read(state -> remainingMillis(state, now)));
+    }
+
+    /**
+     * Expected wait of a request that arrives behind {@code requestsAhead} others: the rest of the current backoff,
+     * plus one throttled episode for every burst the requests ahead of it will use up. A burst is at least as large
+     * as the run of successes seen since the last throttle, so an upstream that stops throttling stops adding waits.
+     */
+    public Duration expectedWait(int requestsAhead) {
+        final long now = System.currentTimeMillis();
+        return coordination.read(state -> {
+            final double permits = Math.max(1, Math.max(state.getAveragePermits(), state.getSuccessesSinceThrottled()));
+            final long bursts = (long) (requestsAhead / permits);
+            return Duration.ofMillis(remainingMillis(state, now) + bursts * (long) state.getAverageEpisodeMillis());
+        });
+    }
+
+    /**
+     * Sleeps out the current backoff before an upstream call, so that a request does not add to the calls the
+     * upstream is rejecting while another request, or another instance, backs off. Wakes every {@link #WAIT_STEP} in
+     * case a success elsewhere has ended the backoff early. The wait counts as backoff in the request's timing.
+     *
+     * @return {@code false} if the backoff ends past {@code deadline}, in which case it is not waited for
+     */
+    public boolean waitOutBackoff(Deadline deadline) throws InterruptedException {
+        Duration remaining = remainingBackoff();
+        if (remaining.isZero()) {
+            return true;
+        }
+        final long waitStart = System.nanoTime();
+        try {
+            while (!remaining.isZero()) {
+                if (remaining.compareTo(deadline.remaining()) >= 0) {
+                    return false;
+                }
+                if (!deadline.sleep(remaining.compareTo(WAIT_STEP) < 0 ? remaining : WAIT_STEP)) {
+                    return false;
+                }
+                remaining = remainingBackoff();
+            }
+            return true;
+        } finally {
+            RequestTiming.current().record(RequestTiming.Phase.BACKOFF, waitStart);
+        }
+    }
+
+    private static long remainingMillis(UpstreamState state, long now) {
+        return state.getThrottledSinceMillis() == 0 ? 0 : Math.max(0, state.getRetryAtMillis() - now);
+    }
+}
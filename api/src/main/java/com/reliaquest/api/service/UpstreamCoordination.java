@@ -0,0 +1,49 @@
+package com.reliaquest.api.service;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Where the api keeps the state it shares with other instances calling the same upstream: the {@link UpstreamState}
+ * behind {@link UpstreamBackoff}, so that all of them draw on one upstream budget and sit out one backoff, and the
+ * roster last synced with the upstream, so that one instance's sync spares the others theirs.
+ *
+ * <p>{@link LocalUpstreamCoordination} keeps the state to this instance and shares no roster;
+ * {@link FileUpstreamCoordination} shares both between JVMs on one host. Selected by
+ * {@code service.employee.coordination.mode}.
+ */
+public interface UpstreamCoordination {
+
+    /**
+     * Applies {@code read} to the state, which no instance changes meanwhile.
+     */
+    <T> T read(Function<UpstreamState, T> read);
+
+    /**
+     * Applies {@code update} to the state as one atomic change across every instance sharing it.
+     */
+    void update(Consumer<UpstreamState> update);
+
+    /**
+     * The roster some instance synced with the upstream within {@code maxAge}, if any; its employees are only read
+     * when {@link SharedRoster#snapshot()} is called.
+     */
+    Optional<SharedRoster> sharedRoster(Duration maxAge);
+
+    /**
+     * Shares a roster this instance has just synced with the upstream. The snapshot is only taken when the shared
+     * roster is older than {@code version}; otherwise only the time of the sync is recorded.
+     */
+    void shareRoster(String epoch, long version, Supplier<RosterReplica.Snapshot> snapshot);
+
+    /**
+     * Marks the shared roster stale after a write through this instance, so that the next read syncs with the
+     * upstream and sees it.
+     */
+    void invalidateRoster();
+
+    record SharedRoster(String epoch, long version, Supplier<RosterReplica.Snapshot> snapshot) {}
+}
@@ -0,0 +1,19 @@
+package com.reliaquest.api.service;
+
+import java.time.Duration;
+import lombok.Data;
+
+/**
+ * What {@link UpstreamBackoff} has learned about the upstream rate limiter, as kept by an {@link UpstreamCoordination}.
+ * Times are wall-clock milliseconds, so that they mean the same in every JVM sharing the state, and zero when unset.
+ */
+@Data
+public class UpstreamState {
+
+    private long retryAtMillis;
+    private long lastCallMillis;
+    private long throttledSinceMillis;
+    private int successesSinceThrottled;
+    private double averagePermits = 5;
+    private double averageEpisodeMillis = Duration.ofSeconds(60).toMillis();
+}
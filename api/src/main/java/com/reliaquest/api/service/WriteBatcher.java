@@ -0,0 +1,261 @@
+package com.reliaquest.api.service;
+
+import com.reliaquest.api.exception.DeadlineExceededException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.client.HttpClientErrorException;
+
+/**
+ * Coalesces concurrent writes of one kind into batches that cost one upstream request each.
+ *
+ * <p>A write is queued until {@code window} has passed since the oldest queued write, or until {@code maxSize} writes
+ * are queued, and then dispatched together with the writes queued alongside it. At most {@code maxInFlight} batches
+ * are dispatched at a time. While they are, typically because they are backing off behind the upstream rate limiter,
+ * further writes keep queueing and go out in as few batches as the batch size allows once one completes, so a burst
+ * of writes spends little more of the upstream budget than a single write would. With {@code deduplicate}, a write
+ * equal to one still queued is not queued again but shares that write's result.
+ *
+ * <p>{@code dispatch} is given a batch's writes in order and returns their results in the same order. A batch the
+ * upstream rejects as a client error is dispatched again a write at a time, so a bad write fails only its own
+ * callers. The dispatch runs under a deadline as late as the latest of its callers', while each caller waits for
+ * their result only until their own.
+ */
+@Slf4j
+public class WriteBatcher<T, R> {
+
+    private final String kind;
+    private final long windowNanos;
+    private final int maxSize;
+    private final int maxInFlight;
+    private final boolean deduplicate;
+    private final Function<List<T>, List<R>> dispatch;
+    private final ScheduledExecutorService timer;
+    private final Executor dispatcher;
+    private final DistributionSummary batchSize;
+    private final Counter deduplicated;
+
+    private final ArrayDeque<Write<T, R>> queue = new ArrayDeque<>();
+    // The queued write of each item, when deduplicating; a write leaves it when its batch is dispatched.
+    private final Map<T, Write<T, R>> queued = new HashMap<>();
+    private boolean timerSet;
+    private int inFlight;
+
+    WriteBatcher(
+            String kind,
+            Duration window,
+            int maxSize,
+            int maxInFlight,
+            boolean deduplicate,
+            Function<List<T>, List<R>> dispatch,
+            ScheduledExecutorService timer,
+            Executor dispatcher,
+            DistributionSummary batchSize,
+            Counter deduplicated) {
+        this.kind = kind;
+        this.windowNanos = window.toNanos();
+        this.maxSize = Math.max(1, maxSize);
+        this.maxInFlight = Math.max(1, maxInFlight);
+        this.deduplicate = deduplicate;
+        this.dispatch = dispatch;
+        this.timer = timer;
+        this.dispatcher = dispatcher;
+        this.batchSize = batchSize;
+        this.deduplicated = deduplicated;
+    }
+
+    /**
+     * Queues a write under the current request's {@link Deadline}.
+     *
+     * @return the write's result, once its batch has been dispatched
+     */
+    public CompletableFuture<R> submit(T item) {
+        final var deadline = Deadline.current();
+        synchronized (this) {
+            if (deduplicate) {
+                final var existing = queued.get(item);
+                if (existing != null) {
+                    existing.extend(deadline);
+                    deduplicated.increment();
+                    return existing.result;
+                }
+            }
+            final var write = new Write<T, R>(item, deadline);
+            queue.add(write);
+            if (deduplicate) {
+                queued.put(item, write);
+            }
+            schedule();
+            return write.result;
+        }
+    }
+
+    /**
+     * Queues a write and waits for its result until the current request's {@link Deadline}. The wait counts as
+     * upstream time in the request's timing.
+     */
+    public R write(T item) {
+        final var deadline = Deadline.current();
+        final var result = submit(item);
+        final long waitStart = System.nanoTime();
+        try {
+            return deadline.isBounded()
+                    ? result.get(deadline.remaining().toNanos(), TimeUnit.NANOSECONDS)
+                    : result.get();
+        } catch (TimeoutException e) {
+            final String message = String.format("Request deadline exceeded waiting for a batched %s", kind);
+            log.warn(message);
+            throw new DeadlineExceededException(message, e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(String.format("Batched %s failed", kind), e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(String.format("Interrupted waiting for a batched %s", kind), e);
+        } finally {
+            RequestTiming.current().record(RequestTiming.Phase.UPSTREAM, waitStart);
+        }
+    }
+
+    /*
+     * Must be called while holding this batcher's monitor. Dispatches batches while there is room in flight and the
+     * oldest queued write has waited out the window or a full batch is queued; otherwise sets the timer for the end
+     * of the window.
+     */
+    private void schedule() {
+        while (!queue.isEmpty() && inFlight < maxInFlight) {
+            final long waited = System.nanoTime() - queue.peek().queuedAtNanos;
+            if (queue.size() < maxSize && waited < windowNanos) {
+                if (!timerSet) {
+                    timerSet = true;
+                    timer.schedule(this::windowClosed, windowNanos - waited, TimeUnit.NANOSECONDS);
+                }
+                return;
+            }
+            final var batch = new ArrayList<Write<T, R>>(Math.min(queue.size(), maxSize));
+            while (batch.size() < maxSize && !queue.isEmpty()) {
+                final var write = queue.poll();
+                if (deduplicate) {
+                    queued.remove(write.item);
+                }
+                batch.add(write);
+            }
+            inFlight++;
+            try {
+                dispatcher.execute(() -> dispatch(batch));
+            } catch (RejectedExecutionException e) {
+                inFlight--;
+                batch.forEach(write -> write.result.completeExceptionally(e));
+            }
+        }
+    }
+
+    private synchronized void windowClosed() {
+        timerSet = false;
+        schedule();
+    }
+
+    private void dispatch(List<Write<T, R>> batch) {
+        try {
+            batchSize.record(batch.size());
+            run(batch);
+        } finally {
+            synchronized (this) {
+                inFlight--;
+                schedule();
+            }
+        }
+    }
+
+    private void run(List<Write<T, R>> batch) {
+        final var deadline = latestDeadline(batch);
+        if (deadline.isBounded()) {
+            Deadline.bind(deadline);
+        }
+        try {
+            final var results =
+                    dispatch.apply(batch.stream().map(write -> write.item).toList());
+            if (results.size() != batch.size()) {
+                throw new IllegalStateException(String.format(
+                        "Batched %s returned %d results for %d writes", kind, results.size(), batch.size()));
+            }
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).result.complete(results.get(i));
+            }
+        } catch (HttpClientErrorException e) {
+            if (batch.size() == 1) {
+                batch.get(0).result.completeExceptionally(e);
+                return;
+            }
+            log.debug(
+                    "Batch of {} {} writes rejected, retrying them one at a time: {}",
+                    batch.size(),
+                    kind,
+                    e.getMessage());
+            batch.forEach(write -> run(List.of(write)));
+        } catch (RuntimeException e) {
+            batch.forEach(write -> write.result.completeExceptionally(e));
+        } finally {
+            Deadline.unbind();
+        }
+    }
+
+    /*
+     * A deadline of its own rather than a caller's, which that caller's cancellation would cut short for everyone.
+     */
+    private static Deadline latestDeadline(List<? extends Write<?, ?>> batch) {
+        Duration latest = Duration.ZERO;
+        for (var write : batch) {
+            final Deadline deadline;
+            synchronized (write) {
+                deadline = write.deadline;
+            }
+            if (!deadline.isBounded()) {
+                return Deadline.NONE;
+            }
+            final var remaining = deadline.remaining();
+            if (remaining.compareTo(latest) > 0) {
+                latest = remaining;
+            }
+        }
+        return Deadline.after(latest);
+    }
+
+    private static final class Write<T, R> {
+
+        private final T item;
+        private final long queuedAtNanos = System.nanoTime();
+        private final CompletableFuture<R> result = new CompletableFuture<>();
+        private Deadline deadline;
+
+        private Write(T item, Deadline deadline) {
+            this.item = item;
+            this.deadline = deadline;
+        }
+
+        /**
+         * Lets a caller sharing this write extend the deadline it is dispatched under.
+         */
+        private synchronized void extend(Deadline other) {
+            if (!other.isBounded() || (deadline.isBounded() && other.remaining().compareTo(deadline.remaining()) > 0)) {
+                deadline = other;
+            }
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.reliaquest.api.service;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Settings, threads and metrics shared by {@link EmployeeService}'s {@link WriteBatcher}s, one per kind of write.
+ *
+ * <p>A batch closes {@code window_millis} after its first write or at {@code max_size} writes, whichever comes first,
+ * and at most {@code max_in_flight} batches of a kind are sent upstream at a time. The batch sizes reached are
+ * recorded as {@code api.write.batch.size} and the writes shared with a queued duplicate as
+ * {@code api.write.deduplicated}, both tagged by kind.
+ */
+@Component
+public class WriteBatching {
+
+    private final boolean enabled;
+    private final Duration window;
+    private final int maxSize;
+    private final int maxInFlight;
+    private final MeterRegistry meterRegistry;
+    private final ScheduledExecutorService timer;
+    private final ExecutorService dispatcher;
+
+    public WriteBatching(
+            MeterRegistry meterRegistry,
+            @Value("${service.employee.write_batch.enabled: true}") boolean enabled,
+            @Value("${service.employee.write_batch.window_millis: 10}") int windowMillis,
+            @Value("${service.employee.write_batch.max_size: 100}") int maxSize,
+            @Value("${service.employee.write_batch.max_in_flight: 2}") int maxInFlight) {
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.window = Duration.ofMillis(windowMillis);
+        this.maxSize = maxSize;
+        this.maxInFlight = maxInFlight;
+        this.timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final var thread = new Thread(runnable, "write-batch-timer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        final var dispatchers = new AtomicInteger();
+        this.dispatcher = Executors.newCachedThreadPool(runnable -> {
+            final var thread = new Thread(runnable, "write-batch-" + dispatchers.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * A batcher for the writes of {@code kind}, sent upstream by {@code dispatch}.
+     */
+    public <T, R> WriteBatcher<T, R> batcher(String kind, boolean deduplicate, Function<List<T>, List<R>> dispatch) {
+        return new WriteBatcher<>(
+                kind,
+                window,
+                maxSize,
+                maxInFlight,
+                deduplicate,
+                dispatch,
+                timer,
+                dispatcher,
+                DistributionSummary.builder("api.write.batch.size")
+                        .tag("kind", kind)
+                        .register(meterRegistry),
+                meterRegistry.counter("api.write.deduplicated", "kind", kind));
+    }
+
+    @PreDestroy
+    public void close() {
+        timer.shutdownNow();
+        dispatcher.shutdownNow();
+    }
+}
@@ -0,0 +1,144 @@
+package com.reliaquest.api.web;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Sampled, asynchronous access log written as one JSON object per line to the {@code com.reliaquest.api.access}
+ * logger.
+ *
+ * <p>Request threads only decide whether to keep an entry and hand it to a bounded queue; formatting and logging
+ * happen on a single writer thread. Unsampled requests cost a random draw and nothing else. Failed requests (status
+ * 500 and above, or an unhandled exception) are always kept. When the writer falls behind, entries are dropped and
+ * counted rather than slowing requests down.
+ */
+@Component
+public class AccessLog {
+
+    private static final Logger ACCESS = LoggerFactory.getLogger("com.reliaquest.api.access");
+    private static final Entry STOP = new Entry(0, null, null, 0, 0, null);
+
+    private final boolean enabled;
+    private final double sampleRate;
+    private final BlockingQueue<Entry> queue;
+    private final Counter dropped;
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    public AccessLog(
+            MeterRegistry meterRegistry,
+            @Value("${service.employee.access_log.enabled: true}") boolean enabled,
+            @Value("${service.employee.access_log.sample_rate: 0.01}") double sampleRate,
+            @Value("${service.employee.access_log.queue_capacity: 8192}") int queueCapacity) {
+        this.enabled = enabled && ACCESS.isInfoEnabled();
+        this.sampleRate = sampleRate;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.dropped = meterRegistry.counter("api.access_log.dropped");
+        this.writer = new Thread(this::run, "access-log-writer");
+        this.writer.setDaemon(true);
+        if (this.enabled) {
+            this.writer.start();
+        }
+    }
+
+    /**
+     * Records a completed request if it failed or falls in the sample.
+     */
+    public void log(String method, String uri, int status, long durationNanos, Exception ex) {
+        if (!enabled) {
+            return;
+        }
+        final boolean failed = status >= 500 || ex != null;
+        if (!failed && (sampleRate <= 0 || ThreadLocalRandom.current().nextDouble() >= sampleRate)) {
+            return;
+        }
+        final var entry = new Entry(
+                System.currentTimeMillis(),
+                method,
+                uri,
+                status,
+                durationNanos,
+                ex == null ? null : ex.getClass().getName());
+        if (!queue.offer(entry)) {
+            dropped.increment();
+        }
+    }
+
+    @PreDestroy
+    public void close() throws InterruptedException {
+        if (!enabled) {
+            return;
+        }
+        running = false;
+        queue.offer(STOP, 1, TimeUnit.SECONDS);
+        writer.join(TimeUnit.SECONDS.toMillis(5));
+    }
+
+    private void run() {
+        final var batch = new ArrayList<Entry>(256);
+        final var line = new StringBuilder(256);
+        while (running || !queue.isEmpty()) {
+            try {
+                batch.add(queue.take());
+                queue.drainTo(batch, 255);
+                for (var entry : batch) {
+                    if (entry != STOP) {
+                        ACCESS.info(format(entry, line));
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private static String format(Entry entry, StringBuilder line) {
+        line.setLength(0);
+        line.append("{\"ts\":\"")
+                .append(Instant.ofEpochMilli(entry.timestampMillis()))
+                .append("\",\"method\":\"")
+                .append(entry.method())
+                .append("\",\"uri\":\"");
+        appendEscaped(line, entry.uri());
+        line.append("\",\"status\":")
+                .append(entry.status())
+                .append(",\"duration_ms\":")
+                .append(entry.durationNanos() / 1_000_000)
+                .append('.')
+                .append(entry.durationNanos() / 100_000 % 10);
+        if (entry.error() != null) {
+            line.append(",\"error\":\"").append(entry.error()).append('"');
+        }
+        return line.append('}').toString();
+    }
+
+    private static void appendEscaped(StringBuilder line, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                line.append('\\').append(c);
+            } else if (c < 0x20) {
+                line.append(String.format("\\u%04x", (int) c));
+            } else {
+                line.append(c);
+            }
+        }
+    }
+
+    private record Entry(
+            long timestampMillis, String method, String uri, int status, long durationNanos, String error) {}
+}
@@ -0,0 +1,117 @@
+package com.reliaquest.api.web;
+
+import com.reliaquest.api.exception.ServiceOverloadedException;
+import com.reliaquest.api.service.Deadline;
+import com.reliaquest.api.service.UpstreamBackoff;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Fast-fail load shedding in front of the employee endpoints.
+ *
+ * <p>Every employee request may have to wait out the upstream rate limit inside {@code executeWithRetry}. Rather than
+ * let that wait grow until clients time out, a request is only admitted when the wait expected from the current
+ * {@link UpstreamBackoff} state and the requests already in flight fits within both the maximum wait and the time
+ * left before the request's {@link Deadline}, and while fewer than {@code queue_capacity} requests are in flight.
+ * Otherwise it is rejected straight away with 503 and {@code Retry-After}.
+ *
+ * <p>Goodput counts admitted requests that completed without a server error or upstream throttling within the
+ * maximum wait; comparing it with the admitted and rejected counters shows how much of the offered load was useful.
+ */
+@Component
+public class AdmissionControlInterceptor implements HandlerInterceptor {
+
+    private static final String ADMITTED_AT = AdmissionControlInterceptor.class.getName() + ".admittedAt";
+
+    private final UpstreamBackoff upstreamBackoff;
+    private final Duration maxWait;
+    private final int queueCapacity;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private final Counter admitted;
+    private final Counter rejectedQueueFull;
+    private final Counter rejectedExpectedWait;
+    private final Counter goodput;
+    private final Counter badput;
+
+    public AdmissionControlInterceptor(
+            UpstreamBackoff upstreamBackoff,
+            MeterRegistry meterRegistry,
+            @Value("${service.employee.admission.max_wait_time: 30}") int maxWaitTimeInSec,
+            @Value("${service.employee.admission.queue_capacity: 100}") int queueCapacity) {
+        this.upstreamBackoff = upstreamBackoff;
+        this.maxWait = Duration.ofSeconds(maxWaitTimeInSec);
+        this.queueCapacity = queueCapacity;
+
+        this.admitted = meterRegistry.counter("api.admission.admitted");
+        this.rejectedQueueFull = meterRegistry.counter("api.admission.rejected", "reason", "queue_full");
+        this.rejectedExpectedWait = meterRegistry.counter("api.admission.rejected", "reason", "expected_wait");
+        this.goodput = meterRegistry.counter("api.admission.goodput");
+        this.badput = meterRegistry.counter("api.admission.badput");
+        Gauge.builder("api.admission.in_flight", inFlight, AtomicInteger::get).register(meterRegistry);
+        Gauge.builder("api.admission.expected_wait", this, interceptor -> interceptor
+                        .expectedWait()
+                        .toMillis())
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        final int ahead = inFlight.getAndIncrement();
+        if (ahead >= queueCapacity) {
+            inFlight.decrementAndGet();
+            rejectedQueueFull.increment();
+            throw new ServiceOverloadedException(
+                    String.format("%d requests are already waiting. Please try after some time", ahead),
+                    upstreamBackoff.remainingBackoff());
+        }
+        final Duration expectedWait = upstreamBackoff.expectedWait(ahead);
+        final Duration budget = min(maxWait, Deadline.current().remaining());
+        if (expectedWait.compareTo(budget) > 0) {
+            inFlight.decrementAndGet();
+            rejectedExpectedWait.increment();
+            throw new ServiceOverloadedException(
+                    String.format(
+                            "Expected wait of %d ms exceeds the %d ms available. Please try after some time",
+                            expectedWait.toMillis(), budget.toMillis()),
+                    upstreamBackoff.remainingBackoff());
+        }
+        admitted.increment();
+        request.setAttribute(ADMITTED_AT, System.nanoTime());
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(
+            HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        inFlight.decrementAndGet();
+        final long elapsed = System.nanoTime() - (long) request.getAttribute(ADMITTED_AT);
+        final int status = response.getStatus();
+        if (ex == null
+                && status < 500
+                && status != HttpStatus.TOO_MANY_REQUESTS.value()
+                && elapsed <= maxWait.toNanos()) {
+            goodput.increment();
+        } else {
+            badput.increment();
+        }
+    }
+
+    private static Duration min(Duration a, Duration b) {
+        return a.compareTo(b) <= 0 ? a : b;
+    }
+
+    private Duration expectedWait() {
+        return upstreamBackoff.expectedWait(inFlight.get());
+    }
+}
@@ -0,0 +1,69 @@
+package com.reliaquest.api.web;
+
+import com.reliaquest.api.config.DeadlineProperties;
+import com.reliaquest.api.service.Deadline;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.time.Duration;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Binds a {@link Deadline} to each employee request for the duration of its handling.
+ *
+ * <p>The timeout is taken from {@link DeadlineProperties} for the handler method, or from the {@code X-Request-Timeout}
+ * header (milliseconds) when the client sends a shorter one. When the request completes, the deadline is cancelled so
+ * that any upstream work still waiting on its behalf stops.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DeadlineInterceptor implements HandlerInterceptor {
+
+    public static final String TIMEOUT_HEADER = "X-Request-Timeout";
+
+    private static final String DEADLINE = DeadlineInterceptor.class.getName() + ".deadline";
+
+    private final DeadlineProperties deadlineProperties;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        final var deadline = Deadline.after(timeout(request, handler));
+        request.setAttribute(DEADLINE, deadline);
+        Deadline.bind(deadline);
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(
+            HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (request.getAttribute(DEADLINE) instanceof Deadline deadline) {
+            deadline.cancel();
+        }
+        Deadline.unbind();
+    }
+
+    /*
+     * A client may shorten the configured timeout but not extend it, so it cannot hold a thread for longer.
+     */
+    private Duration timeout(HttpServletRequest request, Object handler) {
+        final var endpoint =
+                handler instanceof HandlerMethod method ? method.getMethod().getName() : "";
+        final var configured = deadlineProperties.timeoutFor(endpoint);
+        final var header = request.getHeader(TIMEOUT_HEADER);
+        if (header != null) {
+            try {
+                final long millis = Long.parseLong(header.trim());
+                if (millis > 0 && millis < configured.toMillis()) {
+                    return Duration.ofMillis(millis);
+                }
+            } catch (NumberFormatException e) {
+                log.debug("Ignoring invalid {} header: {}", TIMEOUT_HEADER, header);
+            }
+        }
+        return configured;
+    }
+}
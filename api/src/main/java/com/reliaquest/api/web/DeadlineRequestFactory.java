@@ -0,0 +1,34 @@
+package com.reliaquest.api.web;
+
+import com.reliaquest.api.service.Deadline;
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+
+/**
+ * Gives every outbound call made while handling a request connect and read timeouts equal to the time left before
+ * the request's {@link Deadline}, and forwards that remaining budget upstream in {@code X-Request-Timeout}.
+ */
+public class DeadlineRequestFactory extends SimpleClientHttpRequestFactory {
+
+    @Override
+    protected void prepareConnection(HttpURLConnection connection, String httpMethod) throws IOException {
+        super.prepareConnection(connection, httpMethod);
+        final var deadline = Deadline.current();
+        if (!deadline.isBounded()) {
+            return;
+        }
+        final int timeoutMillis = timeoutMillis(deadline);
+        connection.setConnectTimeout(timeoutMillis);
+        connection.setReadTimeout(timeoutMillis);
+        connection.setRequestProperty(DeadlineInterceptor.TIMEOUT_HEADER, Integer.toString(timeoutMillis));
+    }
+
+    /**
+     * Time left before {@code deadline} in whole milliseconds, at least one so it never means "no timeout".
+     */
+    static int timeoutMillis(Deadline deadline) {
+        return (int)
+                Math.max(1, Math.min(Integer.MAX_VALUE, deadline.remaining().toMillis()));
+    }
+}
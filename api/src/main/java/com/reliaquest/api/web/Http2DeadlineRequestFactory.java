@@ -0,0 +1,61 @@
+package com.reliaquest.api.web;
+
+import com.reliaquest.api.service.Deadline;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+
+/**
+ * {@link DeadlineRequestFactory} for HTTP/2 upstreams: calls go through one JDK {@link HttpClient}, which upgrades its
+ * cleartext connection to the upstream to h2c and multiplexes concurrent calls over it instead of opening a
+ * connection per call. A burst of calls before the first upgrade completes may open a few connections.
+ *
+ * <p>Each call times out when the request's {@link Deadline} passes and forwards the remaining budget upstream in
+ * {@code X-Request-Timeout}. Connections are shared, so the connect timeout is fixed rather than per call.
+ */
+public class Http2DeadlineRequestFactory implements ClientHttpRequestFactory {
+
+    private static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(5);
+
+    private final HttpClient httpClient;
+    private final JdkClientHttpRequestFactory unbounded;
+
+    public Http2DeadlineRequestFactory() {
+        // Streams request bodies and completes responses; given to the client so the per-call factories share it.
+        final var threadCount = new AtomicInteger();
+        final ExecutorService executor = Executors.newCachedThreadPool(runnable -> {
+            final var thread = new Thread(runnable, "upstream-http2-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(CONNECT_TIMEOUT)
+                .executor(executor)
+                .build();
+        this.unbounded = new JdkClientHttpRequestFactory(httpClient);
+    }
+
+    @Override
+    public ClientHttpRequest createRequest(URI uri, HttpMethod httpMethod) throws IOException {
+        final var deadline = Deadline.current();
+        if (!deadline.isBounded()) {
+            return unbounded.createRequest(uri, httpMethod);
+        }
+        // The factory's read timeout becomes the request's timeout, so each bounded call gets its own factory.
+        final int timeoutMillis = DeadlineRequestFactory.timeoutMillis(deadline);
+        final var factory = new JdkClientHttpRequestFactory(httpClient);
+        factory.setReadTimeout(timeoutMillis);
+        final var request = factory.createRequest(uri, httpMethod);
+        request.getHeaders().set(DeadlineInterceptor.TIMEOUT_HEADER, Integer.toString(timeoutMillis));
+        return request;
+    }
+}
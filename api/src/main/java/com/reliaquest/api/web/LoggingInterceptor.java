@@ -2,22 +2,29 @@ package com.reliaquest.api.web;
 
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.web.servlet.HandlerInterceptor;
 
 @Slf4j
+@RequiredArgsConstructor
 public class LoggingInterceptor implements HandlerInterceptor {
 
+    private static final String STARTED_AT = LoggingInterceptor.class.getName() + ".startedAt";
+
+    private final AccessLog accessLog;
+
     @Override
     public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
-        log.info("Incoming Request: Method={}, URI={}", request.getMethod(), request.getRequestURI());
+        request.setAttribute(STARTED_AT, System.nanoTime());
         return true;
     }
 
     @Override
     public void afterCompletion(
             HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
-        log.info("Outgoing Response: Status={}, URI={}", response.getStatus(), request.getRequestURI());
+        final long duration = System.nanoTime() - (long) request.getAttribute(STARTED_AT);
+        accessLog.log(request.getMethod(), request.getRequestURI(), response.getStatus(), duration, ex);
         if (ex != null) {
             log.error("Exception occurred: ", ex);
         }
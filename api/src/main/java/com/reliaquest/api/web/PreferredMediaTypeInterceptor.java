@@ -0,0 +1,43 @@
+package com.reliaquest.api.web;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Map;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+/**
+ * Asks the upstream for one media type ahead of the others a call can read. The {@code Accept} header RestTemplate
+ * builds is kept, with the preferred type first and the rest at a lower quality, so a server that cannot produce the
+ * preferred type still answers in one of them. Request bodies are written as before.
+ */
+public class PreferredMediaTypeInterceptor implements ClientHttpRequestInterceptor {
+
+    private static final Map<String, String> LOWER_QUALITY = Map.of("q", "0.9");
+
+    private final MediaType preferred;
+
+    public PreferredMediaTypeInterceptor(MediaType preferred) {
+        this.preferred = preferred;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        final var accept = request.getHeaders().getAccept();
+        if (accept.stream().anyMatch(preferred::equalsTypeAndSubtype)) {
+            final var reordered = new ArrayList<MediaType>(accept.size());
+            reordered.add(preferred);
+            for (var type : accept) {
+                if (!type.equalsTypeAndSubtype(preferred)) {
+                    reordered.add(new MediaType(type, LOWER_QUALITY));
+                }
+            }
+            request.getHeaders().setAccept(reordered);
+        }
+        return execution.execute(request, body);
+    }
+}
@@ -0,0 +1,41 @@
+package com.reliaquest.api.web;
+
+import com.reliaquest.api.service.RequestTiming;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Adds the {@code Server-Timing} header to every response body written for a timed request. With
+ * {@code server_timing.serialization} on, JSON bodies get it rewritten with the serialisation time by
+ * {@link ServerTimingJsonHttpMessageConverter}.
+ */
+@ControllerAdvice
+public class ServerTimingAdvice implements ResponseBodyAdvice<Object> {
+
+    public static final String SERVER_TIMING_HEADER = "Server-Timing";
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(
+            Object body,
+            MethodParameter returnType,
+            MediaType selectedContentType,
+            Class<? extends HttpMessageConverter<?>> selectedConverterType,
+            ServerHttpRequest request,
+            ServerHttpResponse response) {
+        final var timing = RequestTiming.current();
+        if (timing.isRecording()) {
+            response.getHeaders().set(SERVER_TIMING_HEADER, timing.toHeaderValue());
+        }
+        return body;
+    }
+}
@@ -0,0 +1,25 @@
+package com.reliaquest.api.web;
+
+import com.reliaquest.api.service.RequestTiming;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Binds a {@link RequestTiming} to each employee request; {@link ServerTimingAdvice} and
+ * {@link ServerTimingJsonHttpMessageConverter} turn it into the {@code Server-Timing} response header.
+ */
+public class ServerTimingInterceptor implements HandlerInterceptor {
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        RequestTiming.bind(RequestTiming.start());
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(
+            HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        RequestTiming.unbind();
+    }
+}
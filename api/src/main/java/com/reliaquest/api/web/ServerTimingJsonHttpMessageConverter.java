@@ -0,0 +1,50 @@
+package com.reliaquest.api.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.reliaquest.api.service.RequestTiming;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+/**
+ * JSON converter that serialises a timed request's body into a buffer first, so that the serialisation time can go
+ * into the {@code Server-Timing} header before the body is sent.
+ *
+ * <p>The whole body is held on the heap and nothing is sent until it is complete, so the converter is only installed
+ * with {@code server_timing.serialization} on, for profiling.
+ */
+public class ServerTimingJsonHttpMessageConverter extends MappingJackson2HttpMessageConverter {
+
+    public ServerTimingJsonHttpMessageConverter(ObjectMapper objectMapper) {
+        super(objectMapper);
+    }
+
+    @Override
+    protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage) throws IOException {
+        final var timing = RequestTiming.current();
+        if (!timing.isRecording()) {
+            super.writeInternal(object, type, outputMessage);
+            return;
+        }
+        final var buffer = new ByteArrayOutputStream(8 * 1024);
+        final long start = System.nanoTime();
+        super.writeInternal(object, type, new HttpOutputMessage() {
+            @Override
+            public OutputStream getBody() {
+                return buffer;
+            }
+
+            @Override
+            public HttpHeaders getHeaders() {
+                return outputMessage.getHeaders();
+            }
+        });
+        timing.record(RequestTiming.Phase.SERIALIZATION, start);
+        outputMessage.getHeaders().set(ServerTimingAdvice.SERVER_TIMING_HEADER, timing.toHeaderValue());
+        buffer.writeTo(outputMessage.getBody());
+    }
+}
@@ -0,0 +1,133 @@
+package com.reliaquest.api.web;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Records every employee API request to a {@link TrafficLog} so the traffic can be replayed later.
+ *
+ * <p>Like {@link AccessLog}, request threads only hand entries to a bounded queue and a single writer thread encodes
+ * them, so capture adds no I/O to requests; entries that do not fit are dropped and counted. Capture stops once the
+ * log reaches its size limit.
+ */
+@Slf4j
+@Component
+public class TrafficCapture {
+
+    private static final TrafficLog.Entry STOP = new TrafficLog.Entry(0, null, null, null, 0, 0);
+
+    private final boolean enabled;
+    private final long maxBytes;
+    private final long startNanos = System.nanoTime();
+    private final BlockingQueue<TrafficLog.Entry> queue;
+    private final Counter captured;
+    private final Counter dropped;
+    private final Thread writerThread;
+    private TrafficLog.Writer writer;
+    private volatile boolean running = true;
+
+    public TrafficCapture(
+            MeterRegistry meterRegistry,
+            @Value("${service.employee.capture.enabled: false}") boolean enabled,
+            @Value("${service.employee.capture.file: capture/api-traffic.rqtc}") Path file,
+            @Value("${service.employee.capture.max_size_mb: 256}") long maxSizeMb,
+            @Value("${service.employee.capture.queue_capacity: 8192}") int queueCapacity) {
+        this.enabled = enabled;
+        this.maxBytes = maxSizeMb * 1024 * 1024;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.captured = meterRegistry.counter("api.capture.requests");
+        this.dropped = meterRegistry.counter("api.capture.dropped");
+        this.writerThread = new Thread(this::run, "traffic-capture-writer");
+        this.writerThread.setDaemon(true);
+        if (enabled) {
+            try {
+                if (file.getParent() != null) {
+                    Files.createDirectories(file.getParent());
+                }
+                writer = new TrafficLog.Writer(Files.newOutputStream(file), System.currentTimeMillis());
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot open traffic capture file " + file, e);
+            }
+            log.info("Capturing employee API traffic to {}", file.toAbsolutePath());
+            writerThread.start();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Queues a completed request; {@code arrivalNanos} is its {@link System#nanoTime()} when it arrived.
+     */
+    public void capture(String method, String uri, byte[] body, int status, long arrivalNanos, long durationNanos) {
+        if (!enabled || !running) {
+            return;
+        }
+        final var entry = new TrafficLog.Entry(
+                TimeUnit.NANOSECONDS.toMicros(Math.max(0, arrivalNanos - startNanos)),
+                method,
+                uri,
+                body,
+                status,
+                TimeUnit.NANOSECONDS.toMicros(durationNanos));
+        if (!queue.offer(entry)) {
+            dropped.increment();
+        }
+    }
+
+    @PreDestroy
+    public void close() throws InterruptedException {
+        if (!enabled) {
+            return;
+        }
+        running = false;
+        queue.offer(STOP, 1, TimeUnit.SECONDS);
+        writerThread.join(TimeUnit.SECONDS.toMillis(5));
+    }
+
+    private void run() {
+        final var batch = new ArrayList<TrafficLog.Entry>(256);
+        long written = 0;
+        try (var out = writer) {
+            while (running || !queue.isEmpty()) {
+                batch.add(queue.take());
+                queue.drainTo(batch, 255);
+                for (var entry : batch) {
+                    if (entry == STOP) {
+                        continue;
+                    }
+                    written += out.write(entry);
+                    captured.increment();
+                    if (written >= maxBytes) {
+                        log.warn("Traffic capture reached {} bytes and stopped", written);
+                        running = false;
+                        queue.clear();
+                        return;
+                    }
+                }
+                batch.clear();
+                if (queue.isEmpty()) {
+                    out.flush();
+                }
+            }
+        } catch (IOException e) {
+            running = false;
+            log.error("Traffic capture failed and stopped", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.reliaquest.api.web;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.util.ContentCachingRequestWrapper;
+import org.springframework.web.util.WebUtils;
+
+/**
+ * Hands each completed request to {@link TrafficCapture}. Request bodies are read back from the
+ * {@link ContentCachingRequestWrapper} that the api configuration puts around captured requests.
+ */
+@RequiredArgsConstructor
+public class TrafficCaptureInterceptor implements HandlerInterceptor {
+
+    /** Larger bodies are captured truncated; employee inputs are a few hundred bytes. */
+    public static final int MAX_BODY_BYTES = 64 * 1024;
+
+    private static final String ARRIVED_AT = TrafficCaptureInterceptor.class.getName() + ".arrivedAt";
+    private static final byte[] NO_BODY = new byte[0];
+
+    private final TrafficCapture trafficCapture;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        request.setAttribute(ARRIVED_AT, System.nanoTime());
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(
+            HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        final long arrivedAt = (long) request.getAttribute(ARRIVED_AT);
+        final var cached = WebUtils.getNativeRequest(request, ContentCachingRequestWrapper.class);
+        final var uri = request.getQueryString() == null
+                ? request.getRequestURI()
+                : request.getRequestURI() + "?" + request.getQueryString();
+        trafficCapture.capture(
+                request.getMethod(),
+                uri,
+                cached == null ? NO_BODY : cached.getContentAsByteArray(),
+                response.getStatus(),
+                arrivedAt,
+                System.nanoTime() - arrivedAt);
+    }
+}
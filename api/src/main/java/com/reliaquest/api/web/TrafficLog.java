@@ -0,0 +1,166 @@
+package com.reliaquest.api.web;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Binary format of captured api traffic, written by {@link TrafficCapture} and read by the load generator's replayer.
+ * It depends on nothing outside the JDK so the replayer can use it without the api's Spring dependencies.
+ *
+ * <p>A log starts with the magic bytes {@code RQTC}, a format version byte and the capture start as epoch millis
+ * (8 bytes). Each request that follows is: arrival offset from the capture start in microseconds, method, request URI
+ * (path and query), body, response status and duration in microseconds. Numbers and lengths are unsigned varints and
+ * the method is a single byte for the common verbs, so a bodiless GET costs its URI plus about eight bytes.
+ */
+public final class TrafficLog {
+
+    private static final byte[] MAGIC = {'R', 'Q', 'T', 'C'};
+    private static final int VERSION = 1;
+    private static final List<String> METHODS = List.of("GET", "POST", "PUT", "DELETE", "PATCH", "HEAD", "OPTIONS");
+    private static final int OTHER_METHOD = 0xFF;
+
+    private TrafficLog() {}
+
+    public record Entry(long arrivalMicros, String method, String uri, byte[] body, int status, long durationMicros) {}
+
+    public static final class Writer implements Closeable {
+
+        private final DataOutputStream out;
+
+        public Writer(OutputStream out, long startEpochMillis) throws IOException {
+            this.out = new DataOutputStream(new BufferedOutputStream(out, 1 << 16));
+            this.out.write(MAGIC);
+            this.out.writeByte(VERSION);
+            this.out.writeLong(startEpochMillis);
+        }
+
+        /**
+         * Appends {@code entry} and returns the number of bytes written.
+         */
+        public int write(Entry entry) throws IOException {
+            final int before = out.size();
+            writeVarint(entry.arrivalMicros());
+            final int method = METHODS.indexOf(entry.method());
+            if (method >= 0) {
+                out.writeByte(method);
+            } else {
+                out.writeByte(OTHER_METHOD);
+                writeBytes(entry.method().getBytes(StandardCharsets.US_ASCII));
+            }
+            writeBytes(entry.uri().getBytes(StandardCharsets.UTF_8));
+            writeBytes(entry.body());
+            writeVarint(entry.status());
+            writeVarint(entry.durationMicros());
+            return out.size() - before;
+        }
+
+        public void flush() throws IOException {
+            out.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.close();
+        }
+
+        private void writeBytes(byte[] bytes) throws IOException {
+            writeVarint(bytes.length);
+            out.write(bytes);
+        }
+
+        private void writeVarint(long value) throws IOException {
+            while ((value & ~0x7FL) != 0) {
+                out.writeByte((int) (value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            out.writeByte((int) value);
+        }
+    }
+
+    public static final class Reader implements Closeable {
+
+        private final DataInputStream in;
+        private final long startEpochMillis;
+
+        public Reader(InputStream in) throws IOException {
+            this.in = new DataInputStream(new BufferedInputStream(in, 1 << 16));
+            final var magic = new byte[MAGIC.length];
+            this.in.readFully(magic);
+            if (!Arrays.equals(magic, MAGIC)) {
+                throw new IOException("Not a traffic log");
+            }
+            final int version = this.in.readUnsignedByte();
+            if (version != VERSION) {
+                throw new IOException("Unsupported traffic log version " + version);
+            }
+            this.startEpochMillis = this.in.readLong();
+        }
+
+        public static Reader open(Path path) throws IOException {
+            return new Reader(Files.newInputStream(path));
+        }
+
+        public long startEpochMillis() {
+            return startEpochMillis;
+        }
+
+        /**
+         * The next entry, or null at the end of the log. A final entry cut short because the api stopped while
+         * writing it is treated as the end.
+         */
+        public Entry read() throws IOException {
+            final long arrival;
+            try {
+                arrival = readVarint();
+            } catch (EOFException e) {
+                return null;
+            }
+            try {
+                final int methodIndex = in.readUnsignedByte();
+                final var method = methodIndex == OTHER_METHOD
+                        ? new String(readBytes(), StandardCharsets.US_ASCII)
+                        : METHODS.get(methodIndex);
+                final var uri = new String(readBytes(), StandardCharsets.UTF_8);
+                final var body = readBytes();
+                return new Entry(arrival, method, uri, body, (int) readVarint(), readVarint());
+            } catch (EOFException e) {
+                return null;
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+
+        private byte[] readBytes() throws IOException {
+            final var bytes = new byte[Math.toIntExact(readVarint())];
+            in.readFully(bytes);
+            return bytes;
+        }
+
+        private long readVarint() throws IOException {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                final int b = in.readUnsignedByte();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IOException("Malformed varint");
+        }
+    }
+}
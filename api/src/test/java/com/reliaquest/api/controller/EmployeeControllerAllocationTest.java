@@ -0,0 +1,240 @@
+package com.reliaquest.api.controller;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import com.reliaquest.api.config.ApiConfiguration;
+import com.reliaquest.api.model.CreateEmployee;
+import com.reliaquest.api.model.MockEmployee;
+import com.reliaquest.api.model.Response;
+import com.reliaquest.api.model.RosterChangeSet;
+import com.reliaquest.api.service.EmployeeService;
+import com.reliaquest.api.service.LocalUpstreamCoordination;
+import com.reliaquest.api.service.NameIndex;
+import com.reliaquest.api.service.RosterAnalytics;
+import com.reliaquest.api.service.SalaryQuantiles;
+import com.reliaquest.api.service.SearchCache;
+import com.reliaquest.api.service.UpstreamBackoff;
+import com.reliaquest.api.service.WriteBatching;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.TestFactory;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * Bytes allocated on the request thread per call of each EmployeeControllerImpl endpoint, at fixed roster sizes,
+ * checked against the budgets in allocation-budgets.properties.
+ *
+ * <p>The upstream is a RestTemplate returning prebuilt responses, so the numbers cover the api's own work (roster
+ * sync, mapping, filtering, sorting) and not HTTP or JSON. Runs through {@code ./gradlew api:allocationTest} rather
+ * than {@code test}; re-record the budgets after a deliberate change with
+ * {@code ./gradlew api:allocationTest -PupdateAllocationBudgets}.
+ */
+@Tag("allocation")
+public class EmployeeControllerAllocationTest {
+
+    private static final String SERVER_URL = "http://localhost:8000/api/v1/employee";
+    private static final String BUDGETS_RESOURCE = "/allocation-budgets.properties";
+    private static final int[] ROSTER_SIZES = {100, 1000};
+    private static final int WARMUP_CALLS = 500;
+    private static final int MEASURED_CALLS = 50;
+    private static final int ROUNDS = 5;
+    /**
+     * Recorded budgets leave this much room above the measurement. allocationTest runs with escape analysis off, since
+     * what it removes depends on what the JIT has inlined so far; without it the counts repeat to within a percent,
+     * and the headroom is for small, deliberate changes that need no re-recording.
+     */
+    private static final double HEADROOM = 0.10;
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    private static final boolean UPDATE = Boolean.getBoolean("allocation.budgets.update");
+    private static final Map<String, Long> MEASURED = new TreeMap<>();
+
+    @TestFactory
+    Stream<DynamicTest> allocationPerRequestStaysWithinBudget() {
+        assumeTrue(THREADS.isThreadAllocatedMemorySupported(), "per-thread allocation counters unavailable");
+        THREADS.setThreadAllocatedMemoryEnabled(true);
+        final var budgets = loadBudgets();
+        final var tests = new ArrayList<DynamicTest>();
+        for (int size : ROSTER_SIZES) {
+            final var roster = roster(size);
+            final var controller = controller(roster);
+            final var id = roster.get(size / 2).getId();
+            final var input = new CreateEmployee("Tiger Nixon", 320800, 61, "Vice Chair");
+            final Map<String, Consumer<EmployeeControllerImpl>> endpoints = Map.of(
+                    "getAllEmployees", EmployeeControllerImpl::getAllEmployees,
+                    "getEmployeesByNameSearch", c -> c.getEmployeesByNameSearch("an"),
+                    "getEmployeeById", c -> c.getEmployeeById(id),
+                    "getHighestSalaryOfEmployees", EmployeeControllerImpl::getHighestSalaryOfEmployees,
+                    "getTopTenHighestEarningEmployeeNames", c -> c.getTopTenHighestEarningEmployeeNames(),
+                    "createEmployee", c -> c.createEmployee(input),
+                    "deleteEmployeeById", c -> c.deleteEmployeeById(id));
+            new TreeMap<>(endpoints)
+                    .forEach((endpoint, call) -> tests.add(endpointTest(budgets, endpoint, size, controller, call)));
+        }
+        return tests.stream();
+    }
+
+    @AfterAll
+    static void recordBudgets() throws IOException {
+        if (!UPDATE || MEASURED.isEmpty()) {
+            return;
+        }
+        final var file = Path.of(System.getProperty("allocation.budgets.file"));
+        final var lines = new ArrayList<String>();
+        lines.add("# Bytes allocated on the request thread per call, by EmployeeControllerImpl endpoint and roster");
+        lines.add("# size.");
+        lines.add("# Checked by EmployeeControllerAllocationTest through ./gradlew api:allocationTest; re-record");
+        lines.add("# deliberately with ./gradlew api:allocationTest -PupdateAllocationBudgets");
+        MEASURED.forEach((key, bytes) -> lines.add(key + "=" + (long) Math.ceil(bytes * (1 + HEADROOM))));
+        Files.write(file, lines, StandardCharsets.UTF_8);
+    }
+
+    private static DynamicTest endpointTest(
+            Properties budgets,
+            String endpoint,
+            int rosterSize,
+            EmployeeControllerImpl controller,
+            Consumer<EmployeeControllerImpl> call) {
+        final var key = endpoint + "." + rosterSize;
+        return DynamicTest.dynamicTest(key, () -> {
+            final long bytes = bytesPerCall(() -> call.accept(controller));
+            if (UPDATE) {
+                MEASURED.put(key, bytes);
+                return;
+            }
+            final var budget = budgets.getProperty(key);
+            assertNotNull(budget, "No allocation budget for " + key + "; record one with -PupdateAllocationBudgets");
+            assertTrue(
+                    bytes <= Long.parseLong(budget),
+                    () -> key + " allocated " + bytes + " bytes per call, over its budget of " + budget);
+        });
+    }
+
+    /*
+     * The lowest of several rounds, so allocation by JIT compilation or class loading in one round does not count.
+     */
+    private static long bytesPerCall(Runnable call) {
+        for (int i = 0; i < WARMUP_CALLS; i++) {
+            call.run();
+        }
+        long lowest = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            final long before = THREADS.getCurrentThreadAllocatedBytes();
+            for (int i = 0; i < MEASURED_CALLS; i++) {
+                call.run();
+            }
+            lowest = Math.min(lowest, (THREADS.getCurrentThreadAllocatedBytes() - before) / MEASURED_CALLS);
+        }
+        return lowest;
+    }
+
+    private static Properties loadBudgets() {
+        final var budgets = new Properties();
+        try (InputStream in = EmployeeControllerAllocationTest.class.getResourceAsStream(BUDGETS_RESOURCE)) {
+            if (in != null) {
+                budgets.load(in);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return budgets;
+    }
+
+    private static List<MockEmployee> roster(int size) {
+        final var roster = new ArrayList<MockEmployee>(size);
+        for (int i = 0; i < size; i++) {
+            roster.add(new MockEmployee(
+                    String.format("00000000-0000-0000-0000-%012d", i),
+                    "Employee " + (char) ('A' + i % 26) + "n" + i,
+                    30_000 + (i * 7919) % 470_000,
+                    18 + i % 50,
+                    "Title " + i % 40,
+                    "employee" + i + "@company.com"));
+        }
+        return roster;
+    }
+
+    private static EmployeeControllerImpl controller(List<MockEmployee> roster) {
+        final var modelMapper = new ApiConfiguration(null, null, null, null).modelMapper();
+        final var rosterAnalytics = new RosterAnalytics(1, 16384, 100, 1000);
+        final var upstreamCoordination = new LocalUpstreamCoordination();
+        final var service = new EmployeeService(
+                new CannedRestTemplate(roster),
+                modelMapper,
+                new UpstreamBackoff(upstreamCoordination),
+                upstreamCoordination,
+                new SearchCache(true, 1000, 16),
+                new NameIndex(2, 100),
+                rosterAnalytics,
+                new SalaryQuantiles(rosterAnalytics, 0.01),
+                new WriteBatching(new SimpleMeterRegistry(), false, 10, 100, 2));
+        ReflectionTestUtils.setField(service, "MAX_BACKOFF_TIME_IN_SEC", 60);
+        ReflectionTestUtils.setField(service, "INITIAL_BACKOFF_TIME", 5);
+        ReflectionTestUtils.setField(service, "serverUrl", SERVER_URL);
+        ReflectionTestUtils.setField(service, "syncEnabled", true);
+        return new EmployeeControllerImpl(service);
+    }
+
+    /**
+     * Answers every upstream call with a response built up front, so the stub itself allocates nothing per call.
+     */
+    private static final class CannedRestTemplate extends RestTemplate {
+
+        private final ResponseEntity<?> roster;
+        private final ResponseEntity<?> noChanges;
+        private final ResponseEntity<?> employee;
+        private final ResponseEntity<?> deleted;
+
+        private CannedRestTemplate(List<MockEmployee> employees) {
+            final var headers = new HttpHeaders();
+            headers.set("X-Roster-Epoch", "epoch-1");
+            headers.set("X-Roster-Version", "1");
+            this.roster = ResponseEntity.ok().headers(headers).body(Response.handledWith(employees));
+            this.noChanges =
+                    ResponseEntity.ok(Response.handledWith(new RosterChangeSet("epoch-1", 1, false, List.of())));
+            this.employee = ResponseEntity.ok(Response.handledWith(employees.get(employees.size() / 2)));
+            this.deleted = ResponseEntity.ok(Response.handledWith(Boolean.TRUE));
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> ResponseEntity<T> exchange(
+                String url,
+                HttpMethod method,
+                HttpEntity<?> requestEntity,
+                ParameterizedTypeReference<T> responseType,
+                Object... uriVariables) {
+            if (method == HttpMethod.DELETE) {
+                return (ResponseEntity<T>) deleted;
+            }
+            if (method == HttpMethod.POST || !url.equals(SERVER_URL)) {
+                return (ResponseEntity<T>) (url.contains("/changes") ? noChanges : employee);
+            }
+            return (ResponseEntity<T>) roster;
+        }
+    }
+}
@@ -3,6 +3,8 @@ package com.reliaquest.api.controller;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.when;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 import com.reliaquest.api.model.CreateEmployee;
 import com.reliaquest.api.model.Employee;
 import com.reliaquest.api.service.EmployeeService;
@@ -15,13 +17,20 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.boot.test.web.client.TestRestTemplate;
 import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 
-@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "service.employee.server_timing.serialization=true")
 public class EmployeeControllerIntegrationTest {
 
+    private static final MediaType SMILE = new MediaType("application", "x-jackson-smile");
+
     @LocalServerPort
     private int port;
 
@@ -46,6 +55,52 @@ public class EmployeeControllerIntegrationTest {
         assertTrue(response.getBody().length == 2);
     }
 
+    @Test
+    public void testServerTimingHeader() {
+        String baseUrl = "http://localhost:" + port + "/api/v1/employee";
+        when(employeeService.getAllEmployees())
+                .thenReturn(List.of(new Employee("1", "emp1", 25, 50000, "Vice President", "emp1@company.com")));
+
+        ResponseEntity<Employee[]> response = restTemplate.getForEntity(baseUrl, Employee[].class);
+
+        String serverTiming = response.getHeaders().getFirst("Server-Timing");
+        assertNotNull(serverTiming);
+        assertTrue(serverTiming.contains("ser;desc=\"Response serialisation\";dur="));
+        assertTrue(serverTiming.contains("total;dur="));
+    }
+
+    @Test
+    public void testAnswersSmileWhenAccepted() throws Exception {
+        String baseUrl = "http://localhost:" + port + "/api/v1/employee";
+        Employee employee = new Employee("1", "emp1", 25, 50000, "Vice President", "emp1@company.com");
+        when(employeeService.getAllEmployees()).thenReturn(List.of(employee));
+        HttpHeaders headers = new HttpHeaders();
+        headers.setAccept(List.of(SMILE));
+
+        ResponseEntity<byte[]> response =
+                restTemplate.exchange(baseUrl, HttpMethod.GET, new HttpEntity<>(headers), byte[].class);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertTrue(SMILE.equalsTypeAndSubtype(response.getHeaders().getContentType()));
+        Employee[] employees = new ObjectMapper(new SmileFactory()).readValue(response.getBody(), Employee[].class);
+        assertEquals(List.of(employee), List.of(employees));
+    }
+
+    @Test
+    public void testAnswersJsonByDefault() {
+        String baseUrl = "http://localhost:" + port + "/api/v1/employee";
+        when(employeeService.getAllEmployees())
+                .thenReturn(List.of(new Employee("1", "emp1", 25, 50000, "Vice President", "emp1@company.com")));
+
+        // RestTemplate accepts anything for a byte[], like a client that sends no preference at all.
+        ResponseEntity<byte[]> response = restTemplate.getForEntity(baseUrl, byte[].class);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertTrue(MediaType.APPLICATION_JSON.equalsTypeAndSubtype(
+                response.getHeaders().getContentType()));
+        assertEquals('[', (char) response.getBody()[0]);
+    }
+
     @Test
     public void testGetEmployeesByNameSearch() {
         String searchString = "Vaibhav";
@@ -4,38 +4,81 @@ import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
+import com.reliaquest.api.exception.DeadlineExceededException;
 import com.reliaquest.api.exception.EmployeeNotFoundException;
 import com.reliaquest.api.exception.RateLimitExceededException;
 import com.reliaquest.api.model.*;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Supplier;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.mockito.invocation.InvocationOnMock;
 import org.mockito.stubbing.Answer;
 import org.modelmapper.ModelMapper;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.HttpStatusCode;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestTemplate;
 
 public class EmployeeServiceTest {
 
     @Mock
     private ModelMapper modelMapper;
 
+    @Mock
+    private UpstreamBackoff upstreamBackoff;
+
+    @Mock
+    private UpstreamCoordination upstreamCoordination;
+
+    @Mock
+    private SearchCache searchCache;
+
+    @Mock
+    private NameIndex nameIndex;
+
+    @Mock
+    private RosterAnalytics rosterAnalytics;
+
+    @Mock
+    private SalaryQuantiles salaryQuantiles;
+
+    @Mock
+    private WriteBatching writeBatching;
+
     @InjectMocks
     private EmployeeService employeeService;
 
+    @Mock
+    private Supplier<ResponseEntity<Response<Boolean>>> mockSupplier;
+
+    @Captor
+    private ArgumentCaptor<HttpEntity<BatchDeleteEmployee>> batchDeleteRequest;
+
     @BeforeEach
-    void setUp() {
+    void setUp() throws InterruptedException {
         MockitoAnnotations.openMocks(this);
+        when(upstreamBackoff.waitOutBackoff(any())).thenReturn(true);
         ReflectionTestUtils.setField(employeeService, "MAX_BACKOFF_TIME_IN_SEC", 60);
         ReflectionTestUtils.setField(employeeService, "INITIAL_BACKOFF_TIME", 5);
         ReflectionTestUtils.setField(employeeService, "serverUrl", "http://localhost:8000/api/v1/employee");
@@ -59,7 +102,7 @@ public class EmployeeServiceTest {
                     }
                 })
                 .when(spyService)
-                .executeWithRetry(any(Supplier.class));
+                .executeWithRetry(any());
 
         when(modelMapper.map(mockEmp1, Employee.class)).thenReturn(emp1);
         when(modelMapper.map(mockEmp2, Employee.class)).thenReturn(emp2);
@@ -205,7 +248,7 @@ public class EmployeeServiceTest {
                     }
                 })
                 .when(spyService)
-                .executeWithRetry(any(Supplier.class));
+                .executeWithRetry(any());
 
         when(modelMapper.map(mockEmp1, Employee.class)).thenReturn(emp1);
         Employee employee = spyService.getEmployeeById("1");
@@ -225,7 +268,7 @@ public class EmployeeServiceTest {
         EmployeeService spyService = spy(employeeService);
         doThrow(new HttpClientErrorException(HttpStatusCode.valueOf(404)))
                 .when(spyService)
-                .executeWithRetry(any(Supplier.class));
+                .executeWithRetry(any());
         EmployeeNotFoundException employeeNotFoundException =
                 assertThrows(EmployeeNotFoundException.class, () -> spyService.getEmployeeById("1"));
 
@@ -240,7 +283,7 @@ public class EmployeeServiceTest {
         EmployeeService spyService = spy(employeeService);
         doThrow(new HttpClientErrorException(HttpStatusCode.valueOf(403)))
                 .when(spyService)
-                .executeWithRetry(any(Supplier.class));
+                .executeWithRetry(any());
         RuntimeException runtimeException = assertThrows(RuntimeException.class, () -> spyService.getEmployeeById("1"));
 
         assertEquals(
@@ -341,7 +384,7 @@ public class EmployeeServiceTest {
                     }
                 })
                 .when(spyService)
-                .executeWithRetry(any(Supplier.class));
+                .executeWithRetry(any());
 
         when(modelMapper.map(mockEmp1, Employee.class)).thenReturn(emp1);
 
@@ -371,7 +414,7 @@ public class EmployeeServiceTest {
         EmployeeService spyService = spy(employeeService);
         doThrow(new HttpClientErrorException(HttpStatusCode.valueOf(403)))
                 .when(spyService)
-                .executeWithRetry(any(Supplier.class));
+                .executeWithRetry(any());
         RuntimeException runtimeException =
                 assertThrows(RuntimeException.class, () -> spyService.createEmployee(createRequest));
         assertNotNull(runtimeException.getMessage());
@@ -403,7 +446,7 @@ public class EmployeeServiceTest {
                     }
                 })
                 .when(spyService)
-                .executeWithRetry(any(Supplier.class));
+                .executeWithRetry(any());
 
         when(modelMapper.map(emp1, DeleteEmployee.class)).thenReturn(delEmployeeRequest);
 
@@ -436,7 +479,7 @@ public class EmployeeServiceTest {
                     }
                 })
                 .when(spyService)
-                .executeWithRetry(any(Supplier.class));
+                .executeWithRetry(any());
 
         when(modelMapper.map(emp1, DeleteEmployee.class)).thenReturn(delEmployeeRequest);
 
@@ -469,7 +512,7 @@ public class EmployeeServiceTest {
 
         doThrow(new HttpClientErrorException(HttpStatusCode.valueOf(403)))
                 .when(spyService)
-                .executeWithRetry(any(Supplier.class));
+                .executeWithRetry(any());
 
         when(modelMapper.map(emp1, DeleteEmployee.class)).thenReturn(delEmployeeRequest);
 
@@ -503,11 +546,106 @@ public class EmployeeServiceTest {
                 rateLimitExceededException.getMessage());
     }
 
+    @Test
+    void testExecuteWithRetry_should_stop_retrying_when_request_deadline_cannot_be_met() {
+        Supplier<ResponseEntity<Response<Boolean>>> requestSupplier =
+                () -> ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body(Response.handledWith(true));
+        Deadline.bind(Deadline.after(Duration.ofSeconds(3)));
+        try {
+            long start = System.nanoTime();
+            DeadlineExceededException deadlineExceededException = assertThrows(
+                    DeadlineExceededException.class, () -> employeeService.executeWithRetry(requestSupplier));
+            assertTrue(System.nanoTime() - start < Duration.ofSeconds(3).toNanos());
+            assertEquals("Request deadline exceeded after 1 attempts", deadlineExceededException.getMessage());
+        } finally {
+            Deadline.unbind();
+        }
+    }
+
+    @Test
+    void testExecuteWithRetry_should_not_call_upstream_when_shared_backoff_outlasts_deadline()
+            throws InterruptedException {
+        when(upstreamBackoff.waitOutBackoff(any())).thenReturn(false);
+
+        DeadlineExceededException deadlineExceededException =
+                assertThrows(DeadlineExceededException.class, () -> employeeService.executeWithRetry(mockSupplier));
+        assertEquals("Request deadline exceeded after 0 attempts", deadlineExceededException.getMessage());
+        verify(mockSupplier, never()).get();
+    }
+
+    @Test
+    void testGetAllEmployees_should_use_roster_synced_by_another_instance() {
+        ReflectionTestUtils.setField(employeeService, "syncEnabled", true);
+        ReflectionTestUtils.setField(employeeService, "sharedRosterMaxAgeInSec", 2);
+        MockEmployee mockEmp1 = new MockEmployee("1", "Vaibhav Dave", 50000, 24, "Vice President", "emp1@company.com");
+        when(upstreamCoordination.sharedRoster(Duration.ofSeconds(2)))
+                .thenReturn(Optional.of(new UpstreamCoordination.SharedRoster(
+                        "epoch-1", 3, () -> new RosterReplica.Snapshot("epoch-1", 3, List.of(mockEmp1)))));
+        EmployeeService spyService = spy(employeeService);
+
+        assertEquals(1, spyService.getAllEmployees().size());
+        assertEquals(1, spyService.getAllEmployees().size());
+        verify(spyService, never()).exchangeWithRetry(any());
+        verify(upstreamCoordination, never()).shareRoster(any(), anyLong(), any());
+    }
+
+    @Test
+    void testDeleteEmployeeById_should_send_concurrent_deletes_upstream_in_one_batch() throws Exception {
+        String id1 = UUID.randomUUID().toString();
+        String id2 = UUID.randomUUID().toString();
+        String missingId = UUID.randomUUID().toString();
+        MockEmployee mockEmp1 = new MockEmployee(id1, "Vaibhav Dave", 50000, 24, "Vice President", "emp1@company.com");
+        MockEmployee mockEmp2 = new MockEmployee(id2, "Satish Dhawan", 60000, 25, "Manager", "emp2@company.com");
+        RestTemplate restTemplate = mock(RestTemplate.class);
+        doReturn(ResponseEntity.ok(Response.handledWith(List.of(mockEmp2, mockEmp1))))
+                .when(restTemplate)
+                .exchange(
+                        eq("http://localhost:8000/api/v1/employee/batch"),
+                        eq(HttpMethod.DELETE),
+                        any(),
+                        anyEmployeeListType());
+        WriteBatching batching = new WriteBatching(new SimpleMeterRegistry(), true, 200, 100, 2);
+        EmployeeService batchingService = new EmployeeService(
+                restTemplate,
+                modelMapper,
+                upstreamBackoff,
+                upstreamCoordination,
+                searchCache,
+                nameIndex,
+                rosterAnalytics,
+                salaryQuantiles,
+                batching);
+        ReflectionTestUtils.setField(batchingService, "MAX_BACKOFF_TIME_IN_SEC", 60);
+        ReflectionTestUtils.setField(batchingService, "INITIAL_BACKOFF_TIME", 5);
+        ReflectionTestUtils.setField(batchingService, "serverUrl", "http://localhost:8000/api/v1/employee");
+        ExecutorService callers = Executors.newFixedThreadPool(4);
+        try {
+            Future<String> first = callers.submit(() -> batchingService.deleteEmployeeById(id1));
+            Future<String> repeated = callers.submit(() -> batchingService.deleteEmployeeById(id1.toUpperCase()));
+            Future<String> second = callers.submit(() -> batchingService.deleteEmployeeById(id2));
+            Future<String> missing = callers.submit(() -> batchingService.deleteEmployeeById(missingId));
+
+            assertEquals("Vaibhav Dave", first.get(10, TimeUnit.SECONDS));
+            assertEquals("Vaibhav Dave", repeated.get(10, TimeUnit.SECONDS));
+            assertEquals("Satish Dhawan", second.get(10, TimeUnit.SECONDS));
+            ExecutionException notFound =
+                    assertThrows(ExecutionException.class, () -> missing.get(10, TimeUnit.SECONDS));
+            assertInstanceOf(EmployeeNotFoundException.class, notFound.getCause());
+        } finally {
+            callers.shutdownNow();
+            batching.close();
+        }
+        verify(restTemplate, times(1))
+                .exchange(anyString(), eq(HttpMethod.DELETE), batchDeleteRequest.capture(), anyEmployeeListType());
+        BatchDeleteEmployee batch = batchDeleteRequest.getValue().getBody();
+        assertEquals(3, batch.getIds().size());
+        assertTrue(batch.getIds().containsAll(List.of(id1, id2, missingId)));
+    }
+
     @Test
     void testExecuteWithRetry_should_rethrow_exception_when_remote_service_invocation_throws_other_than_429() {
         Supplier<ResponseEntity<Response<Boolean>>> requestSupplier =
                 () -> ResponseEntity.ok(Response.handledWith(true));
-        Supplier<ResponseEntity<Response<Boolean>>> mockSupplier = mock(Supplier.class);
         doThrow(new HttpClientErrorException(HttpStatus.FORBIDDEN))
                 .when(mockSupplier)
                 .get();
@@ -516,4 +654,8 @@ public class EmployeeServiceTest {
                 assertThrows(HttpClientErrorException.class, () -> employeeService.executeWithRetry(mockSupplier));
         assertEquals(HttpStatus.FORBIDDEN, httpClientErrorException.getStatusCode());
     }
+
+    private static ParameterizedTypeReference<Response<List<MockEmployee>>> anyEmployeeListType() {
+        return any();
+    }
 }
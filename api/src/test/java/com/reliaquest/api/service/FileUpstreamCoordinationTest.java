@@ -0,0 +1,231 @@
+package com.reliaquest.api.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.reliaquest.api.config.ApiConfiguration;
+import com.reliaquest.api.model.MockEmployee;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Runs api instances as separate JVMs ({@link Replica}) against one coordination directory.
+ */
+public class FileUpstreamCoordinationTest {
+
+    @TempDir
+    Path directory;
+
+    private final List<FileUpstreamCoordination> opened = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() throws IOException {
+        for (FileUpstreamCoordination coordination : opened) {
+            coordination.close();
+        }
+    }
+
+    @Test
+    void testUpdatesFromSeveralJvmsAreAtomic() throws Exception {
+        List<Process> replicas = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            replicas.add(start("succeed", "2000"));
+        }
+        for (Process replica : replicas) {
+            await(replica);
+        }
+
+        int successes = open().read(UpstreamState::getSuccessesSinceThrottled);
+        assertEquals(6000, successes);
+    }
+
+    @Test
+    void testBackoffInOneJvmHoldsBackTheOthers() throws Exception {
+        UpstreamBackoff backoff = new UpstreamBackoff(open());
+        backoff.succeeded();
+        await(start("throttle", "1500"));
+
+        assertTrue(backoff.isThrottled());
+        assertEquals(0, backoff.remainingPermits());
+        Duration remaining = backoff.remainingBackoff();
+        assertTrue(remaining.compareTo(Duration.ZERO) > 0 && remaining.compareTo(Duration.ofMillis(1500)) <= 0);
+        assertFalse(backoff.waitOutBackoff(Deadline.after(Duration.ofMillis(100))));
+        long start = System.nanoTime();
+        assertTrue(backoff.waitOutBackoff(Deadline.after(Duration.ofSeconds(10))));
+        assertTrue(System.nanoTime() - start >= remaining.minusMillis(300).toNanos());
+
+        // A success in another JVM ends a backoff this one started.
+        backoff.throttled(Duration.ofSeconds(20));
+        Process succeeding = start("succeed", "1");
+        start = System.nanoTime();
+        assertTrue(backoff.waitOutBackoff(Deadline.after(Duration.ofSeconds(30))));
+        assertTrue(System.nanoTime() - start < Duration.ofSeconds(15).toNanos());
+        await(succeeding);
+        assertFalse(backoff.isThrottled());
+    }
+
+    @Test
+    void testRosterSharedWithAnotherJvm() throws Exception {
+        open().shareRoster("epoch-1", 7, () -> new RosterReplica.Snapshot("epoch-1", 7, roster(100)));
+
+        assertEquals("epoch-1 7 100", await(start("roster")));
+    }
+
+    @Test
+    void testSharedRosterIsWrittenOncePerVersionAndExpires() throws Exception {
+        FileUpstreamCoordination first = open();
+        FileUpstreamCoordination second = open();
+        first.shareRoster("epoch-1", 7, () -> new RosterReplica.Snapshot("epoch-1", 7, roster(10)));
+
+        UpstreamCoordination.SharedRoster shared =
+                second.sharedRoster(Duration.ofSeconds(10)).orElseThrow();
+        assertEquals("epoch-1", shared.epoch());
+        assertEquals(7, shared.version());
+        assertEquals(roster(10), shared.snapshot().get().employees());
+
+        // A sync that finds the same version only renews the shared roster.
+        second.shareRoster("epoch-1", 7, () -> fail("unchanged roster was written again"));
+        Thread.sleep(20);
+        assertTrue(first.sharedRoster(Duration.ofMillis(10)).isEmpty());
+
+        second.shareRoster("epoch-1", 8, () -> new RosterReplica.Snapshot("epoch-1", 8, roster(11)));
+        assertEquals(
+                11,
+                first.sharedRoster(Duration.ofSeconds(10))
+                        .orElseThrow()
+                        .snapshot()
+                        .get()
+                        .employees()
+                        .size());
+        first.invalidateRoster();
+        assertTrue(second.sharedRoster(Duration.ofSeconds(10)).isEmpty());
+    }
+
+    @Test
+    void testBackoffOfAStoppedJvmIsDroppedOnOpen() throws Exception {
+        await(start("throttle", "600000"));
+
+        UpstreamBackoff backoff = new UpstreamBackoff(open());
+        assertFalse(backoff.isThrottled());
+        assertEquals(Duration.ZERO, backoff.remainingBackoff());
+    }
+
+    @Test
+    void testBackoffEndedLongAgoIsDroppedOnOpen() throws Exception {
+        UpstreamBackoff backoff = new UpstreamBackoff(open(Duration.ofMillis(100)));
+        backoff.throttled(Duration.ofMillis(50));
+        // Still open, and this JVM is running, so only its age lets the episode go.
+        open(Duration.ofMillis(100));
+        assertTrue(backoff.isThrottled());
+
+        Thread.sleep(200);
+        open(Duration.ofMillis(100));
+        assertFalse(backoff.isThrottled());
+    }
+
+    @Test
+    void testEachUpstreamGetsDirectoryOfItsOwn() {
+        Path first = FileUpstreamCoordination.directoryFor(directory, "http://localhost:8112/api/v1/employee");
+        Path second = FileUpstreamCoordination.directoryFor(directory, "http://localhost:9112/api/v1/employee");
+
+        assertEquals(directory, first.getParent());
+        assertEquals(first, FileUpstreamCoordination.directoryFor(directory, "http://localhost:8112/api/v1/employee"));
+        assertNotEquals(first, second);
+    }
+
+    @Test
+    void testFallsBackToLocalWhenFilesCannotBeOpened() throws Exception {
+        String url = "http://localhost:8112/api/v1/employee";
+        UpstreamCoordination shared =
+                ApiConfiguration.upstreamCoordination(new ObjectMapper(), "file", directory.toString(), url, 120);
+        opened.add((FileUpstreamCoordination) shared);
+
+        // A file where the directory should be, as good as one owned by another user.
+        Path blocked = Files.createFile(directory.resolve("blocked"));
+        UpstreamCoordination local =
+                ApiConfiguration.upstreamCoordination(new ObjectMapper(), "file", blocked.toString(), url, 120);
+
+        assertInstanceOf(LocalUpstreamCoordination.class, local);
+    }
+
+    private FileUpstreamCoordination open() throws IOException {
+        return open(Duration.ofMinutes(2));
+    }
+
+    private FileUpstreamCoordination open(Duration maxBackoff) throws IOException {
+        FileUpstreamCoordination coordination = new FileUpstreamCoordination(directory, new ObjectMapper(), maxBackoff);
+        opened.add(coordination);
+        return coordination;
+    }
+
+    private Process start(String... command) throws IOException {
+        List<String> arguments = new ArrayList<>(List.of(
+                Path.of(System.getProperty("java.home"), "bin", "java").toString(),
+                "-cp",
+                System.getProperty("java.class.path"),
+                Replica.class.getName(),
+                directory.toString()));
+        arguments.addAll(List.of(command));
+        return new ProcessBuilder(arguments).redirectErrorStream(true).start();
+    }
+
+    /**
+     * Waits for a replica to succeed, returning the last line it printed.
+     */
+    private static String await(Process replica) throws Exception {
+        String output = new String(replica.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+        assertTrue(replica.waitFor(60, TimeUnit.SECONDS));
+        assertEquals(0, replica.exitValue(), output);
+        String[] lines = output.strip().split("\n");
+        return lines[lines.length - 1].strip();
+    }
+
+    private static List<MockEmployee> roster(int size) {
+        List<MockEmployee> roster = new ArrayList<>();
+        for (int i = 1; i <= size; i++) {
+            roster.add(new MockEmployee(String.valueOf(i), "Employee " + i, i * 1000, 30, "Engineer", null));
+        }
+        return roster;
+    }
+
+    /**
+     * An api instance's part in a test: {@code directory succeed <count>}, {@code directory throttle <millis>} or
+     * {@code directory roster}, which prints the shared roster's epoch, version and size.
+     */
+    public static class Replica {
+
+        public static void main(String[] args) throws Exception {
+            try (FileUpstreamCoordination coordination =
+                    new FileUpstreamCoordination(Path.of(args[0]), new ObjectMapper(), Duration.ofMinutes(2))) {
+                UpstreamBackoff backoff = new UpstreamBackoff(coordination);
+                switch (args[1]) {
+                    case "succeed" -> {
+                        for (int i = 0; i < Integer.parseInt(args[2]); i++) {
+                            backoff.succeeded();
+                        }
+                    }
+                    case "throttle" -> backoff.throttled(Duration.ofMillis(Long.parseLong(args[2])));
+                    case "roster" -> {
+                        RosterReplica.Snapshot roster = coordination
+                                .sharedRoster(Duration.ofMinutes(1))
+                                .orElseThrow()
+                                .snapshot()
+                                .get();
+                        System.out.println(roster.epoch() + " " + roster.version() + " "
+                                + roster.employees().size());
+                    }
+                    default -> throw new IllegalArgumentException("Unknown command " + args[1]);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.reliaquest.api.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.reliaquest.api.exception.InvalidRequestException;
+import com.reliaquest.api.model.MockEmployee;
+import com.reliaquest.api.model.RosterChange;
+import com.reliaquest.api.model.RosterChangeSet;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+public class NameIndexTest {
+
+    private final MockEmployee mockEmp1 =
+            new MockEmployee("1", "Vaibhav Dave", 50000, 24, "Vice President", "emp1@company.com");
+    private final MockEmployee mockEmp2 =
+            new MockEmployee("2", "Satish Dhawan", 60000, 25, "Manager", "emp2@company.com");
+    private final MockEmployee mockEmp3 =
+            new MockEmployee("3", "Homi Bhabha", 70000, 30, "Director", "emp3@company.com");
+    private final MockEmployee mockEmp4 =
+            new MockEmployee("4", "David Davenport", 80000, 40, "Engineer", "emp4@company.com");
+
+    @Test
+    void testTokenPrefixAndFuzzyMatching() {
+        NameIndex index = new NameIndex(2, 100);
+        List<MockEmployee> roster = List.of(mockEmp1, mockEmp2, mockEmp3, mockEmp4);
+
+        assertEquals(List.of(mockEmp1), index.search("DAVE", NameIndex.Mode.TOKEN, 10, roster));
+        assertEquals(List.of(), index.search("dav", NameIndex.Mode.TOKEN, 10, roster));
+        assertEquals(List.of(mockEmp1, mockEmp4), index.search("dav", NameIndex.Mode.PREFIX, 10, roster));
+        assertEquals(List.of(), index.search("dhawn", NameIndex.Mode.PREFIX, 10, roster));
+        assertEquals(List.of(mockEmp2), index.search("dhawn", NameIndex.Mode.FUZZY, 10, roster));
+        assertEquals(List.of(mockEmp3), index.search("bhabah", NameIndex.Mode.FUZZY, 10, roster));
+        // Every query token must match, in any order.
+        assertEquals(List.of(mockEmp2), index.search("dhawan satsh", NameIndex.Mode.FUZZY, 10, roster));
+        assertEquals(List.of(), index.search("homi dhawan", NameIndex.Mode.FUZZY, 10, roster));
+    }
+
+    @Test
+    void testRanksExactThenPrefixThenFuzzyThenName() {
+        NameIndex index = new NameIndex(2, 100);
+        MockEmployee ann = new MockEmployee("5", "Ann Lee", 1, 20, "Engineer", null);
+        MockEmployee ana = new MockEmployee("6", "Ana Lee", 1, 20, "Engineer", null);
+        MockEmployee anna = new MockEmployee("7", "Anna Lee", 1, 20, "Engineer", null);
+        MockEmployee annabel = new MockEmployee("8", "Annabel Lee", 1, 20, "Engineer", null);
+        List<MockEmployee> roster = List.of(ann, ana, anna, annabel);
+
+        assertEquals(List.of(anna, annabel, ana, ann), index.search("anna", NameIndex.Mode.FUZZY, 10, roster));
+        assertEquals(List.of(anna, annabel), index.search("anna", NameIndex.Mode.FUZZY, 2, roster));
+        assertEquals(List.of(ana, ann, anna, annabel), index.search("lee", NameIndex.Mode.TOKEN, 10, roster));
+    }
+
+    @Test
+    void testFollowsReplicaChanges() {
+        NameIndex index = new NameIndex(2, 100);
+        RosterReplica replica = new RosterReplica(index);
+        replica.load("epoch-1", 1, List.of(mockEmp1, mockEmp2));
+        assertEquals(List.of(mockEmp1), index.search("dave", NameIndex.Mode.PREFIX, 10, replica::snapshot));
+
+        MockEmployee renamed = new MockEmployee("1", "Vaibhav Bhabha", 50000, 24, "Vice President", null);
+        replica.apply(new RosterChangeSet(
+                "epoch-1",
+                4,
+                false,
+                List.of(
+                        new RosterChange(2, RosterChange.Type.INSERT, mockEmp4),
+                        new RosterChange(3, RosterChange.Type.DELETE, mockEmp2),
+                        new RosterChange(4, RosterChange.Type.INSERT, renamed))));
+
+        assertEquals(List.of(mockEmp4), index.search("dave", NameIndex.Mode.PREFIX, 10, replica::snapshot));
+        assertEquals(List.of(), index.search("dhawan", NameIndex.Mode.TOKEN, 10, replica::snapshot));
+        assertEquals(List.of(renamed), index.search("bhabha", NameIndex.Mode.TOKEN, 10, replica::snapshot));
+        assertEquals(3, index.statistics().hits());
+        assertEquals(1, index.statistics().misses());
+
+        replica.load("epoch-2", 1, List.of(mockEmp3));
+        assertEquals(List.of(mockEmp3), index.search("bhabha", NameIndex.Mode.TOKEN, 10, replica::snapshot));
+        assertEquals(2, index.statistics().misses());
+    }
+
+    @Test
+    void testRejectsUnknownModeAndLimit() {
+        NameIndex index = new NameIndex(2, 100);
+
+        assertEquals(NameIndex.Mode.FUZZY, NameIndex.Mode.parse(" Fuzzy "));
+        assertThrows(InvalidRequestException.class, () -> NameIndex.Mode.parse("soundex"));
+        assertThrows(
+                InvalidRequestException.class, () -> index.search("dave", NameIndex.Mode.TOKEN, 0, List.of(mockEmp1)));
+        assertThrows(
+                InvalidRequestException.class,
+                () -> index.search("dave", NameIndex.Mode.TOKEN, 101, List.of(mockEmp1)));
+    }
+}
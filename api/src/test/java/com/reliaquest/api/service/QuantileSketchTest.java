@@ -0,0 +1,140 @@
+package com.reliaquest.api.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+public class QuantileSketchTest {
+
+    private static final int EMPLOYEES = 1_000_000;
+    private static final double ACCURACY = 0.01;
+    private static final double[] QUANTILES = {0, 0.001, 0.01, 0.1, 0.25, 0.5, 0.75, 0.9, 0.99, 0.999, 1};
+
+    @Test
+    void testQuantilesWithinRelativeAccuracyAtOneMillion() {
+        int[] salaries = salaries(new Random(1), EMPLOYEES);
+        QuantileSketch sketch = new QuantileSketch(ACCURACY);
+        for (int salary : salaries) {
+            sketch.add(salary);
+        }
+
+        assertEquals(EMPLOYEES, sketch.count());
+        assertWithinAccuracy(sketch, salaries);
+    }
+
+    @Test
+    void testQuantilesWithinRelativeAccuracyAfterRemovals() {
+        Random random = new Random(2);
+        int[] salaries = salaries(random, EMPLOYEES);
+        QuantileSketch sketch = new QuantileSketch(ACCURACY);
+        for (int salary : salaries) {
+            sketch.add(salary);
+        }
+        // Remove the lower-paid half, which moves every quantile.
+        int[] sorted = salaries.clone();
+        Arrays.sort(sorted);
+        for (int i = 0; i < EMPLOYEES / 2; i++) {
+            assertTrue(sketch.remove(sorted[i]));
+        }
+
+        assertEquals(EMPLOYEES / 2, sketch.count());
+        assertWithinAccuracy(sketch, Arrays.copyOfRange(sorted, EMPLOYEES / 2, EMPLOYEES));
+        assertFalse(new QuantileSketch(ACCURACY).remove(50000));
+    }
+
+    @Test
+    void testMergedPartitionsMatchOneSketch() {
+        int[] salaries = salaries(new Random(3), EMPLOYEES);
+        QuantileSketch whole = new QuantileSketch(ACCURACY);
+        QuantileSketch[] partitions = new QuantileSketch[4];
+        for (int p = 0; p < partitions.length; p++) {
+            partitions[p] = new QuantileSketch(ACCURACY);
+        }
+        for (int i = 0; i < salaries.length; i++) {
+            whole.add(salaries[i]);
+            partitions[i % partitions.length].add(salaries[i]);
+        }
+        QuantileSketch merged = new QuantileSketch(ACCURACY);
+        for (QuantileSketch partition : partitions) {
+            merged.merge(partition);
+        }
+
+        assertEquals(whole.count(), merged.count());
+        for (double q : QUANTILES) {
+            assertEquals(whole.quantile(q), merged.quantile(q));
+        }
+        assertThrows(IllegalArgumentException.class, () -> merged.merge(new QuantileSketch(0.02)));
+    }
+
+    @Test
+    void testUpdatesDoNotAllocateAndSizeIsBounded() {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threads.isThreadAllocatedMemorySupported(), "per-thread allocation counters unavailable");
+        threads.setThreadAllocatedMemoryEnabled(true);
+        int[] salaries = salaries(new Random(4), EMPLOYEES);
+        QuantileSketch sketch = new QuantileSketch(ACCURACY);
+        sketch.add(Integer.MAX_VALUE);
+        // Warm up so that the measured updates run compiled code.
+        for (int round = 0; round < 3; round++) {
+            for (int salary : salaries) {
+                sketch.add(salary);
+                sketch.remove(salary);
+            }
+        }
+
+        long before = threads.getCurrentThreadAllocatedBytes();
+        for (int salary : salaries) {
+            sketch.add(salary);
+        }
+        for (int salary : salaries) {
+            sketch.remove(salary);
+        }
+        long allocated = threads.getCurrentThreadAllocatedBytes() - before;
+
+        assertEquals(1, sketch.count());
+        // Allowance for the allocation counter's own bookkeeping, far below a byte per update.
+        assertTrue(allocated < 4096, () -> "2M updates allocated " + allocated + " bytes");
+        assertTrue(sketch.buckets() < 1100, () -> "every int needed " + sketch.buckets() + " buckets");
+    }
+
+    @Test
+    void testEmptyAndZeroSalaries() {
+        QuantileSketch sketch = new QuantileSketch(ACCURACY);
+        assertTrue(sketch.quantile(0.5).isEmpty());
+
+        sketch.add(0);
+        sketch.add(0);
+        sketch.add(100000);
+        assertEquals(0.0, sketch.quantile(0.5).getAsDouble());
+        assertEquals(100000, sketch.quantile(1).getAsDouble(), 100000 * ACCURACY);
+        assertThrows(IllegalArgumentException.class, () -> sketch.quantile(1.5));
+        assertThrows(IllegalArgumentException.class, () -> new QuantileSketch(0));
+    }
+
+    /**
+     * Log-normally distributed salaries around 80000, long-tailed like real pay, with a few very large ones.
+     */
+    private static int[] salaries(Random random, int count) {
+        int[] salaries = new int[count];
+        for (int i = 0; i < count; i++) {
+            salaries[i] = (int) Math.min(Integer.MAX_VALUE, Math.round(80000 * Math.exp(0.6 * random.nextGaussian())));
+        }
+        salaries[0] = 1;
+        salaries[1] = 250_000_000;
+        return salaries;
+    }
+
+    private static void assertWithinAccuracy(QuantileSketch sketch, int[] salaries) {
+        int[] sorted = salaries.clone();
+        Arrays.sort(sorted);
+        for (double q : QUANTILES) {
+            int exact = sorted[(int) Math.floor(q * (sorted.length - 1))];
+            double estimate = sketch.quantile(q).getAsDouble();
+            assertEquals(exact, estimate, exact * ACCURACY * (1 + 1e-9), "quantile " + q);
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.reliaquest.api.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.reliaquest.api.exception.InvalidRequestException;
+import com.reliaquest.api.model.MockEmployee;
+import com.reliaquest.api.model.SalaryBand;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+public class RosterAnalyticsTest {
+
+    // Partitions of two employees, so even small rosters are split and merged across workers.
+    private final RosterAnalytics analytics = new RosterAnalytics(4, 2, 100, 10);
+
+    private final MockEmployee mockEmp1 =
+            new MockEmployee("1", "Vaibhav Dave", 50000, 24, "Manager", "emp1@company.com");
+    private final MockEmployee mockEmp2 =
+            new MockEmployee("2", "Satish Dhawan", 60000, 25, "Manager", "emp2@company.com");
+    private final MockEmployee mockEmp3 =
+            new MockEmployee("3", "Homi Bhabha", 70000, 30, "Director", "emp3@company.com");
+    private final MockEmployee mockEmp4 =
+            new MockEmployee("4", "Vikram Sarabhai", 60000, 40, "Manager", "emp4@company.com");
+    private final MockEmployee mockEmp5 = new MockEmployee("5", "APJ Kalam", 95000, 45, null, "emp5@company.com");
+
+    @AfterEach
+    void tearDown() {
+        analytics.close();
+    }
+
+    @Test
+    void testTopEarnersByTitle() {
+        List<MockEmployee> roster = List.of(mockEmp1, mockEmp2, mockEmp3, mockEmp4, mockEmp5);
+
+        Map<String, List<MockEmployee>> topEarners = analytics.topEarnersByTitle(roster, 2);
+
+        assertEquals(List.of("", "Director", "Manager"), new ArrayList<>(topEarners.keySet()));
+        assertEquals(List.of(mockEmp5), topEarners.get(""));
+        assertEquals(List.of(mockEmp3), topEarners.get("Director"));
+        // Equal salaries rank in roster order, so the earlier of the two 60000 managers is kept.
+        assertEquals(List.of(mockEmp2, mockEmp4), topEarners.get("Manager"));
+    }
+
+    @Test
+    void testMatchesSequentialRankingOnLargeRoster() {
+        Random random = new Random(7);
+        List<MockEmployee> roster = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            roster.add(new MockEmployee(
+                    "id-" + i, "Employee " + i, random.nextInt(200) * 1000, 30, "Title " + random.nextInt(7), null));
+        }
+        RosterAnalytics parallel = new RosterAnalytics(4, 64, 100, 10);
+        try {
+            Map<String, List<MockEmployee>> expected = roster.stream()
+                    .collect(Collectors.groupingBy(MockEmployee::getTitle, TreeMap::new, Collectors.toList()));
+            expected.replaceAll((title, employees) -> employees.stream()
+                    .sorted(Comparator.comparing(MockEmployee::getSalary).reversed())
+                    .limit(25)
+                    .collect(Collectors.toList()));
+
+            assertEquals(expected, parallel.topEarnersByTitle(roster, 25));
+        } finally {
+            parallel.close();
+        }
+    }
+
+    @Test
+    void testSalaryBands() {
+        MockEmployee unpaid = new MockEmployee("6", "Unpaid Intern", null, 20, "Intern", null);
+        List<MockEmployee> roster = List.of(mockEmp1, mockEmp2, mockEmp3, mockEmp4, mockEmp5, unpaid);
+
+        assertEquals(
+                List.of(
+                        new SalaryBand(50000, 60000, 1L),
+                        new SalaryBand(60000, 70000, 2L),
+                        new SalaryBand(70000, 80000, 1L),
+                        new SalaryBand(80000, 90000, 0L),
+                        new SalaryBand(90000, 100000, 1L)),
+                analytics.salaryBands(roster, 10000));
+        assertEquals(List.of(new SalaryBand(0, 100000, 5L)), analytics.salaryBands(roster, 100000));
+        assertEquals(List.of(), analytics.salaryBands(List.of(unpaid), 10000));
+    }
+
+    @Test
+    void testRejectsInvalidParameters() {
+        List<MockEmployee> roster = List.of(mockEmp1);
+
+        assertThrows(InvalidRequestException.class, () -> analytics.topEarnersByTitle(roster, 0));
+        assertThrows(InvalidRequestException.class, () -> analytics.topEarnersByTitle(roster, 101));
+        assertThrows(InvalidRequestException.class, () -> analytics.salaryBands(roster, 0));
+    }
+
+    @Test
+    void testRejectsWidthGivingTooManyBands() {
+        MockEmployee outlier = new MockEmployee("7", "Outlier", Integer.MAX_VALUE, 50, "Founder", null);
+        List<MockEmployee> roster = List.of(mockEmp1, mockEmp2, outlier);
+
+        InvalidRequestException rejected =
+                assertThrows(InvalidRequestException.class, () -> analytics.salaryBands(roster, 1));
+        // The suggested width must fit the roster into at most ten bands.
+        long width = Long.parseLong(rejected.getMessage().replaceAll(".* ", ""));
+        assertTrue(analytics.salaryBands(roster, (int) width).size() <= 10);
+        // Ten bands from the lowest occupied one are fine however far they are from 0.
+        assertEquals(
+                10, analytics.salaryBands(List.of(mockEmp1, mockEmp5), 5000).size());
+    }
+}
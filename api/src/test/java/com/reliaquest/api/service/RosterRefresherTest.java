@@ -0,0 +1,112 @@
+package com.reliaquest.api.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import com.reliaquest.api.exception.DeadlineExceededException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.Optional;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+public class RosterRefresherTest {
+
+    private final EmployeeService employeeService = mock(EmployeeService.class);
+    private final UpstreamBackoff upstreamBackoff = new UpstreamBackoff();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final RosterRefresher refresher =
+            new RosterRefresher(employeeService, upstreamBackoff, meterRegistry, true, true, true, 30, 0, 2, 1, 5);
+
+    @AfterEach
+    void tearDown() {
+        refresher.close();
+    }
+
+    @Test
+    void testRefreshesOnlyOnceReplicaIsStale() {
+        when(employeeService.rosterLag()).thenReturn(Optional.of(Duration.ofSeconds(5)));
+        refresher.refreshIfDue();
+        verify(employeeService, never()).refreshRoster();
+
+        when(employeeService.rosterLag()).thenReturn(Optional.of(Duration.ofSeconds(31)));
+        refresher.refreshIfDue();
+        verify(employeeService).refreshRoster();
+        assertEquals(1, count("api.roster.refresh", "result", "refreshed"));
+        assertEquals(31000, meterRegistry.get("api.roster.refresh.lag").gauge().value());
+    }
+
+    @Test
+    void testKeepsReservedPermitsForRequests() {
+        when(employeeService.rosterLag()).thenReturn(Optional.empty());
+        // The average burst starts at five requests; two are reserved.
+        upstreamBackoff.succeeded();
+        upstreamBackoff.succeeded();
+        refresher.refreshIfDue();
+        verify(employeeService, times(1)).refreshRoster();
+
+        upstreamBackoff.succeeded();
+        refresher.refreshIfDue();
+        verify(employeeService, times(1)).refreshRoster();
+        assertEquals(1, count("api.roster.refresh.skipped", "reason", "reserved"));
+    }
+
+    @Test
+    void testSkipsWhileThrottledOrBusy() {
+        when(employeeService.rosterLag()).thenReturn(Optional.empty());
+        upstreamBackoff.throttled(Duration.ofSeconds(20));
+        refresher.refreshIfDue();
+        assertEquals(1, count("api.roster.refresh.skipped", "reason", "throttled"));
+
+        upstreamBackoff.succeeded();
+        RosterRefresher waitsForIdle =
+                new RosterRefresher(employeeService, upstreamBackoff, meterRegistry, true, true, true, 30, 60, 2, 1, 5);
+        try {
+            waitsForIdle.refreshIfDue();
+        } finally {
+            waitsForIdle.close();
+        }
+        assertEquals(1, count("api.roster.refresh.skipped", "reason", "busy"));
+        verify(employeeService, never()).refreshRoster();
+    }
+
+    @Test
+    void testProbesOnceItsOwnBackoffHasRunOut() throws InterruptedException {
+        when(employeeService.rosterLag()).thenReturn(Optional.empty());
+        doThrow(new DeadlineExceededException("Request deadline exceeded after 1 attempts"))
+                .doNothing()
+                .when(employeeService)
+                .refreshRoster();
+
+        // The refresher's own refresh is throttled, and no request comes along to end the episode.
+        refresher.refreshIfDue();
+        upstreamBackoff.throttled(Duration.ofMillis(50));
+        refresher.refreshIfDue();
+        assertEquals(2, count("api.roster.refresh.skipped", "reason", "throttled"));
+
+        Thread.sleep(100);
+        refresher.refreshIfDue();
+        verify(employeeService, times(2)).refreshRoster();
+        assertEquals(1, count("api.roster.refresh", "result", "refreshed"));
+    }
+
+    @Test
+    void testCountsThrottledAndFailedRefreshes() {
+        when(employeeService.rosterLag()).thenReturn(Optional.empty());
+        doThrow(new DeadlineExceededException("Request deadline exceeded after 1 attempts"))
+                .doThrow(new IllegalStateException("upstream down"))
+                .when(employeeService)
+                .refreshRoster();
+
+        refresher.refreshIfDue();
+        refresher.refreshIfDue();
+
+        assertEquals(1, count("api.roster.refresh.skipped", "reason", "throttled"));
+        assertEquals(1, count("api.roster.refresh", "result", "failed"));
+        assertFalse(Deadline.current().isBounded());
+    }
+
+    private double count(String name, String tag, String value) {
+        return meterRegistry.get(name).tag(tag, value).counter().count();
+    }
+}
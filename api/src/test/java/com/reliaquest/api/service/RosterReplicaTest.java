@@ -0,0 +1,115 @@
+package com.reliaquest.api.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.reliaquest.api.model.MockEmployee;
+import com.reliaquest.api.model.RosterChange;
+import com.reliaquest.api.model.RosterChangeSet;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+public class RosterReplicaTest {
+
+    private final MockEmployee mockEmp1 =
+            new MockEmployee("1", "Vaibhav Dave", 50000, 24, "Vice President", "emp1@company.com");
+    private final MockEmployee mockEmp2 =
+            new MockEmployee("2", "Satish Dhawan", 60000, 25, "Manager", "emp2@company.com");
+    private final MockEmployee mockEmp3 =
+            new MockEmployee("3", "Homi Bhabha", 70000, 30, "Director", "emp3@company.com");
+
+    @Test
+    void testApplyChanges() {
+        RosterReplica replica = new RosterReplica();
+        replica.load("epoch-1", 10, List.of(mockEmp1, mockEmp2));
+
+        boolean applied = replica.apply(new RosterChangeSet(
+                "epoch-1",
+                12,
+                false,
+                List.of(
+                        new RosterChange(11, RosterChange.Type.INSERT, mockEmp3),
+                        new RosterChange(12, RosterChange.Type.DELETE, mockEmp1))));
+
+        assertTrue(applied);
+        assertEquals(12, replica.version());
+        assertEquals(List.of(mockEmp2, mockEmp3), replica.employees());
+    }
+
+    @Test
+    void testApplySkipsChangesAlreadySeen() {
+        RosterReplica replica = new RosterReplica();
+        replica.load("epoch-1", 11, List.of(mockEmp2, mockEmp3));
+
+        replica.apply(new RosterChangeSet(
+                "epoch-1", 11, false, List.of(new RosterChange(10, RosterChange.Type.DELETE, mockEmp2))));
+
+        assertEquals(List.of(mockEmp2, mockEmp3), replica.employees());
+    }
+
+    @Test
+    void testApplyRequiresReloadWhenTruncatedOrRestarted() {
+        RosterReplica replica = new RosterReplica();
+        replica.load("epoch-1", 10, List.of(mockEmp1));
+
+        assertFalse(replica.apply(new RosterChangeSet("epoch-1", 20000, true, List.of())));
+        assertFalse(replica.apply(new RosterChangeSet("epoch-2", 3, false, List.of())));
+        assertEquals(10, replica.version());
+    }
+
+    @Test
+    void testTopEarnersFollowChangesWithoutRecomputing() {
+        RosterReplica replica = new RosterReplica();
+        replica.load("epoch-1", 1, roster(25));
+        assertFalse(replica.topEarners().cached());
+
+        MockEmployee belowTenth = new MockEmployee("low", "Low Earner", 500, 30, "Clerk", "low@company.com");
+        MockEmployee tiedWithTop = new MockEmployee("tie", "Tied Earner", 25000, 30, "Clerk", "tie@company.com");
+        MockEmployee newTop = new MockEmployee("top", "Top Earner", 99000, 30, "Chair", "top@company.com");
+        replica.apply(new RosterChangeSet(
+                "epoch-1",
+                6,
+                false,
+                List.of(
+                        new RosterChange(2, RosterChange.Type.INSERT, belowTenth),
+                        new RosterChange(
+                                3, RosterChange.Type.DELETE, replica.employees().get(0)),
+                        new RosterChange(4, RosterChange.Type.INSERT, tiedWithTop),
+                        new RosterChange(5, RosterChange.Type.INSERT, newTop),
+                        new RosterChange(6, RosterChange.Type.DELETE, newTop))));
+
+        TopEarners.Lookup lookup = replica.topEarners();
+        assertTrue(lookup.cached());
+        assertEquals(TopEarners.of(replica.employees(), RosterReplica.TOP_EARNERS), lookup.employees());
+        assertEquals("25", lookup.employees().get(0).getId());
+        assertEquals("tie", lookup.employees().get(1).getId());
+    }
+
+    @Test
+    void testTopEarnersRecomputedOnceSpareRanksAreUsedUp() {
+        RosterReplica replica = new RosterReplica();
+        replica.load("epoch-1", 1, roster(25));
+        replica.topEarners();
+
+        List<RosterChange> deletes = new ArrayList<>();
+        for (int i = 0; i < 11; i++) {
+            deletes.add(new RosterChange(
+                    2 + i, RosterChange.Type.DELETE, replica.employees().get(24 - i)));
+        }
+        replica.apply(new RosterChangeSet("epoch-1", 12, false, deletes));
+
+        TopEarners.Lookup lookup = replica.topEarners();
+        assertFalse(lookup.cached());
+        assertEquals(TopEarners.of(replica.employees(), RosterReplica.TOP_EARNERS), lookup.employees());
+        assertTrue(replica.topEarners().cached());
+    }
+
+    private static List<MockEmployee> roster(int size) {
+        List<MockEmployee> roster = new ArrayList<>();
+        for (int i = 1; i <= size; i++) {
+            roster.add(new MockEmployee(
+                    String.valueOf(i), "Employee " + i, i * 1000, 30, "Engineer", "emp" + i + "@company.com"));
+        }
+        return roster;
+    }
+}
@@ -0,0 +1,122 @@
+package com.reliaquest.api.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.reliaquest.api.model.MockEmployee;
+import com.reliaquest.api.model.RosterChange;
+import com.reliaquest.api.model.RosterChangeSet;
+import com.reliaquest.api.model.SalaryStatistics;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+public class SalaryQuantilesTest {
+
+    private final RosterAnalytics rosterAnalytics = new RosterAnalytics(2, 16, 100, 1000);
+    private final SalaryQuantiles salaryQuantiles = new SalaryQuantiles(rosterAnalytics, 0.01);
+    private final RosterReplica replica = new RosterReplica(salaryQuantiles);
+
+    @AfterEach
+    void tearDown() {
+        rosterAnalytics.close();
+    }
+
+    @Test
+    void testPercentilesOfRoster() {
+        SalaryStatistics statistics = salaryQuantiles.percentiles(roster(100));
+
+        assertEquals(100, statistics.getCount());
+        assertEquals(50000, statistics.getP50(), 500);
+        assertEquals(90000, statistics.getP90(), 900);
+        assertEquals(99000, statistics.getP99(), 990);
+        assertEquals(0.01, statistics.getRelativeError());
+        assertNull(salaryQuantiles.percentiles(List.of()).getP50());
+    }
+
+    @Test
+    void testFollowsReplicaChanges() {
+        replica.load("epoch-1", 100, roster(100));
+        assertEquals(100, salaryQuantiles.percentiles(replica::snapshot).getCount());
+
+        replica.apply(new RosterChangeSet(
+                "epoch-1",
+                102,
+                false,
+                List.of(
+                        new RosterChange(101, RosterChange.Type.INSERT, employee("new", 1_000_000)),
+                        new RosterChange(102, RosterChange.Type.DELETE, employee("1", 1000)))));
+        SalaryStatistics statistics = salaryQuantiles.percentiles(replica::snapshot);
+
+        assertEquals(100, statistics.getCount());
+        assertEquals(51000, statistics.getP50(), 510);
+        assertEquals(1, salaryQuantiles.statistics().misses());
+        assertEquals(1, salaryQuantiles.statistics().hits());
+
+        replica.load("epoch-2", 1, roster(10));
+        assertEquals(10, salaryQuantiles.percentiles(replica::snapshot).getCount());
+        assertEquals(2, salaryQuantiles.statistics().misses());
+    }
+
+    @Test
+    void testCountsLocalChangesOnceWhicheverArrivesFirst() {
+        replica.load("epoch-1", 100, roster(100));
+        salaryQuantiles.percentiles(replica::snapshot);
+
+        // Created here first, then delivered by the feed.
+        salaryQuantiles.created("new-1", 200000);
+        assertEquals(101, salaryQuantiles.percentiles(replica::snapshot).getCount());
+        replica.apply(new RosterChangeSet(
+                "epoch-1",
+                101,
+                false,
+                List.of(new RosterChange(101, RosterChange.Type.INSERT, employee("new-1", 200000)))));
+        assertEquals(101, salaryQuantiles.percentiles(replica::snapshot).getCount());
+
+        // Delivered by the feed first, then the create returns.
+        replica.apply(new RosterChangeSet(
+                "epoch-1",
+                102,
+                false,
+                List.of(new RosterChange(102, RosterChange.Type.INSERT, employee("new-2", 300000)))));
+        salaryQuantiles.created("new-2", 300000);
+        assertEquals(102, salaryQuantiles.percentiles(replica::snapshot).getCount());
+
+        // Deleted here, then delivered by the feed, and the other way round.
+        salaryQuantiles.deleted("1", 1000);
+        assertEquals(101, salaryQuantiles.percentiles(replica::snapshot).getCount());
+        replica.apply(new RosterChangeSet(
+                "epoch-1",
+                104,
+                false,
+                List.of(
+                        new RosterChange(103, RosterChange.Type.DELETE, employee("1", 1000)),
+                        new RosterChange(104, RosterChange.Type.DELETE, employee("2", 2000)))));
+        salaryQuantiles.deleted("2", 2000);
+
+        SalaryStatistics statistics = salaryQuantiles.percentiles(replica::snapshot);
+        assertEquals(100, statistics.getCount());
+        assertEquals(replica.employees().size(), statistics.getCount());
+        assertEquals(1, salaryQuantiles.statistics().misses());
+    }
+
+    @Test
+    void testIgnoresLocalChangesUntilBuilt() {
+        replica.load("epoch-1", 100, roster(100));
+        salaryQuantiles.created("new-1", 200000);
+
+        assertEquals(100, salaryQuantiles.percentiles(replica::snapshot).getCount());
+    }
+
+    private static List<MockEmployee> roster(int size) {
+        List<MockEmployee> roster = new ArrayList<>();
+        for (int i = 1; i <= size; i++) {
+            roster.add(employee(String.valueOf(i), i * 1000));
+        }
+        return roster;
+    }
+
+    private static MockEmployee employee(String id, int salary) {
+        return new MockEmployee(id, "Employee " + id, salary, 30, "Engineer", null);
+    }
+}
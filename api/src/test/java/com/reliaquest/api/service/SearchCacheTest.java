@@ -0,0 +1,83 @@
+package com.reliaquest.api.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.reliaquest.api.model.Employee;
+import com.reliaquest.api.model.MockEmployee;
+import com.reliaquest.api.model.RosterChange;
+import com.reliaquest.api.model.RosterChangeSet;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+public class SearchCacheTest {
+
+    private final MockEmployee mockEmp1 =
+            new MockEmployee("1", "Vaibhav Dave", 50000, 24, "Vice President", "emp1@company.com");
+    private final MockEmployee mockEmp2 =
+            new MockEmployee("2", "Satish Dhawan", 60000, 25, "Manager", "emp2@company.com");
+    private final MockEmployee mockEmp3 =
+            new MockEmployee("3", "Homi Bhabha", 70000, 30, "Director", "emp3@company.com");
+
+    private final Employee emp1 = new Employee("1", "Vaibhav Dave", 50000, 24, "Vice President", "emp1@company.com");
+    private final Employee emp2 = new Employee("2", "Satish Dhawan", 60000, 25, "Manager", "emp2@company.com");
+
+    @Test
+    void testChangesOnlyDropMatchingQueries() {
+        SearchCache cache = new SearchCache(true, 100, 16);
+        RosterReplica replica = new RosterReplica(cache);
+        replica.load("epoch-1", 1, List.of(mockEmp1, mockEmp2));
+        cache.put(SearchCache.normalise(" DAVE "), "epoch-1", 1, List.of(emp1));
+        cache.put("dhawan", "epoch-1", 1, List.of(emp2));
+        cache.put("bha", "epoch-1", 1, List.of());
+
+        replica.apply(new RosterChangeSet(
+                "epoch-1", 2, false, List.of(new RosterChange(2, RosterChange.Type.INSERT, mockEmp3))));
+
+        assertEquals(List.of(emp1), cache.get("dave"));
+        assertEquals(List.of(emp2), cache.get("dhawan"));
+        assertNull(cache.get("bha"));
+
+        replica.apply(new RosterChangeSet(
+                "epoch-1", 3, false, List.of(new RosterChange(3, RosterChange.Type.DELETE, mockEmp1))));
+
+        assertNull(cache.get("dave"));
+        assertEquals(List.of(emp2), cache.get("dhawan"));
+        assertEquals(3, cache.statistics().hits());
+        assertEquals(2, cache.statistics().misses());
+    }
+
+    @Test
+    void testResultFromAnOlderVersionIsNotStored() {
+        SearchCache cache = new SearchCache(true, 100, 16);
+        RosterReplica replica = new RosterReplica(cache);
+        replica.load("epoch-1", 1, List.of(mockEmp1));
+        RosterReplica.Snapshot snapshot = replica.snapshot();
+
+        replica.apply(new RosterChangeSet(
+                "epoch-1", 2, false, List.of(new RosterChange(2, RosterChange.Type.INSERT, mockEmp2))));
+        cache.put("dave", snapshot.epoch(), snapshot.version(), List.of(emp1));
+
+        assertNull(cache.get("dave"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void testEvictsLeastRecentlyUsedBeyondLimits() {
+        SearchCache cache = new SearchCache(true, 2, 16);
+        cache.reloaded("epoch-1", 1);
+        cache.put("dave", "epoch-1", 1, List.of(emp1));
+        cache.put("dhawan", "epoch-1", 1, List.of(emp2));
+        cache.get("dave");
+        cache.put("homi", "epoch-1", 1, List.of());
+
+        assertNotNull(cache.get("dave"));
+        assertNull(cache.get("dhawan"));
+        assertEquals(1, cache.statistics().evictions());
+
+        SearchCache small = new SearchCache(true, 100, 0);
+        small.reloaded("epoch-1", 1);
+        small.put("dave", "epoch-1", 1, List.of(emp1));
+        assertEquals(0, small.size());
+        assertEquals(0, small.estimatedBytes());
+    }
+}
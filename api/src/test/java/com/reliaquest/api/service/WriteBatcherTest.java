@@ -0,0 +1,174 @@
+package com.reliaquest.api.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.reliaquest.api.exception.DeadlineExceededException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+
+public class WriteBatcherTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<List<String>> batches = Collections.synchronizedList(new ArrayList<>());
+    private WriteBatching batching;
+
+    @AfterEach
+    void tearDown() {
+        batching.close();
+    }
+
+    @Test
+    void testWritesWithinTheWindowAreDispatchedTogether() throws Exception {
+        WriteBatcher<String, String> batcher = batcher(100, 100, 2, false, this::echo);
+
+        List<CompletableFuture<String>> results = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            results.add(batcher.submit("write-" + i));
+        }
+
+        for (int i = 0; i < 20; i++) {
+            assertEquals("WRITE-" + i, results.get(i).get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, batches.size());
+        assertEquals(20, batches.get(0).size());
+    }
+
+    @Test
+    void testFullBatchesGoAtOnceAndTheRestQueueWhileTheLimitIsInFlight() throws Exception {
+        CountDownLatch released = new CountDownLatch(1);
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger mostInFlight = new AtomicInteger();
+        WriteBatcher<String, String> batcher = batcher(60_000, 10, 1, false, items -> {
+            mostInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                assertTrue(released.await(5, TimeUnit.SECONDS));
+                return echo(items);
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            } finally {
+                inFlight.decrementAndGet();
+            }
+        });
+
+        List<CompletableFuture<String>> results = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            results.add(batcher.submit("write-" + i));
+        }
+        released.countDown();
+
+        for (CompletableFuture<String> result : results) {
+            result.get(5, TimeUnit.SECONDS);
+        }
+        assertEquals(List.of(10, 10, 10), batches.stream().map(List::size).toList());
+        assertEquals(1, mostInFlight.get());
+        assertEquals(3, meterRegistry.get("api.write.batch.size").summary().count());
+    }
+
+    @Test
+    void testQueuedDuplicatesShareOneWrite() throws Exception {
+        WriteBatcher<String, String> batcher = batcher(100, 100, 2, true, this::echo);
+
+        CompletableFuture<String> first = batcher.submit("a");
+        CompletableFuture<String> repeated = batcher.submit("a");
+        CompletableFuture<String> other = batcher.submit("b");
+
+        assertSame(first, repeated);
+        assertEquals("A", first.get(5, TimeUnit.SECONDS));
+        assertEquals("B", other.get(5, TimeUnit.SECONDS));
+        assertEquals(List.of(List.of("a", "b")), batches);
+        assertEquals(1.0, meterRegistry.get("api.write.deduplicated").counter().count());
+
+        // Once its batch is dispatched, a write is sent again.
+        assertEquals("A", batcher.submit("a").get(5, TimeUnit.SECONDS));
+        assertEquals(2, batches.size());
+    }
+
+    @Test
+    void testRejectedBatchIsRetriedOneWriteAtATime() throws Exception {
+        WriteBatcher<String, String> batcher = batcher(100, 100, 2, false, items -> {
+            if (items.contains("bad")) {
+                batches.add(items);
+                throw new HttpClientErrorException(HttpStatus.BAD_REQUEST);
+            }
+            return echo(items);
+        });
+
+        CompletableFuture<String> good = batcher.submit("good");
+        CompletableFuture<String> bad = batcher.submit("bad");
+
+        assertEquals("GOOD", good.get(5, TimeUnit.SECONDS));
+        ExecutionException rejected = assertThrows(ExecutionException.class, () -> bad.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(HttpClientErrorException.class, rejected.getCause());
+        assertEquals(List.of(List.of("good", "bad"), List.of("good"), List.of("bad")), batches);
+    }
+
+    @Test
+    void testBatchIsDispatchedUnderTheLatestDeadlineOfItsWrites() throws Exception {
+        List<Duration> remaining = Collections.synchronizedList(new ArrayList<>());
+        WriteBatcher<String, String> batcher = batcher(100, 100, 2, false, items -> {
+            remaining.add(Deadline.current().remaining());
+            return echo(items);
+        });
+
+        Deadline.bind(Deadline.after(Duration.ofSeconds(1)));
+        CompletableFuture<String> early = batcher.submit("early");
+        Deadline.bind(Deadline.after(Duration.ofSeconds(30)));
+        try {
+            assertEquals("LATE", batcher.write("late"));
+        } finally {
+            Deadline.unbind();
+        }
+
+        assertEquals("EARLY", early.get(5, TimeUnit.SECONDS));
+        assertTrue(remaining.get(0).compareTo(Duration.ofSeconds(20)) > 0);
+    }
+
+    @Test
+    void testWriterStopsWaitingAtItsDeadline() {
+        CountDownLatch released = new CountDownLatch(1);
+        WriteBatcher<String, String> batcher = batcher(0, 100, 2, false, items -> {
+            try {
+                released.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return echo(items);
+        });
+
+        Deadline.bind(Deadline.after(Duration.ofMillis(100)));
+        try {
+            assertThrows(DeadlineExceededException.class, () -> batcher.write("slow"));
+        } finally {
+            Deadline.unbind();
+            released.countDown();
+        }
+    }
+
+    private WriteBatcher<String, String> batcher(
+            int windowMillis,
+            int maxSize,
+            int maxInFlight,
+            boolean deduplicate,
+            Function<List<String>, List<String>> dispatch) {
+        batching = new WriteBatching(meterRegistry, true, windowMillis, maxSize, maxInFlight);
+        return batching.batcher("test", deduplicate, dispatch);
+    }
+
+    private List<String> echo(List<String> items) {
+        batches.add(items);
+        return items.stream().map(String::toUpperCase).toList();
+    }
+}
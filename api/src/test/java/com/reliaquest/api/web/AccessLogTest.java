@@ -0,0 +1,140 @@
+package com.reliaquest.api.web;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.AppenderBase;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+
+public class AccessLogTest {
+
+    private final Logger access = (Logger) LoggerFactory.getLogger("com.reliaquest.api.access");
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CapturingAppender appender = new CapturingAppender();
+    private Level level;
+
+    @BeforeEach
+    void attachAppender() {
+        level = access.getLevel();
+        access.setLevel(Level.INFO);
+        appender.start();
+        access.addAppender(appender);
+    }
+
+    @AfterEach
+    void detachAppender() {
+        appender.release.countDown();
+        access.detachAppender(appender);
+        access.setLevel(level);
+    }
+
+    @Test
+    void testSampleRateZeroLogsNothing() throws Exception {
+        AccessLog log = new AccessLog(meterRegistry, true, 0, 64);
+        for (int i = 0; i < 1_000; i++) {
+            log.log("GET", "/api/v1/employee", 200, 1_000_000, null);
+        }
+        appender.release.countDown();
+        log.close();
+
+        assertEquals(List.of(), appender.lines);
+    }
+
+    @Test
+    void testFailuresAreAlwaysLogged() throws Exception {
+        AccessLog log = new AccessLog(meterRegistry, true, 0, 64);
+        log.log("GET", "/api/v1/employee", 200, 1_000_000, null);
+        log.log("GET", "/api/v1/employee", 503, 1_000_000, null);
+        log.log("GET", "/api/v1/employee/1", 200, 1_000_000, new IllegalStateException("boom"));
+        appender.release.countDown();
+        log.close();
+
+        assertEquals(2, appender.lines.size());
+        assertEquals(503, json(appender.lines.get(0)).get("status").asInt());
+        assertEquals(
+                IllegalStateException.class.getName(),
+                json(appender.lines.get(1)).get("error").asText());
+    }
+
+    @Test
+    void testCountsEntriesDroppedWhenQueueIsFull() throws Exception {
+        AccessLog log = new AccessLog(meterRegistry, true, 1, 1);
+        log.log("GET", "/api/v1/employee/1", 200, 1_000_000, null);
+        // The writer holds the first entry; the second fills the queue and the rest are dropped.
+        assertTrue(appender.entered.await(5, TimeUnit.SECONDS));
+        for (int i = 2; i <= 4; i++) {
+            log.log("GET", "/api/v1/employee/" + i, 200, 1_000_000, null);
+        }
+
+        assertEquals(2, meterRegistry.counter("api.access_log.dropped").count());
+
+        appender.release.countDown();
+        log.close();
+        assertEquals(2, appender.lines.size());
+    }
+
+    @Test
+    void testCloseDrainsQueuedEntries() throws Exception {
+        AccessLog log = new AccessLog(meterRegistry, true, 1, 64);
+        for (int i = 0; i < 50; i++) {
+            log.log("GET", "/api/v1/employee/" + i, 200, 1_000_000, null);
+        }
+        assertTrue(appender.entered.await(5, TimeUnit.SECONDS));
+        appender.release.countDown();
+        log.close();
+
+        assertEquals(50, appender.lines.size());
+        assertEquals(0, meterRegistry.counter("api.access_log.dropped").count());
+    }
+
+    @Test
+    void testEscapesUri() throws Exception {
+        String uri = "/api/v1/employee/search/\"quoted\"\\back\nline\ttab\u0001";
+        AccessLog log = new AccessLog(meterRegistry, true, 1, 64);
+        log.log("GET", uri, 200, 1_500_000, null);
+        appender.release.countDown();
+        log.close();
+
+        assertEquals(1, appender.lines.size());
+        JsonNode entry = json(appender.lines.get(0));
+        assertEquals(uri, entry.get("uri").asText());
+        assertEquals(1.5, entry.get("duration_ms").asDouble());
+    }
+
+    private static JsonNode json(String line) throws Exception {
+        return new ObjectMapper().readTree(line);
+    }
+
+    /*
+     * Blocks the writer thread on its first entry until released, so tests can fill the queue behind it.
+     */
+    private static class CapturingAppender extends AppenderBase<ILoggingEvent> {
+
+        final List<String> lines = new CopyOnWriteArrayList<>();
+        final CountDownLatch entered = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+
+        @Override
+        protected void append(ILoggingEvent event) {
+            entered.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            lines.add(event.getFormattedMessage());
+        }
+    }
+}
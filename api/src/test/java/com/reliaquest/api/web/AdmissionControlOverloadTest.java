@@ -0,0 +1,149 @@
+package com.reliaquest.api.web;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+/**
+ * Overloads the api against a local upstream that always answers 429, and checks that requests beyond what can be
+ * served within the maximum wait are shed immediately with 503 and {@code Retry-After}.
+ */
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+            "service.employee.initial_backoff_time=1",
+            "service.employee.max_backoff_time=4",
+            "service.employee.sync.enabled=false",
+            "service.employee.admission.max_wait_time=1",
+            "service.employee.admission.queue_capacity=4"
+        })
+public class AdmissionControlOverloadTest {
+
+    private static final Semaphore upstreamHits = new Semaphore(0);
+    private static final ExecutorService clients = Executors.newCachedThreadPool();
+    private static HttpServer upstream;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @DynamicPropertySource
+    static void upstreamProperties(DynamicPropertyRegistry registry) throws IOException {
+        upstream = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        upstream.createContext("/api/v1/employee", exchange -> {
+            final byte[] body = "{\"status\":\"Failed to process request.\"}".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(HttpStatus.TOO_MANY_REQUESTS.value(), body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+            upstreamHits.release();
+        });
+        upstream.start();
+        registry.add(
+                "service.employee.baseurl",
+                () -> "http://localhost:" + upstream.getAddress().getPort() + "/api/v1/employee");
+    }
+
+    @AfterAll
+    static void stopUpstream() {
+        clients.shutdownNow();
+        upstream.stop(0);
+    }
+
+    @Test
+    public void testOverloadIsShedWithRetryAfter() throws Exception {
+        String baseUrl = "http://localhost:" + port + "/api/v1/employee";
+
+        // Four requests fill the queue and back off against the upstream; further requests must not wait.
+        List<CompletableFuture<ResponseEntity<String>>> waiting = sendInBackground(baseUrl, 4);
+        awaitBackoff();
+        for (int i = 0; i < 10; i++) {
+            assertRejectedQuickly(baseUrl);
+        }
+        assertEquals(10.0, rejected("queue_full"));
+
+        for (var request : waiting) {
+            assertEquals(
+                    HttpStatus.TOO_MANY_REQUESTS,
+                    request.get(30, TimeUnit.SECONDS).getStatusCode());
+        }
+        assertEquals(0.0, meterRegistry.get("api.admission.goodput").counter().count());
+        assertEquals(4.0, meterRegistry.get("api.admission.badput").counter().count());
+
+        // With room in the queue, the remaining backoff alone exceeds the maximum wait.
+        waiting = sendInBackground(baseUrl, 2);
+        awaitBackoff();
+        assertRejectedQuickly(baseUrl);
+        assertEquals(1.0, rejected("expected_wait"));
+        for (var request : waiting) {
+            request.get(30, TimeUnit.SECONDS);
+        }
+    }
+
+    private List<CompletableFuture<ResponseEntity<String>>> sendInBackground(String url, int count)
+            throws InterruptedException {
+        upstreamHits.drainPermits();
+        List<CompletableFuture<ResponseEntity<String>>> requests = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            requests.add(CompletableFuture.supplyAsync(() -> restTemplate.getForEntity(url, String.class), clients));
+        }
+        assertTrue(upstreamHits.tryAcquire(count, 10, TimeUnit.SECONDS));
+        return requests;
+    }
+
+    /*
+     * The upstream answers before the api records the backoff; wait until it has.
+     */
+    private void awaitBackoff() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.get("api.admission.expected_wait").gauge().value() <= 1_000) {
+            assertTrue(System.nanoTime() < deadline, "upstream backoff was not recorded");
+            Thread.sleep(10);
+        }
+    }
+
+    private void assertRejectedQuickly(String url) {
+        long start = System.nanoTime();
+        ResponseEntity<String> response = restTemplate.getForEntity(url, String.class);
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+        assertTrue(Long.parseLong(response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)) >= 1);
+        assertTrue(elapsedMillis < 1_000, "rejection took " + elapsedMillis + " ms");
+    }
+
+    private double rejected(String reason) {
+        return meterRegistry
+                .get("api.admission.rejected")
+                .tag("reason", reason)
+                .counter()
+                .count();
+    }
+}
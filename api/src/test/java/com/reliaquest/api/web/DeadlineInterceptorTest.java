@@ -0,0 +1,65 @@
+package com.reliaquest.api.web;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.reliaquest.api.config.DeadlineProperties;
+import com.reliaquest.api.service.Deadline;
+import java.time.Duration;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+
+public class DeadlineInterceptorTest {
+
+    private final DeadlineInterceptor interceptor = new DeadlineInterceptor(
+            new DeadlineProperties(Duration.ofSeconds(30), Map.of("createEmployee", Duration.ofSeconds(60))));
+
+    @Test
+    void testHeaderShortensTheConfiguredTimeout() throws Exception {
+        assertTrue(remaining("250", handler("createEmployee")).compareTo(Duration.ofMillis(250)) <= 0);
+        assertTrue(remaining("250", new Object()).compareTo(Duration.ofMillis(250)) <= 0);
+    }
+
+    @Test
+    void testHeaderCannotExtendTheConfiguredTimeout() throws Exception {
+        for (String header : new String[] {String.valueOf(Long.MAX_VALUE), "9223372036854775000", "3600000"}) {
+            Duration remaining = remaining(header, handler("createEmployee"));
+            assertTrue(remaining.compareTo(Duration.ofSeconds(59)) > 0, header);
+            assertTrue(remaining.compareTo(Duration.ofSeconds(60)) <= 0, header);
+            assertTrue(remaining(header, new Object()).compareTo(Duration.ofSeconds(30)) <= 0, header);
+        }
+    }
+
+    @Test
+    void testInvalidHeaderFallsBackToTheConfiguredTimeout() throws Exception {
+        for (String header : new String[] {"soon", "0", "-5"}) {
+            Duration remaining = remaining(header, new Object());
+            assertTrue(remaining.compareTo(Duration.ofSeconds(29)) > 0, header);
+            assertTrue(remaining.compareTo(Duration.ofSeconds(30)) <= 0, header);
+        }
+    }
+
+    private Duration remaining(String header, Object handler) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        request.addHeader(DeadlineInterceptor.TIMEOUT_HEADER, header);
+        interceptor.preHandle(request, response, handler);
+        try {
+            assertTrue(Deadline.current().isBounded());
+            return Deadline.current().remaining();
+        } finally {
+            interceptor.afterCompletion(request, response, handler, null);
+        }
+    }
+
+    private static HandlerMethod handler(String name) throws NoSuchMethodException {
+        return new HandlerMethod(new Endpoints(), Endpoints.class.getMethod(name));
+    }
+
+    public static class Endpoints {
+
+        public void createEmployee() {}
+    }
+}
@@ -0,0 +1,101 @@
+package com.reliaquest.api.web;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.reliaquest.api.service.Deadline;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+
+public class Http2DeadlineRequestFactoryTest {
+
+    private static final Duration SLOW_RESPONSE = Duration.ofMillis(800);
+
+    private final Http2DeadlineRequestFactory factory = new Http2DeadlineRequestFactory();
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private HttpServer upstream;
+    private volatile String timeoutHeader;
+
+    @BeforeEach
+    void startUpstream() throws IOException {
+        upstream = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        upstream.createContext("/fast", exchange -> respond(exchange, Duration.ZERO));
+        upstream.createContext("/slow", exchange -> respond(exchange, SLOW_RESPONSE));
+        upstream.setExecutor(executor);
+        upstream.start();
+    }
+
+    @AfterEach
+    void stopUpstream() {
+        Deadline.unbind();
+        upstream.stop(0);
+        executor.shutdownNow();
+    }
+
+    @Test
+    void testBoundedCallForwardsTimeLeft() throws Exception {
+        Deadline.bind(Deadline.after(Duration.ofSeconds(2)));
+
+        try (var response = factory.createRequest(uri("/fast"), HttpMethod.GET).execute()) {
+            assertEquals(HttpStatus.OK, response.getStatusCode());
+        }
+
+        final long forwarded = Long.parseLong(timeoutHeader);
+        assertTrue(forwarded <= 2000, "Forwarded " + forwarded + " ms");
+        assertTrue(forwarded > 1000, "Forwarded " + forwarded + " ms");
+    }
+
+    @Test
+    void testBoundedCallTimesOutAtDeadline() {
+        Deadline.bind(Deadline.after(Duration.ofMillis(200)));
+        final long start = System.nanoTime();
+
+        assertThrows(IOException.class, () -> factory.createRequest(uri("/slow"), HttpMethod.GET)
+                .execute()
+                .close());
+
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).compareTo(SLOW_RESPONSE) < 0);
+    }
+
+    @Test
+    void testUnboundedCallHasNeitherTimeoutNorHeader() throws Exception {
+        try (var response = factory.createRequest(uri("/slow"), HttpMethod.GET).execute()) {
+            assertEquals(HttpStatus.OK, response.getStatusCode());
+        }
+
+        assertEquals("none", timeoutHeader);
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + upstream.getAddress().getPort() + path);
+    }
+
+    private void respond(HttpExchange exchange, Duration delay) throws IOException {
+        final var header = exchange.getRequestHeaders().getFirst(DeadlineInterceptor.TIMEOUT_HEADER);
+        timeoutHeader = header == null ? "none" : header;
+        try {
+            Thread.sleep(delay.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        final var body = "ok".getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(200, body.length);
+        try (var out = exchange.getResponseBody()) {
+            out.write(body);
+        } catch (IOException e) {
+            // The client gave up before the response was ready.
+        }
+    }
+}
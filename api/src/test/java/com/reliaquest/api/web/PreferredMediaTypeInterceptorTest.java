@@ -0,0 +1,98 @@
+package com.reliaquest.api.web;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.reliaquest.api.config.ApiConfiguration;
+import com.reliaquest.api.model.MockEmployee;
+import com.reliaquest.api.model.Response;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.client.MockMvcClientHttpRequestFactory;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.client.RestTemplate;
+
+public class PreferredMediaTypeInterceptorTest {
+
+    private static final MediaType SMILE = new MediaType("application", "x-jackson-smile");
+    private static final ParameterizedTypeReference<Response<List<MockEmployee>>> EMPLOYEES =
+            new ParameterizedTypeReference<>() {};
+
+    private final Upstream upstream = new Upstream();
+
+    @Test
+    void testReadsSmileFromUpstreamThatOffersIt() {
+        final var restTemplate = restTemplate(
+                "smile", new MappingJackson2HttpMessageConverter(), new MappingJackson2SmileHttpMessageConverter());
+
+        final var response = restTemplate.exchange("/api/v1/employee", HttpMethod.GET, null, EMPLOYEES);
+
+        assertTrue(SMILE.equalsTypeAndSubtype(response.getHeaders().getContentType()));
+        assertEquals(Upstream.ROSTER, response.getBody().data());
+        final var accept = MediaType.parseMediaTypes(upstream.accept);
+        assertEquals(SMILE, accept.get(0));
+        assertTrue(accept.stream().skip(1).allMatch(type -> type.getQualityValue() < 1));
+    }
+
+    @Test
+    void testFallsBackToJsonWhenUpstreamHasNoSmile() {
+        final var restTemplate = restTemplate("smile", new MappingJackson2HttpMessageConverter());
+
+        final var response = restTemplate.exchange("/api/v1/employee", HttpMethod.GET, null, EMPLOYEES);
+
+        assertTrue(MediaType.APPLICATION_JSON.equalsTypeAndSubtype(
+                response.getHeaders().getContentType()));
+        assertEquals(Upstream.ROSTER, response.getBody().data());
+    }
+
+    @Test
+    void testAsksForJsonFirstWhenSmileIsNotPreferred() {
+        final var restTemplate = restTemplate(
+                "json", new MappingJackson2HttpMessageConverter(), new MappingJackson2SmileHttpMessageConverter());
+
+        final var response = restTemplate.exchange("/api/v1/employee", HttpMethod.GET, null, EMPLOYEES);
+
+        assertTrue(MediaType.APPLICATION_JSON.equalsTypeAndSubtype(
+                response.getHeaders().getContentType()));
+        assertEquals(Upstream.ROSTER, response.getBody().data());
+    }
+
+    /*
+     * The api's own upstream RestTemplate, sending its calls to a stub upstream that writes with the given converters.
+     */
+    private RestTemplate restTemplate(String upstreamFormat, HttpMessageConverter<?>... upstreamConverters) {
+        final var configuration = new ApiConfiguration(null, null, null, null);
+        ReflectionTestUtils.setField(configuration, "upstreamFormat", upstreamFormat);
+        final var restTemplate = configuration.restTemplate();
+        restTemplate.setRequestFactory(new MockMvcClientHttpRequestFactory(MockMvcBuilders.standaloneSetup(upstream)
+                .setMessageConverters(upstreamConverters)
+                .build()));
+        return restTemplate;
+    }
+
+    @RestController
+    static class Upstream {
+
+        static final List<MockEmployee> ROSTER = List.of(
+                new MockEmployee("1", "Jane Doe", 50_000, 30, "Engineer", "jane@company.com"),
+                new MockEmployee("2", "John Doe", 60_000, 40, "Manager", "john@company.com"));
+
+        private String accept;
+
+        @GetMapping("/api/v1/employee")
+        Response<List<MockEmployee>> employees(@RequestHeader(HttpHeaders.ACCEPT) String accept) {
+            this.accept = accept;
+            return Response.handledWith(ROSTER);
+        }
+    }
+}
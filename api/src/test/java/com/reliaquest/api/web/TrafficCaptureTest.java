@@ -0,0 +1,33 @@
+package com.reliaquest.api.web;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class TrafficCaptureTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testStopsWritingAtTheSizeLimit() throws Exception {
+        Path file = directory.resolve("traffic.rqtc");
+        // A limit of 0 MB is reached by the first entry.
+        TrafficCapture capture = new TrafficCapture(new SimpleMeterRegistry(), true, file, 0, 1024);
+        for (int i = 0; i < 500; i++) {
+            capture.capture("GET", "/api/v1/employee/search/" + i, new byte[0], 200, System.nanoTime(), 1_000);
+        }
+        capture.close();
+
+        int entries = 0;
+        try (var reader = TrafficLog.Reader.open(file)) {
+            while (reader.read() != null) {
+                entries++;
+            }
+        }
+        assertEquals(1, entries);
+    }
+}
@@ -0,0 +1,56 @@
+package com.reliaquest.api.web;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import org.junit.jupiter.api.Test;
+
+public class TrafficLogTest {
+
+    @Test
+    void testRoundTrip() throws Exception {
+        var out = new ByteArrayOutputStream();
+        var body = "{\"name\":\"Tiger Nixon\",\"salary\":320800,\"age\":61,\"title\":\"Vice Chair\"}"
+                .getBytes(StandardCharsets.UTF_8);
+        try (var writer = new TrafficLog.Writer(out, 1_700_000_000_000L)) {
+            writer.write(new TrafficLog.Entry(0, "GET", "/api/v1/employee/search/tig", new byte[0], 200, 1_250));
+            writer.write(new TrafficLog.Entry(5_000_000_123L, "POST", "/api/v1/employee", body, 201, 48_000));
+            writer.write(
+                    new TrafficLog.Entry(5_000_000_124L, "TRACE", "/api/v1/employee?x=\u00fc", new byte[0], 405, 3));
+        }
+
+        try (var reader = new TrafficLog.Reader(new ByteArrayInputStream(out.toByteArray()))) {
+            assertEquals(1_700_000_000_000L, reader.startEpochMillis());
+            var get = reader.read();
+            assertEquals("GET", get.method());
+            assertEquals("/api/v1/employee/search/tig", get.uri());
+            assertEquals(1_250, get.durationMicros());
+            var post = reader.read();
+            assertEquals(5_000_000_123L, post.arrivalMicros());
+            assertArrayEquals(body, post.body());
+            assertEquals(201, post.status());
+            var trace = reader.read();
+            assertEquals("TRACE", trace.method());
+            assertEquals("/api/v1/employee?x=\u00fc", trace.uri());
+            assertNull(reader.read());
+        }
+    }
+
+    @Test
+    void testTruncatedLastEntryEndsTheLog() throws Exception {
+        var out = new ByteArrayOutputStream();
+        try (var writer = new TrafficLog.Writer(out, 0)) {
+            writer.write(new TrafficLog.Entry(10, "GET", "/api/v1/employee", new byte[0], 200, 900));
+            writer.write(new TrafficLog.Entry(20, "GET", "/api/v1/employee/highestSalary", new byte[0], 200, 700));
+        }
+        var bytes = out.toByteArray();
+
+        try (var reader = new TrafficLog.Reader(new ByteArrayInputStream(Arrays.copyOf(bytes, bytes.length - 3)))) {
+            assertEquals("/api/v1/employee", reader.read().uri());
+            assertNull(reader.read());
+        }
+    }
+}
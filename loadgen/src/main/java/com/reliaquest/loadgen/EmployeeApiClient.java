@@ -0,0 +1,132 @@
+package com.reliaquest.loadgen;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.random.RandomGenerator;
+
+/**
+ * Issues one api request per {@link Operation}. By-id and search requests draw from the roster read at startup;
+ * deletes remove employees this client created, so the roster the other operations see stays the same size.
+ */
+public final class EmployeeApiClient {
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final HttpClient client;
+    private final String baseUrl;
+    private final ObjectMapper objectMapper;
+    private final List<String> ids = new ArrayList<>();
+    private final List<String> searchTerms = new ArrayList<>();
+    private final Queue<String> created = new ConcurrentLinkedQueue<>();
+
+    public EmployeeApiClient(HttpClient client, String baseUrl, ObjectMapper objectMapper) {
+        this.client = client;
+        this.baseUrl = baseUrl;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Reads the roster the by-id and search requests draw from, retrying while the api is throttled upstream.
+     */
+    public void loadRoster() throws IOException, InterruptedException {
+        final var request = HttpRequest.newBuilder(URI.create(baseUrl))
+                .timeout(REQUEST_TIMEOUT)
+                .build();
+        for (int attempt = 1; ; attempt++) {
+            final var response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            if (response.statusCode() == 200) {
+                for (JsonNode employee : objectMapper.readTree(response.body())) {
+                    ids.add(employee.get("id").asText());
+                    final var name = employee.get("name").asText();
+                    searchTerms.add(
+                            name.substring(0, Math.min(3, name.length())).toLowerCase(Locale.ROOT));
+                }
+                break;
+            }
+            if (attempt == 5) {
+                throw new IOException("Could not read the roster: HTTP " + response.statusCode());
+            }
+            Thread.sleep(1000L * attempt);
+        }
+        if (ids.isEmpty()) {
+            throw new IOException("The roster is empty");
+        }
+    }
+
+    /**
+     * What a delete turns into when there is nothing left to delete.
+     */
+    public Operation resolve(Operation operation) {
+        return operation == Operation.DELETE && created.isEmpty() ? Operation.CREATE : operation;
+    }
+
+    /**
+     * Sends {@code operation} and returns the response status.
+     */
+    public int send(Operation operation, RandomGenerator random) throws IOException, InterruptedException {
+        return switch (operation) {
+            case LIST -> get("");
+            case SEARCH -> get("/search/" + encode(searchTerms.get(random.nextInt(searchTerms.size()))));
+            case BY_ID -> get("/" + ids.get(random.nextInt(ids.size())));
+            case TOP_TEN -> get("/topTenHighestEarningEmployeeNames");
+            case CREATE -> create(random);
+            case DELETE -> delete();
+        };
+    }
+
+    private int get(String path) throws IOException, InterruptedException {
+        return client.send(request(path).GET().build(), HttpResponse.BodyHandlers.discarding())
+                .statusCode();
+    }
+
+    private int create(RandomGenerator random) throws IOException, InterruptedException {
+        final var body = objectMapper.writeValueAsBytes(new CreateInput(
+                "Load Test " + random.nextInt(1_000_000),
+                random.nextInt(30_000, 500_000),
+                random.nextInt(18, 65),
+                "Load Tester"));
+        final var response = client.send(
+                request("")
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofByteArray(body))
+                        .build(),
+                HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() == 201) {
+            created.add(objectMapper.readTree(response.body()).get("id").asText());
+        }
+        return response.statusCode();
+    }
+
+    private int delete() throws IOException, InterruptedException {
+        final var id = created.poll();
+        if (id == null) {
+            // Another request took the last one between resolve() and here.
+            return create(RandomGenerator.getDefault());
+        }
+        return client.send(request("/" + id).DELETE().build(), HttpResponse.BodyHandlers.discarding())
+                .statusCode();
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(REQUEST_TIMEOUT);
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8).replace("+", "%20");
+    }
+
+    private record CreateInput(String name, int salary, int age, String title) {}
+}
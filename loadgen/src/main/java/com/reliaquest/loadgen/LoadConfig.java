@@ -0,0 +1,102 @@
+package com.reliaquest.loadgen;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Options of a load test run, parsed from {@code --key=value} arguments.
+ *
+ * @param rps target arrival rate; arrivals are Poisson distributed around it regardless of how fast responses come back
+ * @param maxInFlight requests allowed to be outstanding before further arrivals are counted as dropped
+ * @param threshold relative change in a latency percentile or in throughput that counts as a regression
+ * @param errorRateTolerance absolute increase in error rate that counts as a regression
+ * @param allowMissingBaseline run without comparing when there is no baseline, instead of failing before the run
+ */
+public record LoadConfig(
+        Path serverJar,
+        Path apiJar,
+        Path output,
+        Path baseline,
+        int rps,
+        Duration duration,
+        Duration warmup,
+        WorkloadMix mix,
+        int rosterSize,
+        int maxInFlight,
+        double threshold,
+        double errorRateTolerance,
+        boolean updateBaseline,
+        boolean allowMissingBaseline) {
+
+    public LoadConfig {
+        if (rps <= 0 || maxInFlight <= 0) {
+            throw new IllegalArgumentException("rps and max-in-flight must be positive");
+        }
+    }
+
+    public static LoadConfig parse(String[] args) {
+        final var options = options(args);
+        return new LoadConfig(
+                Path.of(required(options, "server-jar")),
+                Path.of(required(options, "api-jar")),
+                Path.of(options.getOrDefault("output", "build/loadgen")),
+                Path.of(options.getOrDefault("baseline", "baseline.json")),
+                Integer.parseInt(options.getOrDefault("rps", "200")),
+                duration(options.getOrDefault("duration", "60s")),
+                duration(options.getOrDefault("warmup", "10s")),
+                WorkloadMix.parse(options.getOrDefault("mix", WorkloadMix.DEFAULT)),
+                Integer.parseInt(options.getOrDefault("roster-size", "1000")),
+                Integer.parseInt(options.getOrDefault("max-in-flight", "1000")),
+                Double.parseDouble(options.getOrDefault("threshold", "0.10")),
+                Double.parseDouble(options.getOrDefault("error-rate-tolerance", "0.01")),
+                Boolean.parseBoolean(options.getOrDefault("update-baseline", "false")),
+                Boolean.parseBoolean(options.getOrDefault("allow-missing-baseline", "false")));
+    }
+
+    /**
+     * {@code --key=value} arguments by key; a bare {@code --key} is {@code "true"}.
+     */
+    static Map<String, String> options(String[] args) {
+        final Map<String, String> options = new HashMap<>();
+        for (var arg : args) {
+            if (!arg.startsWith("--")) {
+                throw new IllegalArgumentException("Expected --key=value but got '" + arg + "'");
+            }
+            final int equals = arg.indexOf('=');
+            if (equals < 0) {
+                options.put(arg.substring(2), "true");
+            } else {
+                options.put(arg.substring(2, equals), arg.substring(equals + 1));
+            }
+        }
+        return options;
+    }
+
+    static String required(Map<String, String> options, String key) {
+        final var value = options.get(key);
+        if (value == null) {
+            throw new IllegalArgumentException("Missing --" + key);
+        }
+        return value;
+    }
+
+    /**
+     * Accepts {@code 500ms}, {@code 30s}, {@code 2m} or an ISO-8601 duration.
+     */
+    static Duration duration(String value) {
+        final var lower = value.trim().toLowerCase(Locale.ROOT);
+        if (lower.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(lower.substring(0, lower.length() - 2)));
+        }
+        if (lower.endsWith("s")) {
+            return Duration.ofSeconds(Long.parseLong(lower.substring(0, lower.length() - 1)));
+        }
+        if (lower.endsWith("m")) {
+            return Duration.ofMinutes(Long.parseLong(lower.substring(0, lower.length() - 1)));
+        }
+        return Duration.parse(value);
+    }
+}
@@ -0,0 +1,176 @@
+package com.reliaquest.loadgen;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Boots the server and api, drives the api with an open-model workload and reports latency, errors and throughput.
+ *
+ * <p>Arrivals follow a Poisson process at the target rate and each request runs on its own thread, so a slow response
+ * never delays the next arrival. Latency is measured from when a request was scheduled to start, which keeps queueing
+ * in the load generator from hiding the api's slowdowns. Exits with status 1 when the run regresses against the
+ * baseline, or when there is no baseline and neither recording one nor running without one was asked for.
+ */
+public final class LoadGenerator {
+
+    private static final String EMPLOYEE_PATH = "/api/v1/employee";
+    private static final Duration DRAIN_TIMEOUT = Duration.ofSeconds(60);
+
+    private final LoadConfig config;
+    private final EmployeeApiClient client;
+    private final ExecutorService executor;
+
+    private LoadGenerator(LoadConfig config, EmployeeApiClient client, ExecutorService executor) {
+        this.config = config;
+        this.client = client;
+        this.executor = executor;
+    }
+
+    public static void main(String[] args) throws Exception {
+        final var config = LoadConfig.parse(args);
+        if (!config.updateBaseline() && !config.allowMissingBaseline() && !Files.exists(config.baseline())) {
+            System.err.println("No baseline at " + config.baseline()
+                    + "; record one with -PupdateBaseline, or pass -PallowMissingBaseline to run without comparing.");
+            System.exit(1);
+        }
+        Files.createDirectories(config.output());
+        final var objectMapper = new ObjectMapper()
+                .setPropertyNamingStrategy(PropertyNamingStrategies.SNAKE_CASE)
+                .enable(SerializationFeature.INDENT_OUTPUT);
+
+        final RunStats run;
+        try (var server = LocalApplication.start(
+                        "server",
+                        config.serverJar(),
+                        List.of(
+                                "--mock.rate-limit.enabled=false",
+                                "--mock.employees.max=" + config.rosterSize(),
+                                "--logging.level.com.reliaquest=WARN"),
+                        EMPLOYEE_PATH,
+                        config.output().resolve("server.log"));
+                var api = LocalApplication.start(
+                        "api",
+                        config.apiJar(),
+                        List.of(
+                                "--service.employee.baseurl=" + server.url(EMPLOYEE_PATH),
+                                "--logging.level.com.reliaquest=WARN"),
+                        "/actuator/health",
+                        config.output().resolve("api.log"))) {
+            final var httpClient = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .build();
+            final var client = new EmployeeApiClient(httpClient, api.url(EMPLOYEE_PATH), objectMapper);
+            client.loadRoster();
+
+            final var executor = RequestThreads.newExecutor();
+            final var generator = new LoadGenerator(config, client, executor);
+            try {
+                System.out.printf(
+                        "Warming up for %s, then measuring for %s at %d requests/sec (%s threads, mix %s)%n",
+                        config.warmup(), config.duration(), config.rps(), RequestThreads.kind(), config.mix());
+                generator.drive(config.warmup());
+                run = generator.drive(config.duration());
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+
+        final var summary = run.summarise(
+                config.rps(), config.duration().toSeconds(), config.mix().toString());
+        objectMapper.writeValue(config.output().resolve("summary.json").toFile(), summary);
+        run.writeHistograms(config.output(), "latency");
+        System.out.println(objectMapper.writeValueAsString(summary));
+
+        if (config.updateBaseline()) {
+            Files.copy(config.output().resolve("summary.json"), config.baseline(), StandardCopyOption.REPLACE_EXISTING);
+            System.out.println("Recorded baseline " + config.baseline());
+            return;
+        }
+        if (!Files.exists(config.baseline())) {
+            System.out.println("No baseline at " + config.baseline() + "; not comparing.");
+            return;
+        }
+        final var baseline = objectMapper.readValue(config.baseline().toFile(), LoadSummary.class);
+        if (!RegressionCheck.comparable(baseline, summary)) {
+            System.out.printf(
+                    "Baseline was recorded at %d requests/sec with mix %s; not comparing.%n",
+                    baseline.targetRps(), baseline.mix());
+            return;
+        }
+        final var regressions =
+                RegressionCheck.regressions(baseline, summary, config.threshold(), config.errorRateTolerance());
+        if (!regressions.isEmpty()) {
+            System.err.println("Regressed against " + config.baseline() + ":");
+            regressions.forEach(regression -> System.err.println("  " + regression));
+            System.exit(1);
+        }
+        System.out.println("No regression against " + config.baseline());
+    }
+
+    private RunStats drive(Duration duration) throws InterruptedException {
+        final var run = new RunStats(RequestThreads.kind());
+        final var random = new SplittableRandom();
+        final var inFlight = new AtomicInteger();
+        final double meanIntervalNanos = TimeUnit.SECONDS.toNanos(1) / (double) config.rps();
+        final long start = System.nanoTime();
+        final long end = start + duration.toNanos();
+        long next = start;
+        while (next < end) {
+            for (long wait = next - System.nanoTime(); wait > 0; wait = next - System.nanoTime()) {
+                LockSupport.parkNanos(wait);
+            }
+            final var operation = client.resolve(config.mix().next(random));
+            if (inFlight.incrementAndGet() > config.maxInFlight()) {
+                inFlight.decrementAndGet();
+                run.drop();
+            } else {
+                final long scheduled = next;
+                executor.execute(() -> {
+                    try {
+                        send(run, operation, scheduled);
+                    } finally {
+                        inFlight.decrementAndGet();
+                    }
+                });
+            }
+            next += (long) (-Math.log(1 - random.nextDouble()) * meanIntervalNanos);
+        }
+        final long drainDeadline = System.nanoTime() + DRAIN_TIMEOUT.toNanos();
+        while (inFlight.get() > 0 && System.nanoTime() < drainDeadline) {
+            Thread.sleep(10);
+        }
+        run.finish(System.nanoTime() - start);
+        return run;
+    }
+
+    private void send(RunStats run, Operation operation, long scheduledNanos) {
+        String status;
+        boolean failed;
+        try {
+            final int code = client.send(operation, ThreadLocalRandom.current());
+            status = Integer.toString(code);
+            failed = code >= 400;
+        } catch (IOException e) {
+            status = "io";
+            failed = true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        run.record(operation.key(), System.nanoTime() - scheduledNanos, status, failed);
+    }
+}
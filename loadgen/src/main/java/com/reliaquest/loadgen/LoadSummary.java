@@ -0,0 +1,45 @@
+package com.reliaquest.loadgen;
+
+import java.util.Map;
+import org.HdrHistogram.Histogram;
+
+/**
+ * The JSON summary of a load test run; also the format of the baseline it is compared with.
+ *
+ * @param throughput completed requests per second, failed ones included
+ * @param dropped arrivals not sent because {@code maxInFlight} requests were already outstanding
+ */
+public record LoadSummary(
+        int targetRps,
+        long durationSeconds,
+        String threads,
+        String mix,
+        double throughput,
+        long requests,
+        long errors,
+        double errorRate,
+        long dropped,
+        Latency latencyMs,
+        Map<String, OperationSummary> operations) {
+
+    /**
+     * Latency from each request's scheduled start, so time spent waiting behind a slow response counts.
+     */
+    public record Latency(double p50, double p95, double p99, double max) {
+
+        public static Latency of(Histogram histogram) {
+            return new Latency(
+                    millis(histogram.getValueAtPercentile(50)),
+                    millis(histogram.getValueAtPercentile(95)),
+                    millis(histogram.getValueAtPercentile(99)),
+                    millis(histogram.getMaxValue()));
+        }
+
+        private static double millis(long nanos) {
+            return Math.round(nanos / 1e3) / 1e3;
+        }
+    }
+
+    public record OperationSummary(
+            long requests, long errors, double errorRate, Map<String, Long> statuses, Latency latencyMs) {}
+}
@@ -0,0 +1,94 @@
+package com.reliaquest.loadgen;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A Spring Boot jar started in its own JVM on a free port, with its console output written to a log file.
+ */
+public final class LocalApplication implements AutoCloseable {
+
+    private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(2);
+
+    private final String name;
+    private final Process process;
+    private final int port;
+
+    private LocalApplication(String name, Process process, int port) {
+        this.name = name;
+        this.process = process;
+        this.port = port;
+    }
+
+    /**
+     * Starts {@code jar} and waits until {@code readyPath} answers {@code 200}.
+     */
+    public static LocalApplication start(String name, Path jar, List<String> args, String readyPath, Path log)
+            throws IOException, InterruptedException {
+        final int port;
+        try (var socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        final var command = new ArrayList<String>();
+        command.add(ProcessHandle.current().info().command().orElse("java"));
+        command.add("-jar");
+        command.add(jar.toString());
+        command.add("--server.port=" + port);
+        command.addAll(args);
+        final var process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+        final var application = new LocalApplication(name, process, port);
+        try {
+            application.awaitReady(readyPath);
+        } catch (IOException | InterruptedException | RuntimeException e) {
+            application.close();
+            throw e;
+        }
+        return application;
+    }
+
+    public String url(String path) {
+        return "http://localhost:" + port + path;
+    }
+
+    private void awaitReady(String readyPath) throws IOException, InterruptedException {
+        final var client = HttpClient.newHttpClient();
+        final var request = HttpRequest.newBuilder(URI.create(url(readyPath)))
+                .timeout(Duration.ofSeconds(5))
+                .build();
+        final long deadline = System.nanoTime() + STARTUP_TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IOException(name + " exited with status " + process.exitValue());
+            }
+            try {
+                if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException e) {
+                // Not listening yet.
+            }
+            Thread.sleep(100);
+        }
+        throw new IOException(name + " did not answer " + readyPath + " within " + STARTUP_TIMEOUT);
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        process.destroy();
+        if (!process.waitFor(10, TimeUnit.SECONDS)) {
+            process.destroyForcibly().waitFor();
+        }
+    }
+}
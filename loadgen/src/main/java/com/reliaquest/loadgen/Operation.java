@@ -0,0 +1,33 @@
+package com.reliaquest.loadgen;
+
+import java.util.Arrays;
+
+/**
+ * The api requests the workload mixes, named as they appear in the {@code mix} option and the summary.
+ */
+public enum Operation {
+    LIST("list"),
+    SEARCH("search"),
+    BY_ID("byId"),
+    TOP_TEN("topTen"),
+    CREATE("create"),
+    DELETE("delete");
+
+    private final String key;
+
+    Operation(String key) {
+        this.key = key;
+    }
+
+    public String key() {
+        return key;
+    }
+
+    public static Operation fromKey(String key) {
+        return Arrays.stream(values())
+                .filter(operation -> operation.key.equalsIgnoreCase(key))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown operation '" + key + "', expected one of "
+                        + Arrays.stream(values()).map(Operation::key).toList()));
+    }
+}
@@ -0,0 +1,76 @@
+package com.reliaquest.loadgen;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Compares a run with a baseline recorded under the same workload.
+ */
+public final class RegressionCheck {
+
+    /** Latency increases smaller than this are noise at the millisecond scale, whatever their relative size. */
+    static final double MIN_LATENCY_INCREASE_MS = 1.0;
+
+    private RegressionCheck() {}
+
+    public static boolean comparable(LoadSummary baseline, LoadSummary current) {
+        return baseline.targetRps() == current.targetRps() && baseline.mix().equals(current.mix());
+    }
+
+    /**
+     * Describes each way {@code current} is worse than {@code baseline}: a latency percentile more than
+     * {@code threshold} higher, throughput more than {@code threshold} lower, or an error rate more than
+     * {@code errorRateTolerance} higher.
+     */
+    public static List<String> regressions(
+            LoadSummary baseline, LoadSummary current, double threshold, double errorRateTolerance) {
+        final var regressions = new ArrayList<String>();
+        latency(
+                regressions,
+                "p50",
+                baseline.latencyMs().p50(),
+                current.latencyMs().p50(),
+                threshold);
+        latency(
+                regressions,
+                "p95",
+                baseline.latencyMs().p95(),
+                current.latencyMs().p95(),
+                threshold);
+        latency(
+                regressions,
+                "p99",
+                baseline.latencyMs().p99(),
+                current.latencyMs().p99(),
+                threshold);
+        if (current.throughput() < baseline.throughput() * (1 - threshold)) {
+            regressions.add(String.format(
+                    Locale.ROOT,
+                    "throughput %.1f/s is below the baseline %.1f/s",
+                    current.throughput(),
+                    baseline.throughput()));
+        }
+        if (current.errorRate() > baseline.errorRate() + errorRateTolerance) {
+            regressions.add(String.format(
+                    Locale.ROOT,
+                    "error rate %.2f%% is above the baseline %.2f%%",
+                    current.errorRate() * 100,
+                    baseline.errorRate() * 100));
+        }
+        return regressions;
+    }
+
+    private static void latency(
+            List<String> regressions, String percentile, double baseline, double current, double threshold) {
+        if (current > baseline * (1 + threshold) && current - baseline >= MIN_LATENCY_INCREASE_MS) {
+            regressions.add(String.format(
+                    Locale.ROOT,
+                    "%s latency %.1f ms is %.0f%% above the baseline %.1f ms",
+                    percentile,
+                    current,
+                    baseline > 0 ? (current / baseline - 1) * 100 : 100,
+                    baseline));
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.reliaquest.loadgen;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * One thread per request: virtual threads when running on Java 21 or later, otherwise a cached pool of platform
+ * threads. The project compiles for Java 17, so the virtual-thread executor is looked up at run time.
+ */
+final class RequestThreads {
+
+    private RequestThreads() {}
+
+    static ExecutorService newExecutor() {
+        try {
+            return (ExecutorService)
+                    Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool(runnable -> {
+                final var thread = new Thread(runnable, "loadgen-request");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    static String kind() {
+        try {
+            Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return "virtual";
+        } catch (NoSuchMethodException e) {
+            return "platform";
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.reliaquest.loadgen;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramLogWriter;
+
+/**
+ * Latency histograms and status counts of one run, kept per request type and safe to record from many threads.
+ */
+final class RunStats {
+
+    private final String threads;
+    private final Map<String, TypeStats> stats = new ConcurrentHashMap<>();
+    private final LongAdder dropped = new LongAdder();
+    private final Map<String, LongAdder> mismatches = new ConcurrentHashMap<>();
+    private long elapsedNanos;
+
+    RunStats(String threads) {
+        this.threads = threads;
+    }
+
+    void record(String type, long latencyNanos, String status, boolean failed) {
+        stats.computeIfAbsent(type, ignored -> new TypeStats()).record(latencyNanos, status, failed);
+    }
+
+    void drop() {
+        dropped.increment();
+    }
+
+    /**
+     * A replayed request of {@code type} was answered with {@code status} where the captured one got {@code captured}.
+     */
+    void mismatch(String type, int captured, String status) {
+        mismatches
+                .computeIfAbsent(type + " " + captured + " -> " + status, ignored -> new LongAdder())
+                .increment();
+    }
+
+    /**
+     * Requests answered differently than when captured, by request type and captured and replayed status.
+     */
+    Map<String, Long> mismatches() {
+        final var counts = new TreeMap<String, Long>();
+        mismatches.forEach((mismatch, adder) -> counts.put(mismatch, adder.sum()));
+        return counts;
+    }
+
+    void finish(long elapsedNanos) {
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    Histogram total() {
+        final var total = new Histogram(3);
+        stats.values().forEach(type -> total.add(type.latency));
+        return total;
+    }
+
+    LoadSummary summarise(int targetRps, long durationSeconds, String mix) {
+        final var types = new TreeMap<String, LoadSummary.OperationSummary>();
+        long requests = 0;
+        long errors = 0;
+        for (var entry : stats.entrySet()) {
+            final var type = entry.getValue();
+            final long count = type.latency.getTotalCount();
+            final long failed = type.errors.sum();
+            requests += count;
+            errors += failed;
+            final var statuses = new TreeMap<String, Long>();
+            type.statuses.forEach((status, adder) -> statuses.put(status, adder.sum()));
+            types.put(
+                    entry.getKey(),
+                    new LoadSummary.OperationSummary(
+                            count, failed, failed / (double) count, statuses, LoadSummary.Latency.of(type.latency)));
+        }
+        final double seconds = elapsedNanos / 1e9;
+        return new LoadSummary(
+                targetRps,
+                durationSeconds,
+                threads,
+                mix,
+                Math.round(requests / seconds * 10) / 10.0,
+                requests,
+                errors,
+                requests == 0 ? 0 : errors / (double) requests,
+                dropped.sum(),
+                LoadSummary.Latency.of(total()),
+                types);
+    }
+
+    /**
+     * Writes {@code <prefix>.hgrm}, the overall percentile distribution in milliseconds, and {@code <prefix>.hlog},
+     * the overall and per-type histograms tagged by type.
+     */
+    void writeHistograms(Path output, String prefix) throws IOException {
+        final var total = total();
+        try (var out = new PrintStream(output.resolve(prefix + ".hgrm").toFile())) {
+            total.outputPercentileDistribution(out, 1e6);
+        }
+        try (var out = new PrintStream(output.resolve(prefix + ".hlog").toFile())) {
+            final var writer = new HistogramLogWriter(out);
+            writer.outputLogFormatVersion();
+            writer.outputComment("Latency in nanoseconds from scheduled start, tagged by request type");
+            writer.outputLegend();
+            total.setTag("total");
+            writer.outputIntervalHistogram(total);
+            for (var entry : new TreeMap<>(stats).entrySet()) {
+                final var histogram = entry.getValue().latency;
+                histogram.setTag(entry.getKey());
+                writer.outputIntervalHistogram(histogram);
+            }
+        }
+    }
+
+    private static final class TypeStats {
+
+        private final Histogram latency = new ConcurrentHistogram(3);
+        private final LongAdder errors = new LongAdder();
+        private final Map<String, LongAdder> statuses = new ConcurrentHashMap<>();
+
+        private void record(long latencyNanos, String status, boolean failed) {
+            latency.recordValue(latencyNanos);
+            statuses.computeIfAbsent(status, ignored -> new LongAdder()).increment();
+            if (failed) {
+                errors.increment();
+            }
+        }
+    }
+}
@@ -0,0 +1,321 @@
+package com.reliaquest.loadgen;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.reliaquest.api.web.TrafficLog;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Replays traffic captured by the api ({@code service.employee.capture.enabled}) against a freshly started server and
+ * api, once per api build, and compares the latency distributions.
+ *
+ * <p>Each request is sent at its captured arrival time divided by the speed-up, on its own thread, so inter-arrival
+ * times and the resulting concurrency are reproduced regardless of how quickly the build under test responds. Each
+ * build gets its own server, started with the same arguments, so both see the same roster and the same sequence of
+ * creates and deletes. The ids in captured paths belong to the roster of the captured server, so they are mapped onto
+ * the replay server's roster first, and responses whose status differs from the captured one are reported by request
+ * type. Exits with status 1 when the candidate regresses against the baseline build.
+ */
+public final class TrafficReplayer {
+
+    private static final String EMPLOYEE_PATH = "/api/v1/employee";
+    private static final Duration DRAIN_TIMEOUT = Duration.ofSeconds(60);
+    private static final Pattern UUID_SEGMENT =
+            Pattern.compile("/[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}(?=/|$|\\?)");
+    private static final Pattern SEARCH_TERM = Pattern.compile("/search/[^/?]*");
+
+    private final List<TrafficLog.Entry> entries;
+    private final double speed;
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    private TrafficReplayer(List<TrafficLog.Entry> entries, double speed) {
+        this.entries = entries;
+        this.speed = speed;
+    }
+
+    public static void main(String[] args) throws Exception {
+        final var options = LoadConfig.options(args);
+        final var log = Path.of(LoadConfig.required(options, "log"));
+        final var serverJar = Path.of(LoadConfig.required(options, "server-jar"));
+        final var apiJar = Path.of(LoadConfig.required(options, "api-jar"));
+        final var baselineApiJar =
+                options.containsKey("baseline-api-jar") ? Path.of(options.get("baseline-api-jar")) : null;
+        final double speed = Double.parseDouble(options.getOrDefault("speed", "1"));
+        final var serverArgs = Arrays.asList(
+                options.getOrDefault("server-args", "--mock.employees.seeding.mode=bulk --mock.employees.max=1000")
+                        .trim()
+                        .split("\\s+"));
+        final var output = Path.of(options.getOrDefault("output", "build/replay"));
+        final double threshold = Double.parseDouble(options.getOrDefault("threshold", "0.10"));
+        final double errorRateTolerance = Double.parseDouble(options.getOrDefault("error-rate-tolerance", "0.01"));
+        Files.createDirectories(output);
+        final var objectMapper = new ObjectMapper()
+                .setPropertyNamingStrategy(PropertyNamingStrategies.SNAKE_CASE)
+                .enable(SerializationFeature.INDENT_OUTPUT);
+
+        final var replayer = new TrafficReplayer(read(log), speed);
+        if (replayer.entries.isEmpty()) {
+            throw new IllegalArgumentException(log + " holds no requests");
+        }
+        final long spanMicros =
+                replayer.entries.get(replayer.entries.size() - 1).arrivalMicros()
+                        - replayer.entries.get(0).arrivalMicros();
+        final long durationSeconds = Math.max(1, Math.round(spanMicros / 1e6 / speed));
+        final int rate = (int) Math.round(replayer.entries.size() / (double) durationSeconds);
+        final var description = String.format(Locale.ROOT, "replay of %s at %sx", log.getFileName(), speed);
+        System.out.printf(
+                "Replaying %d requests over %d s (%d requests/sec) at %sx%n",
+                replayer.entries.size(), durationSeconds, rate, speed);
+
+        LoadSummary baseline = null;
+        if (baselineApiJar != null) {
+            baseline = replayer.replay("baseline", serverJar, baselineApiJar, serverArgs, output)
+                    .summarise(rate, durationSeconds, description);
+            objectMapper.writeValue(output.resolve("baseline.json").toFile(), baseline);
+        }
+        final var candidate = replayer.replay("candidate", serverJar, apiJar, serverArgs, output)
+                .summarise(rate, durationSeconds, description);
+        objectMapper.writeValue(output.resolve("candidate.json").toFile(), candidate);
+
+        if (baseline == null) {
+            System.out.println(objectMapper.writeValueAsString(candidate));
+            return;
+        }
+        printComparison(baseline, candidate);
+        final var regressions = RegressionCheck.regressions(baseline, candidate, threshold, errorRateTolerance);
+        if (!regressions.isEmpty()) {
+            System.err.println("The candidate build regressed against the baseline build:");
+            regressions.forEach(regression -> System.err.println("  " + regression));
+            System.exit(1);
+        }
+        System.out.println("No regression against the baseline build.");
+    }
+
+    private static List<TrafficLog.Entry> read(Path log) throws IOException {
+        final var entries = new ArrayList<TrafficLog.Entry>();
+        try (var reader = TrafficLog.Reader.open(log)) {
+            for (var entry = reader.read(); entry != null; entry = reader.read()) {
+                entries.add(entry);
+            }
+        }
+        // Entries are written as requests complete, so a slow request lands after ones that arrived later.
+        entries.sort(Comparator.comparingLong(TrafficLog.Entry::arrivalMicros));
+        return entries;
+    }
+
+    private RunStats replay(String build, Path serverJar, Path apiJar, List<String> serverArgs, Path output)
+            throws IOException, InterruptedException {
+        System.out.println("Replaying against the " + build + " build " + apiJar);
+        final var serverArgsWithoutLimit = new ArrayList<>(serverArgs);
+        serverArgsWithoutLimit.add("--mock.rate-limit.enabled=false");
+        try (var server = LocalApplication.start(
+                        build + "-server",
+                        serverJar,
+                        serverArgsWithoutLimit,
+                        EMPLOYEE_PATH,
+                        output.resolve(build + "-server.log"));
+                var api = LocalApplication.start(
+                        build + "-api",
+                        apiJar,
+                        List.of("--service.employee.baseurl=" + server.url(EMPLOYEE_PATH)),
+                        "/actuator/health",
+                        output.resolve(build + "-api.log"))) {
+            final var ids = remapIds(entries, rosterIds(server));
+            final var run = drive(api, ids);
+            run.writeHistograms(output, build);
+            final var mismatches = run.mismatches();
+            if (!mismatches.isEmpty()) {
+                System.out.println("Responses whose status differs from the capture (" + build + "):");
+                mismatches.forEach((mismatch, count) -> System.out.printf("  %-56s %8d%n", mismatch, count));
+            }
+            return run;
+        }
+    }
+
+    /**
+     * Maps each id named in a captured path, in order of first use, onto a distinct employee of {@code roster}, so that
+     * reads and deletes by id find an employee as they did when captured rather than all answering 404. Ids beyond the
+     * size of the roster wrap around to its start.
+     */
+    static Map<String, String> remapIds(List<TrafficLog.Entry> entries, List<String> roster) {
+        final var ids = new HashMap<String, String>();
+        if (roster.isEmpty()) {
+            return ids;
+        }
+        for (var entry : entries) {
+            final var matcher = UUID_SEGMENT.matcher(entry.uri());
+            while (matcher.find()) {
+                ids.computeIfAbsent(
+                        matcher.group().substring(1).toLowerCase(Locale.ROOT),
+                        ignored -> roster.get(ids.size() % roster.size()));
+            }
+        }
+        return ids;
+    }
+
+    static String rewrite(String uri, Map<String, String> ids) {
+        return UUID_SEGMENT.matcher(uri).replaceAll(match -> {
+            final var id = match.group().substring(1);
+            return Matcher.quoteReplacement("/" + ids.getOrDefault(id.toLowerCase(Locale.ROOT), id));
+        });
+    }
+
+    /**
+     * The ids of a freshly started server's roster, in roster order, which is the same for servers started alike.
+     */
+    private List<String> rosterIds(LocalApplication server) throws IOException, InterruptedException {
+        final var response = httpClient.send(
+                HttpRequest.newBuilder(URI.create(server.url(EMPLOYEE_PATH)))
+                        .timeout(Duration.ofSeconds(60))
+                        .build(),
+                HttpResponse.BodyHandlers.ofInputStream());
+        try (var body = response.body()) {
+            if (response.statusCode() != 200) {
+                throw new IOException("Server roster request failed with status " + response.statusCode());
+            }
+            final var ids = new ArrayList<String>();
+            new ObjectMapper()
+                    .readTree(body)
+                    .path("data")
+                    .forEach(employee -> ids.add(employee.path("id").asText()));
+            return ids;
+        }
+    }
+
+    private RunStats drive(LocalApplication api, Map<String, String> ids) throws InterruptedException {
+        final var run = new RunStats(RequestThreads.kind());
+        final ExecutorService executor = RequestThreads.newExecutor();
+        final var inFlight = new AtomicInteger();
+        final long firstArrivalMicros = entries.get(0).arrivalMicros();
+        final long start = System.nanoTime();
+        try {
+            for (var entry : entries) {
+                final long scheduled = start
+                        + (long) (TimeUnit.MICROSECONDS.toNanos(entry.arrivalMicros() - firstArrivalMicros) / speed);
+                for (long wait = scheduled - System.nanoTime(); wait > 0; wait = scheduled - System.nanoTime()) {
+                    LockSupport.parkNanos(wait);
+                }
+                inFlight.incrementAndGet();
+                executor.execute(() -> {
+                    try {
+                        send(run, api, entry, ids, scheduled);
+                    } finally {
+                        inFlight.decrementAndGet();
+                    }
+                });
+            }
+            final long drainDeadline = System.nanoTime() + DRAIN_TIMEOUT.toNanos();
+            while (inFlight.get() > 0 && System.nanoTime() < drainDeadline) {
+                Thread.sleep(10);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        run.finish(System.nanoTime() - start);
+        return run;
+    }
+
+    private void send(
+            RunStats run, LocalApplication api, TrafficLog.Entry entry, Map<String, String> ids, long scheduledNanos) {
+        final var request = HttpRequest.newBuilder(URI.create(api.url(rewrite(entry.uri(), ids))))
+                .timeout(Duration.ofSeconds(30))
+                .method(
+                        entry.method(),
+                        entry.body().length == 0
+                                ? HttpRequest.BodyPublishers.noBody()
+                                : HttpRequest.BodyPublishers.ofByteArray(entry.body()));
+        if (entry.body().length > 0) {
+            // Headers are not captured; the employee API only accepts JSON bodies.
+            request.header("Content-Type", "application/json");
+        }
+        String status;
+        boolean failed;
+        try {
+            final int code = httpClient
+                    .send(request.build(), HttpResponse.BodyHandlers.discarding())
+                    .statusCode();
+            status = Integer.toString(code);
+            // Client errors were part of the captured traffic; only server errors count against the build.
+            failed = code >= 500;
+            if (code != entry.status()) {
+                run.mismatch(route(entry), entry.status(), status);
+            }
+        } catch (IOException e) {
+            status = "io";
+            failed = true;
+            run.mismatch(route(entry), entry.status(), status);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        run.record(route(entry), System.nanoTime() - scheduledNanos, status, failed);
+    }
+
+    /**
+     * The request type an entry is reported under: method and path with ids and search terms replaced.
+     */
+    static String route(TrafficLog.Entry entry) {
+        final int query = entry.uri().indexOf('?');
+        var path = query < 0 ? entry.uri() : entry.uri().substring(0, query);
+        path = UUID_SEGMENT.matcher(path).replaceAll("/{id}");
+        path = SEARCH_TERM.matcher(path).replaceAll("/search/{term}");
+        return entry.method() + " " + path;
+    }
+
+    private static void printComparison(LoadSummary baseline, LoadSummary candidate) {
+        System.out.printf("%n%-10s %12s %12s %8s%n", "", "baseline", "candidate", "change");
+        row("p50 ms", baseline.latencyMs().p50(), candidate.latencyMs().p50());
+        row("p95 ms", baseline.latencyMs().p95(), candidate.latencyMs().p95());
+        row("p99 ms", baseline.latencyMs().p99(), candidate.latencyMs().p99());
+        row("max ms", baseline.latencyMs().max(), candidate.latencyMs().max());
+        row("req/s", baseline.throughput(), candidate.throughput());
+        row("errors %", baseline.errorRate() * 100, candidate.errorRate() * 100);
+        System.out.printf("%n%-44s %12s %12s%n", "p99 ms by request type", "baseline", "candidate");
+        candidate.operations().forEach((type, summary) -> {
+            final var before = baseline.operations().get(type);
+            System.out.printf(
+                    Locale.ROOT,
+                    "%-44s %12s %12.1f%n",
+                    type,
+                    before == null
+                            ? "-"
+                            : String.format(
+                                    Locale.ROOT, "%.1f", before.latencyMs().p99()),
+                    summary.latencyMs().p99());
+        });
+    }
+
+    private static void row(String label, double baseline, double candidate) {
+        System.out.printf(
+                Locale.ROOT,
+                "%-10s %12.2f %12.2f %7.1f%%%n",
+                label,
+                baseline,
+                candidate,
+                baseline == 0 ? 0 : (candidate / baseline - 1) * 100);
+    }
+}
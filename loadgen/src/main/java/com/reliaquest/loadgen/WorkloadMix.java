@@ -0,0 +1,72 @@
+package com.reliaquest.loadgen;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.random.RandomGenerator;
+import java.util.stream.Collectors;
+
+/**
+ * Relative weights of each {@link Operation}, parsed from {@code "list=20,search=20,byId=40,topTen=10,create=5,
+ * delete=5"}. Operations that are not listed are never issued.
+ */
+public final class WorkloadMix {
+
+    public static final String DEFAULT = "list=20,search=20,byId=40,topTen=10,create=5,delete=5";
+
+    private final Map<Operation, Integer> weights;
+    private final Operation[] operations;
+    private final int[] cumulativeWeights;
+
+    private WorkloadMix(Map<Operation, Integer> weights) {
+        this.weights = weights;
+        final var operations = new ArrayList<Operation>();
+        final var cumulative = new int[weights.size()];
+        int total = 0;
+        for (var entry : weights.entrySet()) {
+            total += entry.getValue();
+            cumulative[operations.size()] = total;
+            operations.add(entry.getKey());
+        }
+        this.operations = operations.toArray(Operation[]::new);
+        this.cumulativeWeights = cumulative;
+    }
+
+    public static WorkloadMix parse(String spec) {
+        final var weights = new EnumMap<Operation, Integer>(Operation.class);
+        for (var part : spec.split(",")) {
+            final var keyAndWeight = part.trim().split("=");
+            if (keyAndWeight.length != 2) {
+                throw new IllegalArgumentException("Expected operation=weight but got '" + part + "'");
+            }
+            final int weight = Integer.parseInt(keyAndWeight[1].trim());
+            if (weight < 0) {
+                throw new IllegalArgumentException("Weight of " + keyAndWeight[0] + " must not be negative");
+            }
+            if (weight > 0) {
+                weights.merge(Operation.fromKey(keyAndWeight[0].trim()), weight, Integer::sum);
+            }
+        }
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("Workload mix '" + spec + "' has no operations");
+        }
+        return new WorkloadMix(weights);
+    }
+
+    public Operation next(RandomGenerator random) {
+        final int draw = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (draw < cumulativeWeights[i]) {
+                return operations[i];
+            }
+        }
+        throw new IllegalStateException("unreachable");
+    }
+
+    @Override
+    public String toString() {
+        return weights.entrySet().stream()
+                .map(entry -> entry.getKey().key() + "=" + entry.getValue())
+                .collect(Collectors.joining(","));
+    }
+}
@@ -0,0 +1,49 @@
+package com.reliaquest.loadgen;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+public class RegressionCheckTest {
+
+    private final LoadSummary baseline = summary(200, 195.0, 0.001, new LoadSummary.Latency(4.0, 12.0, 30.0, 80.0));
+
+    @Test
+    void testNoRegressionWithinThreshold() {
+        LoadSummary current = summary(200, 190.0, 0.005, new LoadSummary.Latency(4.3, 12.9, 32.5, 150.0));
+
+        assertTrue(RegressionCheck.regressions(baseline, current, 0.10, 0.01).isEmpty());
+    }
+
+    @Test
+    void testReportsLatencyThroughputAndErrorRegressions() {
+        LoadSummary current = summary(200, 150.0, 0.05, new LoadSummary.Latency(4.1, 12.0, 45.0, 200.0));
+
+        var regressions = RegressionCheck.regressions(baseline, current, 0.10, 0.01);
+
+        assertEquals(3, regressions.size());
+        assertTrue(regressions.get(0).startsWith("p99 latency 45.0 ms is 50% above"));
+        assertTrue(regressions.get(1).startsWith("throughput 150.0/s"));
+        assertTrue(regressions.get(2).startsWith("error rate 5.00%"));
+    }
+
+    @Test
+    void testIgnoresSubMillisecondLatencyIncreases() {
+        LoadSummary fast = summary(200, 195.0, 0, new LoadSummary.Latency(0.4, 0.8, 1.2, 5.0));
+        LoadSummary current = summary(200, 195.0, 0, new LoadSummary.Latency(0.8, 1.5, 2.1, 5.0));
+
+        assertTrue(RegressionCheck.regressions(fast, current, 0.10, 0.01).isEmpty());
+    }
+
+    @Test
+    void testOnlyComparesRunsOfTheSameWorkload() {
+        assertTrue(RegressionCheck.comparable(baseline, summary(200, 100.0, 0, baseline.latencyMs())));
+        assertFalse(RegressionCheck.comparable(baseline, summary(400, 395.0, 0, baseline.latencyMs())));
+    }
+
+    private static LoadSummary summary(int rps, double throughput, double errorRate, LoadSummary.Latency latency) {
+        return new LoadSummary(
+                rps, 60, "platform", WorkloadMix.DEFAULT, throughput, 12_000, 0, errorRate, 0, latency, Map.of());
+    }
+}
@@ -0,0 +1,56 @@
+package com.reliaquest.loadgen;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.reliaquest.api.web.TrafficLog;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+public class TrafficReplayerTest {
+
+    private static final String CAPTURED_A = "0f6b3c1e-8d2a-4b7e-9c1d-2a3b4c5d6e7f";
+    private static final String CAPTURED_B = "11111111-2222-3333-4444-555555555555";
+    private static final String CAPTURED_C = "aaaaaaaa-bbbb-cccc-dddd-eeeeeeeeeeee";
+
+    @Test
+    void testCapturedIdsMapOntoTheReplayRoster() {
+        List<TrafficLog.Entry> entries = List.of(
+                entry("GET", "/api/v1/employee/" + CAPTURED_A),
+                entry("GET", "/api/v1/employee/search/ann"),
+                entry("DELETE", "/api/v1/employee/" + CAPTURED_B.toUpperCase()),
+                entry("GET", "/api/v1/employee/" + CAPTURED_A + "?fields=name"),
+                entry("GET", "/api/v1/employee/" + CAPTURED_C));
+
+        Map<String, String> ids = TrafficReplayer.remapIds(entries, List.of("roster-1", "roster-2"));
+
+        assertEquals(
+                "/api/v1/employee/roster-1",
+                TrafficReplayer.rewrite(entries.get(0).uri(), ids));
+        assertEquals(
+                "/api/v1/employee/search/ann",
+                TrafficReplayer.rewrite(entries.get(1).uri(), ids));
+        assertEquals(
+                "/api/v1/employee/roster-2",
+                TrafficReplayer.rewrite(entries.get(2).uri(), ids));
+        assertEquals(
+                "/api/v1/employee/roster-1?fields=name",
+                TrafficReplayer.rewrite(entries.get(3).uri(), ids));
+        // More captured ids than employees wrap around to the start of the roster.
+        assertEquals(
+                "/api/v1/employee/roster-1",
+                TrafficReplayer.rewrite(entries.get(4).uri(), ids));
+    }
+
+    @Test
+    void testIdsStayAsCapturedWithoutARoster() {
+        String uri = "/api/v1/employee/" + CAPTURED_A;
+
+        assertEquals(
+                uri, TrafficReplayer.rewrite(uri, TrafficReplayer.remapIds(List.of(entry("GET", uri)), List.of())));
+    }
+
+    private static TrafficLog.Entry entry(String method, String uri) {
+        return new TrafficLog.Entry(0, method, uri, new byte[0], 200, 1_000);
+    }
+}
@@ -0,0 +1,98 @@
+package com.reliaquest.server.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.reliaquest.server.ServerApplication;
+import com.reliaquest.server.service.RosterChangeFeed;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+
+/**
+ * Upstream bytes needed to keep a roster copy current under steady writes: refetching the full roster every round
+ * against fetching only {@code /changes} since the last version seen.
+ *
+ * <p>Usage: {@code ./gradlew server:benchmark -Pbenchmark=ChangeFeedBenchmark [-PbenchmarkArgs="rows rounds writes"]}
+ * (defaults: 100000 rows, 20 rounds, 50 writes per round). The rate limiter is disabled for the run.
+ */
+public class ChangeFeedBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        final int rows = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        final int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+        final int writes = args.length > 2 ? Integer.parseInt(args[2]) : 50;
+        try (var context = new SpringApplicationBuilder(ServerApplication.class)
+                .properties(
+                        "server.port=0",
+                        "server.compression.enabled=false",
+                        "logging.level.com.reliaquest=INFO",
+                        "mock.rate-limit.enabled=false",
+                        "mock.employees.seeding.mode=bulk",
+                        "mock.employees.max=" + rows)
+                .run()) {
+            final var baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port")
+                    + "/api/v1/employee";
+            final var client = HttpClient.newHttpClient();
+            final var mapper = new ObjectMapper();
+
+            var initial = get(client, baseUrl);
+            long version = Long.parseLong(initial.headers()
+                    .firstValue(RosterChangeFeed.VERSION_HEADER)
+                    .orElseThrow());
+            long fullBytes = 0;
+            long deltaBytes = 0;
+            long fullNanos = 0;
+            long deltaNanos = 0;
+            for (int round = 0; round < rounds; round++) {
+                for (int i = 0; i < writes; i++) {
+                    post(
+                            client,
+                            baseUrl,
+                            "{\"name\":\"Bench %d-%d\",\"salary\":50000,\"age\":30,\"title\":\"Engineer\"}"
+                                    .formatted(round, i));
+                }
+
+                long start = System.nanoTime();
+                fullBytes += get(client, baseUrl).body().length;
+                fullNanos += System.nanoTime() - start;
+
+                start = System.nanoTime();
+                final var changes = get(client, baseUrl + "/changes?since=" + version);
+                deltaNanos += System.nanoTime() - start;
+                deltaBytes += changes.body().length;
+                final JsonNode data = mapper.readTree(changes.body()).get("data");
+                version = data.get("version").asLong();
+            }
+
+            System.out.printf("%-8s %14s %14s %12s%n", "sync", "bytes/round", "total MB", "ms/round");
+            System.out.printf(
+                    "%-8s %14d %14.1f %12.2f%n", "full", fullBytes / rounds, fullBytes / 1e6, fullNanos / 1e6 / rounds);
+            System.out.printf(
+                    "%-8s %14d %14.1f %12.2f%n",
+                    "delta", deltaBytes / rounds, deltaBytes / 1e6, deltaNanos / 1e6 / rounds);
+        }
+    }
+
+    private static HttpResponse<byte[]> get(HttpClient client, String url) throws Exception {
+        final var response =
+                client.send(HttpRequest.newBuilder(URI.create(url)).build(), HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Unexpected status " + response.statusCode() + " for " + url);
+        }
+        return response;
+    }
+
+    private static void post(HttpClient client, String url, String body) throws Exception {
+        final var response = client.send(
+                HttpRequest.newBuilder(URI.create(url))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(body))
+                        .build(),
+                HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Unexpected status " + response.statusCode() + " for POST " + url);
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.reliaquest.server.benchmark;
+
+import com.reliaquest.server.ServerApplication;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+
+/**
+ * Throughput of importing employees one {@code POST} per employee against {@code POST /batch} in chunks.
+ *
+ * <p>Usage: {@code ./gradlew server:benchmark -Pbenchmark=ImportBenchmark [-PbenchmarkArgs="employees clients"]}
+ * (defaults: 10000 employees, 8 concurrent clients for the per-item import). The rate limiter is disabled for the run;
+ * with it enabled the per-item import would need one unit of rate budget per employee.
+ */
+public class ImportBenchmark {
+
+    private static final int[] BATCH_SIZES = {100, 1_000, 10_000};
+
+    public static void main(String[] args) throws Exception {
+        final int employees = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        final int clients = args.length > 1 ? Integer.parseInt(args[1]) : 8;
+        try (var context = new SpringApplicationBuilder(ServerApplication.class)
+                .properties(
+                        "server.port=0",
+                        "logging.level.com.reliaquest=INFO",
+                        "mock.rate-limit.enabled=false",
+                        "mock.employees.seeding.mode=bulk",
+                        "mock.employees.max=10000")
+                .run()) {
+            final var baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port")
+                    + "/api/v1/employee";
+            final var client = HttpClient.newHttpClient();
+
+            // Warm-up so class loading and JIT are not attributed to the first run.
+            post(client, baseUrl + "/batch", batch(0, 1_000));
+            for (int i = 0; i < 1_000; i++) {
+                post(client, baseUrl, employee(i));
+            }
+
+            System.out.printf("%-18s %10s %10s %14s%n", "mode", "requests", "ms", "employees/sec");
+            long start = System.nanoTime();
+            perItem(client, baseUrl, employees, clients);
+            report("per-item x" + clients, employees, employees, System.nanoTime() - start);
+
+            for (int batchSize : BATCH_SIZES) {
+                start = System.nanoTime();
+                int requests = 0;
+                for (int offset = 0; offset < employees; offset += batchSize) {
+                    post(client, baseUrl + "/batch", batch(offset, Math.min(batchSize, employees - offset)));
+                    requests++;
+                }
+                report("batch " + batchSize, employees, requests, System.nanoTime() - start);
+            }
+        }
+    }
+
+    private static void perItem(HttpClient client, String url, int employees, int clients) throws Exception {
+        final ExecutorService executor = Executors.newFixedThreadPool(clients);
+        try {
+            final List<Future<?>> futures = new ArrayList<>();
+            for (int c = 0; c < clients; c++) {
+                final int first = c;
+                futures.add(executor.submit(() -> {
+                    for (int i = first; i < employees; i += clients) {
+                        post(client, url, employee(i));
+                    }
+                    return null;
+                }));
+            }
+            for (var future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static void report(String mode, int employees, int requests, long nanos) {
+        System.out.printf("%-18s %10d %10.0f %14.0f%n", mode, requests, nanos / 1e6, employees / (nanos / 1e9));
+    }
+
+    private static String employee(int i) {
+        return "{\"name\":\"Import %d\",\"salary\":%d,\"age\":%d,\"title\":\"Engineer\"}"
+                .formatted(i, 40_000 + i % 100_000, 18 + i % 50);
+    }
+
+    private static String batch(int offset, int size) {
+        final var body = new StringBuilder(size * 80).append("{\"employees\":[");
+        for (int i = 0; i < size; i++) {
+            body.append(i == 0 ? "" : ",").append(employee(offset + i));
+        }
+        return body.append("]}").toString();
+    }
+
+    private static void post(HttpClient client, String url, String body) throws Exception {
+        final var response = client.send(
+                HttpRequest.newBuilder(URI.create(url))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(body))
+                        .build(),
+                HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Unexpected status " + response.statusCode() + " for POST " + url);
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.reliaquest.server.benchmark;
+
+import com.reliaquest.server.model.MockEmployee;
+import com.reliaquest.server.persistence.FsyncPolicy;
+import com.reliaquest.server.persistence.RosterPersistence;
+import com.reliaquest.server.persistence.WalRecord;
+import com.reliaquest.server.seed.BulkMockEmployeeSeeder;
+import com.reliaquest.server.store.ListMockEmployeeStore;
+import com.reliaquest.server.store.MockEmployeeStore;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Write throughput of the roster write-ahead log under each {@link FsyncPolicy}, and recovery time of a persisted
+ * roster.
+ *
+ * <p>Usage: {@code ./gradlew server:benchmark -Pbenchmark=PersistenceBenchmark
+ * [-PbenchmarkArgs="writers seconds rows"]} (defaults: 32 writers, 10 seconds, 1000000 rows).
+ */
+public class PersistenceBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        final int writers = args.length > 0 ? Integer.parseInt(args[0]) : 32;
+        final int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        final int rows = args.length > 2 ? Integer.parseInt(args[2]) : 1_000_000;
+        final var seeder = new BulkMockEmployeeSeeder(42, 4096, Locale.ENGLISH);
+
+        System.out.printf("%-9s %8s %14s%n", "fsync", "writers", "writes/sec");
+        for (var policy : FsyncPolicy.values()) {
+            final var directory = Files.createTempDirectory("wal-benchmark");
+            try (var persistence = persistence(directory, policy)) {
+                final var store = new ListMockEmployeeStore();
+                seeder.generateInto(1_000, store);
+                persistence.recover();
+                persistence.open(store);
+                System.out.printf(
+                        "%-9s %8d %14.0f%n", policy, writers, writesPerSecond(persistence, store, writers, seconds));
+            } finally {
+                delete(directory);
+            }
+        }
+
+        final var directory = Files.createTempDirectory("wal-recovery");
+        try {
+            try (var persistence = persistence(directory, FsyncPolicy.NEVER)) {
+                final List<MockEmployee> roster = seeder.generate(rows);
+                final var store = new ListMockEmployeeStore();
+                store.addAll(roster);
+                persistence.recover();
+                persistence.open(store);
+                // A WAL tail of deletes for 10% of the roster on top of the snapshot; only the log matters here.
+                for (int i = 0; i < rows / 10; i++) {
+                    synchronized (store) {
+                        persistence.log(WalRecord.delete(roster.get(i)));
+                    }
+                }
+            }
+            final long start = System.nanoTime();
+            try (var persistence = persistence(directory, FsyncPolicy.NEVER)) {
+                final int recovered = persistence.recover().orElseThrow().size();
+                System.out.printf(
+                        "recovered %d employees in %d ms%n", recovered, (System.nanoTime() - start) / 1_000_000);
+            }
+        } finally {
+            delete(directory);
+        }
+    }
+
+    private static double writesPerSecond(
+            RosterPersistence persistence, MockEmployeeStore store, int writers, int seconds)
+            throws InterruptedException {
+        final var writes = new AtomicLong();
+        final var done = new CountDownLatch(writers);
+        final long deadline = System.nanoTime() + Duration.ofSeconds(seconds).toNanos();
+        final var template = store.findAll().get(0);
+        for (int w = 0; w < writers; w++) {
+            new Thread(() -> {
+                        while (System.nanoTime() < deadline) {
+                            final CompletableFuture<Void> durable;
+                            synchronized (store) {
+                                durable = persistence.log(WalRecord.create(template));
+                            }
+                            durable.join();
+                            writes.incrementAndGet();
+                        }
+                        done.countDown();
+                    })
+                    .start();
+        }
+        done.await();
+        return writes.get() / (double) seconds;
+    }
+
+    private static RosterPersistence persistence(Path directory, FsyncPolicy policy) {
+        return new RosterPersistence(directory, policy, Duration.ofMillis(100), Duration.ofHours(1), 1024);
+    }
+
+    private static void delete(Path directory) throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (var file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.reliaquest.server.benchmark;
+
+import com.reliaquest.server.ServerApplication;
+import java.util.Arrays;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+
+/**
+ * Measures server startup time (context refresh including roster seeding) for each seeding mode.
+ *
+ * <p>Usage: {@code ./gradlew server:benchmark -Pbenchmark=SeedingBenchmark [-PbenchmarkArgs="100000 1000000 5000000"]}.
+ * The Faker mode is only measured up to {@code faker.max.rows} (default 100000) because it is several orders of
+ * magnitude slower.
+ */
+public class SeedingBenchmark {
+
+    private static final int[] DEFAULT_SIZES = {100_000, 1_000_000, 5_000_000};
+
+    public static void main(String[] args) {
+        final int[] sizes = args.length == 0
+                ? DEFAULT_SIZES
+                : Arrays.stream(args).mapToInt(Integer::parseInt).toArray();
+        final int fakerMaxRows = Integer.getInteger("faker.max.rows", 100_000);
+
+        // One warm-up run so JIT and class loading do not dominate the first measured size.
+        startupMillis("bulk", 10_000);
+
+        System.out.printf("%-8s %10s %12s%n", "mode", "rows", "startup ms");
+        for (int size : sizes) {
+            if (size <= fakerMaxRows) {
+                System.out.printf("%-8s %10d %12d%n", "faker", size, startupMillis("faker", size));
+            }
+            System.out.printf("%-8s %10d %12d%n", "bulk", size, startupMillis("bulk", size));
+        }
+    }
+
+    private static long startupMillis(String mode, int rows) {
+        final long start = System.nanoTime();
+        try (var context = new SpringApplicationBuilder(ServerApplication.class)
+                .properties(
+                        "server.port=0",
+                        "logging.level.com.reliaquest=INFO",
+                        "mock.employees.max=" + rows,
+                        "mock.employees.seeding.mode=" + mode)
+                .run()) {
+            return (System.nanoTime() - start) / 1_000_000;
+        }
+    }
+}
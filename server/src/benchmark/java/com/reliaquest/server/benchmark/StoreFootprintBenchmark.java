@@ -0,0 +1,59 @@
+package com.reliaquest.server.benchmark;
+
+import com.reliaquest.server.seed.BulkMockEmployeeSeeder;
+import com.reliaquest.server.store.CompactMockEmployeeStore;
+import com.reliaquest.server.store.ListMockEmployeeStore;
+import com.reliaquest.server.store.MockEmployeeStore;
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.ref.Reference;
+import java.util.Locale;
+import java.util.function.Supplier;
+
+/**
+ * Retained bytes per employee for each {@link MockEmployeeStore} implementation.
+ *
+ * <p>Usage: {@code ./gradlew server:benchmark -Pbenchmark=StoreFootprintBenchmark [-PbenchmarkArgs="10000000"]
+ * [-PbenchmarkJvmArgs="-Xmx16g"]} (default 1000000 rows). Heap is measured after repeated full GCs, off-heap through
+ * the direct buffer pool.
+ */
+public class StoreFootprintBenchmark {
+
+    public static void main(String[] args) {
+        final int rows = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        final var seeder = new BulkMockEmployeeSeeder(42, 4096, Locale.ENGLISH);
+
+        System.out.printf("%-16s %10s %14s %14s %12s%n", "store", "rows", "heap bytes", "direct bytes", "bytes/row");
+        measure("list", rows, seeder, ListMockEmployeeStore::new);
+        measure("compact", rows, seeder, () -> new CompactMockEmployeeStore(false));
+        measure("compact-offheap", rows, seeder, () -> new CompactMockEmployeeStore(true));
+    }
+
+    private static void measure(
+            String name, int rows, BulkMockEmployeeSeeder seeder, Supplier<MockEmployeeStore> factory) {
+        final long heapBefore = usedHeap();
+        final long directBefore = usedDirect();
+        final var store = factory.get();
+        seeder.generateInto(rows, store);
+        final long heap = usedHeap() - heapBefore;
+        final long direct = usedDirect() - directBefore;
+        System.out.printf(
+                "%-16s %10d %14d %14d %12.1f%n", name, store.size(), heap, direct, (heap + direct) / (double) rows);
+        Reference.reachabilityFence(store);
+    }
+
+    private static long usedHeap() {
+        final var runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static long usedDirect() {
+        return ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class).stream()
+                .filter(pool -> "direct".equals(pool.getName()))
+                .mapToLong(BufferPoolMXBean::getMemoryUsed)
+                .sum();
+    }
+}
@@ -0,0 +1,92 @@
+package com.reliaquest.server.benchmark;
+
+import com.reliaquest.server.ServerApplication;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+
+/**
+ * Time-to-first-byte, total time and peak heap of the buffered list endpoint against both streaming modes.
+ *
+ * <p>Usage: {@code ./gradlew server:benchmark -Pbenchmark=StreamingBenchmark [-PbenchmarkArgs="1000000 compact"]}.
+ * The server runs in-process so its heap can be observed; only four requests are made to stay under the server's
+ * random rate limit.
+ */
+public class StreamingBenchmark {
+
+    private static final List<String> MODES = List.of("", "?stream=ndjson", "?stream=json");
+
+    public static void main(String[] args) throws Exception {
+        final int rows = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        final String store = args.length > 1 ? args[1] : "list";
+        try (var context = new SpringApplicationBuilder(ServerApplication.class)
+                .properties(
+                        "server.port=0",
+                        "server.compression.enabled=false",
+                        "logging.level.com.reliaquest=INFO",
+                        "mock.store.type=" + store,
+                        "mock.employees.seeding.mode=bulk",
+                        "mock.employees.max=" + rows)
+                .run()) {
+            final var baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port")
+                    + "/api/v1/employee";
+            final var client = HttpClient.newHttpClient();
+
+            // Warm-up so class loading and JIT are not attributed to the first mode.
+            request(client, baseUrl + "?stream=ndjson");
+
+            System.out.printf("%-16s %10s %10s %14s %14s%n", "mode", "ttfb ms", "total ms", "bytes", "peak heap MB");
+            for (var mode : MODES) {
+                final var result = request(client, baseUrl + mode);
+                System.out.printf(
+                        "%-16s %10.1f %10.1f %14d %14d%n",
+                        mode.isEmpty() ? "buffered" : mode.substring(8),
+                        result.ttfbNanos() / 1e6,
+                        result.totalNanos() / 1e6,
+                        result.bytes(),
+                        result.peakHeapBytes() >> 20);
+            }
+        }
+    }
+
+    private static Result request(HttpClient client, String url) throws Exception {
+        final var heapPools = ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(pool -> pool.getType() == MemoryType.HEAP)
+                .toList();
+        System.gc();
+        heapPools.forEach(MemoryPoolMXBean::resetPeakUsage);
+
+        final long start = System.nanoTime();
+        final var response =
+                client.send(HttpRequest.newBuilder(URI.create(url)).build(), HttpResponse.BodyHandlers.ofInputStream());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Unexpected status " + response.statusCode() + " for " + url);
+        }
+        long ttfb = 0;
+        long bytes = 0;
+        try (InputStream body = response.body()) {
+            final var buffer = new byte[64 * 1024];
+            int read;
+            while ((read = body.read(buffer)) >= 0) {
+                if (bytes == 0 && read > 0) {
+                    ttfb = System.nanoTime() - start;
+                }
+                bytes += read;
+            }
+        }
+        final long total = System.nanoTime() - start;
+        final long peak = heapPools.stream()
+                .mapToLong(pool -> pool.getPeakUsage().getUsed())
+                .sum();
+        return new Result(ttfb, total, bytes, peak);
+    }
+
+    private record Result(long ttfbNanos, long totalNanos, long bytes, long peakHeapBytes) {}
+}
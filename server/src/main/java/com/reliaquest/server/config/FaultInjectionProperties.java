@@ -0,0 +1,26 @@
+package com.reliaquest.server.config;
+
+import com.reliaquest.server.model.FaultProfile;
+import java.util.Map;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Named fault injection presets that can be activated at startup ({@code mock.faults.active}) or at runtime through
+ * {@code /admin/faults/{name}}.
+ */
+@ConfigurationProperties(prefix = "mock.faults")
+public record FaultInjectionProperties(
+        @DefaultValue("42") long seed, String active, Map<String, FaultProfile> profiles) {
+
+    public FaultInjectionProperties {
+        profiles = profiles == null ? Map.of() : Map.copyOf(profiles);
+        profiles.forEach((name, profile) -> {
+            final var violations = profile.violations();
+            if (!violations.isEmpty()) {
+                throw new IllegalArgumentException(
+                        "Invalid fault profile '" + name + "': " + String.join(" ", violations));
+            }
+        });
+    }
+}
@@ -1,10 +1,25 @@
 package com.reliaquest.server.config;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 import com.reliaquest.server.model.MockEmployee;
+import com.reliaquest.server.persistence.FsyncPolicy;
+import com.reliaquest.server.persistence.RosterPersistence;
+import com.reliaquest.server.seed.BulkMockEmployeeSeeder;
+import com.reliaquest.server.seed.RosterSeeding;
+import com.reliaquest.server.service.FaultInjector;
+import com.reliaquest.server.store.CompactMockEmployeeStore;
+import com.reliaquest.server.store.ListMockEmployeeStore;
+import com.reliaquest.server.store.MockEmployeeStore;
+import com.reliaquest.server.web.FaultInjectionFilter;
 import com.reliaquest.server.web.RandomRequestLimitInterceptor;
+import com.reliaquest.server.web.RosterReadyInterceptor;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
+import java.util.Optional;
 import java.util.UUID;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
@@ -13,28 +28,105 @@ import net.datafaker.Faker;
 import net.datafaker.transformations.Field;
 import net.datafaker.transformations.JavaObjectTransformer;
 import net.datafaker.transformations.Schema;
+import org.apache.coyote.UpgradeProtocol;
+import org.apache.coyote.http2.Http2Protocol;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
 import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 @Slf4j
 @Configuration
+@EnableConfigurationProperties(FaultInjectionProperties.class)
 public class ServerConfiguration implements WebMvcConfigurer {
 
     public static final String EMAIL_TEMPLATE = "%s@company.com";
 
+    @Value("${mock.rate-limit.enabled:true}")
+    private boolean rateLimitEnabled;
+
+    @Value("${mock.employees.seeding.max-wait:30s}")
+    private Duration seedingMaxWait;
+
     @Bean
     public Faker faker() {
         return new Faker(Locale.getDefault());
     }
 
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = "mock.persistence.enabled", havingValue = "true")
+    public RosterPersistence rosterPersistence(
+            @Value("${mock.persistence.directory:data}") String directory,
+            @Value("${mock.persistence.fsync:INTERVAL}") FsyncPolicy fsyncPolicy,
+            @Value("${mock.persistence.sync-interval:100ms}") Duration syncInterval,
+            @Value("${mock.persistence.snapshot-interval:5m}") Duration snapshotInterval,
+            @Value("${mock.persistence.max-batch-size:1024}") int maxBatchSize) {
+        return new RosterPersistence(Path.of(directory), fsyncPolicy, syncInterval, snapshotInterval, maxBatchSize);
+    }
+
+    @Bean
+    public RosterSeeding rosterSeeding() {
+        return new RosterSeeding();
+    }
+
+    /*
+     * With spring.main.lazy-initialization the store would otherwise only be created, and seeded, by the first request.
+     */
+    @Bean
+    public static LazyInitializationExcludeFilter eagerMockEmployeeStore() {
+        return LazyInitializationExcludeFilter.forBeanTypes(MockEmployeeStore.class);
+    }
+
     /*
-     * This list is modifiable by design for CRUD operations.
+     * The store is modifiable by design for CRUD operations.
+     * Store type "compact" keeps the roster in primitive columns (optionally off heap); see CompactMockEmployeeStore.
+     * Seeding mode "bulk" generates large rosters in parallel from a fixed seed; see BulkMockEmployeeSeeder.
+     * With persistence enabled, a previously persisted roster is recovered instead of seeding a new one.
+     * With mock.employees.seeding.deferred the roster is loaded in the background while the server starts; employee
+     * API requests wait for it in RosterReadyInterceptor.
      */
     @Bean
-    public List<MockEmployee> mockEmployees(Faker faker, @Value("${mock.employees.max:20}") int maxEmployees) {
+    public MockEmployeeStore mockEmployeeStore(
+            Faker faker,
+            Optional<RosterPersistence> persistence,
+            RosterSeeding rosterSeeding,
+            @Value("${mock.store.type:list}") String storeType,
+            @Value("${mock.store.off-heap:false}") boolean offHeap,
+            @Value("${mock.employees.max:20}") int maxEmployees,
+            @Value("${mock.employees.seeding.mode:faker}") String seedingMode,
+            @Value("${mock.employees.seeding.seed:42}") long seed,
+            @Value("${mock.employees.seeding.pool-size:4096}") int poolSize,
+            @Value("${mock.employees.seeding.deferred:false}") boolean deferred) {
+        final MockEmployeeStore store = "compact".equalsIgnoreCase(storeType)
+                ? new CompactMockEmployeeStore(offHeap)
+                : new ListMockEmployeeStore();
+        rosterSeeding.start(
+                () -> {
+                    final var recovered = persistence.flatMap(RosterPersistence::recover);
+                    if (recovered.isPresent()) {
+                        store.addAll(recovered.get());
+                    } else if ("bulk".equalsIgnoreCase(seedingMode)) {
+                        // A fixed locale, so that one seed gives one roster on every host.
+                        new BulkMockEmployeeSeeder(seed, poolSize, Locale.US).generateInto(maxEmployees, store);
+                    } else {
+                        store.addAll(fakerEmployees(faker, maxEmployees));
+                    }
+                    persistence.ifPresent(rosterPersistence -> rosterPersistence.open(store));
+                },
+                deferred);
+        return store;
+    }
+
+    private List<MockEmployee> fakerEmployees(Faker faker, int maxEmployees) {
         final var transformer = new JavaObjectTransformer();
         final var schema = Schema.of(
                 Field.field("id", UUID::randomUUID),
@@ -52,8 +144,55 @@ public class ServerConfiguration implements WebMvcConfigurer {
                 .collect(Collectors.toCollection(ArrayList::new));
     }
 
+    /*
+     * Smile (binary JSON) for clients that send or accept application/x-jackson-smile, with the same Jackson settings
+     * as JSON. Field names repeated across a roster, such as the employee_ prefixed ones, are written once and then
+     * back-referenced, and numbers are not written as text.
+     */
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(
+                builder.factory(new SmileFactory()).build());
+    }
+
+    /*
+     * Tomcat lets one HTTP/2 connection run only 20 streams at a time (100 open). A multiplexing client can send all of
+     * its concurrent calls over one connection, so allow as many as the request thread pool can serve.
+     */
+    @Bean
+    public static WebServerFactoryCustomizer<TomcatServletWebServerFactory> http2StreamLimits(
+            @Value("${mock.http2.max-concurrent-streams:200}") int maxConcurrentStreams) {
+        return factory -> factory.addConnectorCustomizers(connector -> {
+            for (UpgradeProtocol protocol : connector.findUpgradeProtocols()) {
+                if (protocol instanceof Http2Protocol http2) {
+                    http2.setMaxConcurrentStreams(maxConcurrentStreams);
+                    http2.setMaxConcurrentStreamExecution(maxConcurrentStreams);
+                }
+            }
+        });
+    }
+
+    /*
+     * Faults apply to the employee API only, so the admin endpoint stays reachable while a profile is active.
+     */
+    @Bean
+    public FilterRegistrationBean<FaultInjectionFilter> faultInjectionFilter(
+            FaultInjector faultInjector, ObjectMapper objectMapper) {
+        final var registration = new FilterRegistrationBean<>(new FaultInjectionFilter(faultInjector, objectMapper));
+        registration.addUrlPatterns("/api/*");
+        return registration;
+    }
+
+    /*
+     * Benchmarks that need a predictable upstream can turn the random limiter off and inject 429s through a fault
+     * profile instead.
+     */
     @Override
     public void addInterceptors(InterceptorRegistry registry) {
-        registry.addInterceptor(new RandomRequestLimitInterceptor());
+        registry.addInterceptor(new RosterReadyInterceptor(rosterSeeding(), seedingMaxWait))
+                .addPathPatterns("/api/**");
+        if (rateLimitEnabled) {
+            registry.addInterceptor(new RandomRequestLimitInterceptor()).addPathPatterns("/api/**");
+        }
     }
 }
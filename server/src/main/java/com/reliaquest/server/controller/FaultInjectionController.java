@@ -0,0 +1,57 @@
+package com.reliaquest.server.controller;
+
+import com.reliaquest.server.model.FaultProfile;
+import com.reliaquest.server.model.Response;
+import com.reliaquest.server.service.FaultInjector;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/admin/faults")
+@RequiredArgsConstructor
+public class FaultInjectionController {
+
+    private final FaultInjector faultInjector;
+
+    @GetMapping()
+    public Response<FaultInjector.Active> getActiveProfile() {
+        return Response.handledWith(faultInjector.active());
+    }
+
+    /*
+     * An invalid profile is rejected and leaves the active one in place.
+     */
+    @PutMapping()
+    public ResponseEntity<Response<FaultInjector.Active>> activateProfile(
+            @RequestBody FaultProfile profile, @RequestParam(name = "seed", required = false) Long seed) {
+        final var violations = profile.violations();
+        if (!violations.isEmpty()) {
+            return ResponseEntity.badRequest().body(Response.error(String.join(" ", violations)));
+        }
+        return ResponseEntity.ok(Response.handledWith(faultInjector.activate("custom", profile, seed)));
+    }
+
+    @PutMapping("/{name}")
+    public ResponseEntity<Response<FaultInjector.Active>> activatePreset(
+            @PathVariable("name") String name, @RequestParam(name = "seed", required = false) Long seed) {
+        return faultInjector
+                .preset(name)
+                .map(profile -> ResponseEntity.ok(Response.handledWith(faultInjector.activate(name, profile, seed))))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(Response.error("Unknown fault profile: " + name)));
+    }
+
+    @DeleteMapping()
+    public Response<FaultInjector.Active> resetProfile() {
+        return Response.handledWith(faultInjector.reset());
+    }
+}
@@ -1,15 +1,22 @@
 package com.reliaquest.server.controller;
 
+import com.reliaquest.server.model.BatchCreateMockEmployeeInput;
+import com.reliaquest.server.model.BatchDeleteMockEmployeeInput;
+import com.reliaquest.server.model.BatchLookupInput;
 import com.reliaquest.server.model.CreateMockEmployeeInput;
 import com.reliaquest.server.model.DeleteMockEmployeeInput;
 import com.reliaquest.server.model.MockEmployee;
 import com.reliaquest.server.model.Response;
+import com.reliaquest.server.model.RosterChangeSet;
 import com.reliaquest.server.service.MockEmployeeService;
+import com.reliaquest.server.service.RosterChangeFeed;
+import com.reliaquest.server.web.MockEmployeeStreamWriter;
 import jakarta.validation.Valid;
 import java.util.List;
 import java.util.UUID;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -17,18 +24,55 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequestMapping("/api/v1/employee")
 @RequiredArgsConstructor
 public class MockEmployeeController {
 
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
     private final MockEmployeeService mockEmployeeService;
 
+    private final MockEmployeeStreamWriter streamWriter;
+
     @GetMapping()
-    public Response<List<MockEmployee>> getEmployees() {
-        return Response.handledWith(mockEmployeeService.getMockEmployees());
+    public ResponseEntity<Response<List<MockEmployee>>> getEmployees() {
+        final var snapshot = mockEmployeeService.snapshot();
+        return versioned(snapshot)
+                .body(Response.handledWith(snapshot.employees().toList()));
+    }
+
+    /*
+     * Opt-in streaming variant of getEmployees: ?stream=ndjson writes one employee per line, ?stream=json writes the
+     * usual envelope with a streamed data array. Both read from a point-in-time snapshot of the store. Any other
+     * format is a 400 rather than a silent fallback to JSON.
+     */
+    @GetMapping(params = "stream")
+    public ResponseEntity<?> streamEmployees(@RequestParam("stream") String format) {
+        if (!"ndjson".equalsIgnoreCase(format) && !"json".equalsIgnoreCase(format)) {
+            return ResponseEntity.badRequest()
+                    .body(Response.error("Unsupported stream format: " + format + "; use ndjson or json"));
+        }
+        final var snapshot = mockEmployeeService.snapshot();
+        final StreamingResponseBody body;
+        if ("ndjson".equalsIgnoreCase(format)) {
+            body = out -> streamWriter.writeNdjson(snapshot.employees(), out);
+            return versioned(snapshot).contentType(NDJSON).body(body);
+        }
+        body = out -> streamWriter.writeJsonArray(snapshot.employees(), out);
+        return versioned(snapshot).contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    /*
+     * Inserts and deletes after the given roster version; see RosterChangeFeed.
+     */
+    @GetMapping("/changes")
+    public Response<RosterChangeSet> getChanges(@RequestParam(name = "since", defaultValue = "0") long since) {
+        return Response.handledWith(mockEmployeeService.changesSince(since));
     }
 
     @GetMapping("/{id}")
@@ -48,4 +92,29 @@ public class MockEmployeeController {
     public Response<Boolean> deleteEmployee(@Valid @RequestBody DeleteMockEmployeeInput input) {
         return Response.handledWith(mockEmployeeService.delete(input));
     }
+
+    /*
+     * Batch variants of the lookup, create and delete endpoints. Each is applied against the store in one pass and
+     * costs one request against the rate limit.
+     */
+    @PostMapping("/batch/lookup")
+    public Response<List<MockEmployee>> getEmployees(@Valid @RequestBody BatchLookupInput input) {
+        return Response.handledWith(mockEmployeeService.findAllById(input.getIds()));
+    }
+
+    @PostMapping("/batch")
+    public Response<List<MockEmployee>> createEmployees(@Valid @RequestBody BatchCreateMockEmployeeInput input) {
+        return Response.handledWith(mockEmployeeService.createAll(input.getEmployees()));
+    }
+
+    @DeleteMapping("/batch")
+    public Response<List<MockEmployee>> deleteEmployees(@Valid @RequestBody BatchDeleteMockEmployeeInput input) {
+        return Response.handledWith(mockEmployeeService.deleteAll(input));
+    }
+
+    private static ResponseEntity.BodyBuilder versioned(MockEmployeeService.VersionedSnapshot snapshot) {
+        return ResponseEntity.ok()
+                .header(RosterChangeFeed.EPOCH_HEADER, snapshot.epoch())
+                .header(RosterChangeFeed.VERSION_HEADER, Long.toString(snapshot.version()));
+    }
 }
@@ -3,6 +3,7 @@ package com.reliaquest.server.controller;
 import com.reliaquest.server.model.Response;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 
@@ -10,6 +11,15 @@ import org.springframework.web.bind.annotation.ExceptionHandler;
 @ControllerAdvice
 public class MockEmployeeControllerAdvice {
 
+    /*
+     * A request body that fails its constraints, e.g. an empty or oversized batch, is the client's fault.
+     */
+    @ExceptionHandler
+    protected ResponseEntity<?> handleInvalidInput(MethodArgumentNotValidException ex) {
+        log.debug("Rejected invalid request: {}", ex.getMessage());
+        return ResponseEntity.badRequest().body(Response.error(ex.getMessage()));
+    }
+
     @ExceptionHandler
     protected ResponseEntity<?> handleException(Throwable ex) {
         log.error("Error handling web request.", ex);
@@ -0,0 +1,24 @@
+package com.reliaquest.server.model;
+
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+import java.util.UUID;
+import lombok.Data;
+
+@Data
+public class BatchDeleteMockEmployeeInput {
+
+    @NotNull @Size(max = BatchCreateMockEmployeeInput.MAX_SIZE)
+    private List<@NotBlank String> names = List.of();
+
+    @NotNull @Size(max = BatchCreateMockEmployeeInput.MAX_SIZE)
+    private List<@NotNull UUID> ids = List.of();
+
+    @AssertTrue(message = "names or ids must not be empty")
+    public boolean isNotEmpty() {
+        return (names != null && !names.isEmpty()) || (ids != null && !ids.isEmpty());
+    }
+}
@@ -0,0 +1,93 @@
+package com.reliaquest.server.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Describes how the mock API misbehaves: added latency, injected error responses, slowly trickled bodies and
+ * connection resets. Percentages are of all employee API requests, each in the range 0-100 and together at most 100,
+ * and injected errors are 4xx or 5xx statuses.
+ *
+ * @param latency distribution of delay added before the request is handled
+ * @param errorPercentages HTTP status code to percentage of requests answered with it
+ * @param resetPercentage percentage of requests whose connection is cut off mid-response
+ * @param trickle optional slow-body behaviour applied to successful responses
+ */
+public record FaultProfile(
+        Latency latency, Map<Integer, Double> errorPercentages, double resetPercentage, Trickle trickle) {
+
+    public static final FaultProfile NONE = new FaultProfile(Latency.NONE, Map.of(), 0, null);
+
+    public FaultProfile {
+        latency = latency == null ? Latency.NONE : latency;
+        errorPercentages = errorPercentages == null ? Map.of() : new TreeMap<>(errorPercentages);
+    }
+
+    /**
+     * What makes this profile unusable, if anything; an empty list for a valid profile.
+     */
+    public List<String> violations() {
+        final var violations = new ArrayList<String>();
+        double total = 0;
+        for (var errorPercentage : errorPercentages.entrySet()) {
+            final int status = errorPercentage.getKey();
+            if (status < 400 || status > 599) {
+                violations.add("Error status " + status + " is not between 400 and 599.");
+            }
+            total += percentage("Error percentage for " + status, errorPercentage.getValue(), violations);
+        }
+        total += percentage("Reset percentage", resetPercentage, violations);
+        if (total > 100) {
+            violations.add("Error and reset percentages add up to " + total + ", more than 100.");
+        }
+        if (trickle != null && trickle.delayMillis() < 0) {
+            violations.add("Trickle delay is " + trickle.delayMillis() + ", less than 0.");
+        }
+        return violations;
+    }
+
+    private static double percentage(String name, Double value, List<String> violations) {
+        if (value == null || !(value >= 0 && value <= 100)) {
+            violations.add(name + " is " + value + ", not between 0 and 100.");
+            return 0;
+        }
+        return value;
+    }
+
+    public enum Distribution {
+        NONE,
+        /** Always {@code fixedMillis}. */
+        FIXED,
+        /** Gaussian around {@code meanMillis} with {@code stddevMillis}, clipped at zero. */
+        NORMAL,
+        /** Log-normal with median {@code medianMillis} and shape {@code sigma}; sigma near 1 gives a heavy tail. */
+        LONG_TAIL
+    }
+
+    /**
+     * @param maxMillis upper bound applied to every sampled delay; 0 means unbounded
+     */
+    public record Latency(
+            Distribution distribution,
+            long fixedMillis,
+            double meanMillis,
+            double stddevMillis,
+            double medianMillis,
+            double sigma,
+            long maxMillis) {
+
+        public static final Latency NONE = new Latency(Distribution.NONE, 0, 0, 0, 0, 0, 0);
+
+        public Latency {
+            distribution = distribution == null ? Distribution.NONE : distribution;
+        }
+    }
+
+    /**
+     * @param chunkBytes response bytes written per chunk
+     * @param delayMillis pause after each chunk
+     */
+    public record Trickle(int chunkBytes, long delayMillis) {}
+}
@@ -0,0 +1,12 @@
+package com.reliaquest.server.model;
+
+/**
+ * One roster mutation, numbered by the roster version it produced.
+ */
+public record RosterChange(long version, Type type, MockEmployee employee) {
+
+    public enum Type {
+        INSERT,
+        DELETE
+    }
+}
@@ -0,0 +1,11 @@
+package com.reliaquest.server.model;
+
+import java.util.List;
+
+/**
+ * Changes after a client's version, up to {@code version}.
+ *
+ * @param epoch identifies this server instance's version sequence; versions from another epoch are not comparable
+ * @param truncated {@code true} when the requested history is no longer retained and the client must reload the roster
+ */
+public record RosterChangeSet(String epoch, long version, boolean truncated, List<RosterChange> changes) {}
@@ -0,0 +1,19 @@
+package com.reliaquest.server.persistence;
+
+/**
+ * When the write-ahead log forces appended records to stable storage.
+ */
+public enum FsyncPolicy {
+    /**
+     * Every group commit is fsynced before the writers waiting on it are released.
+     */
+    ALWAYS,
+    /**
+     * Writers are released once their group is written; the log is fsynced at most once per sync interval.
+     */
+    INTERVAL,
+    /**
+     * Writers are released once their group is written; flushing is left to the operating system.
+     */
+    NEVER
+}
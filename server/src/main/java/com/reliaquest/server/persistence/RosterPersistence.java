@@ -0,0 +1,298 @@
+package com.reliaquest.server.persistence;
+
+import com.reliaquest.server.model.MockEmployee;
+import com.reliaquest.server.store.MockEmployeeStore;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Durable roster: a compacted snapshot plus a {@link WriteAheadLog} of the mutations made since.
+ *
+ * <p>Snapshot {@code N} holds the roster as of the start of WAL segment {@code N}; recovery loads the latest snapshot
+ * and replays segments {@code N} and later. Each periodic snapshot rotates the log first, so once it is written every
+ * older segment and snapshot can be deleted.
+ *
+ * <p>Callers must mutate the store and {@link #log(WalRecord)} the mutation while holding the store's monitor, so
+ * that log order matches roster order and snapshots see a consistent roster.
+ */
+@Slf4j
+public class RosterPersistence implements Closeable {
+
+    private static final Pattern SEGMENT_FILE = Pattern.compile("wal-(\\d{20})\\.log");
+    private static final Pattern SNAPSHOT_FILE = Pattern.compile("snapshot-(\\d{20})\\.bin");
+    private static final String SNAPSHOT_TEMPLATE = "snapshot-%020d.bin";
+    private static final int SNAPSHOT_MAGIC = 0x52514D53;
+
+    private final Path directory;
+    private final FsyncPolicy fsyncPolicy;
+    private final Duration syncInterval;
+    private final Duration snapshotInterval;
+    private final int maxBatchSize;
+    private final AtomicLong appendedSinceSnapshot = new AtomicLong();
+
+    private long nextSegment;
+    private MockEmployeeStore store;
+    private WriteAheadLog wal;
+    private ScheduledExecutorService snapshotScheduler;
+
+    public RosterPersistence(
+            @NonNull Path directory,
+            @NonNull FsyncPolicy fsyncPolicy,
+            @NonNull Duration syncInterval,
+            @NonNull Duration snapshotInterval,
+            int maxBatchSize) {
+        this.directory = directory;
+        this.fsyncPolicy = fsyncPolicy;
+        this.syncInterval = syncInterval;
+        this.snapshotInterval = snapshotInterval;
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    /**
+     * Rebuilds the roster from the latest snapshot and the log tail, or returns empty when there is nothing to recover.
+     */
+    public Optional<List<MockEmployee>> recover() {
+        try {
+            Files.createDirectories(directory);
+            final var snapshot = latest(SNAPSHOT_FILE);
+            if (snapshot.isEmpty()) {
+                return Optional.empty();
+            }
+
+            final long start = System.nanoTime();
+            final var employees = readSnapshot(snapshot.getAsLong());
+            final var segments = numbers(SEGMENT_FILE)
+                    .filter(segment -> segment >= snapshot.getAsLong())
+                    .sorted()
+                    .toArray();
+            long replayed = 0;
+            for (int i = 0; i < segments.length; i++) {
+                replayed += replay(segments[i], employees, i == segments.length - 1);
+            }
+            nextSegment = Math.max(snapshot.getAsLong(), latest(SEGMENT_FILE).orElse(0)) + 1;
+
+            log.info(
+                    "Recovered {} employees from snapshot {} and {} log records in {} ms.",
+                    employees.size(),
+                    snapshot.getAsLong(),
+                    replayed,
+                    (System.nanoTime() - start) / 1_000_000);
+            return Optional.of(new ArrayList<>(employees.values()));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to recover roster from " + directory, e);
+        }
+    }
+
+    /**
+     * Starts logging against {@code store}. A roster that was not recovered is written as the initial snapshot first.
+     */
+    public void open(@NonNull MockEmployeeStore store) {
+        this.store = store;
+        try {
+            if (nextSegment == 0) {
+                deleteObsolete(Long.MAX_VALUE);
+                nextSegment = 1;
+                writeSnapshot(nextSegment, store.snapshot());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to write initial snapshot to " + directory, e);
+        }
+        wal = new WriteAheadLog(directory, nextSegment, fsyncPolicy, syncInterval, maxBatchSize);
+
+        snapshotScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final var thread = new Thread(runnable, "roster-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+        snapshotScheduler.scheduleWithFixedDelay(
+                this::snapshotQuietly, snapshotInterval.toMillis(), snapshotInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Appends {@code record} to the log. Must be called while holding the store's monitor.
+     */
+    public CompletableFuture<Void> log(@NonNull WalRecord record) {
+        appendedSinceSnapshot.incrementAndGet();
+        return wal.append(record);
+    }
+
+    /**
+     * Writes a compacted snapshot if anything was logged since the previous one, then drops obsolete files.
+     */
+    public void snapshot() throws IOException {
+        if (appendedSinceSnapshot.get() == 0) {
+            return;
+        }
+        final MockEmployeeStore.Snapshot copy;
+        final CompletableFuture<Long> rotated;
+        synchronized (store) {
+            copy = store.snapshot();
+            rotated = wal.rotate();
+            appendedSinceSnapshot.set(0);
+        }
+        final long segment = rotated.join();
+        final long start = System.nanoTime();
+        writeSnapshot(segment, copy);
+        deleteObsolete(segment);
+        log.info(
+                "Wrote snapshot {} with {} employees in {} ms.",
+                segment,
+                copy.size(),
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (snapshotScheduler != null) {
+            snapshotScheduler.shutdown();
+        }
+        if (wal != null) {
+            wal.close();
+        }
+    }
+
+    private void snapshotQuietly() {
+        try {
+            snapshot();
+        } catch (IOException | RuntimeException e) {
+            log.error("Periodic roster snapshot failed.", e);
+        }
+    }
+
+    private void writeSnapshot(long segment, MockEmployeeStore.Snapshot employees) throws IOException {
+        final var target = directory.resolve(SNAPSHOT_TEMPLATE.formatted(segment));
+        final var temporary = directory.resolve(target.getFileName() + ".tmp");
+        try (var file = new FileOutputStream(temporary.toFile());
+                var out = new DataOutputStream(new BufferedOutputStream(file, 1 << 16))) {
+            final var scratch = new ByteArrayOutputStream(256);
+            out.writeInt(SNAPSHOT_MAGIC);
+            out.writeInt(employees.size());
+            for (var employee : employees) {
+                WalRecord.create(employee).writeFrame(out, scratch);
+            }
+            out.flush();
+            file.getChannel().force(true);
+        }
+        Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private Map<UUID, MockEmployee> readSnapshot(long segment) throws IOException {
+        final var path = directory.resolve(SNAPSHOT_TEMPLATE.formatted(segment));
+        try (var in = new WalRecord.FrameInput(path)) {
+            if (in.readInt() != SNAPSHOT_MAGIC) {
+                throw new IOException("Not a roster snapshot: " + path);
+            }
+            final int count = in.readInt();
+            if (count < 0 || count > in.remaining() / WalRecord.FRAME_HEADER) {
+                throw new IOException("Snapshot employee count " + count + " out of range: " + path);
+            }
+            final var employees = new LinkedHashMap<UUID, MockEmployee>(count * 4 / 3 + 1);
+            for (int i = 0; i < count; i++) {
+                final var record = WalRecord.readFrame(in);
+                if (record == null) {
+                    throw new EOFException("Snapshot ends after " + i + " of " + count + " employees: " + path);
+                }
+                employees.put(record.employee().getId(), record.employee());
+            }
+            return employees;
+        }
+    }
+
+    private long replay(long segment, Map<UUID, MockEmployee> employees, boolean last) throws IOException {
+        final var path = WriteAheadLog.segmentPath(directory, segment);
+        final long size = Files.size(path);
+        long replayed = 0;
+        long intact = 0;
+        try (var in = new WalRecord.FrameInput(path)) {
+            WalRecord record;
+            while ((record = WalRecord.readFrame(in)) != null) {
+                if (record.type() == WalRecord.Type.CREATE) {
+                    employees.put(record.employee().getId(), record.employee());
+                } else {
+                    employees.remove(record.employee().getId());
+                }
+                replayed++;
+                intact = size - in.remaining();
+            }
+            if (intact != size) {
+                throw new EOFException("Truncated record header.");
+            }
+        } catch (IOException e) {
+            // Only the segment that was active during a crash can end in a torn record. A bad frame in any earlier
+            // segment means records were lost, and replaying later segments on top of the gap would corrupt the roster.
+            if (!last) {
+                throw new IOException("Corrupt record in segment " + segment + " after " + replayed + " records.", e);
+            }
+            log.warn("Stopped replaying segment {} after {} records: {}", segment, replayed, e.getMessage());
+            // Cut the torn tail off so this segment stays readable once newer segments follow it.
+            try (var channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+                channel.truncate(intact);
+                channel.force(true);
+            }
+        }
+        return replayed;
+    }
+
+    private void deleteObsolete(long beforeSegment) throws IOException {
+        final var obsolete = new ArrayList<Path>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.forEach(file -> {
+                final var name = file.getFileName().toString();
+                final var segment = SEGMENT_FILE.matcher(name);
+                final var snapshot = SNAPSHOT_FILE.matcher(name);
+                if ((segment.matches() && Long.parseLong(segment.group(1)) < beforeSegment)
+                        || (snapshot.matches() && Long.parseLong(snapshot.group(1)) < beforeSegment)) {
+                    obsolete.add(file);
+                }
+            });
+        }
+        for (var file : obsolete) {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private OptionalLong latest(Pattern pattern) throws IOException {
+        return numbers(pattern).max();
+    }
+
+    private LongStream numbers(Pattern pattern) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            final var numbers = files.map(
+                            file -> pattern.matcher(file.getFileName().toString()))
+                    .filter(Matcher::matches)
+                    .mapToLong(matcher -> Long.parseLong(matcher.group(1)))
+                    .toArray();
+            return LongStream.of(numbers);
+        }
+    }
+}
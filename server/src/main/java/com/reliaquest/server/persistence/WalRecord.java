@@ -0,0 +1,192 @@
+package com.reliaquest.server.persistence;
+
+import com.reliaquest.server.model.MockEmployee;
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.UUID;
+import java.util.zip.CRC32;
+import lombok.NonNull;
+
+/**
+ * A single roster mutation as stored in the write-ahead log and in snapshots.
+ *
+ * <p>Frames are {@code [int length][int crc32][payload]} so a torn write at the tail of a segment is detected on
+ * recovery. Deletes are logged by id so replay does not depend on name matching.
+ */
+public record WalRecord(@NonNull Type type, @NonNull MockEmployee employee) {
+
+    /** The length and checksum ahead of each payload. */
+    static final int FRAME_HEADER = 8;
+
+    // A type and an id.
+    private static final int MIN_PAYLOAD = 17;
+
+    public enum Type {
+        CREATE,
+        DELETE
+    }
+
+    private static final Type[] TYPES = Type.values();
+
+    public static WalRecord create(MockEmployee employee) {
+        return new WalRecord(Type.CREATE, employee);
+    }
+
+    public static WalRecord delete(MockEmployee employee) {
+        return new WalRecord(Type.DELETE, employee);
+    }
+
+    /**
+     * Appends this record as one frame to {@code out}; {@code scratch} is reused between calls to avoid per-record
+     * buffers.
+     */
+    void writeFrame(DataOutputStream out, ByteArrayOutputStream scratch) throws IOException {
+        scratch.reset();
+        final var payload = new DataOutputStream(scratch);
+        payload.writeByte(type.ordinal());
+        payload.writeLong(employee.getId().getMostSignificantBits());
+        payload.writeLong(employee.getId().getLeastSignificantBits());
+        if (type == Type.CREATE) {
+            writeString(payload, employee.getName());
+            payload.writeInt(employee.getSalary());
+            payload.writeInt(employee.getAge());
+            writeString(payload, employee.getTitle());
+            writeString(payload, employee.getEmail());
+        }
+        payload.flush();
+
+        final var crc = new CRC32();
+        crc.update(scratch.toByteArray(), 0, scratch.size());
+        out.writeInt(scratch.size());
+        out.writeInt((int) crc.getValue());
+        scratch.writeTo(out);
+    }
+
+    /**
+     * Reads the next frame, returning {@code null} at a clean end of stream.
+     *
+     * @throws IOException if the frame is truncated, runs past the end of the file, is corrupt or fails its checksum
+     */
+    static WalRecord readFrame(FrameInput in) throws IOException {
+        final long remaining = in.remaining();
+        final int length;
+        try {
+            length = in.readInt();
+        } catch (EOFException endOfLog) {
+            return null;
+        }
+        if (length < MIN_PAYLOAD || length > remaining - FRAME_HEADER) {
+            throw new IOException("Record length " + length + " out of range.");
+        }
+        final int checksum = in.readInt();
+        final var payload = in.readNBytes(length);
+        if (payload.length != length) {
+            throw new EOFException("Truncated record.");
+        }
+        final var crc = new CRC32();
+        crc.update(payload);
+        if ((int) crc.getValue() != checksum) {
+            throw new IOException("Record checksum mismatch.");
+        }
+
+        final var data = new DataInputStream(new ByteArrayInputStream(payload));
+        final int ordinal = data.readByte();
+        if (ordinal < 0 || ordinal >= TYPES.length) {
+            throw new IOException("Unknown record type " + ordinal + ".");
+        }
+        final var type = TYPES[ordinal];
+        final var id = new UUID(data.readLong(), data.readLong());
+        if (type == Type.DELETE) {
+            return new WalRecord(type, MockEmployee.builder().id(id).build());
+        }
+        return new WalRecord(
+                type,
+                new MockEmployee(
+                        id, readString(data), data.readInt(), data.readInt(), readString(data), readString(data)));
+    }
+
+    private static void writeString(DataOutput out, String value) throws IOException {
+        final var bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * A file of frames that knows how much of it is left, so that a corrupt length is caught before it is read.
+     */
+    static final class FrameInput extends DataInputStream {
+
+        private final CountingInputStream counting;
+
+        FrameInput(Path path) throws IOException {
+            this(new CountingInputStream(
+                    new BufferedInputStream(Files.newInputStream(path), 1 << 16), Files.size(path)));
+        }
+
+        private FrameInput(CountingInputStream counting) {
+            super(counting);
+            this.counting = counting;
+        }
+
+        long remaining() {
+            return counting.remaining;
+        }
+    }
+
+    private static final class CountingInputStream extends FilterInputStream {
+
+        private long remaining;
+
+        private CountingInputStream(InputStream in, long size) {
+            super(in);
+            this.remaining = size;
+        }
+
+        @Override
+        public int read() throws IOException {
+            final int b = super.read();
+            if (b >= 0) {
+                remaining--;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            final int read = super.read(b, off, len);
+            if (read > 0) {
+                remaining -= read;
+            }
+            return read;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            final long skipped = super.skip(n);
+            remaining -= skipped;
+            return skipped;
+        }
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        final int length = in.readInt();
+        // The payload is in memory, so available() is exactly what is left of it.
+        if (length < 0 || length > in.available()) {
+            throw new IOException("String length " + length + " out of range.");
+        }
+        final var bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
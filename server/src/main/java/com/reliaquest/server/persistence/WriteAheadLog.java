@@ -0,0 +1,218 @@
+package com.reliaquest.server.persistence;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Append-only, segmented log of roster mutations with group commit.
+ *
+ * <p>Appends are queued and a single writer thread drains everything queued so far, writes it with one channel write
+ * and (depending on {@link FsyncPolicy}) one fsync, then completes the futures of that whole group. Concurrent writers
+ * therefore share the cost of a sync instead of paying it one at a time.
+ */
+@Slf4j
+public class WriteAheadLog implements Closeable {
+
+    private static final String SEGMENT_TEMPLATE = "wal-%020d.log";
+    private static final Command STOP = new Command(null, null);
+
+    private final Path directory;
+    private final FsyncPolicy fsyncPolicy;
+    private final long syncIntervalNanos;
+    private final int maxBatchSize;
+
+    private final BlockingQueue<Command> queue = new LinkedBlockingQueue<>();
+    private final Thread writer;
+    // Guarded by the queue's monitor, so that no command is queued after STOP.
+    private volatile boolean running = true;
+
+    // Owned by the writer thread after construction.
+    private FileChannel channel;
+    private long segment;
+    private long lastSyncNanos = System.nanoTime();
+    private boolean dirty;
+
+    public WriteAheadLog(
+            Path directory, long segment, FsyncPolicy fsyncPolicy, Duration syncInterval, int maxBatchSize) {
+        this.directory = directory;
+        this.fsyncPolicy = fsyncPolicy;
+        this.syncIntervalNanos = syncInterval.toNanos();
+        this.maxBatchSize = maxBatchSize;
+        this.segment = segment;
+        this.channel = openSegment(segment);
+        this.writer = new Thread(this::run, "wal-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    public static Path segmentPath(Path directory, long segment) {
+        return directory.resolve(SEGMENT_TEMPLATE.formatted(segment));
+    }
+
+    /**
+     * Queues {@code record}; the future completes once its group is written (and fsynced under
+     * {@link FsyncPolicy#ALWAYS}).
+     */
+    public CompletableFuture<Void> append(WalRecord record) {
+        final var command = new Command(record, new CompletableFuture<>());
+        enqueue(command);
+        return command.done().thenApply(ignored -> null);
+    }
+
+    /**
+     * Closes the current segment after all records queued before this call and starts a new one.
+     *
+     * @return the number of the new segment; every record appended before the call lives in an older segment
+     */
+    public CompletableFuture<Long> rotate() {
+        final var command = new Command(null, new CompletableFuture<>());
+        enqueue(command);
+        return command.done();
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (queue) {
+            if (!running) {
+                return;
+            }
+            running = false;
+            // Wakes the writer without interrupting it; an interrupt would close the channel mid-write.
+            queue.add(STOP);
+        }
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // Anything the writer did not get to, because it was interrupted or this thread was, is never written.
+        final var abandoned = new ArrayList<Command>();
+        queue.drainTo(abandoned);
+        abandoned.stream().filter(command -> command != STOP).forEach(command -> command.done()
+                .completeExceptionally(new IllegalStateException("Write-ahead log closed before the write.")));
+        channel.force(false);
+        channel.close();
+    }
+
+    private void enqueue(Command command) {
+        synchronized (queue) {
+            if (running) {
+                queue.add(command);
+                return;
+            }
+        }
+        command.done().completeExceptionally(new IllegalStateException("Write-ahead log is closed."));
+    }
+
+    private void run() {
+        final var batch = new ArrayList<Command>(maxBatchSize);
+        final var scratch = new ByteArrayOutputStream(256);
+        final var buffer = new ByteArrayOutputStream(64 * 1024);
+        final var out = new DataOutputStream(buffer);
+
+        while (running || !queue.isEmpty()) {
+            try {
+                final var first = queue.poll(Math.max(1, syncIntervalNanos), TimeUnit.NANOSECONDS);
+                if (first == null) {
+                    syncIfDue();
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, maxBatchSize - 1);
+                commit(batch, out, buffer, scratch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (IOException | RuntimeException e) {
+                log.error("Write-ahead log commit failed.", e);
+                batch.stream().filter(command -> command != STOP).forEach(command -> command.done()
+                        .completeExceptionally(e));
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void commit(
+            List<Command> batch, DataOutputStream out, ByteArrayOutputStream buffer, ByteArrayOutputStream scratch)
+            throws IOException {
+        final var written = new ArrayList<Command>(batch.size());
+        buffer.reset();
+        for (var command : batch) {
+            if (command == STOP) {
+                continue;
+            }
+            if (command.record() == null) {
+                flush(buffer, written);
+                channel.force(false);
+                channel.close();
+                channel = openSegment(++segment);
+                command.done().complete(segment);
+            } else {
+                command.record().writeFrame(out, scratch);
+                written.add(command);
+            }
+        }
+        flush(buffer, written);
+    }
+
+    private void flush(ByteArrayOutputStream buffer, List<Command> written) throws IOException {
+        if (buffer.size() == 0) {
+            return;
+        }
+        final var bytes = ByteBuffer.wrap(buffer.toByteArray());
+        while (bytes.hasRemaining()) {
+            channel.write(bytes);
+        }
+        buffer.reset();
+        dirty = true;
+        if (fsyncPolicy == FsyncPolicy.ALWAYS) {
+            sync();
+        } else {
+            syncIfDue();
+        }
+        written.forEach(command -> command.done().complete(segment));
+        written.clear();
+    }
+
+    private void syncIfDue() throws IOException {
+        if (fsyncPolicy == FsyncPolicy.INTERVAL && dirty && System.nanoTime() - lastSyncNanos >= syncIntervalNanos) {
+            sync();
+        }
+    }
+
+    private void sync() throws IOException {
+        channel.force(false);
+        lastSyncNanos = System.nanoTime();
+        dirty = false;
+    }
+
+    private FileChannel openSegment(long number) {
+        try {
+            return FileChannel.open(
+                    segmentPath(directory, number),
+                    StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE,
+                    StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to open write-ahead log segment " + number, e);
+        }
+    }
+
+    private record Command(WalRecord record, CompletableFuture<Long> done) {}
+}
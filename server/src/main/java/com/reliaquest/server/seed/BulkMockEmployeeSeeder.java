@@ -0,0 +1,123 @@
+package com.reliaquest.server.seed;
+
+import com.reliaquest.server.config.ServerConfiguration;
+import com.reliaquest.server.model.MockEmployee;
+import com.reliaquest.server.store.MockEmployeeStore;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.UUID;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+import lombok.extern.slf4j.Slf4j;
+import net.datafaker.Faker;
+
+/**
+ * Generates large, reproducible rosters without calling Faker per field.
+ *
+ * <p>Faker is only used up front to fill small pools of first names, last names, titles and e-mail addresses. Each
+ * row then draws from those pools with a SplitMix64 sequence keyed on {@code seed} and the row index, so rows can be
+ * generated in parallel and the same seed and locale always yield the same roster regardless of thread scheduling or
+ * the host's default locale.
+ */
+@Slf4j
+public class BulkMockEmployeeSeeder {
+
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+    private static final int MAX_POOL_SIZE = 1 << 16;
+    private static final int CHUNK_SIZE = 1 << 16;
+
+    private static final int MIN_SALARY = 30000;
+    private static final int MAX_SALARY = 500000;
+    private static final int MIN_AGE = 16;
+    private static final int MAX_AGE = 70;
+
+    private final long seed;
+    private final String[] firstNames;
+    private final String[] lastNames;
+    private final String[] titles;
+    private final String[] emails;
+
+    public BulkMockEmployeeSeeder(long seed, int poolSize, Locale locale) {
+        this.seed = seed;
+        poolSize = Math.max(1, Math.min(poolSize, MAX_POOL_SIZE));
+        final var faker = new Faker(locale, new Random(seed));
+        this.firstNames = pool(poolSize, () -> faker.name().firstName());
+        this.lastNames = pool(poolSize, () -> faker.name().lastName());
+        this.titles = pool(poolSize, () -> faker.job().title());
+        this.emails = pool(
+                poolSize,
+                () -> ServerConfiguration.EMAIL_TEMPLATE.formatted(
+                        faker.twitter().userName().toLowerCase(Locale.ROOT)));
+    }
+
+    public List<MockEmployee> generate(int count) {
+        final long start = System.nanoTime();
+        final var rows = new MockEmployee[count];
+        IntStream.range(0, count).parallel().forEach(index -> rows[index] = row(index));
+        log.info(
+                "Seeded {} employees in {} ms (seed={}, pool={}).",
+                count,
+                (System.nanoTime() - start) / 1_000_000,
+                seed,
+                firstNames.length);
+        return new ArrayList<>(Arrays.asList(rows));
+    }
+
+    /**
+     * Generates {@code count} employees straight into {@code store}, a chunk at a time, so a compact store never sees
+     * more than one chunk of materialised objects.
+     */
+    public void generateInto(int count, MockEmployeeStore store) {
+        final long start = System.nanoTime();
+        final var chunk = new MockEmployee[Math.min(count, CHUNK_SIZE)];
+        for (int offset = 0; offset < count; offset += chunk.length) {
+            final int base = offset;
+            final int length = Math.min(chunk.length, count - offset);
+            IntStream.range(0, length).parallel().forEach(index -> chunk[index] = row(base + index));
+            store.addAll(Arrays.asList(chunk).subList(0, length));
+        }
+        log.info(
+                "Seeded {} employees in {} ms (seed={}, pool={}).",
+                count,
+                (System.nanoTime() - start) / 1_000_000,
+                seed,
+                firstNames.length);
+    }
+
+    MockEmployee row(int index) {
+        long state = seed + (index + 1L) * GOLDEN_GAMMA;
+        final long mostSigBits = (mix64(state) & ~0xF000L) | 0x4000L;
+        final long leastSigBits = (mix64(state += GOLDEN_GAMMA) & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        final long picks = mix64(state += GOLDEN_GAMMA);
+        final long ranges = mix64(state + GOLDEN_GAMMA);
+
+        return new MockEmployee(
+                new UUID(mostSigBits, leastSigBits),
+                pick(firstNames, picks) + " " + pick(lastNames, picks >>> 16),
+                MIN_SALARY + (int) Long.remainderUnsigned(ranges, MAX_SALARY - MIN_SALARY),
+                MIN_AGE + (int) Long.remainderUnsigned(ranges >>> 32, MAX_AGE - MIN_AGE),
+                pick(titles, picks >>> 32),
+                pick(emails, picks >>> 48));
+    }
+
+    private static String pick(String[] pool, long bits) {
+        return pool[(int) ((bits & 0xFFFFL) % pool.length)];
+    }
+
+    private static String[] pool(int size, Supplier<String> supplier) {
+        final var pool = new String[size];
+        for (int i = 0; i < size; i++) {
+            pool[i] = supplier.get();
+        }
+        return pool;
+    }
+
+    private static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
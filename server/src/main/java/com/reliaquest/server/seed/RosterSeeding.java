@@ -0,0 +1,65 @@
+package com.reliaquest.server.seed;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Loads the initial roster, either before the context finishes starting or, when deferred, on a background thread so
+ * the server starts listening straight away and requests wait for the roster instead.
+ */
+@Slf4j
+public class RosterSeeding {
+
+    private final CompletableFuture<Void> ready = new CompletableFuture<>();
+
+    /**
+     * Runs {@code populate} now or, when {@code deferred}, on a daemon thread.
+     */
+    public void start(Runnable populate, boolean deferred) {
+        if (!deferred) {
+            populate.run();
+            ready.complete(null);
+            return;
+        }
+        final var thread = new Thread(
+                () -> {
+                    final long start = System.nanoTime();
+                    try {
+                        populate.run();
+                        ready.complete(null);
+                        log.info("Loaded roster in the background in {} ms.", (System.nanoTime() - start) / 1_000_000);
+                    } catch (RuntimeException | Error e) {
+                        log.error("Failed to load the roster.", e);
+                        ready.completeExceptionally(e);
+                    }
+                },
+                "roster-seeding");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public boolean isReady() {
+        return ready.isDone() && !ready.isCompletedExceptionally();
+    }
+
+    /**
+     * Waits up to {@code timeout} for the roster.
+     *
+     * @return whether it is loaded
+     * @throws IllegalStateException if loading it failed
+     */
+    public boolean await(Duration timeout) throws InterruptedException {
+        try {
+            ready.get(timeout.toNanos(), TimeUnit.NANOSECONDS);
+            return true;
+        } catch (TimeoutException e) {
+            return false;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Roster could not be loaded", e.getCause());
+        }
+    }
+}
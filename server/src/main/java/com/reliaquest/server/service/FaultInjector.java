@@ -0,0 +1,107 @@
+package com.reliaquest.server.service;
+
+import com.reliaquest.server.config.FaultInjectionProperties;
+import com.reliaquest.server.model.FaultProfile;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+/**
+ * Holds the active {@link FaultProfile} and decides, per request, which faults to inject.
+ *
+ * <p>The n-th request after a profile is activated draws from a generator seeded with {@code seed} and {@code n}, so
+ * the same profile, seed and request sequence always produce the same delays and failures.
+ */
+@Slf4j
+@Service
+public class FaultInjector {
+
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+    private static final String NONE = "none";
+
+    private final FaultInjectionProperties properties;
+    private final AtomicReference<State> state = new AtomicReference<>();
+
+    public FaultInjector(FaultInjectionProperties properties) {
+        this.properties = properties;
+        final var initial = Optional.ofNullable(properties.active()).flatMap(this::preset);
+        activate(
+                initial.isPresent() ? properties.active() : NONE, initial.orElse(FaultProfile.NONE), properties.seed());
+    }
+
+    public Active active() {
+        return state.get().active();
+    }
+
+    public Optional<FaultProfile> preset(@NonNull String name) {
+        return Optional.ofNullable(properties.profiles().get(name));
+    }
+
+    /**
+     * Replaces the active profile and restarts its deterministic request sequence.
+     */
+    public Active activate(@NonNull String name, @NonNull FaultProfile profile, Long seed) {
+        final var active = new Active(name, seed == null ? properties.seed() : seed, profile);
+        state.set(new State(active, new AtomicLong()));
+        log.info("Activated fault profile '{}' with seed {}: {}", name, active.seed(), profile);
+        return active;
+    }
+
+    public Active reset() {
+        return activate(NONE, FaultProfile.NONE, null);
+    }
+
+    public Decision decide() {
+        final var current = state.get();
+        final var profile = current.active().profile();
+        if (profile == FaultProfile.NONE) {
+            return Decision.NONE;
+        }
+        final long sequence = current.sequence().getAndIncrement();
+        final var random = new SplittableRandom(current.active().seed() + sequence * GOLDEN_GAMMA);
+
+        final long delayMillis = sampleLatency(profile.latency(), random);
+        final double roll = random.nextDouble() * 100;
+        if (roll < profile.resetPercentage()) {
+            return new Decision(delayMillis, null, true, null);
+        }
+        double cumulative = profile.resetPercentage();
+        for (var errorPercentage : profile.errorPercentages().entrySet()) {
+            cumulative += errorPercentage.getValue();
+            if (roll < cumulative) {
+                return new Decision(delayMillis, errorPercentage.getKey(), false, null);
+            }
+        }
+        return new Decision(delayMillis, null, false, profile.trickle());
+    }
+
+    private static long sampleLatency(FaultProfile.Latency latency, SplittableRandom random) {
+        final double millis =
+                switch (latency.distribution()) {
+                    case NONE -> 0;
+                    case FIXED -> latency.fixedMillis();
+                    case NORMAL -> latency.meanMillis() + latency.stddevMillis() * random.nextGaussian();
+                    case LONG_TAIL -> latency.medianMillis() * Math.exp(latency.sigma() * random.nextGaussian());
+                };
+        final long bounded = Math.max(0, Math.round(millis));
+        return latency.maxMillis() > 0 ? Math.min(bounded, latency.maxMillis()) : bounded;
+    }
+
+    public record Active(String name, long seed, FaultProfile profile) {}
+
+    /**
+     * @param errorStatus status to answer with instead of handling the request, or {@code null}
+     * @param reset whether to cut the connection off mid-response
+     * @param trickle slow-body behaviour for the real response, or {@code null}
+     */
+    public record Decision(long delayMillis, Integer errorStatus, boolean reset, FaultProfile.Trickle trickle) {
+
+        static final Decision NONE = new Decision(0, null, false, null);
+    }
+
+    private record State(Active active, AtomicLong sequence) {}
+}
@@ -1,14 +1,19 @@
 package com.reliaquest.server.service;
 
 import com.reliaquest.server.config.ServerConfiguration;
+import com.reliaquest.server.model.BatchDeleteMockEmployeeInput;
 import com.reliaquest.server.model.CreateMockEmployeeInput;
 import com.reliaquest.server.model.DeleteMockEmployeeInput;
 import com.reliaquest.server.model.MockEmployee;
+import com.reliaquest.server.model.RosterChange;
+import com.reliaquest.server.model.RosterChangeSet;
+import com.reliaquest.server.persistence.RosterPersistence;
+import com.reliaquest.server.persistence.WalRecord;
+import com.reliaquest.server.store.MockEmployeeStore;
 import java.util.List;
-import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
-import lombok.Getter;
+import java.util.concurrent.CompletableFuture;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -22,37 +27,168 @@ public class MockEmployeeService {
 
     private final Faker faker;
 
-    @Getter
-    private final List<MockEmployee> mockEmployees;
+    private final MockEmployeeStore mockEmployeeStore;
+
+    private final Optional<RosterPersistence> persistence;
+
+    private final RosterChangeFeed changeFeed;
+
+    public List<MockEmployee> getMockEmployees() {
+        return mockEmployeeStore.findAll();
+    }
+
+    /**
+     * A point-in-time roster together with the version it reflects.
+     */
+    public VersionedSnapshot snapshot() {
+        synchronized (mockEmployeeStore) {
+            return new VersionedSnapshot(changeFeed.epoch(), changeFeed.version(), mockEmployeeStore.snapshot());
+        }
+    }
+
+    public RosterChangeSet changesSince(long version) {
+        return changeFeed.since(version);
+    }
 
     public Optional<MockEmployee> findById(@NonNull UUID uuid) {
-        return mockEmployees.stream()
-                .filter(mockEmployee -> Objects.nonNull(mockEmployee.getId())
-                        && mockEmployee.getId().equals(uuid))
-                .findFirst();
+        return mockEmployeeStore.findById(uuid);
+    }
+
+    public List<MockEmployee> findAllById(@NonNull List<UUID> uuids) {
+        return mockEmployeeStore.findAllById(uuids);
     }
 
     public MockEmployee create(@NonNull CreateMockEmployeeInput input) {
-        final var mockEmployee = MockEmployee.from(
-                ServerConfiguration.EMAIL_TEMPLATE.formatted(
-                        faker.twitter().userName().toLowerCase()),
-                input);
-        mockEmployees.add(mockEmployee);
+        final var mockEmployee = newMockEmployee(input);
+        final CompletableFuture<Void> durable;
+        synchronized (mockEmployeeStore) {
+            mockEmployeeStore.add(mockEmployee);
+            changeFeed.record(RosterChange.Type.INSERT, mockEmployee);
+            durable = journal(WalRecord.create(mockEmployee));
+        }
+        awaitDurable(durable, RosterChange.Type.INSERT, List.of(mockEmployee));
         log.debug("Added employee: {}", mockEmployee);
         return mockEmployee;
     }
 
     public boolean delete(@NonNull DeleteMockEmployeeInput input) {
-        final var mockEmployee = mockEmployees.stream()
-                .filter(employee -> Objects.nonNull(employee.getName())
-                        && employee.getName().equalsIgnoreCase(input.getName()))
-                .findFirst();
-        if (mockEmployee.isPresent()) {
-            mockEmployees.remove(mockEmployee.get());
-            log.debug("Removed employee: {}", mockEmployee.get());
-            return true;
+        final Optional<MockEmployee> mockEmployee;
+        final CompletableFuture<Void> durable;
+        synchronized (mockEmployeeStore) {
+            mockEmployee = mockEmployeeStore.removeFirstByName(input.getName());
+            if (mockEmployee.isEmpty()) {
+                return false;
+            }
+            changeFeed.record(RosterChange.Type.DELETE, mockEmployee.get());
+            durable = journal(WalRecord.delete(mockEmployee.get()));
         }
+        awaitDurable(durable, RosterChange.Type.DELETE, List.of(mockEmployee.get()));
+        log.debug("Removed employee: {}", mockEmployee.get());
+        return true;
+    }
 
-        return false;
+    /**
+     * Adds every employee in one critical section, so readers see either none or all of them.
+     */
+    public List<MockEmployee> createAll(@NonNull List<CreateMockEmployeeInput> inputs) {
+        final var mockEmployees = inputs.stream().map(this::newMockEmployee).toList();
+        final CompletableFuture<Void> durable;
+        synchronized (mockEmployeeStore) {
+            mockEmployeeStore.addAll(mockEmployees);
+            durable = recordAll(RosterChange.Type.INSERT, mockEmployees);
+        }
+        awaitDurable(durable, RosterChange.Type.INSERT, mockEmployees);
+        log.debug("Added {} employees", mockEmployees.size());
+        return mockEmployees;
     }
+
+    /**
+     * Removes the employees with the given ids and, per listed name, the first employee with that name, in one pass
+     * over the roster and one critical section.
+     */
+    public List<MockEmployee> deleteAll(@NonNull BatchDeleteMockEmployeeInput input) {
+        final List<MockEmployee> mockEmployees;
+        final CompletableFuture<Void> durable;
+        synchronized (mockEmployeeStore) {
+            mockEmployees = mockEmployeeStore.removeAll(input.getNames(), input.getIds());
+            durable = recordAll(RosterChange.Type.DELETE, mockEmployees);
+        }
+        awaitDurable(durable, RosterChange.Type.DELETE, mockEmployees);
+        log.debug("Removed {} employees", mockEmployees.size());
+        return mockEmployees;
+    }
+
+    private MockEmployee newMockEmployee(CreateMockEmployeeInput input) {
+        return MockEmployee.from(
+                ServerConfiguration.EMAIL_TEMPLATE.formatted(
+                        faker.twitter().userName().toLowerCase()),
+                input);
+    }
+
+    /*
+     * Must be called while holding the store monitor. A large batch can span several log groups and any one of them
+     * can fail, so the result waits for every record rather than just the last.
+     */
+    private CompletableFuture<Void> recordAll(RosterChange.Type type, List<MockEmployee> mockEmployees) {
+        final var durable = new CompletableFuture<?>[mockEmployees.size()];
+        for (int i = 0; i < durable.length; i++) {
+            final var mockEmployee = mockEmployees.get(i);
+            changeFeed.record(type, mockEmployee);
+            durable[i] = journal(
+                    type == RosterChange.Type.INSERT ? WalRecord.create(mockEmployee) : WalRecord.delete(mockEmployee));
+        }
+        return CompletableFuture.allOf(durable);
+    }
+
+    /*
+     * Waits for the log outside the store monitor. If the mutation never became durable, the caller is told it failed,
+     * so it is reverted in the store and the reverse change is published for replicas that already applied it.
+     */
+    private void awaitDurable(
+            CompletableFuture<Void> durable, RosterChange.Type type, List<MockEmployee> mockEmployees) {
+        try {
+            durable.join();
+        } catch (RuntimeException e) {
+            revert(type, mockEmployees);
+            throw e;
+        }
+    }
+
+    /*
+     * The reverse records are logged without waiting: replay applies them idempotently whether or not the original
+     * record reached the log.
+     */
+    private void revert(RosterChange.Type type, List<MockEmployee> mockEmployees) {
+        int reverted = 0;
+        synchronized (mockEmployeeStore) {
+            for (var mockEmployee : mockEmployees) {
+                if (type == RosterChange.Type.INSERT) {
+                    // A concurrent delete may already have removed it, in which case there is nothing to undo.
+                    if (mockEmployeeStore.removeById(mockEmployee.getId()).isEmpty()) {
+                        continue;
+                    }
+                    changeFeed.record(RosterChange.Type.DELETE, mockEmployee);
+                    journal(WalRecord.delete(mockEmployee));
+                } else {
+                    mockEmployeeStore.add(mockEmployee);
+                    changeFeed.record(RosterChange.Type.INSERT, mockEmployee);
+                    journal(WalRecord.create(mockEmployee));
+                }
+                reverted++;
+            }
+        }
+        log.warn("Reverted {} of {} employees after the write-ahead log failed.", reverted, mockEmployees.size());
+    }
+
+    /*
+     * Logged while holding the store monitor so log order matches roster order; callers wait for the group commit
+     * outside of it so concurrent writers can share one.
+     */
+    private CompletableFuture<Void> journal(WalRecord record) {
+        return persistence
+                .map(rosterPersistence -> rosterPersistence.log(record))
+                .orElseGet(() -> CompletableFuture.completedFuture(null));
+    }
+
+    public record VersionedSnapshot(String epoch, long version, MockEmployeeStore.Snapshot employees) {}
 }
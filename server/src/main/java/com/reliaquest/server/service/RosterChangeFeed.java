@@ -0,0 +1,63 @@
+package com.reliaquest.server.service;
+
+import com.reliaquest.server.model.MockEmployee;
+import com.reliaquest.server.model.RosterChange;
+import com.reliaquest.server.model.RosterChangeSet;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.UUID;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Monotonically increasing roster version with a bounded history of the changes that produced it.
+ *
+ * <p>Versions start at zero on every server start; the random epoch lets clients tell a restarted server apart from
+ * the one they synced against.
+ */
+@Component
+public class RosterChangeFeed {
+
+    public static final String VERSION_HEADER = "X-Roster-Version";
+    public static final String EPOCH_HEADER = "X-Roster-Epoch";
+
+    private final String epoch = UUID.randomUUID().toString();
+    private final int retention;
+    private final ArrayDeque<RosterChange> history;
+    private long version;
+
+    public RosterChangeFeed(@Value("${mock.changes.retention:10000}") int retention) {
+        this.retention = retention;
+        this.history = new ArrayDeque<>(Math.min(retention, 1024));
+    }
+
+    public String epoch() {
+        return epoch;
+    }
+
+    public synchronized long version() {
+        return version;
+    }
+
+    public synchronized long record(RosterChange.Type type, MockEmployee employee) {
+        history.addLast(new RosterChange(++version, type, employee));
+        if (history.size() > retention) {
+            history.removeFirst();
+        }
+        return version;
+    }
+
+    /**
+     * Changes with a version greater than {@code since}, or a truncated result if some of them were already dropped.
+     */
+    public synchronized RosterChangeSet since(long since) {
+        final long oldest =
+                history.isEmpty() ? version + 1 : history.peekFirst().version();
+        if (since > version || since < oldest - 1) {
+            return new RosterChangeSet(epoch, version, true, List.of());
+        }
+        // Retained versions are contiguous, so the first wanted change sits at a known offset.
+        final var changes = history.stream().skip(since - oldest + 1).toList();
+        return new RosterChangeSet(epoch, version, false, changes);
+    }
+}
@@ -0,0 +1,347 @@
+package com.reliaquest.server.store;
+
+import com.reliaquest.server.model.MockEmployee;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Column-oriented roster storage for very large rosters.
+ *
+ * <p>Ids are kept as two {@code long} columns, salary and age as primitive {@code int} columns, titles as codes into a
+ * dictionary, and names and e-mails as UTF-8 bytes in {@link PackedStrings} (optionally off heap). A
+ * {@link MockEmployee} is only materialised when a row leaves the store.
+ *
+ * <p>Deletes set a tombstone bit; once a quarter of the rows are tombstones the columns are rebuilt into fresh arrays.
+ * Columns are never rewritten below the append position, which is what makes {@link #snapshot()} cheap: it captures
+ * the current arrays, row count and a copy of the tombstones.
+ */
+public class CompactMockEmployeeStore implements MockEmployeeStore {
+
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int MIN_COMPACTION_ROWS = 1024;
+    private static final int NULL_INT = Integer.MIN_VALUE;
+    private static final long NULL_REFERENCE = -1L;
+
+    private final boolean offHeap;
+
+    private int rows;
+    private int deletedCount;
+    private BitSet deleted = new BitSet();
+
+    private long[] idMostSigBits = new long[INITIAL_CAPACITY];
+    private long[] idLeastSigBits = new long[INITIAL_CAPACITY];
+    private int[] salaries = new int[INITIAL_CAPACITY];
+    private int[] ages = new int[INITIAL_CAPACITY];
+    private int[] titleCodes = new int[INITIAL_CAPACITY];
+    private long[] nameReferences = new long[INITIAL_CAPACITY];
+    private long[] emailReferences = new long[INITIAL_CAPACITY];
+    private PackedStrings names;
+    private PackedStrings emails;
+
+    private final Map<String, Integer> titleDictionary = new HashMap<>();
+    private String[] titles = new String[64];
+
+    public CompactMockEmployeeStore(boolean offHeap) {
+        this.offHeap = offHeap;
+        this.names = new PackedStrings(offHeap);
+        this.emails = new PackedStrings(offHeap);
+    }
+
+    @Override
+    public synchronized int size() {
+        return rows - deletedCount;
+    }
+
+    @Override
+    public synchronized Optional<MockEmployee> findById(UUID id) {
+        final int row = indexOf(id);
+        return row < 0 ? Optional.empty() : Optional.of(materialise(row));
+    }
+
+    @Override
+    public synchronized List<MockEmployee> findAllById(Collection<UUID> ids) {
+        final var wanted = new HashSet<>(ids);
+        final var found = new HashMap<UUID, MockEmployee>(ids.size() * 4 / 3 + 1);
+        final var columns = columns(deleted);
+        for (int row = deleted.nextClearBit(0);
+                row < rows && found.size() < wanted.size();
+                row = deleted.nextClearBit(row + 1)) {
+            final var id = new UUID(idMostSigBits[row], idLeastSigBits[row]);
+            if (wanted.contains(id)) {
+                found.put(id, columns.materialise(row));
+            }
+        }
+        return ids.stream().distinct().map(found::get).filter(Objects::nonNull).toList();
+    }
+
+    @Override
+    public synchronized void add(MockEmployee employee) {
+        ensureCapacity(rows + 1);
+        final int row = rows;
+        idMostSigBits[row] = employee.getId().getMostSignificantBits();
+        idLeastSigBits[row] = employee.getId().getLeastSignificantBits();
+        salaries[row] = employee.getSalary() == null ? NULL_INT : employee.getSalary();
+        ages[row] = employee.getAge() == null ? NULL_INT : employee.getAge();
+        titleCodes[row] = encodeTitle(employee.getTitle());
+        nameReferences[row] = employee.getName() == null ? NULL_REFERENCE : names.append(employee.getName());
+        emailReferences[row] = employee.getEmail() == null ? NULL_REFERENCE : emails.append(employee.getEmail());
+        rows++;
+    }
+
+    @Override
+    public synchronized void addAll(Collection<MockEmployee> employees) {
+        ensureCapacity(rows + employees.size());
+        employees.forEach(this::add);
+    }
+
+    @Override
+    public synchronized Optional<MockEmployee> removeFirstByName(String name) {
+        final var view = names.view();
+        final byte[] asciiQuery = asciiLowerCase(name);
+        for (int row = deleted.nextClearBit(0); row < rows; row = deleted.nextClearBit(row + 1)) {
+            final long reference = nameReferences[row];
+            if (reference == NULL_REFERENCE) {
+                continue;
+            }
+            Boolean matches = asciiQuery == null ? null : view.equalsAsciiIgnoreCase(reference, asciiQuery);
+            if (matches == null) {
+                matches = view.get(reference).equalsIgnoreCase(name);
+            }
+            if (matches) {
+                return Optional.of(delete(row));
+            }
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    public synchronized Optional<MockEmployee> removeById(UUID id) {
+        final int row = indexOf(id);
+        return row < 0 ? Optional.empty() : Optional.of(delete(row));
+    }
+
+    @Override
+    public synchronized List<MockEmployee> removeAll(Collection<String> names, Collection<UUID> ids) {
+        final var wantedIds = new HashSet<>(ids);
+        final var wantedNames = NameCounts.of(names);
+        final var view = this.names.view();
+        final var columns = columns(deleted);
+        final var removed = new ArrayList<MockEmployee>();
+        for (int row = deleted.nextClearBit(0); row < rows; row = deleted.nextClearBit(row + 1)) {
+            final long reference = nameReferences[row];
+            final boolean matches =
+                    (!wantedIds.isEmpty() && wantedIds.contains(new UUID(idMostSigBits[row], idLeastSigBits[row])))
+                            || (reference != NULL_REFERENCE
+                                    && wantedNames.mayMatch(PackedStrings.View.length(reference))
+                                    && wantedNames.take(view.get(reference)));
+            if (matches) {
+                removed.add(columns.materialise(row));
+                tombstone(row);
+            }
+        }
+        compactIfNeeded();
+        return removed;
+    }
+
+    @Override
+    public synchronized Snapshot snapshot() {
+        return columns((BitSet) deleted.clone());
+    }
+
+    private ColumnSnapshot columns(BitSet tombstones) {
+        return new ColumnSnapshot(
+                rows,
+                rows - deletedCount,
+                tombstones,
+                idMostSigBits,
+                idLeastSigBits,
+                salaries,
+                ages,
+                titleCodes,
+                nameReferences,
+                emailReferences,
+                titles,
+                names.view(),
+                emails.view());
+    }
+
+    private int indexOf(UUID id) {
+        final long mostSigBits = id.getMostSignificantBits();
+        final long leastSigBits = id.getLeastSignificantBits();
+        for (int row = 0; row < rows; row++) {
+            if (idMostSigBits[row] == mostSigBits && idLeastSigBits[row] == leastSigBits && !deleted.get(row)) {
+                return row;
+            }
+        }
+        return -1;
+    }
+
+    private MockEmployee delete(int row) {
+        final var employee = materialise(row);
+        tombstone(row);
+        compactIfNeeded();
+        return employee;
+    }
+
+    private void tombstone(int row) {
+        deleted.set(row);
+        deletedCount++;
+    }
+
+    private void compactIfNeeded() {
+        if (deletedCount >= MIN_COMPACTION_ROWS && deletedCount > rows / 4) {
+            compact();
+        }
+    }
+
+    private MockEmployee materialise(int row) {
+        return columns(deleted).materialise(row);
+    }
+
+    /*
+     * Rebuilds every column into new arrays so snapshots taken earlier keep reading the old ones.
+     */
+    private void compact() {
+        final int live = rows - deletedCount;
+        final int capacity = Math.max(INITIAL_CAPACITY, live + live / 2);
+        final var oldNames = names.view();
+        final var oldEmails = emails.view();
+        final var newNames = new PackedStrings(offHeap);
+        final var newEmails = new PackedStrings(offHeap);
+        final var mostSigBits = new long[capacity];
+        final var leastSigBits = new long[capacity];
+        final var newSalaries = new int[capacity];
+        final var newAges = new int[capacity];
+        final var newTitleCodes = new int[capacity];
+        final var newNameReferences = new long[capacity];
+        final var newEmailReferences = new long[capacity];
+
+        int target = 0;
+        for (int row = deleted.nextClearBit(0); row < rows; row = deleted.nextClearBit(row + 1), target++) {
+            mostSigBits[target] = idMostSigBits[row];
+            leastSigBits[target] = idLeastSigBits[row];
+            newSalaries[target] = salaries[row];
+            newAges[target] = ages[row];
+            newTitleCodes[target] = titleCodes[row];
+            newNameReferences[target] = nameReferences[row] == NULL_REFERENCE
+                    ? NULL_REFERENCE
+                    : newNames.append(oldNames.bytes(nameReferences[row]));
+            newEmailReferences[target] = emailReferences[row] == NULL_REFERENCE
+                    ? NULL_REFERENCE
+                    : newEmails.append(oldEmails.bytes(emailReferences[row]));
+        }
+
+        idMostSigBits = mostSigBits;
+        idLeastSigBits = leastSigBits;
+        salaries = newSalaries;
+        ages = newAges;
+        titleCodes = newTitleCodes;
+        nameReferences = newNameReferences;
+        emailReferences = newEmailReferences;
+        names = newNames;
+        emails = newEmails;
+        deleted = new BitSet();
+        deletedCount = 0;
+        rows = live;
+    }
+
+    private void ensureCapacity(int required) {
+        if (required <= idMostSigBits.length) {
+            return;
+        }
+        final int capacity = Math.max(required, idMostSigBits.length + idMostSigBits.length / 2);
+        idMostSigBits = Arrays.copyOf(idMostSigBits, capacity);
+        idLeastSigBits = Arrays.copyOf(idLeastSigBits, capacity);
+        salaries = Arrays.copyOf(salaries, capacity);
+        ages = Arrays.copyOf(ages, capacity);
+        titleCodes = Arrays.copyOf(titleCodes, capacity);
+        nameReferences = Arrays.copyOf(nameReferences, capacity);
+        emailReferences = Arrays.copyOf(emailReferences, capacity);
+    }
+
+    private int encodeTitle(String title) {
+        if (title == null) {
+            return -1;
+        }
+        return titleDictionary.computeIfAbsent(title, newTitle -> {
+            final int code = titleDictionary.size();
+            if (code == titles.length) {
+                titles = Arrays.copyOf(titles, code * 2);
+            }
+            titles[code] = newTitle;
+            return code;
+        });
+    }
+
+    private static byte[] asciiLowerCase(String value) {
+        final var bytes = new byte[value.length()];
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            if (c >= 0x80) {
+                return null;
+            }
+            bytes[i] = (byte) (c >= 'A' && c <= 'Z' ? c + ('a' - 'A') : c);
+        }
+        return bytes;
+    }
+
+    private record ColumnSnapshot(
+            int rows,
+            int size,
+            BitSet deleted,
+            long[] idMostSigBits,
+            long[] idLeastSigBits,
+            int[] salaries,
+            int[] ages,
+            int[] titleCodes,
+            long[] nameReferences,
+            long[] emailReferences,
+            String[] titles,
+            PackedStrings.View names,
+            PackedStrings.View emails)
+            implements Snapshot {
+
+        @Override
+        public Iterator<MockEmployee> iterator() {
+            return new Iterator<>() {
+                private int row = deleted.nextClearBit(0);
+
+                @Override
+                public boolean hasNext() {
+                    return row < rows;
+                }
+
+                @Override
+                public MockEmployee next() {
+                    if (row >= rows) {
+                        throw new NoSuchElementException();
+                    }
+                    final var employee = materialise(row);
+                    row = deleted.nextClearBit(row + 1);
+                    return employee;
+                }
+            };
+        }
+
+        MockEmployee materialise(int row) {
+            return new MockEmployee(
+                    new UUID(idMostSigBits[row], idLeastSigBits[row]),
+                    nameReferences[row] == NULL_REFERENCE ? null : names.get(nameReferences[row]),
+                    salaries[row] == NULL_INT ? null : salaries[row],
+                    ages[row] == NULL_INT ? null : ages[row],
+                    titleCodes[row] < 0 ? null : titles[titleCodes[row]],
+                    emailReferences[row] == NULL_REFERENCE ? null : emails.get(emailReferences[row]));
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.reliaquest.server.store;
+
+import com.reliaquest.server.model.MockEmployee;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Predicate;
+
+/**
+ * Keeps one {@link MockEmployee} object per row in insertion order.
+ */
+public class ListMockEmployeeStore implements MockEmployeeStore {
+
+    private final List<MockEmployee> employees = new ArrayList<>();
+
+    @Override
+    public synchronized int size() {
+        return employees.size();
+    }
+
+    @Override
+    public synchronized Optional<MockEmployee> findById(UUID id) {
+        return employees.stream()
+                .filter(employee ->
+                        Objects.nonNull(employee.getId()) && employee.getId().equals(id))
+                .findFirst();
+    }
+
+    @Override
+    public synchronized List<MockEmployee> findAllById(Collection<UUID> ids) {
+        final var found = new HashMap<UUID, MockEmployee>(ids.size() * 4 / 3 + 1);
+        final var wanted = new HashSet<>(ids);
+        for (var employee : employees) {
+            if (wanted.contains(employee.getId())) {
+                found.put(employee.getId(), employee);
+            }
+        }
+        return ids.stream().distinct().map(found::get).filter(Objects::nonNull).toList();
+    }
+
+    @Override
+    public synchronized void add(MockEmployee employee) {
+        employees.add(employee);
+    }
+
+    @Override
+    public synchronized void addAll(Collection<MockEmployee> employees) {
+        this.employees.addAll(employees);
+    }
+
+    @Override
+    public synchronized Optional<MockEmployee> removeFirstByName(String name) {
+        return remove(employee ->
+                Objects.nonNull(employee.getName()) && employee.getName().equalsIgnoreCase(name));
+    }
+
+    @Override
+    public synchronized Optional<MockEmployee> removeById(UUID id) {
+        return remove(employee -> id.equals(employee.getId()));
+    }
+
+    @Override
+    public synchronized List<MockEmployee> removeAll(Collection<String> names, Collection<UUID> ids) {
+        final var wantedIds = new HashSet<>(ids);
+        final var wantedNames = NameCounts.of(names);
+        final var removed = new ArrayList<MockEmployee>();
+        final var kept = new ArrayList<MockEmployee>(employees.size());
+        for (var employee : employees) {
+            if (wantedIds.contains(employee.getId()) || wantedNames.take(employee.getName())) {
+                removed.add(employee);
+            } else {
+                kept.add(employee);
+            }
+        }
+        if (!removed.isEmpty()) {
+            employees.clear();
+            employees.addAll(kept);
+        }
+        return removed;
+    }
+
+    @Override
+    public synchronized Snapshot snapshot() {
+        final var copy = List.copyOf(employees);
+        return new Snapshot() {
+            @Override
+            public int size() {
+                return copy.size();
+            }
+
+            @Override
+            public Iterator<MockEmployee> iterator() {
+                return copy.iterator();
+            }
+
+            @Override
+            public List<MockEmployee> toList() {
+                return new ArrayList<>(copy);
+            }
+        };
+    }
+
+    private Optional<MockEmployee> remove(Predicate<MockEmployee> matches) {
+        for (var iterator = employees.iterator(); iterator.hasNext(); ) {
+            final var employee = iterator.next();
+            if (matches.test(employee)) {
+                iterator.remove();
+                return Optional.of(employee);
+            }
+        }
+        return Optional.empty();
+    }
+}
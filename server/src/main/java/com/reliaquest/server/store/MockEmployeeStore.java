@@ -0,0 +1,73 @@
+package com.reliaquest.server.store;
+
+import com.reliaquest.server.model.MockEmployee;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Backing storage for the mock roster.
+ *
+ * <p>Implementations are thread-safe and guard their state with their own monitor, so callers that need a mutation to
+ * be atomic with other work (e.g. write-ahead logging) can {@code synchronized (store)} around both.
+ */
+public interface MockEmployeeStore {
+
+    int size();
+
+    Optional<MockEmployee> findById(UUID id);
+
+    /**
+     * Looks up every id in one pass over the roster.
+     *
+     * @return the employees found, in the order of {@code ids}; unknown and repeated ids are skipped
+     */
+    List<MockEmployee> findAllById(Collection<UUID> ids);
+
+    void add(MockEmployee employee);
+
+    void addAll(Collection<MockEmployee> employees);
+
+    /**
+     * Removes the first employee, in insertion order, whose name equals {@code name} ignoring case.
+     */
+    Optional<MockEmployee> removeFirstByName(String name);
+
+    /**
+     * Removes the employee with {@code id}, if present.
+     */
+    Optional<MockEmployee> removeById(UUID id);
+
+    /**
+     * Removes, in one pass, every employee whose id is in {@code ids} and, for each entry of {@code names}, the first
+     * not yet removed employee with that name ignoring case. A name listed twice removes two employees.
+     *
+     * @return the removed employees in roster order
+     */
+    List<MockEmployee> removeAll(Collection<String> names, Collection<UUID> ids);
+
+    /**
+     * A stable, point-in-time view of the roster; later mutations are not visible through it.
+     */
+    Snapshot snapshot();
+
+    /**
+     * Materialises the whole roster. Prefer iterating a {@link #snapshot()} for large rosters.
+     */
+    default List<MockEmployee> findAll() {
+        return snapshot().toList();
+    }
+
+    interface Snapshot extends Iterable<MockEmployee> {
+
+        int size();
+
+        default List<MockEmployee> toList() {
+            final var employees = new ArrayList<MockEmployee>(size());
+            forEach(employees::add);
+            return employees;
+        }
+    }
+}
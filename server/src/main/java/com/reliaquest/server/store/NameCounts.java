@@ -0,0 +1,63 @@
+package com.reliaquest.server.store;
+
+import java.nio.charset.StandardCharsets;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Case-insensitive multiset of the names a batch delete asks for; each matching row consumes one occurrence.
+ */
+class NameCounts {
+
+    private final Map<String, Integer> remaining = new HashMap<>();
+    private final BitSet asciiByteLengths = new BitSet();
+    private boolean allAscii = true;
+
+    static NameCounts of(Collection<String> names) {
+        final var counts = new NameCounts();
+        for (var name : names) {
+            counts.remaining.merge(name.toLowerCase(Locale.ROOT), 1, Integer::sum);
+            final var bytes = name.getBytes(StandardCharsets.UTF_8);
+            if (bytes.length == name.length()) {
+                counts.asciiByteLengths.set(bytes.length);
+            } else {
+                counts.allAscii = false;
+            }
+        }
+        return counts;
+    }
+
+    boolean isEmpty() {
+        return remaining.isEmpty();
+    }
+
+    /**
+     * Whether a stored name of {@code byteLength} UTF-8 bytes could match at all, so that it need not be decoded.
+     */
+    boolean mayMatch(int byteLength) {
+        return !remaining.isEmpty() && (!allAscii || asciiByteLengths.get(byteLength));
+    }
+
+    /**
+     * Consumes one occurrence of {@code name}, if any are left.
+     */
+    boolean take(String name) {
+        if (name == null || remaining.isEmpty()) {
+            return false;
+        }
+        final var key = name.toLowerCase(Locale.ROOT);
+        final Integer count = remaining.get(key);
+        if (count == null) {
+            return false;
+        }
+        if (count == 1) {
+            remaining.remove(key);
+        } else {
+            remaining.put(key, count - 1);
+        }
+        return true;
+    }
+}
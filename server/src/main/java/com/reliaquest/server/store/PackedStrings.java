@@ -0,0 +1,122 @@
+package com.reliaquest.server.store;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Append-only storage of UTF-8 strings in large byte chunks, addressed by a packed {@code long} reference
+ * ({@code offset << 20 | length}).
+ *
+ * <p>Chunks are either heap {@code byte[]}s or direct buffers. A string never spans chunks, and bytes below the
+ * append position are never rewritten, so a reader holding an earlier {@link #view()} keeps seeing consistent data
+ * while appends continue.
+ */
+class PackedStrings {
+
+    static final int MAX_LENGTH = (1 << 20) - 1;
+    private static final int CHUNK_SIZE = 1 << 20;
+
+    private final boolean offHeap;
+    private Object[] chunks = new Object[4];
+    private int chunkCount;
+    private int position;
+
+    PackedStrings(boolean offHeap) {
+        this.offHeap = offHeap;
+        newChunk();
+    }
+
+    long append(String value) {
+        return append(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    long append(byte[] bytes) {
+        if (bytes.length > MAX_LENGTH) {
+            throw new IllegalArgumentException("String longer than " + MAX_LENGTH + " bytes.");
+        }
+        // Keeps the append position inside the current chunk, so even an empty string's offset addresses a real chunk.
+        if (position + bytes.length >= CHUNK_SIZE) {
+            newChunk();
+        }
+        final long offset = (long) (chunkCount - 1) * CHUNK_SIZE + position;
+        final var chunk = chunks[chunkCount - 1];
+        if (chunk instanceof byte[] array) {
+            System.arraycopy(bytes, 0, array, position, bytes.length);
+        } else {
+            ((ByteBuffer) chunk).put(position, bytes);
+        }
+        position += bytes.length;
+        return offset << 20 | bytes.length;
+    }
+
+    View view() {
+        return new View(chunks.clone());
+    }
+
+    private void newChunk() {
+        if (chunkCount == chunks.length) {
+            chunks = Arrays.copyOf(chunks, chunkCount * 2);
+        }
+        chunks[chunkCount++] = offHeap ? ByteBuffer.allocateDirect(CHUNK_SIZE) : new byte[CHUNK_SIZE];
+        position = 0;
+    }
+
+    /**
+     * Read access to every string appended before the view was taken.
+     */
+    record View(Object[] chunks) {
+
+        String get(long reference) {
+            final long offset = reference >>> 20;
+            if (chunks[(int) (offset / CHUNK_SIZE)] instanceof byte[] array) {
+                return new String(array, (int) (offset % CHUNK_SIZE), length(reference), StandardCharsets.UTF_8);
+            }
+            return new String(bytes(reference), StandardCharsets.UTF_8);
+        }
+
+        byte[] bytes(long reference) {
+            final int length = length(reference);
+            final long offset = reference >>> 20;
+            final var chunk = chunks[(int) (offset / CHUNK_SIZE)];
+            final int position = (int) (offset % CHUNK_SIZE);
+            final var bytes = new byte[length];
+            if (chunk instanceof byte[] array) {
+                System.arraycopy(array, position, bytes, 0, length);
+            } else {
+                ((ByteBuffer) chunk).get(position, bytes);
+            }
+            return bytes;
+        }
+
+        /**
+         * ASCII case-insensitive comparison against {@code asciiLowerCase}, which must be lower-cased ASCII.
+         *
+         * @return {@code null} when the stored string contains non-ASCII bytes and must be compared as a String
+         */
+        Boolean equalsAsciiIgnoreCase(long reference, byte[] asciiLowerCase) {
+            final int length = length(reference);
+            final long offset = reference >>> 20;
+            final var chunk = chunks[(int) (offset / CHUNK_SIZE)];
+            final int position = (int) (offset % CHUNK_SIZE);
+            boolean equal = length == asciiLowerCase.length;
+            for (int i = 0; i < length; i++) {
+                final byte b =
+                        chunk instanceof byte[] array ? array[position + i] : ((ByteBuffer) chunk).get(position + i);
+                if (b < 0) {
+                    return null;
+                }
+                equal = equal && toLowerAscii(b) == asciiLowerCase[i];
+            }
+            return equal;
+        }
+
+        static int length(long reference) {
+            return (int) (reference & MAX_LENGTH);
+        }
+
+        private static byte toLowerAscii(byte b) {
+            return b >= 'A' && b <= 'Z' ? (byte) (b + ('a' - 'A')) : b;
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package com.reliaquest.server.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.reliaquest.server.model.FaultProfile;
+import com.reliaquest.server.model.Response;
+import com.reliaquest.server.service.FaultInjector;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Applies the {@link FaultInjector}'s decision to each employee API request: delay, then either a connection reset,
+ * an injected error response, or the real response (optionally trickled).
+ */
+@RequiredArgsConstructor
+public class FaultInjectionFilter extends OncePerRequestFilter {
+
+    private static final byte[] PARTIAL_BODY = "{\"data\":[".getBytes(StandardCharsets.UTF_8);
+
+    private final FaultInjector faultInjector;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        final var decision = faultInjector.decide();
+        if (decision.delayMillis() > 0) {
+            pause(decision.delayMillis());
+        }
+        if (decision.reset()) {
+            reset(response);
+            return;
+        }
+        if (decision.errorStatus() != null) {
+            response.setStatus(decision.errorStatus());
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            objectMapper.writeValue(
+                    response.getOutputStream(), Response.error("Injected fault: HTTP " + decision.errorStatus()));
+            return;
+        }
+        if (decision.trickle() != null) {
+            filterChain.doFilter(request, new TrickleResponse(response, decision.trickle()));
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    /*
+     * Promises a body, sends only its first bytes and then fails the exchange after the response is committed, which
+     * makes the container abort the connection; clients observe a premature end of stream.
+     */
+    private static void reset(HttpServletResponse response) throws IOException {
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setContentLength(1 << 20);
+        response.getOutputStream().write(PARTIAL_BODY);
+        response.flushBuffer();
+        throw new InjectedConnectionResetException();
+    }
+
+    private static void pause(long millis) throws IOException {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while injecting latency.", e);
+        }
+    }
+
+    static class InjectedConnectionResetException extends IOException {
+        InjectedConnectionResetException() {
+            super("Injected connection reset.");
+        }
+    }
+
+    private static class TrickleResponse extends HttpServletResponseWrapper {
+
+        private final FaultProfile.Trickle trickle;
+        private TrickleOutputStream outputStream;
+        private PrintWriter writer;
+
+        TrickleResponse(HttpServletResponse response, FaultProfile.Trickle trickle) {
+            super(response);
+            this.trickle = trickle;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (outputStream == null) {
+                outputStream = new TrickleOutputStream(super.getOutputStream(), trickle);
+            }
+            return outputStream;
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            if (writer == null) {
+                writer = new PrintWriter(new OutputStreamWriter(getOutputStream(), getCharacterEncoding()));
+            }
+            return writer;
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            if (writer != null) {
+                writer.flush();
+            }
+            super.flushBuffer();
+        }
+    }
+
+    /**
+     * Writes at most {@code chunkBytes} at a time, flushing and pausing after each chunk.
+     */
+    private static class TrickleOutputStream extends ServletOutputStream {
+
+        private final ServletOutputStream delegate;
+        private final int chunkBytes;
+        private final long delayMillis;
+        private int pending;
+
+        TrickleOutputStream(ServletOutputStream delegate, FaultProfile.Trickle trickle) {
+            this.delegate = delegate;
+            this.chunkBytes = Math.max(1, trickle.chunkBytes());
+            this.delayMillis = trickle.delayMillis();
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            delegate.write(b);
+            if (++pending >= chunkBytes) {
+                endChunk();
+            }
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            while (length > 0) {
+                final int count = Math.min(length, chunkBytes - pending);
+                delegate.write(bytes, offset, count);
+                offset += count;
+                length -= count;
+                pending += count;
+                if (pending >= chunkBytes) {
+                    endChunk();
+                }
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            delegate.flush();
+        }
+
+        @Override
+        public boolean isReady() {
+            return delegate.isReady();
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            delegate.setWriteListener(writeListener);
+        }
+
+        private void endChunk() throws IOException {
+            delegate.flush();
+            pending = 0;
+            pause(delayMillis);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.reliaquest.server.web;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.reliaquest.server.model.MockEmployee;
+import com.reliaquest.server.model.Response;
+import java.io.IOException;
+import java.io.OutputStream;
+import org.springframework.stereotype.Component;
+
+/**
+ * Serialises a roster incrementally, one employee at a time, so memory use does not grow with the roster and the
+ * first bytes leave before the last employee is encoded.
+ */
+@Component
+public class MockEmployeeStreamWriter {
+
+    private static final int FLUSH_EVERY = 1024;
+
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter employeeWriter;
+
+    public MockEmployeeStreamWriter(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        this.employeeWriter =
+                objectMapper.writerFor(MockEmployee.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    /**
+     * One JSON object per line ({@code application/x-ndjson}).
+     */
+    public void writeNdjson(Iterable<MockEmployee> employees, OutputStream out) throws IOException {
+        try (var generator = generator(out)) {
+            generator.setRootValueSeparator(null);
+            int written = 0;
+            for (var employee : employees) {
+                employeeWriter.writeValue(generator, employee);
+                generator.writeRaw('\n');
+                flushPeriodically(generator, ++written);
+            }
+        }
+    }
+
+    /**
+     * The same {@link Response} envelope as the buffered endpoint, with {@code data} written as a streamed array.
+     */
+    public void writeJsonArray(Iterable<MockEmployee> employees, OutputStream out) throws IOException {
+        try (var generator = generator(out)) {
+            generator.writeStartObject();
+            generator.writeArrayFieldStart("data");
+            int written = 0;
+            for (var employee : employees) {
+                employeeWriter.writeValue(generator, employee);
+                flushPeriodically(generator, ++written);
+            }
+            generator.writeEndArray();
+            generator.writeStringField("status", Response.Status.HANDLED.getValue());
+            generator.writeEndObject();
+        }
+    }
+
+    private JsonGenerator generator(OutputStream out) throws IOException {
+        // The servlet container owns the response stream; closing the generator only flushes it.
+        return objectMapper.getFactory().createGenerator(out).disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    }
+
+    /*
+     * Flushing after the first employee gets bytes on the wire immediately; after that Jackson's and the servlet
+     * container's own buffers bound memory and periodic flushes keep chunks flowing.
+     */
+    private static void flushPeriodically(JsonGenerator generator, int written) throws IOException {
+        if (written == 1 || written % FLUSH_EVERY == 0) {
+            generator.flush();
+        }
+    }
+}
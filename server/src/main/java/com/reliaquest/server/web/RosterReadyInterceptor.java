@@ -0,0 +1,32 @@
+package com.reliaquest.server.web;
+
+import com.reliaquest.server.seed.RosterSeeding;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.time.Duration;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Holds employee API requests until a deferred roster load has finished, answering {@code 503} with
+ * {@code Retry-After} if it takes longer than {@code maxWait}.
+ */
+@RequiredArgsConstructor
+public class RosterReadyInterceptor implements HandlerInterceptor {
+
+    private final RosterSeeding rosterSeeding;
+    private final Duration maxWait;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+            throws InterruptedException {
+        if (rosterSeeding.isReady() || rosterSeeding.await(maxWait)) {
+            return true;
+        }
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+        return false;
+    }
+}
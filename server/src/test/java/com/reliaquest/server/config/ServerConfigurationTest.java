@@ -0,0 +1,38 @@
+package com.reliaquest.server.config;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.apache.catalina.connector.Connector;
+import org.apache.coyote.http2.Http2Protocol;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+
+public class ServerConfigurationTest {
+
+    @Test
+    void testRaisesHttp2StreamLimits() {
+        final var http2 = new Http2Protocol();
+        final var connector = new Connector();
+        connector.addUpgradeProtocol(http2);
+
+        customize(connector, 150);
+
+        assertEquals(150, http2.getMaxConcurrentStreams());
+        assertEquals(150, http2.getMaxConcurrentStreamExecution());
+    }
+
+    @Test
+    void testLeavesConnectorsWithoutHttp2Alone() {
+        final var connector = new Connector();
+
+        customize(connector, 150);
+
+        assertEquals(0, connector.findUpgradeProtocols().length);
+    }
+
+    private static void customize(Connector connector, int maxConcurrentStreams) {
+        final var factory = new TomcatServletWebServerFactory();
+        ServerConfiguration.http2StreamLimits(maxConcurrentStreams).customize(factory);
+        factory.getTomcatConnectorCustomizers().forEach(customizer -> customizer.customize(connector));
+    }
+}
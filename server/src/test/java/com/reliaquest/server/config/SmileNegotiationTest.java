@@ -0,0 +1,65 @@
+package com.reliaquest.server.config;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+@SpringBootTest(properties = "mock.rate-limit.enabled=false")
+@AutoConfigureMockMvc
+public class SmileNegotiationTest {
+
+    private static final MediaType SMILE = new MediaType("application", "x-jackson-smile");
+
+    private final ObjectMapper smileMapper = new ObjectMapper(new SmileFactory());
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void testAnswersSmileWhenAccepted() throws Exception {
+        final var body = mockMvc.perform(get("/api/v1/employee").accept(SMILE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(SMILE))
+                .andReturn()
+                .getResponse()
+                .getContentAsByteArray();
+
+        final JsonNode response = smileMapper.readTree(body);
+        assertEquals("Successfully processed request.", response.get("status").asText());
+        assertFalse(response.get("data").isEmpty());
+        assertTrue(response.get("data").get(0).has("employee_name"));
+    }
+
+    @Test
+    void testAnswersJsonByDefault() throws Exception {
+        mockMvc.perform(get("/api/v1/employee"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.data[0].employee_name").isString());
+        mockMvc.perform(get("/api/v1/employee").accept(MediaType.ALL))
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+    }
+
+    @Test
+    void testReadsSmileRequestBody() throws Exception {
+        final var input = Map.of("name", "Jane Doe", "salary", 50_000, "age", 30, "title", "Engineer");
+
+        mockMvc.perform(post("/api/v1/employee")
+                        .contentType(SMILE)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .content(smileMapper.writeValueAsBytes(input)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.employee_name").value("Jane Doe"));
+    }
+}
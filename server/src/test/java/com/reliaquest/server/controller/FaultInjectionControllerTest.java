@@ -0,0 +1,56 @@
+package com.reliaquest.server.controller;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.reliaquest.server.config.FaultInjectionProperties;
+import com.reliaquest.server.model.FaultProfile;
+import com.reliaquest.server.model.Response;
+import com.reliaquest.server.service.FaultInjector;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+
+public class FaultInjectionControllerTest {
+
+    private final FaultInjector faultInjector = new FaultInjector(new FaultInjectionProperties(42, null, Map.of()));
+    private final FaultInjectionController controller = new FaultInjectionController(faultInjector);
+
+    @Test
+    void testActivatesValidProfile() {
+        var response = controller.activateProfile(profile(Map.of(503, 10.0, 429, 5.0), 85), 7L);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("custom", faultInjector.active().name());
+        assertEquals(7, faultInjector.active().seed());
+    }
+
+    @Test
+    void testRejectsInvalidProfileAndKeepsTheActiveOne() {
+        for (FaultProfile invalid : new FaultProfile[] {
+            profile(Map.of(503, 101.0), 0),
+            profile(Map.of(503, -1.0), 0),
+            profile(Map.of(503, Double.NaN), 0),
+            profile(Map.of(503, 60.0, 500, 30.0), 20),
+            profile(Map.of(200, 10.0), 0),
+            profile(Map.of(600, 10.0), 0),
+            profile(Map.of(), 150)
+        }) {
+            var response = controller.activateProfile(invalid, null);
+
+            assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode(), invalid.toString());
+            assertEquals(Response.Status.ERROR, response.getBody().status());
+            assertEquals("none", faultInjector.active().name());
+        }
+    }
+
+    @Test
+    void testRejectsInvalidPreset() {
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> new FaultInjectionProperties(42, null, Map.of("broken", profile(Map.of(302, 5.0), 0))));
+    }
+
+    private static FaultProfile profile(Map<Integer, Double> errorPercentages, double resetPercentage) {
+        return new FaultProfile(null, errorPercentages, resetPercentage, null);
+    }
+}
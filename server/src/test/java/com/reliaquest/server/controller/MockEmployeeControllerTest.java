@@ -0,0 +1,204 @@
+package com.reliaquest.server.controller;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.reliaquest.server.model.MockEmployee;
+import com.reliaquest.server.model.Response;
+import com.reliaquest.server.model.RosterChange;
+import com.reliaquest.server.persistence.RosterPersistence;
+import com.reliaquest.server.service.MockEmployeeService;
+import com.reliaquest.server.service.RosterChangeFeed;
+import com.reliaquest.server.store.ListMockEmployeeStore;
+import com.reliaquest.server.web.MockEmployeeStreamWriter;
+import com.reliaquest.server.web.RandomRequestLimitInterceptor;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import net.datafaker.Faker;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+public class MockEmployeeControllerTest {
+
+    private final MockEmployeeService mockEmployeeService = mock(MockEmployeeService.class);
+    private final MockEmployeeController controller =
+            new MockEmployeeController(mockEmployeeService, mock(MockEmployeeStreamWriter.class));
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ListMockEmployeeStore store = new ListMockEmployeeStore();
+    private final RosterChangeFeed changeFeed = new RosterChangeFeed(100_000);
+    private final RosterPersistence persistence = mock(RosterPersistence.class);
+    private final MockEmployeeService service =
+            new MockEmployeeService(new Faker(), store, Optional.of(persistence), changeFeed);
+
+    private final MockEmployee jane = employee("Jane Doe");
+    private final MockEmployee john = employee("John Doe");
+    private final MockEmployee alex = employee("Alex Roe");
+
+    MockEmployeeControllerTest() {
+        store.addAll(List.of(jane, john, alex));
+        when(persistence.log(any())).thenReturn(CompletableFuture.completedFuture(null));
+    }
+
+    @Test
+    void testRejectsUnknownStreamFormat() {
+        for (String format : new String[] {"xml", "", "ndjsonx"}) {
+            var response = controller.streamEmployees(format);
+
+            assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode(), format);
+            assertEquals(Response.Status.ERROR, ((Response<?>) response.getBody()).status(), format);
+        }
+        verifyNoInteractions(mockEmployeeService);
+    }
+
+    @Test
+    void testRejectsEmptyBatches() throws Exception {
+        final var mockMvc = mockMvc();
+
+        mockMvc.perform(json(post("/api/v1/employee/batch/lookup"), Map.of("ids", List.of())))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(json(post("/api/v1/employee/batch"), Map.of("employees", List.of())))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(json(delete("/api/v1/employee/batch"), Map.of("names", List.of(), "ids", List.of())))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(json(delete("/api/v1/employee/batch"), Map.of())).andExpect(status().isBadRequest());
+        assertEquals(3, store.size());
+        verifyNoInteractions(persistence);
+    }
+
+    @Test
+    void testRejectsBatchesOverTenThousandEntries() throws Exception {
+        final var mockMvc = mockMvc();
+        final var ids = Collections.nCopies(10_000, jane.getId());
+
+        mockMvc.perform(json(post("/api/v1/employee/batch/lookup"), Map.of("ids", ids)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.length()").value(1));
+        mockMvc.perform(json(post("/api/v1/employee/batch/lookup"), Map.of("ids", plusOne(ids, jane.getId()))))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(json(
+                        post("/api/v1/employee/batch"),
+                        Map.of("employees", Collections.nCopies(10_001, createInput("Jane Doe")))))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(json(
+                        delete("/api/v1/employee/batch"), Map.of("names", Collections.nCopies(10_001, "Jane Doe"))))
+                .andExpect(status().isBadRequest());
+        assertEquals(3, store.size());
+        verifyNoInteractions(persistence);
+    }
+
+    @Test
+    void testDeletesByIdsAndNamesInOneRequest() throws Exception {
+        mockMvc()
+                .perform(json(
+                        delete("/api/v1/employee/batch"),
+                        Map.of("ids", List.of(alex.getId()), "names", List.of("jane doe"))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath(
+                        "$.data[*].id",
+                        Matchers.contains(jane.getId().toString(), alex.getId().toString())));
+
+        assertEquals(List.of(john), store.findAll());
+    }
+
+    @Test
+    void testSkipsDuplicateIds() throws Exception {
+        final var mockMvc = mockMvc();
+
+        mockMvc.perform(json(
+                        post("/api/v1/employee/batch/lookup"),
+                        Map.of("ids", List.of(john.getId(), jane.getId(), john.getId(), UUID.randomUUID()))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath(
+                        "$.data[*].id",
+                        Matchers.contains(john.getId().toString(), jane.getId().toString())));
+        mockMvc.perform(json(delete("/api/v1/employee/batch"), Map.of("ids", List.of(john.getId(), john.getId()))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.length()").value(1));
+
+        assertEquals(List.of(jane, alex), store.findAll());
+        assertEquals(1, changeFeed.since(0).changes().size());
+    }
+
+    @Test
+    void testBatchCostsOneRequestAgainstRateLimit() throws Exception {
+        final var mockMvc = mockMvc(new RandomRequestLimitInterceptor());
+        final var employees = Collections.nCopies(20, createInput("Jane Doe"));
+
+        // The limit is 5 to 9 requests; were each employee a request, the first batch would already exceed it.
+        int accepted = 0;
+        while (mockMvc.perform(json(post("/api/v1/employee/batch"), Map.of("employees", employees)))
+                        .andReturn()
+                        .getResponse()
+                        .getStatus()
+                == HttpStatus.OK.value()) {
+            accepted++;
+            assertTrue(accepted < 10, "Rate limit never applied");
+        }
+
+        assertTrue(accepted >= 5, "Accepted " + accepted + " batches");
+        assertEquals(3 + accepted * employees.size(), store.size());
+    }
+
+    @Test
+    void testBatchWritesOneChangeAndLogRecordPerEmployee() throws Exception {
+        final var mockMvc = mockMvc();
+
+        mockMvc.perform(json(
+                        post("/api/v1/employee/batch"),
+                        Map.of("employees", List.of(createInput("Sam Poe"), createInput("Kim Loe")))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.length()").value(2));
+        mockMvc.perform(json(delete("/api/v1/employee/batch"), Map.of("names", List.of("Jane Doe", "Sam Poe"))))
+                .andExpect(status().isOk());
+
+        assertEquals(
+                List.of(
+                        RosterChange.Type.INSERT,
+                        RosterChange.Type.INSERT,
+                        RosterChange.Type.DELETE,
+                        RosterChange.Type.DELETE),
+                changeFeed.since(0).changes().stream().map(RosterChange::type).toList());
+        verify(persistence, times(4)).log(any());
+    }
+
+    private MockMvc mockMvc(HandlerInterceptor... interceptors) {
+        return MockMvcBuilders.standaloneSetup(
+                        new MockEmployeeController(service, mock(MockEmployeeStreamWriter.class)))
+                .setControllerAdvice(new MockEmployeeControllerAdvice())
+                .addInterceptors(interceptors)
+                .build();
+    }
+
+    private MockHttpServletRequestBuilder json(MockHttpServletRequestBuilder request, Object body) throws Exception {
+        return request.contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsBytes(body));
+    }
+
+    private static List<UUID> plusOne(List<UUID> ids, UUID id) {
+        final var more = new ArrayList<>(ids);
+        more.add(id);
+        return more;
+    }
+
+    private static Map<String, Object> createInput(String name) {
+        return Map.of("name", name, "salary", 50_000, "age", 30, "title", "Engineer");
+    }
+
+    private static MockEmployee employee(String name) {
+        return new MockEmployee(UUID.randomUUID(), name, 50_000, 30, "Engineer", "employee@company.com");
+    }
+}
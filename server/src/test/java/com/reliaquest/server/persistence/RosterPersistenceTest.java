@@ -0,0 +1,194 @@
+package com.reliaquest.server.persistence;
+
+import static com.reliaquest.server.persistence.WriteAheadLogTest.employee;
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.reliaquest.server.model.MockEmployee;
+import com.reliaquest.server.store.ListMockEmployeeStore;
+import com.reliaquest.server.store.MockEmployeeStore;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class RosterPersistenceTest {
+
+    @TempDir
+    Path directory;
+
+    private final MockEmployee first = employee(1);
+    private final MockEmployee second = employee(2);
+    private final MockEmployee third = employee(3);
+
+    @Test
+    void testRecoversSnapshotAndLog() throws Exception {
+        writeRoster();
+
+        assertEquals(List.of(second, third), recover());
+    }
+
+    @Test
+    void testRecoversAcrossRotation() throws Exception {
+        final var persistence = persistence();
+        assertTrue(persistence.recover().isEmpty());
+        final var store = store(first, second);
+        persistence.open(store);
+        mutate(store, persistence, WalRecord.create(third));
+        persistence.snapshot();
+        mutate(store, persistence, WalRecord.delete(first));
+        persistence.close();
+
+        assertEquals(List.of("snapshot-00000000000000000002.bin", "wal-00000000000000000002.log"), files());
+        assertEquals(List.of(second, third), recover());
+    }
+
+    @Test
+    void testStopsAtTornTail() throws Exception {
+        writeRoster();
+        // The first bytes of a frame whose write was cut short.
+        append(new byte[] {0, 0, 0, 40, 1, 2});
+
+        assertEquals(List.of(second, third), recover());
+    }
+
+    @Test
+    void testStopsAtCorruptFrame() throws Exception {
+        writeRoster();
+        final var frames = new ByteArrayOutputStream();
+        final var out = new DataOutputStream(frames);
+        // A length longer than the rest of the segment, then one that is negative.
+        out.writeInt(1 << 30);
+        out.writeInt(0);
+        append(frames.toByteArray());
+        assertEquals(List.of(second, third), recover());
+
+        writeRoster();
+        frames.reset();
+        out.writeInt(-1);
+        out.writeInt(0);
+        out.write(new byte[32]);
+        append(frames.toByteArray());
+        assertEquals(List.of(second, third), recover());
+    }
+
+    @Test
+    void testStopsAtUnknownRecordType() throws Exception {
+        writeRoster();
+        final var payload = new byte[17];
+        payload[0] = 7;
+        final var crc = new CRC32();
+        crc.update(payload);
+        final var frame = new ByteArrayOutputStream();
+        final var out = new DataOutputStream(frame);
+        out.writeInt(payload.length);
+        out.writeInt((int) crc.getValue());
+        out.write(payload);
+        append(frame.toByteArray());
+
+        assertEquals(List.of(second, third), recover());
+    }
+
+    @Test
+    void testKeepsRecoveringAfterTornTailIsFollowedByNewSegment() throws Exception {
+        writeRoster();
+        append(new byte[] {0, 0, 0, 40, 1, 2});
+        final var fourth = employee(4);
+        restartAndLog(WalRecord.create(fourth));
+
+        assertEquals(List.of(second, third, fourth), recover());
+    }
+
+    @Test
+    void testFailsOnCorruptRecordBeforeLastSegment() throws Exception {
+        writeRoster();
+        restartAndLog(WalRecord.create(employee(4)));
+        final var segment = WriteAheadLog.segmentPath(directory, 1);
+        final var bytes = Files.readAllBytes(segment);
+        // Flip a payload byte of the first record so that its checksum fails.
+        bytes[WalRecord.FRAME_HEADER + 1] ^= 1;
+        Files.write(segment, bytes);
+
+        final var persistence = persistence();
+        assertThrows(UncheckedIOException.class, persistence::recover);
+        persistence.close();
+    }
+
+    /*
+     * Starts from a snapshot of the first two employees, then logs a create of the third and a delete of the first.
+     */
+    private void writeRoster() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            for (var file : files.toList()) {
+                Files.delete(file);
+            }
+        }
+        final var persistence = persistence();
+        assertTrue(persistence.recover().isEmpty());
+        final var store = store(first, second);
+        persistence.open(store);
+        mutate(store, persistence, WalRecord.create(third));
+        mutate(store, persistence, WalRecord.delete(first));
+        persistence.close();
+    }
+
+    private void restartAndLog(WalRecord record) throws IOException {
+        final var persistence = persistence();
+        final var store = new ListMockEmployeeStore();
+        store.addAll(persistence.recover().orElseThrow());
+        persistence.open(store);
+        mutate(store, persistence, record);
+        persistence.close();
+    }
+
+    private List<MockEmployee> recover() throws IOException {
+        final var persistence = persistence();
+        try {
+            return persistence.recover().orElseThrow();
+        } finally {
+            persistence.close();
+        }
+    }
+
+    private void append(byte[] bytes) throws IOException {
+        Files.write(WriteAheadLog.segmentPath(directory, 1), bytes, StandardOpenOption.APPEND);
+    }
+
+    private List<String> files() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(file -> file.getFileName().toString()).sorted().toList();
+        }
+    }
+
+    private RosterPersistence persistence() {
+        return new RosterPersistence(directory, FsyncPolicy.ALWAYS, Duration.ofMillis(10), Duration.ofHours(1), 64);
+    }
+
+    private static MockEmployeeStore store(MockEmployee... employees) {
+        final var store = new ListMockEmployeeStore();
+        store.addAll(List.of(employees));
+        return store;
+    }
+
+    private static void mutate(MockEmployeeStore store, RosterPersistence persistence, WalRecord record) {
+        final CompletableFuture<Void> logged;
+        synchronized (store) {
+            logged = persistence.log(record);
+            if (record.type() == WalRecord.Type.CREATE) {
+                store.add(record.employee());
+            } else {
+                store.removeById(record.employee().getId());
+            }
+        }
+        logged.join();
+    }
+}
@@ -0,0 +1,74 @@
+package com.reliaquest.server.persistence;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.reliaquest.server.model.MockEmployee;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class WriteAheadLogTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testEveryAppendCompletesWhenClosedConcurrently() throws Exception {
+        for (int round = 0; round < 20; round++) {
+            final var wal = new WriteAheadLog(directory, round + 1, FsyncPolicy.NEVER, Duration.ofMillis(10), 64);
+            final var appends = new ArrayList<CompletableFuture<Void>>();
+            final var started = new CountDownLatch(4);
+            final var appenders = new ArrayList<Thread>();
+            for (int i = 0; i < 4; i++) {
+                final var appender = new Thread(() -> {
+                    started.countDown();
+                    for (int j = 0; j < 500; j++) {
+                        final var append = wal.append(WalRecord.create(employee(j)));
+                        synchronized (appends) {
+                            appends.add(append);
+                        }
+                    }
+                });
+                appender.start();
+                appenders.add(appender);
+            }
+            started.await();
+            wal.close();
+            for (var appender : appenders) {
+                appender.join();
+            }
+
+            // Written or failed, but none left waiting on a writer that has stopped.
+            CompletableFuture.allOf(appends.toArray(CompletableFuture[]::new))
+                    .exceptionally(failure -> null)
+                    .get(5, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    void testAppendAfterCloseFails() throws Exception {
+        final var wal = new WriteAheadLog(directory, 1, FsyncPolicy.ALWAYS, Duration.ofMillis(10), 64);
+        wal.append(WalRecord.create(employee(1))).get(5, TimeUnit.SECONDS);
+        wal.close();
+        wal.close();
+
+        assertTrue(wal.append(WalRecord.create(employee(2))).isCompletedExceptionally());
+        assertTrue(wal.rotate().isCompletedExceptionally());
+    }
+
+    static MockEmployee employee(int number) {
+        return new MockEmployee(
+                UUID.randomUUID(),
+                "Employee " + number,
+                50_000 + number,
+                30,
+                "Engineer",
+                "e" + number + "@company.com");
+    }
+}
@@ -0,0 +1,38 @@
+package com.reliaquest.server.seed;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.reliaquest.server.model.MockEmployee;
+import com.reliaquest.server.store.ListMockEmployeeStore;
+import java.util.List;
+import java.util.Locale;
+import org.junit.jupiter.api.Test;
+
+public class BulkMockEmployeeSeederTest {
+
+    @Test
+    void testSameSeedGivesIdenticalRows() {
+        List<MockEmployee> first = new BulkMockEmployeeSeeder(42, 256, Locale.US).generate(5000);
+        List<MockEmployee> second;
+        Locale defaultLocale = Locale.getDefault();
+        // Lower-casing under a Turkish default locale turns "I" into a dotless "ı".
+        Locale.setDefault(Locale.forLanguageTag("tr-TR"));
+        try {
+            second = new BulkMockEmployeeSeeder(42, 256, Locale.US).generate(5000);
+        } finally {
+            Locale.setDefault(defaultLocale);
+        }
+
+        assertEquals(first, second);
+        ListMockEmployeeStore store = new ListMockEmployeeStore();
+        new BulkMockEmployeeSeeder(42, 256, Locale.US).generateInto(5000, store);
+        assertEquals(first, store.findAll());
+    }
+
+    @Test
+    void testDifferentSeedsGiveDifferentRows() {
+        assertNotEquals(
+                new BulkMockEmployeeSeeder(42, 256, Locale.US).generate(100),
+                new BulkMockEmployeeSeeder(43, 256, Locale.US).generate(100));
+    }
+}
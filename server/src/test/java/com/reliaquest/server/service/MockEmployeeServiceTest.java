@@ -0,0 +1,102 @@
+package com.reliaquest.server.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import com.reliaquest.server.model.CreateMockEmployeeInput;
+import com.reliaquest.server.model.DeleteMockEmployeeInput;
+import com.reliaquest.server.model.MockEmployee;
+import com.reliaquest.server.model.RosterChange;
+import com.reliaquest.server.persistence.RosterPersistence;
+import com.reliaquest.server.persistence.WalRecord;
+import com.reliaquest.server.store.ListMockEmployeeStore;
+import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import net.datafaker.Faker;
+import org.junit.jupiter.api.Test;
+
+public class MockEmployeeServiceTest {
+
+    private final ListMockEmployeeStore store = new ListMockEmployeeStore();
+    private final RosterPersistence persistence = mock(RosterPersistence.class);
+    private final RosterChangeFeed changeFeed = new RosterChangeFeed(100);
+    private final MockEmployeeService service =
+            new MockEmployeeService(new Faker(), store, Optional.of(persistence), changeFeed);
+
+    @Test
+    void testRevertsCreateWhenLogFails() {
+        when(persistence.log(any())).thenReturn(failed());
+
+        assertThrows(CompletionException.class, () -> service.create(input("Jane Doe")));
+
+        assertEquals(0, store.size());
+        assertEquals(List.of(RosterChange.Type.INSERT, RosterChange.Type.DELETE), changeTypes());
+        verify(persistence).log(argThat(record -> record.type() == WalRecord.Type.DELETE));
+    }
+
+    @Test
+    void testRevertsDeleteWhenLogFails() {
+        final var employee = MockEmployee.from("jane@company.com", input("Jane Doe"));
+        store.add(employee);
+        when(persistence.log(any())).thenReturn(failed());
+
+        assertThrows(CompletionException.class, () -> service.delete(deleteInput("Jane Doe")));
+
+        assertEquals(List.of(employee), store.findAll());
+        assertEquals(List.of(RosterChange.Type.DELETE, RosterChange.Type.INSERT), changeTypes());
+    }
+
+    @Test
+    void testRevertsWholeBatchWhenAnyRecordFails() {
+        when(persistence.log(any()))
+                .thenReturn(CompletableFuture.completedFuture(null))
+                .thenReturn(failed());
+
+        assertThrows(CompletionException.class, () -> service.createAll(List.of(input("Jane Doe"), input("John Doe"))));
+
+        assertEquals(0, store.size());
+        assertEquals(
+                List.of(
+                        RosterChange.Type.INSERT,
+                        RosterChange.Type.INSERT,
+                        RosterChange.Type.DELETE,
+                        RosterChange.Type.DELETE),
+                changeTypes());
+    }
+
+    @Test
+    void testKeepsWriteWhenLogSucceeds() {
+        when(persistence.log(any())).thenReturn(CompletableFuture.completedFuture(null));
+
+        final var employee = service.create(input("Jane Doe"));
+
+        assertEquals(List.of(employee), store.findAll());
+        assertEquals(List.of(RosterChange.Type.INSERT), changeTypes());
+    }
+
+    private List<RosterChange.Type> changeTypes() {
+        return changeFeed.since(0).changes().stream().map(RosterChange::type).toList();
+    }
+
+    private static CompletableFuture<Void> failed() {
+        return CompletableFuture.failedFuture(new IOException("No space left on device"));
+    }
+
+    private static CreateMockEmployeeInput input(String name) {
+        final var input = new CreateMockEmployeeInput();
+        input.setName(name);
+        input.setSalary(50_000);
+        input.setAge(30);
+        input.setTitle("Engineer");
+        return input;
+    }
+
+    private static DeleteMockEmployeeInput deleteInput(String name) {
+        final var input = new DeleteMockEmployeeInput();
+        input.setName(name);
+        return input;
+    }
+}
@@ -0,0 +1,9 @@
+package com.reliaquest.server.store;
+
+public class ListMockEmployeeStoreTest extends MockEmployeeStoreContractTest {
+
+    @Override
+    MockEmployeeStore newStore() {
+        return new ListMockEmployeeStore();
+    }
+}
@@ -0,0 +1,165 @@
+package com.reliaquest.server.store;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.reliaquest.server.model.MockEmployee;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Behaviour every {@link MockEmployeeStore} must share; one subclass per implementation supplies the store.
+ */
+abstract class MockEmployeeStoreContractTest {
+
+    private static final int CHUNK_SIZE = 1 << 20;
+
+    private final MockEmployeeStore store = newStore();
+
+    abstract MockEmployeeStore newStore();
+
+    @Test
+    void testFindsAddedEmployees() {
+        final var first = employee("Jane Doe");
+        final var second = employee("John Doe");
+        store.add(first);
+        store.addAll(List.of(second));
+
+        assertEquals(2, store.size());
+        assertEquals(Optional.of(second), store.findById(second.getId()));
+        assertEquals(Optional.empty(), store.findById(UUID.randomUUID()));
+        assertEquals(List.of(first, second), store.findAll());
+    }
+
+    @Test
+    void testFindsAllByIdInRequestOrder() {
+        final var first = employee("Jane Doe");
+        final var second = employee("John Doe");
+        store.addAll(List.of(first, second));
+
+        assertEquals(
+                List.of(second, first),
+                store.findAllById(List.of(second.getId(), UUID.randomUUID(), first.getId(), second.getId())));
+        assertEquals(List.of(), store.findAllById(List.of()));
+    }
+
+    @Test
+    void testRemovesFirstByNameIgnoringCase() {
+        final var first = employee("Jane Doe");
+        final var second = employee("jane doe");
+        final var accented = employee("Zoë Smith");
+        store.addAll(List.of(first, second, accented));
+
+        assertEquals(Optional.of(first), store.removeFirstByName("JANE DOE"));
+        assertEquals(Optional.of(second), store.removeFirstByName("Jane Doe"));
+        assertEquals(Optional.empty(), store.removeFirstByName("Jane Doe"));
+        assertEquals(Optional.of(accented), store.removeFirstByName("ZOË SMITH"));
+        assertEquals(0, store.size());
+    }
+
+    @Test
+    void testRemovesById() {
+        final var first = employee("Jane Doe");
+        final var second = employee("John Doe");
+        store.addAll(List.of(first, second));
+
+        assertEquals(Optional.of(first), store.removeById(first.getId()));
+        assertEquals(Optional.empty(), store.removeById(first.getId()));
+        assertEquals(List.of(second), store.findAll());
+    }
+
+    @Test
+    void testRemovesAllByNamesAndIdsInRosterOrder() {
+        final var first = employee("Jane Doe");
+        final var second = employee("John Doe");
+        final var third = employee("jane doe");
+        final var fourth = employee("Jane Doe");
+        final var kept = employee("Alex Roe");
+        store.addAll(List.of(first, second, third, fourth, kept));
+
+        // A name listed twice removes two employees; an id also matched by name is only removed once.
+        final var removed = store.removeAll(
+                List.of("JANE DOE", "Jane Doe", "Nobody"), List.of(second.getId(), first.getId(), UUID.randomUUID()));
+
+        assertEquals(List.of(first, second, third, fourth), removed);
+        assertEquals(List.of(kept), store.findAll());
+        assertEquals(List.of(), store.removeAll(List.of("Jane Doe"), List.of()));
+    }
+
+    @Test
+    void testKeepsEmptyAndMissingFields() {
+        final var empty = new MockEmployee(UUID.randomUUID(), "", 1, 16, "", "");
+        final var missing = new MockEmployee(UUID.randomUUID(), null, null, null, null, null);
+        store.addAll(List.of(empty, missing));
+
+        assertEquals(List.of(empty, missing), store.findAll());
+        assertEquals(Optional.of(empty), store.removeFirstByName(""));
+        assertEquals(List.of(missing), store.removeAll(List.of(), List.of(missing.getId())));
+    }
+
+    @Test
+    void testStoresStringsAcrossChunkBoundaries() {
+        final var employees = new ArrayList<MockEmployee>();
+        // Two halves fill a chunk exactly; the empty name after them must address a chunk that already exists.
+        employees.add(employee("a".repeat(CHUNK_SIZE / 2)));
+        employees.add(employee("b".repeat(CHUNK_SIZE / 2)));
+        employees.add(employee(""));
+        store.addAll(employees);
+        assertEquals(employees, store.findAll());
+
+        employees.add(employee("c".repeat(CHUNK_SIZE - 1)));
+        employees.add(employee(""));
+        employees.add(employee("d"));
+        store.addAll(employees.subList(3, 6));
+
+        assertEquals(employees, store.findAll());
+        for (var employee : employees) {
+            assertEquals(Optional.of(employee), store.findById(employee.getId()));
+        }
+        assertEquals(Optional.of(employees.get(2)), store.removeFirstByName(""));
+        assertEquals(Optional.of(employees.get(5)), store.removeFirstByName("D"));
+    }
+
+    @Test
+    void testSnapshotIgnoresLaterWrites() {
+        final var first = employee("Jane Doe");
+        store.add(first);
+        final var snapshot = store.snapshot();
+        store.add(employee("John Doe"));
+        store.removeById(first.getId());
+
+        assertEquals(1, snapshot.size());
+        assertEquals(List.of(first), snapshot.toList());
+    }
+
+    @Test
+    void testKeepsRosterAcrossManyDeletes() {
+        final var employees = new ArrayList<MockEmployee>();
+        for (int i = 0; i < 4000; i++) {
+            employees.add(employee("Employee " + i));
+        }
+        store.addAll(employees);
+        final var before = store.snapshot();
+
+        final var removedIds =
+                employees.subList(0, 3000).stream().map(MockEmployee::getId).toList();
+        assertEquals(3000, store.removeAll(List.of(), removedIds).size());
+        store.removeFirstByName("Employee 3000");
+        store.add(employee("Employee 4000"));
+
+        assertEquals(4000, before.size());
+        assertEquals(employees, before.toList());
+        assertEquals(1000, store.size());
+        assertEquals(
+                Optional.of(employees.get(3999)),
+                store.findById(employees.get(3999).getId()));
+        assertEquals(Optional.empty(), store.findById(employees.get(0).getId()));
+    }
+
+    static MockEmployee employee(String name) {
+        final var id = UUID.randomUUID();
+        return new MockEmployee(id, name, 50_000, 30, "Engineer", id + "@company.com");
+    }
+}
@@ -0,0 +1,9 @@
+package com.reliaquest.server.store;
+
+public class OffHeapCompactMockEmployeeStoreTest extends MockEmployeeStoreContractTest {
+
+    @Override
+    MockEmployeeStore newStore() {
+        return new CompactMockEmployeeStore(true);
+    }
+}